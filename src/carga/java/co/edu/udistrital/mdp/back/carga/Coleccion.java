@@ -0,0 +1,134 @@
+package co.edu.udistrital.mdp.back.carga;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Colección de Postman (formato v2.1) leída para repetirla: sus peticiones en orden,
+ * con las carpetas aplanadas, y sus variables de colección.
+ *
+ * Los scripts no se ejecutan. De los scripts de pruebas solo se toman las variables
+ * que guardan de la respuesta, que es lo que encadena las peticiones:
+ * pm.globals.set("usuario_id_1", data.id) con var data = pm.response.json().
+ */
+record Coleccion(String nombre, List<Peticion> peticiones, Map<String, String> variables) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // pm.globals.set("x", valor), también con environment, collectionVariables y variables
+    private static final Pattern CAPTURA = Pattern.compile(
+            "pm\\.(?:globals|environment|collectionVariables|variables)\\.set\\(\\s*[\"'](\\w+)[\"']\\s*,\\s*([\\w.()\\[\\]]+)\\s*\\)");
+
+    // var data = pm.response.json()
+    private static final Pattern RESPUESTA = Pattern.compile("(\\w+)\\s*=\\s*pm\\.response\\.json\\(\\)");
+
+    private static final String RESPUESTA_DIRECTA = "pm.response.json()";
+
+    // El cliente HTTP no deja fijarlos: los calcula él
+    private static final Set<String> RESTRINGIDOS = Set.of("connection", "content-length", "expect", "host",
+            "upgrade");
+
+    /**
+     * Lee una colección exportada de Postman.
+     *
+     * @throws IOException si el archivo no se puede leer o no es JSON.
+     */
+    static Coleccion leer(Path archivo) throws IOException {
+        JsonNode raiz = MAPPER.readTree(archivo.toFile());
+        String nombre = raiz.path("info").path("name").asText(archivo.getFileName().toString());
+        List<Peticion> peticiones = new ArrayList<>();
+        agregar(nombre, raiz.path("item"), peticiones);
+
+        Map<String, String> variables = new LinkedHashMap<>();
+        for (JsonNode variable : raiz.path("variable"))
+            if (!variable.path("disabled").asBoolean())
+                variables.put(variable.path("key").asText(), variable.path("value").asText());
+        return new Coleccion(nombre, List.copyOf(peticiones), variables);
+    }
+
+    private static void agregar(String coleccion, JsonNode elementos, List<Peticion> peticiones) {
+        for (JsonNode elemento : elementos) {
+            if (elemento.has("item")) {
+                agregar(coleccion, elemento.get("item"), peticiones);
+                continue;
+            }
+            JsonNode request = elemento.path("request");
+            JsonNode url = request.path("url");
+            // Algunas URL exportadas traen saltos de línea y espacios al final
+            String cruda = (url.isTextual() ? url.asText() : url.path("raw").asText()).strip();
+
+            JsonNode body = request.path("body");
+            String cuerpo = null;
+            if (body.has("mode")) {
+                if (!body.path("mode").asText().equals("raw")) {
+                    System.err.println("Se omite " + coleccion + "/" + elemento.path("name").asText()
+                            + ": solo se envían cuerpos raw");
+                    continue;
+                }
+                cuerpo = body.path("raw").asText();
+            }
+
+            Map<String, String> encabezados = new LinkedHashMap<>();
+            for (JsonNode encabezado : request.path("header"))
+                if (!encabezado.path("disabled").asBoolean()
+                        && !RESTRINGIDOS.contains(encabezado.path("key").asText().toLowerCase()))
+                    encabezados.put(encabezado.path("key").asText(), encabezado.path("value").asText());
+            if (cuerpo != null && !cuerpo.isBlank() && encabezados.keySet().stream()
+                    .noneMatch(nombre -> nombre.equalsIgnoreCase("Content-Type")))
+                encabezados.put("Content-Type",
+                        body.path("options").path("raw").path("language").asText("text").equals("json")
+                                ? "application/json"
+                                : "text/plain");
+
+            peticiones.add(new Peticion(coleccion, elemento.path("name").asText(),
+                    request.path("method").asText("GET"), cruda, cuerpo, encabezados, capturas(elemento)));
+        }
+    }
+
+    private static Map<String, String> capturas(JsonNode elemento) {
+        Map<String, String> capturas = new LinkedHashMap<>();
+        for (JsonNode evento : elemento.path("event")) {
+            if (!evento.path("listen").asText().equals("test"))
+                continue;
+            StringBuilder script = new StringBuilder();
+            for (JsonNode linea : evento.path("script").path("exec"))
+                script.append(linea.asText()).append('\n');
+
+            List<String> respuestas = new ArrayList<>();
+            Matcher respuesta = RESPUESTA.matcher(script);
+            while (respuesta.find())
+                respuestas.add(respuesta.group(1));
+
+            Matcher captura = CAPTURA.matcher(script);
+            while (captura.find()) {
+                String ruta = ruta(captura.group(2), respuestas);
+                if (ruta != null)
+                    capturas.put(captura.group(1), ruta);
+            }
+        }
+        return capturas;
+    }
+
+    /**
+     * Ruta dentro de la respuesta del valor que se guarda, o null si el valor no sale
+     * de la respuesta.
+     */
+    private static String ruta(String valor, List<String> respuestas) {
+        if (valor.startsWith(RESPUESTA_DIRECTA))
+            return valor.substring(RESPUESTA_DIRECTA.length());
+        for (String respuesta : respuestas)
+            if (valor.equals(respuesta) || valor.startsWith(respuesta + ".") || valor.startsWith(respuesta + "["))
+                return valor.substring(respuesta.length());
+        return null;
+    }
+}
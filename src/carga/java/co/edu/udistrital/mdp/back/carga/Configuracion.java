@@ -0,0 +1,104 @@
+package co.edu.udistrital.mdp.back.carga;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opciones del generador de carga, leídas de argumentos --opcion=valor:
+ *
+ * <pre>
+ * --directorio=collections     Carpeta con los *.postman_collection.json
+ * --colecciones=Usuario,Marca  Colecciones que se cargan (por defecto todas)
+ * --entorno=collections/EntornoColecciones.postman_environment.json
+ * --var=categoria_id_1=3       Variable adicional; se puede repetir
+ * --mezcla=Usuario/Obtener un usuario=5,Marca/*=1
+ * --modelo=cerrado|abierto     Cerrado: usuarios virtuales que esperan cada respuesta.
+ *                              Abierto: llegadas a tasa fija sin esperar respuestas
+ * --concurrencia=16            Usuarios virtuales, o peticiones en vuelo en el abierto
+ * --tasa=200                   Peticiones por segundo del modelo abierto
+ * --calentamiento=5s --duracion=30s --plazo=10s
+ * --salida=target/carga        Carpeta de los histogramas (.hgrm)
+ * </pre>
+ */
+record Configuracion(Path directorio, Set<String> colecciones, Path entorno, Map<String, String> variables,
+        String mezcla, boolean abierto, int concurrencia, double tasa, Duration calentamiento, Duration duracion,
+        Duration plazo, Path salida) {
+
+    /**
+     * @throws IllegalArgumentException si alguna opción no existe o su valor no es
+     *                                  válido.
+     */
+    static Configuracion de(String[] args) {
+        Map<String, String> opciones = new LinkedHashMap<>();
+        Map<String, String> variables = new LinkedHashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (!arg.startsWith("--") || igual < 0)
+                throw new IllegalArgumentException("Se esperaba --opcion=valor y llegó " + arg);
+            String opcion = arg.substring(2, igual);
+            String valor = arg.substring(igual + 1);
+            if (opcion.equals("var")) {
+                int separador = valor.indexOf('=');
+                if (separador < 1)
+                    throw new IllegalArgumentException("Se esperaba --var=nombre=valor y llegó " + arg);
+                variables.put(valor.substring(0, separador), valor.substring(separador + 1));
+            } else {
+                opciones.put(opcion, valor);
+            }
+        }
+
+        Set<String> colecciones = new LinkedHashSet<>();
+        for (String nombre : opciones.getOrDefault("colecciones", "").split(","))
+            if (!nombre.isBlank())
+                colecciones.add(nombre.strip());
+
+        String modelo = opciones.getOrDefault("modelo", "cerrado");
+        if (!modelo.equals("cerrado") && !modelo.equals("abierto"))
+            throw new IllegalArgumentException("El modelo debe ser cerrado o abierto, no " + modelo);
+
+        Configuracion configuracion = new Configuracion(
+                Path.of(opciones.getOrDefault("directorio", "collections")),
+                colecciones,
+                Path.of(opciones.getOrDefault("entorno", "collections/EntornoColecciones.postman_environment.json")),
+                variables,
+                opciones.get("mezcla"),
+                modelo.equals("abierto"),
+                Integer.parseInt(opciones.getOrDefault("concurrencia", "16")),
+                Double.parseDouble(opciones.getOrDefault("tasa", "100")),
+                duracion(opciones.getOrDefault("calentamiento", "5s")),
+                duracion(opciones.getOrDefault("duracion", "30s")),
+                duracion(opciones.getOrDefault("plazo", "10s")),
+                Path.of(opciones.getOrDefault("salida", "target/carga")));
+
+        Set<String> conocidas = Set.of("directorio", "colecciones", "entorno", "mezcla", "modelo", "concurrencia",
+                "tasa", "calentamiento", "duracion", "plazo", "salida");
+        for (String opcion : opciones.keySet())
+            if (!conocidas.contains(opcion))
+                throw new IllegalArgumentException("Opción desconocida --" + opcion);
+        if (configuracion.concurrencia < 1)
+            throw new IllegalArgumentException("La concurrencia debe ser al menos 1");
+        if (!(configuracion.tasa > 0))
+            throw new IllegalArgumentException("La tasa debe ser positiva");
+        if (configuracion.duracion.isZero() || configuracion.duracion.isNegative()
+                || configuracion.calentamiento.isNegative())
+            throw new IllegalArgumentException("La duración debe ser positiva y el calentamiento no negativo");
+        return configuracion;
+    }
+
+    /**
+     * Duración como 500ms, 30s, 2m o en ISO-8601 (PT30S).
+     */
+    private static Duration duracion(String texto) {
+        if (texto.endsWith("ms"))
+            return Duration.ofMillis(Long.parseLong(texto.substring(0, texto.length() - 2)));
+        if (texto.endsWith("s") && !texto.startsWith("P"))
+            return Duration.ofSeconds(Long.parseLong(texto.substring(0, texto.length() - 1)));
+        if (texto.endsWith("m") && !texto.startsWith("P"))
+            return Duration.ofMinutes(Long.parseLong(texto.substring(0, texto.length() - 1)));
+        return Duration.parse(texto);
+    }
+}
@@ -0,0 +1,65 @@
+package co.edu.udistrital.mdp.back.carga;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Resultados de una petición durante la medición: el histograma HDR de la latencia
+ * en microsegundos (con tres cifras significativas), las respuestas por código de
+ * estado, las que fallaron sin respuesta y las que no se enviaron porque faltaba
+ * alguna variable. Se registra desde varios hilos.
+ */
+final class Estadisticas {
+
+    private final Histogram latencias = new ConcurrentHistogram(3);
+    private final Map<Integer, LongAdder> codigos = new ConcurrentSkipListMap<>();
+    private final LongAdder fallidas = new LongAdder();
+    private final LongAdder sinResolver = new LongAdder();
+
+    void registrar(long nanos, int codigo) {
+        latencias.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        codigos.computeIfAbsent(codigo, c -> new LongAdder()).increment();
+    }
+
+    /**
+     * Petición sin respuesta: error de conexión o plazo vencido.
+     */
+    void fallida() {
+        fallidas.increment();
+    }
+
+    void sinResolver() {
+        sinResolver.increment();
+    }
+
+    Histogram latencias() {
+        return latencias;
+    }
+
+    long respondidas() {
+        return latencias.getTotalCount();
+    }
+
+    long fallidas() {
+        return fallidas.sum();
+    }
+
+    long sinResolverCuenta() {
+        return sinResolver.sum();
+    }
+
+    /**
+     * Respuestas por código, como "200:950 404:50".
+     */
+    String codigos() {
+        StringJoiner texto = new StringJoiner(" ");
+        codigos.forEach((codigo, cuenta) -> texto.add(codigo + ":" + cuenta.sum()));
+        return texto.toString();
+    }
+}
@@ -0,0 +1,412 @@
+package co.edu.udistrital.mdp.back.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Prueba de carga que repite las peticiones de las colecciones de Postman contra la
+ * aplicación ya iniciada en la máquina local (mvn spring-boot:run). Solo envía
+ * peticiones a direcciones locales, así que corre sin red.
+ *
+ * Primero se preparan las variables: se envían una vez, en el orden de las
+ * colecciones, las peticiones cuyo script guarda algo de la respuesta (por ejemplo
+ * "Crear un usuario" guarda usuario_id_1). Después se envía la mezcla durante el
+ * calentamiento, que no se mide, y la duración.
+ *
+ * Las peticiones de la mezcla que usan variables que nada define, o cuya URL no es
+ * válida, se quitan de la mezcla con un aviso: fallarían sin llegar al servidor.
+ *
+ * En el modelo cerrado cada usuario virtual envía una petición, espera la respuesta y
+ * envía la siguiente; guarda sus propias capturas. Si una petición se queda sin
+ * respuesta (la conexión falla o aún no tiene la variable que captura otra) el
+ * usuario espera antes de la siguiente, el doble tras cada fallo seguido, en lugar de
+ * girar sobre el error. En el abierto las peticiones se
+ * programan a la tasa dada sin esperar las respuestas, y la latencia se mide desde la
+ * hora programada: si el servidor o el límite de peticiones en vuelo las retrasan, la
+ * espera cuenta en la latencia en lugar de bajar la tasa (omisión coordinada).
+ *
+ * Ejecutar con: mvn -Pcarga test -Dcarga.args="--modelo=abierto --tasa=500"
+ * Las opciones están en {@link Configuracion}.
+ */
+public final class GeneradorCarga {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private static final long ESPERA_MINIMA = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long ESPERA_MAXIMA = TimeUnit.SECONDS.toNanos(1);
+
+    private final Configuracion configuracion;
+    private final HttpClient cliente;
+    private final Map<Peticion, Estadisticas> estadisticas = new LinkedHashMap<>();
+    private final Map<String, Boolean> hostsLocales = new ConcurrentHashMap<>();
+
+    private GeneradorCarga(Configuracion configuracion) {
+        this.configuracion = configuracion;
+        this.cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(configuracion.plazo()).build();
+    }
+
+    public static void main(String[] args) throws IOException {
+        GeneradorCarga generador;
+        try {
+            generador = new GeneradorCarga(Configuracion.de(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        try (HttpClient cliente = generador.cliente) {
+            generador.ejecutar();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void ejecutar() throws IOException {
+        List<Coleccion> colecciones = leerColecciones();
+        Variables variables = new Variables();
+        variables.ponerTodas(leerEntorno());
+        for (Coleccion coleccion : colecciones)
+            variables.ponerTodas(coleccion.variables());
+        variables.ponerTodas(configuracion.variables());
+
+        List<Peticion> disponibles = new ArrayList<>();
+        for (Coleccion coleccion : colecciones)
+            disponibles.addAll(coleccion.peticiones());
+        Mezcla mezcla = Mezcla.de(disponibles, configuracion.mezcla());
+
+        preparar(colecciones, variables);
+        mezcla = revisarMezcla(mezcla, variables);
+        for (Peticion peticion : mezcla.peticiones())
+            estadisticas.put(peticion, new Estadisticas());
+
+        System.out.printf("Modelo %s: %s durante %d s después de %d s de calentamiento%n",
+                configuracion.abierto() ? "abierto" : "cerrado",
+                configuracion.abierto()
+                        ? configuracion.tasa() + " pet/s con hasta " + configuracion.concurrencia() + " en vuelo"
+                        : configuracion.concurrencia() + " usuarios virtuales",
+                configuracion.duracion().toSeconds(), configuracion.calentamiento().toSeconds());
+
+        long inicio = System.nanoTime();
+        long inicioMedicion = inicio + configuracion.calentamiento().toNanos();
+        long fin = inicioMedicion + configuracion.duracion().toNanos();
+        if (configuracion.abierto())
+            abierto(mezcla, variables, inicio, inicioMedicion, fin);
+        else
+            cerrado(mezcla, variables, inicioMedicion, fin);
+
+        reportar(mezcla);
+    }
+
+    private List<Coleccion> leerColecciones() throws IOException {
+        List<Path> archivos = new ArrayList<>();
+        try (DirectoryStream<Path> directorio = Files.newDirectoryStream(configuracion.directorio(),
+                "*.postman_collection.json")) {
+            directorio.forEach(archivos::add);
+        }
+        archivos.sort(null);
+
+        List<Coleccion> colecciones = new ArrayList<>();
+        Set<String> faltantes = new LinkedHashSet<>(configuracion.colecciones());
+        for (Path archivo : archivos) {
+            Coleccion coleccion = Coleccion.leer(archivo);
+            if (configuracion.colecciones().isEmpty() || configuracion.colecciones().contains(coleccion.nombre())) {
+                colecciones.add(coleccion);
+                faltantes.remove(coleccion.nombre());
+            }
+        }
+        if (!faltantes.isEmpty())
+            throw new IllegalArgumentException("No hay colecciones con los nombres " + faltantes + " en "
+                    + configuracion.directorio());
+        return colecciones;
+    }
+
+    private Map<String, String> leerEntorno() throws IOException {
+        Map<String, String> valores = new LinkedHashMap<>();
+        if (!Files.exists(configuracion.entorno()))
+            return valores;
+        for (JsonNode valor : MAPPER.readTree(configuracion.entorno().toFile()).path("values"))
+            if (valor.path("enabled").asBoolean(true))
+                valores.put(valor.path("key").asText(), valor.path("value").asText());
+        return valores;
+    }
+
+    /**
+     * Envía una vez, en orden, las peticiones que guardan variables de la respuesta.
+     */
+    private void preparar(List<Coleccion> colecciones, Variables variables) {
+        for (Coleccion coleccion : colecciones)
+            for (Peticion peticion : coleccion.peticiones()) {
+                if (peticion.capturas().isEmpty())
+                    continue;
+                try {
+                    HttpResponse<byte[]> respuesta = cliente.send(solicitud(peticion, variables),
+                            HttpResponse.BodyHandlers.ofByteArray());
+                    variables.capturar(peticion.capturas(), respuesta.body());
+                    System.out.printf("Preparación: %s -> %d%n", peticion.clave(), respuesta.statusCode());
+                } catch (NoSuchElementException e) {
+                    System.err.printf("Preparación: %s no se envía, falta {{%s}}%n", peticion.clave(),
+                            e.getMessage());
+                } catch (IOException e) {
+                    throw new IllegalStateException("No se pudo preparar " + peticion.clave()
+                            + ": ¿está iniciada la aplicación? " + e, e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+    }
+
+    /**
+     * Quita de la mezcla, con un aviso, las peticiones que usan variables que nada
+     * define y las de URL inválida, y se niega a enviar a direcciones que no son
+     * locales. Se revisa después de la preparación: las variables que capturan las
+     * peticiones de la mezcla se definen durante la prueba.
+     *
+     * @throws IllegalArgumentException si no queda ninguna petición o alguna no es
+     *                                  local.
+     */
+    private Mezcla revisarMezcla(Mezcla mezcla, Variables variables) {
+        Set<String> capturables = new LinkedHashSet<>();
+        for (Peticion peticion : mezcla.peticiones())
+            capturables.addAll(peticion.capturas().keySet());
+
+        Set<Peticion> excluidas = new LinkedHashSet<>();
+        for (Peticion peticion : mezcla.peticiones()) {
+            Set<String> faltantes = Variables.usadas(peticion.url() + " " + peticion.cuerpo() + " "
+                    + peticion.encabezados().values());
+            faltantes.removeIf(usada -> variables.contiene(usada) || capturables.contains(usada));
+            if (!faltantes.isEmpty()) {
+                System.err.printf("Sin valor para %s: %s no se envía (defínalas con --var=nombre=valor)%n",
+                        faltantes, peticion.clave());
+                excluidas.add(peticion);
+                continue;
+            }
+            URI uri;
+            try {
+                uri = URI.create(variables.resolver(peticion.url()));
+            } catch (NoSuchElementException e) {
+                // La captura otra petición de la mezcla
+                continue;
+            } catch (IllegalArgumentException e) {
+                System.err.printf("URL inválida en %s, no se envía: %s%n", peticion.clave(), e.getMessage());
+                excluidas.add(peticion);
+                continue;
+            }
+            if (!local(uri))
+                throw new IllegalArgumentException(peticion.clave() + " va a " + uri.getHost()
+                        + ", que no es una dirección local");
+        }
+        return mezcla.sin(excluidas);
+    }
+
+    private void cerrado(Mezcla mezcla, Variables variables, long inicioMedicion, long fin) {
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < configuracion.concurrencia(); i++) {
+                Variables propias = variables.copia();
+                hilos.execute(() -> {
+                    long espera = ESPERA_MINIMA;
+                    long inicio;
+                    while ((inicio = System.nanoTime()) < fin && !Thread.currentThread().isInterrupted()) {
+                        if (enviar(mezcla.siguiente(), propias, inicio, inicio >= inicioMedicion)) {
+                            espera = ESPERA_MINIMA;
+                        } else {
+                            LockSupport.parkNanos(Math.min(espera, fin - System.nanoTime()));
+                            espera = Math.min(2 * espera, ESPERA_MAXIMA);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private void abierto(Mezcla mezcla, Variables variables, long inicio, long inicioMedicion, long fin) {
+        double intervalo = 1e9 / configuracion.tasa();
+        Semaphore enVuelo = new Semaphore(configuracion.concurrencia());
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0;; i++) {
+                long programada = inicio + (long) (i * intervalo);
+                if (programada >= fin)
+                    break;
+                long espera;
+                while ((espera = programada - System.nanoTime()) > 0)
+                    LockSupport.parkNanos(espera);
+                // Sin cupo se espera aquí, pero la latencia se sigue midiendo desde la hora programada
+                enVuelo.acquireUninterruptibly();
+                Peticion peticion = mezcla.siguiente();
+                hilos.execute(() -> {
+                    try {
+                        enviar(peticion, variables, programada, programada >= inicioMedicion);
+                    } finally {
+                        enVuelo.release();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Envía la petición y registra la latencia desde el inicio dado si se está
+     * midiendo.
+     *
+     * @return Si hubo respuesta, con cualquier código.
+     */
+    private boolean enviar(Peticion peticion, Variables variables, long inicio, boolean medir) {
+        Estadisticas resultado = estadisticas.get(peticion);
+        HttpRequest solicitud;
+        try {
+            solicitud = solicitud(peticion, variables);
+        } catch (NoSuchElementException e) {
+            if (medir)
+                resultado.sinResolver();
+            return false;
+        } catch (IllegalArgumentException e) {
+            if (medir)
+                resultado.fallida();
+            return false;
+        }
+        try {
+            HttpResponse<byte[]> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.ofByteArray());
+            long latencia = System.nanoTime() - inicio;
+            if (!peticion.capturas().isEmpty())
+                variables.capturar(peticion.capturas(), respuesta.body());
+            if (medir)
+                resultado.registrar(latencia, respuesta.statusCode());
+            return true;
+        } catch (IOException e) {
+            if (medir)
+                resultado.fallida();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * @throws NoSuchElementException   si falta alguna variable.
+     * @throws IllegalArgumentException si la URL no es válida o no es local.
+     */
+    private HttpRequest solicitud(Peticion peticion, Variables variables) {
+        URI uri = URI.create(variables.resolver(peticion.url()));
+        if (!local(uri))
+            throw new IllegalArgumentException(uri.getHost() + " no es una dirección local");
+        HttpRequest.Builder solicitud = HttpRequest.newBuilder(uri).timeout(configuracion.plazo());
+        peticion.encabezados().forEach((nombre, valor) -> solicitud.header(nombre, variables.resolver(valor)));
+        String cuerpo = variables.resolver(peticion.cuerpo());
+        return solicitud.method(peticion.metodo(), cuerpo == null || cuerpo.isEmpty()
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(cuerpo)).build();
+    }
+
+    private boolean local(URI uri) {
+        if (uri.getHost() == null)
+            return false;
+        return hostsLocales.computeIfAbsent(uri.getHost(), host -> {
+            try {
+                // localhost se resuelve con el archivo de hosts, sin consultar DNS
+                return InetAddress.getByName(host).isLoopbackAddress();
+            } catch (UnknownHostException e) {
+                return false;
+            }
+        });
+    }
+
+    private void reportar(Mezcla mezcla) throws IOException {
+        double segundos = configuracion.duracion().toNanos() / 1e9;
+        int ancho = "Total".length();
+        for (Peticion peticion : mezcla.peticiones())
+            ancho = Math.max(ancho, peticion.clave().length());
+
+        PrintStream salida = System.out;
+        String formato = "%-" + ancho + "s %6s %9s %9s %9s %9s %9s %9s %9s  %s%n";
+        salida.printf(formato, "Petición", "Mezcla", "Resp.", "Resp./s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms",
+                "máx ms", "Códigos");
+
+        Files.createDirectories(configuracion.salida());
+        Histogram total = new Histogram(3);
+        long fallidas = 0;
+        long sinResolver = 0;
+        for (Peticion peticion : mezcla.peticiones()) {
+            Estadisticas resultado = estadisticas.get(peticion);
+            Histogram latencias = resultado.latencias();
+            total.add(latencias);
+            fallidas += resultado.fallidas();
+            sinResolver += resultado.sinResolverCuenta();
+
+            String codigos = resultado.codigos();
+            if (resultado.fallidas() > 0)
+                codigos += " fallidas:" + resultado.fallidas();
+            if (resultado.sinResolverCuenta() > 0)
+                codigos += " sin resolver:" + resultado.sinResolverCuenta();
+            fila(salida, formato, peticion.clave(), String.format("%.1f%%", 100 * mezcla.proporcion(peticion)),
+                    latencias, segundos, codigos.strip());
+            if (latencias.getTotalCount() > 0)
+                guardar(peticion.clave(), latencias);
+        }
+        fila(salida, formato, "Total", "", total, segundos,
+                "fallidas:" + fallidas + " sin resolver:" + sinResolver);
+        if (total.getTotalCount() > 0)
+            guardar("total", total);
+        salida.println("Histogramas en " + configuracion.salida().toAbsolutePath());
+    }
+
+    private static void fila(PrintStream salida, String formato, String nombre, String mezcla, Histogram latencias,
+            double segundos, String codigos) {
+        Object[] columnas = new Object[10];
+        columnas[0] = nombre;
+        columnas[1] = mezcla;
+        columnas[2] = latencias.getTotalCount();
+        columnas[3] = String.format("%.1f", latencias.getTotalCount() / segundos);
+        for (int i = 0; i < PERCENTILES.length; i++)
+            columnas[4 + i] = milisegundos(latencias, latencias.getValueAtPercentile(PERCENTILES[i]));
+        columnas[8] = milisegundos(latencias, latencias.getMaxValue());
+        columnas[9] = codigos;
+        salida.printf(formato, columnas);
+    }
+
+    private static String milisegundos(Histogram latencias, long micros) {
+        return latencias.getTotalCount() == 0 ? "-" : String.format("%.2f", micros / 1000.0);
+    }
+
+    /**
+     * Escribe la distribución de percentiles en milisegundos, en el formato .hgrm
+     * que grafica HdrHistogram.
+     */
+    private void guardar(String nombre, Histogram latencias) throws IOException {
+        Path archivo = configuracion.salida().resolve(nombre.replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm");
+        try (PrintStream salida = new PrintStream(Files.newOutputStream(archivo), false, "UTF-8")) {
+            latencias.outputPercentileDistribution(salida, 1000.0);
+        }
+    }
+}
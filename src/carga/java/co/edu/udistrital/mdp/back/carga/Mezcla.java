@@ -0,0 +1,100 @@
+package co.edu.udistrital.mdp.back.carga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mezcla de peticiones de la prueba: cada petición se elige al azar con
+ * probabilidad proporcional a su peso.
+ *
+ * Se especifica como "clave=peso,clave=peso". La clave es Coleccion/Nombre de la
+ * petición, o Coleccion/* para todas las de la colección; sin "=peso" el peso es 1.
+ * Sin especificación se usan todos los GET con peso 1.
+ */
+final class Mezcla {
+
+    private final List<Peticion> peticiones;
+    private final double[] acumulado;
+
+    private Mezcla(Map<Peticion, Double> pesos) {
+        peticiones = new ArrayList<>(pesos.keySet());
+        acumulado = new double[peticiones.size()];
+        double total = 0;
+        for (int i = 0; i < acumulado.length; i++) {
+            total += pesos.get(peticiones.get(i));
+            acumulado[i] = total;
+        }
+    }
+
+    /**
+     * @param disponibles   Peticiones de las colecciones cargadas.
+     * @param especificacion Mezcla como se describe en la clase, o null.
+     * @throws IllegalArgumentException si una clave no corresponde a ninguna petición,
+     *                                  un peso no es positivo o la mezcla queda vacía.
+     */
+    static Mezcla de(List<Peticion> disponibles, String especificacion) {
+        Map<Peticion, Double> pesos = new LinkedHashMap<>();
+        if (especificacion == null || especificacion.isBlank()) {
+            for (Peticion peticion : disponibles)
+                if (peticion.metodo().equals("GET"))
+                    pesos.put(peticion, 1.0);
+        } else {
+            for (String entrada : especificacion.split(",")) {
+                int igual = entrada.lastIndexOf('=');
+                String clave = (igual < 0 ? entrada : entrada.substring(0, igual)).strip();
+                double peso = igual < 0 ? 1 : Double.parseDouble(entrada.substring(igual + 1).strip());
+                if (!(peso > 0))
+                    throw new IllegalArgumentException("El peso de " + clave + " debe ser positivo");
+
+                boolean encontrada = false;
+                for (Peticion peticion : disponibles)
+                    if (peticion.clave().equals(clave)
+                            || clave.endsWith("/*") && (peticion.coleccion() + "/*").equals(clave)) {
+                        pesos.put(peticion, peso);
+                        encontrada = true;
+                    }
+                if (!encontrada)
+                    throw new IllegalArgumentException("No hay ninguna petición " + clave + " en las colecciones");
+            }
+        }
+        if (pesos.isEmpty())
+            throw new IllegalArgumentException("La mezcla no tiene ninguna petición");
+        return new Mezcla(pesos);
+    }
+
+    /**
+     * Mezcla sin las peticiones dadas; las demás conservan su peso.
+     *
+     * @throws IllegalArgumentException si no queda ninguna petición.
+     */
+    Mezcla sin(Set<Peticion> excluidas) {
+        Map<Peticion, Double> pesos = new LinkedHashMap<>();
+        for (int i = 0; i < peticiones.size(); i++)
+            if (!excluidas.contains(peticiones.get(i)))
+                pesos.put(peticiones.get(i), acumulado[i] - (i == 0 ? 0 : acumulado[i - 1]));
+        if (pesos.isEmpty())
+            throw new IllegalArgumentException("Ninguna petición de la mezcla se puede enviar");
+        return new Mezcla(pesos);
+    }
+
+    Peticion siguiente() {
+        double valor = ThreadLocalRandom.current().nextDouble(acumulado[acumulado.length - 1]);
+        int posicion = Arrays.binarySearch(acumulado, valor);
+        // Sin coincidencia exacta binarySearch da -(punto de inserción) - 1
+        return peticiones.get(posicion < 0 ? -posicion - 1 : posicion + 1);
+    }
+
+    List<Peticion> peticiones() {
+        return peticiones;
+    }
+
+    double proporcion(Peticion peticion) {
+        int i = peticiones.indexOf(peticion);
+        return (acumulado[i] - (i == 0 ? 0 : acumulado[i - 1])) / acumulado[acumulado.length - 1];
+    }
+}
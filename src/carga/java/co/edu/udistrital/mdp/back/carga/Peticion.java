@@ -0,0 +1,26 @@
+package co.edu.udistrital.mdp.back.carga;
+
+import java.util.Map;
+
+/**
+ * Petición de una colección de Postman, con las variables que su script de pruebas
+ * guarda de la respuesta.
+ *
+ * @param coleccion   Nombre de la colección (info.name).
+ * @param nombre      Nombre de la petición en la colección.
+ * @param url         URL sin resolver, con sus {{variables}}.
+ * @param cuerpo      Cuerpo sin resolver, o null si no tiene.
+ * @param encabezados Encabezados habilitados, sin resolver.
+ * @param capturas    Variable que se guarda -> ruta en el JSON de la respuesta, como
+ *                    en el script: ".id", "[0].id" o "" para la respuesta completa.
+ */
+record Peticion(String coleccion, String nombre, String metodo, String url, String cuerpo,
+        Map<String, String> encabezados, Map<String, String> capturas) {
+
+    /**
+     * Nombre con el que se identifica en la mezcla y en el reporte: Coleccion/Nombre.
+     */
+    String clave() {
+        return coleccion + "/" + nombre;
+    }
+}
@@ -0,0 +1,122 @@
+package co.edu.udistrital.mdp.back.carga;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Variables con las que se resuelven los {{nombre}} de las peticiones: las del
+ * entorno, las de las colecciones, las de la línea de comandos y las que se guardan
+ * de las respuestas. Se pueden usar desde varios hilos.
+ *
+ * Si no hay una variable con el nombre exacto se busca sin distinguir mayúsculas:
+ * las colecciones usan baseUrl y baseURL para la misma URL.
+ */
+final class Variables {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{([^{}]+)\\}\\}");
+
+    // .campo o [indice] en las rutas de las capturas
+    private static final Pattern SEGMENTO = Pattern.compile("\\.(\\w+)|\\[(\\d+)\\]");
+
+    private final Map<String, String> valores;
+
+    Variables() {
+        this(new ConcurrentHashMap<>());
+    }
+
+    private Variables(Map<String, String> valores) {
+        this.valores = valores;
+    }
+
+    /**
+     * Copia independiente, para un usuario virtual que guarda sus propias capturas.
+     */
+    Variables copia() {
+        return new Variables(new ConcurrentHashMap<>(valores));
+    }
+
+    void poner(String nombre, String valor) {
+        valores.put(nombre, valor);
+    }
+
+    void ponerTodas(Map<String, String> otras) {
+        valores.putAll(otras);
+    }
+
+    boolean contiene(String nombre) {
+        return buscar(nombre) != null;
+    }
+
+    /**
+     * Reemplaza las {{variables}} del texto.
+     *
+     * @throws NoSuchElementException si alguna variable no tiene valor.
+     */
+    String resolver(String texto) {
+        if (texto == null || texto.indexOf("{{") < 0)
+            return texto;
+        Matcher variable = VARIABLE.matcher(texto);
+        StringBuilder resuelto = new StringBuilder();
+        while (variable.find()) {
+            String valor = buscar(variable.group(1).strip());
+            if (valor == null)
+                throw new NoSuchElementException(variable.group(1));
+            variable.appendReplacement(resuelto, Matcher.quoteReplacement(valor));
+        }
+        return variable.appendTail(resuelto).toString();
+    }
+
+    /**
+     * Nombres de las variables que usa el texto.
+     */
+    static Set<String> usadas(String texto) {
+        Set<String> nombres = new LinkedHashSet<>();
+        if (texto != null)
+            for (Matcher variable = VARIABLE.matcher(texto); variable.find();)
+                nombres.add(variable.group(1).strip());
+        return nombres;
+    }
+
+    /**
+     * Guarda los valores de la respuesta que indica cada captura. Las rutas que no
+     * existen en la respuesta (por ejemplo, en una respuesta de error) no cambian la
+     * variable.
+     */
+    void capturar(Map<String, String> capturas, byte[] cuerpo) {
+        JsonNode respuesta;
+        try {
+            respuesta = MAPPER.readTree(cuerpo);
+        } catch (IOException e) {
+            return;
+        }
+        for (Map.Entry<String, String> captura : capturas.entrySet()) {
+            JsonNode nodo = respuesta;
+            for (Matcher segmento = SEGMENTO.matcher(captura.getValue()); nodo != null && segmento.find();)
+                nodo = segmento.group(1) != null ? nodo.get(segmento.group(1))
+                        : nodo.get(Integer.parseInt(segmento.group(2)));
+            if (nodo != null && !nodo.isMissingNode() && !nodo.isNull())
+                valores.put(captura.getKey(), nodo.isValueNode() ? nodo.asText() : nodo.toString());
+        }
+    }
+
+    private String buscar(String nombre) {
+        String valor = valores.get(nombre);
+        if (valor != null)
+            return valor;
+        for (Map.Entry<String, String> entrada : valores.entrySet())
+            if (entrada.getKey().equalsIgnoreCase(nombre))
+                return entrada.getValue();
+        return null;
+    }
+}
@@ -0,0 +1,210 @@
+package co.edu.udistrital.mdp.back.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.udistrital.mdp.back.MainApplication;
+import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.ImagenOutfitEntity;
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.RecomendacionEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+import co.edu.udistrital.mdp.back.repositories.CategoriaRepository;
+import co.edu.udistrital.mdp.back.repositories.ComentarioRepository;
+import co.edu.udistrital.mdp.back.repositories.ListaDeseosRepository;
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.repositories.RecomendacionRepository;
+import co.edu.udistrital.mdp.back.repositories.UsuarioRepository;
+
+/**
+ * Compara el servidor web atendiendo las peticiones con hilos de plataforma (el pool
+ * fijo de Tomcat) y con hilos virtuales (spring.threads.virtual.enabled) cuando 32
+ * clientes concurrentes piden el detalle de outfits y usuarios por HTTP.
+ *
+ * Throughput da las peticiones por milisegundo y SampleTime la distribución de la
+ * latencia, incluido el p0.99. Las respuestas 503 (plazo de las consultas vencido) se
+ * cuentan y se imprimen al final de cada prueba.
+ *
+ * Los clientes corren en la misma JVM que el servidor y le quitan CPU; con muchos
+ * clientes o pocos núcleos se mide sobre todo esa competencia y no el servidor. Por
+ * eso los clientes son pocos, y solo sirve comparar las dos variantes en una máquina
+ * con varios núcleos. Para miles de clientes concurrentes se usa el generador de
+ * carga, que corre en otro proceso contra la aplicación iniciada con o sin hilos
+ * virtuales (las colecciones no guardan el id de ningún outfit: se da el de uno que
+ * exista):
+ *
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.arguments=--spring.threads.virtual.enabled=true
+ * mvn -Pcarga test -Dcarga.args="--mezcla='Outfit/Obtener un outfit,Usuario/Obtener un usuario'
+ *     --var=outfit_id_1=ID --concurrencia=2000"
+ * </pre>
+ *
+ * Ejecutar con: mvn -Pbenchmark test -Djmh.includes=DetalleConcurrenteBenchmark
+ * Con otro número de clientes: -Djmh.args="-t 64"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(32)
+@Fork(1)
+public class DetalleConcurrenteBenchmark {
+
+    @Param({ "false", "true" })
+    private boolean hilosVirtuales;
+
+    @Param({ "1000" })
+    private int volumen;
+
+    @Param({ "10" })
+    private int conexiones;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String base;
+
+    private final List<Long> outfitIds = new ArrayList<>();
+    private final List<Long> usuarioIds = new ArrayList<>();
+    private final AtomicLong vencidas = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciarServidor() {
+        contexto = new SpringApplicationBuilder(MainApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + hilosVirtuales,
+                        "spring.datasource.url=jdbc:h2:mem:detalle;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + conexiones,
+                        "logging.level.root=WARN")
+                .run();
+        contexto.getBean(TransactionTemplate.class).executeWithoutResult(estado -> cargarDatos());
+
+        int puerto = ((ServletWebServerApplicationContext) contexto).getWebServer().getPort();
+        base = "http://localhost:" + puerto + "/api";
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    /**
+     * Precarga "volumen" outfits con imagen, cuatro prendas y una recomendación, y
+     * "volumen" usuarios con diez comentarios y tres outfits en su lista de deseos.
+     */
+    private void cargarDatos() {
+        CategoriaEntity categoria = new CategoriaEntity();
+        categoria.setNombre("Benchmark");
+        categoria.setEdad(25);
+        contexto.getBean(CategoriaRepository.class).save(categoria);
+
+        OutfitRepository outfitRepository = contexto.getBean(OutfitRepository.class);
+        PrendaRepository prendaRepository = contexto.getBean(PrendaRepository.class);
+        UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        ListaDeseosRepository listaDeseosRepository = contexto.getBean(ListaDeseosRepository.class);
+        RecomendacionRepository recomendacionRepository = contexto.getBean(RecomendacionRepository.class);
+        ComentarioRepository comentarioRepository = contexto.getBean(ComentarioRepository.class);
+
+        List<OutfitEntity> outfits = new ArrayList<>();
+        for (int i = 0; i < volumen; i++) {
+            ImagenOutfitEntity imagen = new ImagenOutfitEntity();
+            imagen.setImagen("https://servidor.com/outfit" + i + ".png");
+            OutfitEntity outfit = new OutfitEntity();
+            outfit.setNombre("Outfit " + i);
+            outfit.setPrecioEstimado(100.0 + i);
+            outfit.setCategoria(categoria);
+            outfit.setImagen(imagen);
+            outfits.add(outfitRepository.save(outfit));
+            outfitIds.add(outfit.getId());
+        }
+        for (int i = 0; i < volumen; i++) {
+            PrendaEntity prenda = new PrendaEntity();
+            prenda.setNombre("Prenda " + i);
+            prenda.setPrecio(10.0 + i);
+            for (int j = 0; j < 4; j++)
+                prenda.getOutfits().add(outfits.get((i + j) % volumen));
+            prendaRepository.save(prenda);
+        }
+        for (int i = 0; i < volumen; i++) {
+            UsuarioEntity usuario = new UsuarioEntity();
+            usuario.setNombre("Usuario " + i);
+            usuario.setCorreo("usuario" + i + "@benchmark.co");
+            usuarioIds.add(usuarioRepository.save(usuario).getId());
+
+            ListaDeseosEntity lista = new ListaDeseosEntity();
+            lista.setUsuario(usuario);
+            for (int j = 0; j < 3; j++)
+                lista.getOutfits().add(outfits.get((i + j) % volumen));
+            listaDeseosRepository.save(lista);
+
+            RecomendacionEntity recomendacion = new RecomendacionEntity();
+            recomendacion.setMotivo("Benchmark");
+            recomendacion.setPuntaje(0.5);
+            recomendacion.setUsuario(usuario);
+            recomendacion.setOutfit(outfits.get(i));
+            recomendacionRepository.save(recomendacion);
+
+            for (int j = 0; j < 10; j++) {
+                ComentarioEntity comentario = new ComentarioEntity();
+                comentario.setTexto("Comentario " + j);
+                comentario.setCalificacion(j % 5);
+                comentario.setUsuario(usuario);
+                comentarioRepository.save(comentario);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrarServidor() {
+        System.out.println("Respuestas con el plazo vencido (503): " + vencidas.get());
+        cliente.close();
+        contexto.close();
+    }
+
+    private int consultar(String ruta) throws IOException, InterruptedException {
+        HttpResponse<byte[]> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(base + ruta)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (respuesta.statusCode() == 503)
+            vencidas.incrementAndGet();
+        else if (respuesta.statusCode() != 200)
+            throw new IllegalStateException("Respuesta inesperada " + respuesta.statusCode() + " de " + ruta);
+        return respuesta.body().length;
+    }
+
+    @Benchmark
+    public int outfitDetalle() throws Exception {
+        return consultar("/outfits/" + outfitIds.get(ThreadLocalRandom.current().nextInt(volumen)));
+    }
+
+    @Benchmark
+    public int usuarioDetalle() throws Exception {
+        return consultar("/usuarios/" + usuarioIds.get(ThreadLocalRandom.current().nextInt(volumen)));
+    }
+}
@@ -0,0 +1,131 @@
+package co.edu.udistrital.mdp.back.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.edu.udistrital.mdp.back.dto.CategoriaDetailDTO;
+import co.edu.udistrital.mdp.back.dto.OutfitDetailDTO;
+import co.edu.udistrital.mdp.back.dto.UsuarioDetailDTO;
+import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.ImagenOutfitEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+import co.edu.udistrital.mdp.back.mappers.CategoriaMapper;
+import co.edu.udistrital.mdp.back.mappers.CategoriaMapperImpl;
+import co.edu.udistrital.mdp.back.mappers.OutfitMapper;
+import co.edu.udistrital.mdp.back.mappers.OutfitMapperImpl;
+import co.edu.udistrital.mdp.back.mappers.UsuarioMapper;
+import co.edu.udistrital.mdp.back.mappers.UsuarioMapperImpl;
+
+/**
+ * Compara el mapeo de listados entidad -> DTO con ModelMapper (reflexión) y
+ * con los mappers generados en compilación.
+ *
+ * Ejecutar con: mvn -Pbenchmark test -Djmh.includes=MapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({ "1000", "100000" })
+    private int cantidad;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final OutfitMapper outfitMapper = new OutfitMapperImpl();
+    private final UsuarioMapper usuarioMapper = new UsuarioMapperImpl();
+    private final CategoriaMapper categoriaMapper = new CategoriaMapperImpl();
+
+    private List<OutfitEntity> outfits;
+    private List<UsuarioEntity> usuarios;
+    private List<CategoriaEntity> categorias;
+
+    @Setup
+    public void setUp() {
+        outfits = new ArrayList<>(cantidad);
+        usuarios = new ArrayList<>(cantidad);
+        categorias = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            OutfitEntity outfit = new OutfitEntity();
+            outfit.setId((long) i);
+            outfit.setNombre("Outfit " + i);
+            outfit.setPrecioEstimado(100.0 + i);
+            ImagenOutfitEntity imagen = new ImagenOutfitEntity();
+            imagen.setId((long) i);
+            imagen.setImagen("https://img.tuoutfit.co/" + i + ".png");
+            outfit.setImagen(imagen);
+            outfits.add(outfit);
+
+            UsuarioEntity usuario = new UsuarioEntity();
+            usuario.setId((long) i);
+            usuario.setNombre("Usuario " + i);
+            usuario.setCorreo("usuario" + i + "@tuoutfit.co");
+            for (int j = 0; j < 3; j++) {
+                ComentarioEntity comentario = new ComentarioEntity();
+                comentario.setId((long) i * 3 + j);
+                comentario.setTexto("Comentario " + j);
+                comentario.setCalificacion(j);
+                usuario.getComentarios().add(comentario);
+            }
+            usuarios.add(usuario);
+
+            CategoriaEntity categoria = new CategoriaEntity();
+            categoria.setId((long) i);
+            categoria.setNombre("Categoria " + i);
+            categoria.setEdad(18 + i % 50);
+            categorias.add(categoria);
+        }
+    }
+
+    @Benchmark
+    public List<OutfitDetailDTO> outfitsModelMapper() {
+        return modelMapper.map(outfits, new TypeToken<List<OutfitDetailDTO>>() {
+        }.getType());
+    }
+
+    @Benchmark
+    public List<OutfitDetailDTO> outfitsGenerado() {
+        return outfitMapper.toDetailDTOList(outfits);
+    }
+
+    @Benchmark
+    public List<UsuarioDetailDTO> usuariosModelMapper() {
+        return modelMapper.map(usuarios, new TypeToken<List<UsuarioDetailDTO>>() {
+        }.getType());
+    }
+
+    @Benchmark
+    public List<UsuarioDetailDTO> usuariosGenerado() {
+        return usuarioMapper.toDetailDTOList(usuarios);
+    }
+
+    @Benchmark
+    public List<CategoriaDetailDTO> categoriasModelMapper() {
+        return modelMapper.map(categorias, new TypeToken<List<CategoriaDetailDTO>>() {
+        }.getType());
+    }
+
+    @Benchmark
+    public List<CategoriaDetailDTO> categoriasGenerado() {
+        return categoriaMapper.toDetailDTOList(categorias);
+    }
+}
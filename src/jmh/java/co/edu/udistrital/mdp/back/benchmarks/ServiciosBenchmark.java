@@ -0,0 +1,245 @@
+package co.edu.udistrital.mdp.back.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.udistrital.mdp.back.MainApplication;
+import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.RecomendacionEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.repositories.CategoriaRepository;
+import co.edu.udistrital.mdp.back.repositories.ComentarioRepository;
+import co.edu.udistrital.mdp.back.repositories.ListaDeseosRepository;
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.repositories.UsuarioRepository;
+import co.edu.udistrital.mdp.back.services.CategoriaService;
+import co.edu.udistrital.mdp.back.services.ListaDeseosService;
+import co.edu.udistrital.mdp.back.services.OutfitService;
+import co.edu.udistrital.mdp.back.services.RecomendacionService;
+import co.edu.udistrital.mdp.back.services.UsuarioService;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Mide el rendimiento (throughput y latencia) de los servicios sobre la capa
+ * JPA real con una base H2 en memoria.
+ *
+ * El volumen de datos precargados se controla con los parámetros "volumen"
+ * (usuarios, outfits y prendas) y "comentariosPorUsuario", por ejemplo:
+ * mvn -Pbenchmark test -Djmh.includes=ServiciosBenchmark -Djmh.args="-p volumen=10000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiciosBenchmark {
+
+    @Param({ "1000" })
+    private int volumen;
+
+    @Param({ "10" })
+    private int comentariosPorUsuario;
+
+    private ConfigurableApplicationContext contexto;
+
+    private OutfitService outfitService;
+    private ListaDeseosService listaDeseosService;
+    private CategoriaService categoriaService;
+    private UsuarioService usuarioService;
+    private RecomendacionService recomendacionService;
+    private TransactionTemplate transacciones;
+    private EntityManager entityManager;
+
+    private Long categoriaId;
+    private final List<Long> prendaIds = new ArrayList<>();
+    private final List<Long> outfitIds = new ArrayList<>();
+    private final List<Long> usuarioIds = new ArrayList<>();
+    private final List<Long> listaIds = new ArrayList<>();
+
+    private final AtomicLong secuencia = new AtomicLong();
+    private final AtomicLong parLista = new AtomicLong();
+    private final AtomicLong parRecomendacion = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciarContexto() {
+        contexto = new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN",
+                        "spring.jpa.open-in-view=false")
+                .run();
+
+        outfitService = contexto.getBean(OutfitService.class);
+        listaDeseosService = contexto.getBean(ListaDeseosService.class);
+        categoriaService = contexto.getBean(CategoriaService.class);
+        usuarioService = contexto.getBean(UsuarioService.class);
+        recomendacionService = contexto.getBean(RecomendacionService.class);
+        transacciones = contexto.getBean(TransactionTemplate.class);
+        entityManager = contexto.getBean(EntityManager.class);
+
+        transacciones.executeWithoutResult(estado -> cargarDatos());
+    }
+
+    /**
+     * Precarga una categoría y "volumen" prendas, outfits y usuarios, cada uno
+     * con su lista de deseos y sus comentarios.
+     */
+    private void cargarDatos() {
+        CategoriaEntity categoria = new CategoriaEntity();
+        categoria.setNombre("Benchmark");
+        categoria.setEdad(25);
+        categoriaId = contexto.getBean(CategoriaRepository.class).save(categoria).getId();
+
+        PrendaRepository prendaRepository = contexto.getBean(PrendaRepository.class);
+        OutfitRepository outfitRepository = contexto.getBean(OutfitRepository.class);
+        UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        ListaDeseosRepository listaDeseosRepository = contexto.getBean(ListaDeseosRepository.class);
+        ComentarioRepository comentarioRepository = contexto.getBean(ComentarioRepository.class);
+
+        for (int i = 0; i < volumen; i++) {
+            PrendaEntity prenda = new PrendaEntity();
+            prenda.setNombre("Prenda " + i);
+            prenda.setPrecio(10.0 + i);
+            prendaIds.add(prendaRepository.save(prenda).getId());
+
+            OutfitEntity outfit = new OutfitEntity();
+            outfit.setNombre("Outfit " + i);
+            outfit.setPrecioEstimado(100.0 + i);
+            outfit.setCategoria(categoria);
+            outfitIds.add(outfitRepository.save(outfit).getId());
+
+            UsuarioEntity usuario = new UsuarioEntity();
+            usuario.setNombre("Usuario " + i);
+            usuario.setCorreo("usuario" + i + "@benchmark.co");
+            usuarioIds.add(usuarioRepository.save(usuario).getId());
+
+            ListaDeseosEntity lista = new ListaDeseosEntity();
+            lista.setUsuario(usuario);
+            listaIds.add(listaDeseosRepository.save(lista).getId());
+
+            for (int j = 0; j < comentariosPorUsuario; j++) {
+                ComentarioEntity comentario = new ComentarioEntity();
+                comentario.setTexto("Comentario " + j);
+                comentario.setCalificacion(j % 5);
+                comentario.setUsuario(usuario);
+                comentarioRepository.save(comentario);
+            }
+        }
+    }
+
+    /**
+     * Las operaciones de asociación no admiten pares repetidos, así que antes de
+     * cada iteración se borran las asociaciones creadas en la anterior.
+     */
+    @Setup(Level.Iteration)
+    public void limpiarAsociaciones() {
+        transacciones.executeWithoutResult(estado -> {
+            entityManager.createNativeQuery("delete from lista_outfit").executeUpdate();
+            entityManager.createQuery("delete from RecomendacionEntity").executeUpdate();
+        });
+        parLista.set(0);
+        parRecomendacion.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrarContexto() {
+        contexto.close();
+    }
+
+    /**
+     * Recorre los pares (i, j) sin repetir mientras no se agoten los volumen^2 pares.
+     */
+    private long[] siguientePar(AtomicLong contador) {
+        long n = contador.getAndIncrement() % ((long) volumen * volumen);
+        return new long[] { n % volumen, n / volumen };
+    }
+
+    @Benchmark
+    public OutfitEntity createOutfit() throws Exception {
+        long n = secuencia.incrementAndGet();
+        CategoriaEntity categoria = new CategoriaEntity();
+        categoria.setId(categoriaId);
+        PrendaEntity prenda = new PrendaEntity();
+        prenda.setId(prendaIds.get((int) (n % volumen)));
+
+        OutfitEntity outfit = new OutfitEntity();
+        outfit.setNombre("Nuevo outfit " + n);
+        outfit.setPrecioEstimado(50.0);
+        outfit.setCategoria(categoria);
+        outfit.setPrendas(new ArrayList<>(List.of(prenda)));
+        return outfitService.createOutfit(outfit);
+    }
+
+    @Benchmark
+    public OutfitEntity addOutfit() throws Exception {
+        long[] par = siguientePar(parLista);
+        return listaDeseosService.addOutfit(listaIds.get((int) par[0]), outfitIds.get((int) par[1]));
+    }
+
+    @Benchmark
+    public CategoriaEntity createCategoria() throws Exception {
+        CategoriaEntity categoria = new CategoriaEntity();
+        categoria.setNombre("Categoria " + secuencia.incrementAndGet());
+        categoria.setEdad(30);
+        return categoriaService.createCategoria(categoria);
+    }
+
+    /**
+     * Los comentarios son perezosos: se recorren dentro de la transacción, como
+     * lo hace la petición web con open-in-view.
+     */
+    @Benchmark
+    public int getComentarios() {
+        Long usuarioId = usuarioIds.get((int) (secuencia.incrementAndGet() % volumen));
+        return transacciones.execute(estado -> {
+            try {
+                return usuarioService.getComentarios(usuarioId).size();
+            } catch (EntityNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Benchmark
+    public RecomendacionEntity createRecomendacion() throws Exception {
+        long[] par = siguientePar(parRecomendacion);
+        UsuarioEntity usuario = new UsuarioEntity();
+        usuario.setId(usuarioIds.get((int) par[0]));
+        OutfitEntity outfit = new OutfitEntity();
+        outfit.setId(outfitIds.get((int) par[1]));
+
+        RecomendacionEntity recomendacion = new RecomendacionEntity();
+        recomendacion.setMotivo("Benchmark");
+        recomendacion.setPuntaje(0.5);
+        recomendacion.setUsuario(usuario);
+        recomendacion.setOutfit(outfit);
+        return recomendacionService.createRecomendacion(recomendacion);
+    }
+}
@@ -3,10 +3,14 @@ package co.edu.udistrital.mdp.back.config;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import co.edu.udistrital.mdp.back.services.KeysetPagination;
+
 @Configuration
+@EnableScheduling
 public class ApplicationConfig {
 	@Bean
 	public ModelMapper modelMapper() {
@@ -19,6 +23,7 @@ public class ApplicationConfig {
 			@Override
 			public void addCorsMappings(CorsRegistry registry) {
 				registry.addMapping("/**").allowedOrigins("*").allowedMethods("GET", "POST", "PUT", "DELETE")
+						.exposedHeaders(KeysetPagination.NEXT_CURSOR_HEADER)
 						.maxAge(3600);
 			}
 
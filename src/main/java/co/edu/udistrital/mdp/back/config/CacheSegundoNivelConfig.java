@@ -0,0 +1,35 @@
+package co.edu.udistrital.mdp.back.config;
+
+import javax.cache.CacheManager;
+
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Publica en actuator (/actuator/metrics/cache.gets, cache.puts, cache.removals y
+ * cache.evictions, con la etiqueta cache) las estadísticas de cada región del caché
+ * de segundo nivel.
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+
+	@Bean
+	public MeterBinder cacheSegundoNivelMetrics(EntityManagerFactory entityManagerFactory) {
+		return registry -> {
+			RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache()
+					.getRegionFactory();
+			if (!(regionFactory instanceof JCacheRegionFactory jcache))
+				return;
+			CacheManager cacheManager = jcache.getCacheManager();
+			for (String nombre : cacheManager.getCacheNames())
+				JCacheMetrics.monitor(registry, cacheManager.getCache(nombre));
+		};
+	}
+}
@@ -0,0 +1,68 @@
+package co.edu.udistrital.mdp.back.config;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Fábrica de regiones del caché de segundo nivel de Hibernate sobre Caffeine (JCache).
+ *
+ * Cada SessionFactory tiene su propio CacheManager, de modo que dos contextos en la
+ * misma JVM (como los de las pruebas) no comparten entradas. Cada región se crea
+ * acotada a hibernate.cache.caffeine.maximo_entradas entradas (al superarlo Caffeine
+ * desaloja las de menor frecuencia de uso, W-TinyLFU) y expira
+ * hibernate.cache.caffeine.ttl_segundos después de escrita. La región de marcas de
+ * tiempo de las consultas no se acota ni expira, porque de ella depende invalidar el
+ * caché de consultas.
+ */
+public class CaffeineRegionFactory extends JCacheRegionFactory {
+
+    public static final String MAXIMO_ENTRADAS = "hibernate.cache.caffeine.maximo_entradas";
+    public static final String TTL_SEGUNDOS = "hibernate.cache.caffeine.ttl_segundos";
+
+    private static final AtomicInteger INSTANCIAS = new AtomicInteger();
+
+    private long maximoEntradas = 10_000;
+    private long ttlSegundos = 600;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        maximoEntradas = valor(configValues, MAXIMO_ENTRADAS, maximoEntradas);
+        ttlSegundos = valor(configValues, TTL_SEGUNDOS, ttlSegundos);
+        super.prepareForUse(settings, configValues);
+    }
+
+    @Override
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map<String, Object> properties) {
+        URI uri = URI.create("hibernate-segundo-nivel-" + INSTANCIAS.incrementAndGet());
+        return new CaffeineCachingProvider().getCacheManager(uri, getClass().getClassLoader());
+    }
+
+    @Override
+    protected Cache<Object, Object> createCache(String regionName) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setStatisticsEnabled(true);
+        if (!RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME.equals(regionName)) {
+            configuracion.setMaximumSize(OptionalLong.of(maximoEntradas));
+            configuracion.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSegundos)));
+        }
+        return getCacheManager().createCache(regionName, configuracion);
+    }
+
+    private static long valor(Map<String, Object> configValues, String llave, long porDefecto) {
+        Object valor = configValues.get(llave);
+        return valor == null ? porDefecto : Long.parseLong(valor.toString().trim());
+    }
+}
@@ -0,0 +1,26 @@
+package co.edu.udistrital.mdp.back.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra en Hibernate el inspector con el que se cuentan las sentencias de cada
+ * petición (ver {@link SentenciasPeticion}).
+ *
+ * Las demás métricas se publican en /actuator/prometheus: la latencia de los
+ * servicios ({@link MetricasServicios}), las sentencias por petición
+ * ({@link SentenciasPeticionFilter}), la espera por conexiones del pool
+ * (hikaricp.connections.acquire) y las estadísticas de las sesiones de Hibernate
+ * (hibernate.*, con hibernate.generate_statistics).
+ */
+@Configuration
+public class MetricasConfig {
+
+	@Bean
+	public HibernatePropertiesCustomizer inspectorSentencias() {
+		return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR,
+				new SentenciasPeticion.Inspector());
+	}
+}
@@ -0,0 +1,69 @@
+package co.edu.udistrital.mdp.back.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mide la latencia de cada método público de los servicios en servicios.llamadas,
+ * con histograma de percentiles y las etiquetas servicio, metodo y resultado (ok o
+ * el nombre de la excepción, como EntityNotFoundException o
+ * IllegalOperationException).
+ *
+ * Envuelve a los demás aspectos, así que la medida incluye la confirmación de la
+ * transacción. Las llamadas entre métodos de un mismo servicio no pasan por el
+ * proxy y no se miden aparte.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricasServicios {
+
+    static final String LLAMADAS = "servicios.llamadas";
+    static final String OK = "ok";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final Map<Llave, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * co.edu.udistrital.mdp.back.services..*.*(..))")
+    public Object medir(ProceedingJoinPoint llamada) throws Throwable {
+        Timer.Sample muestra = Timer.start(registry);
+        String resultado = OK;
+        try {
+            return llamada.proceed();
+        } catch (Throwable e) {
+            resultado = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Method metodo = ((MethodSignature) llamada.getSignature()).getMethod();
+            muestra.stop(timers.computeIfAbsent(new Llave(metodo, resultado), this::crearTimer));
+        }
+    }
+
+    private Timer crearTimer(Llave llave) {
+        return Timer.builder(LLAMADAS)
+                .description("Latencia de los métodos públicos de los servicios")
+                .tag("servicio", llave.metodo().getDeclaringClass().getSimpleName())
+                .tag("metodo", llave.metodo().getName())
+                .tag("resultado", llave.resultado())
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private record Llave(Method metodo, String resultado) {
+    }
+}
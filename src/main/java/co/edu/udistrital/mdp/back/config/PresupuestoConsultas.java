@@ -0,0 +1,21 @@
+package co.edu.udistrital.mdp.back.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Número máximo de sentencias SQL que debe ejecutar una petición a este método de
+ * controlador. Si la petición lo excede se registra una advertencia con las
+ * sentencias más repetidas (ver {@link SentenciasPeticionFilter}), y las pruebas de
+ * los servicios lo consultan con {@link SentenciasPeticion#presupuesto}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PresupuestoConsultas {
+
+    int value();
+}
@@ -0,0 +1,132 @@
+package co.edu.udistrital.mdp.back.config;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Sentencias SQL ejecutadas durante una petición HTTP. La petición en curso se
+ * asocia al hilo que la atiende y Hibernate avisa cada sentencia que prepara por
+ * medio de {@link Inspector}. Además del total se cuenta cuántas veces se ejecutó
+ * cada forma de sentencia (el SQL con sus parámetros sin valores): una forma que se
+ * repite muchas veces en una petición suele ser un N+1.
+ *
+ * Las consultas que se hacen en otros hilos (ver
+ * {@link co.edu.udistrital.mdp.back.services.ConsultasParalelas}) cuentan si el hilo
+ * se asocia a la petición con {@link #asociar}. Las sentencias de JdbcTemplate no
+ * pasan por Hibernate y no se cuentan, y tampoco las de las sesiones sin estado
+ * (StatelessSession), que en Hibernate 6.4 no usan el inspector configurado.
+ */
+public final class SentenciasPeticion {
+
+    private static final ThreadLocal<SentenciasPeticion> ACTUAL = new ThreadLocal<>();
+
+    private final AtomicInteger total = new AtomicInteger();
+    private final Map<String, AtomicInteger> formas = new ConcurrentHashMap<>();
+
+    private SentenciasPeticion() {
+    }
+
+    /**
+     * Empieza a contar las sentencias del hilo actual.
+     */
+    public static SentenciasPeticion iniciar() {
+        SentenciasPeticion peticion = new SentenciasPeticion();
+        ACTUAL.set(peticion);
+        return peticion;
+    }
+
+    /**
+     * Petición asociada al hilo actual, o null si no hay ninguna.
+     */
+    public static SentenciasPeticion actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Asocia el hilo actual a una petición iniciada en otro hilo (null lo desasocia).
+     */
+    public static void asociar(SentenciasPeticion peticion) {
+        if (peticion == null)
+            ACTUAL.remove();
+        else
+            ACTUAL.set(peticion);
+    }
+
+    /**
+     * Deja de contar las sentencias del hilo actual.
+     */
+    public static void terminar() {
+        ACTUAL.remove();
+    }
+
+    public int getTotal() {
+        return total.get();
+    }
+
+    /**
+     * Formas de sentencia que se ejecutaron al menos el número de veces dado, de la
+     * más a la menos repetida.
+     */
+    public Map<String, Integer> getRepetidas(int minimo) {
+        return repetidas(minimo, false);
+    }
+
+    /**
+     * Como {@link #getRepetidas}, pero solo con las consultas (SELECT): los INSERT y
+     * UPDATE repetidos de una escritura por lotes no son un N+1.
+     */
+    public Map<String, Integer> getConsultasRepetidas(int minimo) {
+        return repetidas(minimo, true);
+    }
+
+    private Map<String, Integer> repetidas(int minimo, boolean soloConsultas) {
+        Map<String, Integer> repetidas = new LinkedHashMap<>();
+        formas.entrySet().stream()
+                .filter(forma -> forma.getValue().get() >= minimo)
+                .filter(forma -> !soloConsultas || forma.getKey().regionMatches(true, 0, "select", 0, 6))
+                .sorted((a, b) -> Integer.compare(b.getValue().get(), a.getValue().get()))
+                .forEach(forma -> repetidas.put(forma.getKey(), forma.getValue().get()));
+        return repetidas;
+    }
+
+    /**
+     * Presupuesto de sentencias declarado con {@link PresupuestoConsultas} en el
+     * método de controlador con el nombre dado.
+     *
+     * @throws IllegalArgumentException si el método no existe o no declara presupuesto.
+     */
+    public static int presupuesto(Class<?> controlador, String metodo) {
+        for (Method candidato : controlador.getMethods()) {
+            PresupuestoConsultas presupuesto = candidato.getAnnotation(PresupuestoConsultas.class);
+            if (candidato.getName().equals(metodo) && presupuesto != null)
+                return presupuesto.value();
+        }
+        throw new IllegalArgumentException(
+                controlador.getSimpleName() + "." + metodo + " no declara un presupuesto de consultas");
+    }
+
+    void registrar(String sql) {
+        total.incrementAndGet();
+        formas.computeIfAbsent(sql, forma -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Inspector de Hibernate que registra cada sentencia en la petición del hilo que
+     * la ejecuta. No modifica el SQL.
+     */
+    static final class Inspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            SentenciasPeticion peticion = ACTUAL.get();
+            if (peticion != null)
+                peticion.registrar(sql);
+            return sql;
+        }
+    }
+}
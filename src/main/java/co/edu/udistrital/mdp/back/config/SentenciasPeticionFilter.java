@@ -0,0 +1,81 @@
+package co.edu.udistrital.mdp.back.config;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cuenta las sentencias SQL de cada petición y las publica en
+ * http.server.requests.sentencias, con las mismas etiquetas method, uri y status de
+ * http.server.requests.
+ *
+ * Al terminar la petición registra una advertencia, con el método de controlador y
+ * el SQL, por cada consulta que se repitió al menos consultas.repetidas.umbral
+ * veces (posible N+1) y si se excedió el {@link PresupuestoConsultas} del método.
+ */
+@Slf4j
+@Component
+public class SentenciasPeticionFilter extends OncePerRequestFilter {
+
+    static final String SENTENCIAS = "http.server.requests.sentencias";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${consultas.repetidas.umbral:5}")
+    private int umbralRepetidas;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SentenciasPeticion peticion = SentenciasPeticion.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SentenciasPeticion.terminar();
+            if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)
+                revisar(handler, peticion);
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(SENTENCIAS)
+                    .description("Sentencias SQL ejecutadas por petición")
+                    .baseUnit("sentencias")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                    .tag("status", Integer.toString(response.getStatus()))
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(1.0)
+                    .maximumExpectedValue(1000.0)
+                    .register(registry)
+                    .record(peticion.getTotal());
+        }
+    }
+
+    private void revisar(HandlerMethod handler, SentenciasPeticion peticion) {
+        String metodo = handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+        Map<String, Integer> repetidas = peticion.getConsultasRepetidas(umbralRepetidas);
+        for (Map.Entry<String, Integer> forma : repetidas.entrySet())
+            log.warn("Posible N+1 en {}: la misma sentencia se ejecutó {} veces: {}", metodo, forma.getValue(),
+                    forma.getKey());
+
+        PresupuestoConsultas presupuesto = handler.getMethodAnnotation(PresupuestoConsultas.class);
+        if (presupuesto == null || peticion.getTotal() <= presupuesto.value())
+            return;
+        Map.Entry<String, Integer> masRepetida = peticion.getRepetidas(1).entrySet().iterator().next();
+        log.warn("{} ejecutó {} sentencias y su presupuesto es {}. La más repetida ({} veces): {}", metodo,
+                peticion.getTotal(), presupuesto.value(), masRepetida.getValue(), masRepetida.getKey());
+    }
+}
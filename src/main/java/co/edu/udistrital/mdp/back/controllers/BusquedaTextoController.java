@@ -0,0 +1,40 @@
+package co.edu.udistrital.mdp.back.controllers;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.edu.udistrital.mdp.back.dto.ResultadoBusquedaTextoDTO;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.BusquedaTextoMapper;
+import co.edu.udistrital.mdp.back.services.BusquedaTextoService;
+
+@RestController
+@RequestMapping("/busqueda")
+public class BusquedaTextoController {
+
+    @Autowired
+    private BusquedaTextoService busquedaTextoService;
+
+    @Autowired
+    private BusquedaTextoMapper busquedaTextoMapper;
+
+    /**
+     * Busca el texto, sin distinguir tildes ni mayúsculas, en los nombres de prendas,
+     * outfits y marcas y en los comentarios. El tipo restringe la búsqueda a uno de ellos.
+     */
+    @GetMapping
+    @ResponseStatus(code = HttpStatus.OK)
+    public List<ResultadoBusquedaTextoDTO> buscar(@RequestParam String q,
+            @RequestParam(required = false) String tipo, @RequestParam(required = false) Integer limite)
+            throws IllegalOperationException {
+
+        return busquedaTextoMapper.toDTOList(busquedaTextoService.buscar(q, tipo, limite));
+    }
+}
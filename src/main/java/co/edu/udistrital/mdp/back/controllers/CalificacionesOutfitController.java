@@ -0,0 +1,62 @@
+package co.edu.udistrital.mdp.back.controllers;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.edu.udistrital.mdp.back.config.PresupuestoConsultas;
+import co.edu.udistrital.mdp.back.dto.OutfitCalificadoDTO;
+import co.edu.udistrital.mdp.back.dto.ResumenCalificacionesDTO;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.OutfitMapper;
+import co.edu.udistrital.mdp.back.services.CalificacionesOutfitService;
+
+/**
+ * Clase que implementa los recursos "outfits/mejor-calificados" y
+ * "outfits/{id}/calificaciones".
+ */
+@RestController
+@RequestMapping("/outfits")
+public class CalificacionesOutfitController {
+
+	@Autowired
+	private CalificacionesOutfitService calificacionesOutfitService;
+
+	@Autowired
+	private OutfitMapper outfitMapper;
+
+	/**
+	 * Busca los outfits mejor calificados según su promedio bayesiano.
+	 *
+	 * @param limite Número máximo de outfits (por defecto 10, máximo 100).
+	 * @return JSONArray {@link OutfitCalificadoDTO} - Outfits de mayor a menor puntaje.
+	 */
+	@GetMapping(value = "/mejor-calificados")
+	@ResponseStatus(code = HttpStatus.OK)
+	@PresupuestoConsultas(1)
+	public List<OutfitCalificadoDTO> getMejorCalificados(@RequestParam(required = false) Integer limite)
+			throws IllegalOperationException {
+		return outfitMapper.toCalificadoDTOList(calificacionesOutfitService.getMejorCalificados(limite));
+	}
+
+	/**
+	 * Busca el resumen de las calificaciones de un outfit.
+	 *
+	 * @param outfitId Identificador del outfit.
+	 * @return JSON {@link ResumenCalificacionesDTO} - Número, promedio e histograma.
+	 */
+	@GetMapping(value = "/{outfitId}/calificaciones")
+	@ResponseStatus(code = HttpStatus.OK)
+	@PresupuestoConsultas(1)
+	public ResumenCalificacionesDTO getCalificaciones(@PathVariable Long outfitId) throws EntityNotFoundException {
+		return outfitMapper.toResumenCalificacionesDTO(calificacionesOutfitService.getCalificaciones(outfitId));
+	}
+}
@@ -0,0 +1,46 @@
+package co.edu.udistrital.mdp.back.controllers;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.services.CatalogoImportacionService;
+import co.edu.udistrital.mdp.back.services.CatalogoImportacionService.Formato;
+import co.edu.udistrital.mdp.back.services.ResultadoImportacion;
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/catalogo")
+public class CatalogoImportacionController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    private CatalogoImportacionService catalogoImportacionService;
+
+    @PostMapping(value = "/importaciones", consumes = { "application/x-ndjson", "text/csv" })
+    @ResponseStatus(code = HttpStatus.OK)
+    public ResultadoImportacion importar(@RequestHeader("Content-Type") String contentType,
+            @RequestParam(required = false) Integer tamanoLote, HttpServletRequest request)
+            throws IllegalOperationException, IOException {
+        MediaType tipo = MediaType.parseMediaType(contentType);
+        Charset charset = tipo.getCharset() != null ? tipo.getCharset() : StandardCharsets.UTF_8;
+        Formato formato = TEXT_CSV.isCompatibleWith(tipo) ? Formato.CSV : Formato.NDJSON;
+        try (Reader entrada = new InputStreamReader(request.getInputStream(), charset)) {
+            return catalogoImportacionService.importar(entrada, formato, tamanoLote);
+        }
+    }
+}
@@ -2,8 +2,6 @@ package co.edu.udistrital.mdp.back.controllers;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,15 +11,24 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import co.edu.udistrital.mdp.back.config.PresupuestoConsultas;
 import co.edu.udistrital.mdp.back.dto.CategoriaDTO;
 import co.edu.udistrital.mdp.back.dto.CategoriaDetailDTO;
 import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.CategoriaMapper;
+import co.edu.udistrital.mdp.back.services.KeysetPage;
+import co.edu.udistrital.mdp.back.services.KeysetPagination;
 import co.edu.udistrital.mdp.back.services.CategoriaService;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 
@@ -33,31 +40,47 @@ public class CategoriaController {
 
 	@Autowired
 
-	private ModelMapper modelMapper;
+	private CategoriaMapper categoriaMapper;
 
-    @GetMapping
+	@Autowired
 
-@ResponseStatus(code = HttpStatus.OK)
+	private VersionesRecursos versionesRecursos;
 
-public List<CategoriaDetailDTO> findAll() {
+	@Autowired
 
-	List<CategoriaEntity> categorias = categoriaService.getCategorias();
+	private RespuestasCondicionales respuestasCondicionales;
 
-	return modelMapper.map(categorias, new TypeToken<List<CategoriaDetailDTO>>() {
+    @GetMapping
 
-	}.getType());
+@PresupuestoConsultas(1)
+public List<CategoriaDetailDTO> findAll(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size, @RequestParam(required = false) String sort,
+			HttpServletResponse response, ServletWebRequest request) throws IllegalOperationException {
+
+	String etag = versionesRecursos.getEtag(Recurso.CATEGORIA, Recurso.OUTFIT, Recurso.OCASION);
+	if (respuestasCondicionales.noModificado("categorias", etag, request))
+		return null;
+
+	KeysetPage<CategoriaEntity> pagina = categoriaService.getCategorias(cursor, size, sort);
+	if (pagina.hasNext())
+		response.setHeader(KeysetPagination.NEXT_CURSOR_HEADER, pagina.getNextCursor());
+
+	return categoriaMapper.toDetailDTOList(pagina.getContent());
 
 }
 
 @GetMapping(value = "/{id}")
 
-@ResponseStatus(code = HttpStatus.OK)
+@PresupuestoConsultas(1)
+public CategoriaDetailDTO findOne(@PathVariable Long id, ServletWebRequest request) throws EntityNotFoundException {
 
-public CategoriaDetailDTO findOne(@PathVariable Long id) throws EntityNotFoundException {
+	String etag = versionesRecursos.getEtag(Recurso.CATEGORIA, id, Recurso.OUTFIT, Recurso.OCASION);
+	if (respuestasCondicionales.noModificado("categorias", etag, request))
+		return null;
 
 	CategoriaEntity categoriaEntity = categoriaService.getCategoria(id);
 
-	return modelMapper.map(categoriaEntity, CategoriaDetailDTO.class);
+	return categoriaMapper.toDetailDTO(categoriaEntity);
 
 }
 
@@ -67,9 +90,9 @@ public CategoriaDetailDTO findOne(@PathVariable Long id) throws EntityNotFoundEx
 
 public CategoriaDTO create(@RequestBody CategoriaDTO categoriaDTO) throws IllegalOperationException {
 
-	CategoriaEntity categoriaEntity = categoriaService.createCategoria(modelMapper.map(categoriaDTO, CategoriaEntity.class));
+	CategoriaEntity categoriaEntity = categoriaService.createCategoria(categoriaMapper.toEntity(categoriaDTO));
 
-	return modelMapper.map(categoriaEntity, CategoriaDTO.class);
+	return categoriaMapper.toDTO(categoriaEntity);
 
 }
 
@@ -81,9 +104,9 @@ public CategoriaDTO update(@PathVariable Long id, @RequestBody CategoriaDTO cate
 
 			throws EntityNotFoundException, IllegalOperationException {
 
-	CategoriaEntity categoriaEntity = categoriaService.updateCategoria(id, modelMapper.map(categoriaDTO, CategoriaEntity.class));
+	CategoriaEntity categoriaEntity = categoriaService.updateCategoria(id, categoriaMapper.toEntity(categoriaDTO));
 
-	return modelMapper.map(categoriaEntity, CategoriaDTO.class);
+	return categoriaMapper.toDTO(categoriaEntity);
 
 }
 
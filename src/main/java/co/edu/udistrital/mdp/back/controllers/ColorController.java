@@ -2,8 +2,6 @@ package co.edu.udistrital.mdp.back.controllers;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,15 +11,25 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import co.edu.udistrital.mdp.back.dto.ColorDTO;
 import co.edu.udistrital.mdp.back.dto.ColorDetailDTO;
+import co.edu.udistrital.mdp.back.dto.ColorSimilarDTO;
 import co.edu.udistrital.mdp.back.entities.ColorEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.ColorMapper;
+import co.edu.udistrital.mdp.back.services.KeysetPage;
+import co.edu.udistrital.mdp.back.services.KeysetPagination;
 import co.edu.udistrital.mdp.back.services.ColorService;
+import co.edu.udistrital.mdp.back.services.ColoresSimilaresService;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/colores")
@@ -31,35 +39,62 @@ public class ColorController {
     private ColorService colorService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private ColorMapper colorMapper;
+
+    @Autowired
+    private ColoresSimilaresService coloresSimilaresService;
+
+    @Autowired
+    private VersionesRecursos versionesRecursos;
+
+    @Autowired
+    private RespuestasCondicionales respuestasCondicionales;
 
     @GetMapping
-    @ResponseStatus(code = HttpStatus.OK)
-    public List<ColorDetailDTO> findAll() {
-        List<ColorEntity> colores = colorService.getColores();
-        return modelMapper.map(colores, new TypeToken<List<ColorDetailDTO>>() {}.getType());
+    public List<ColorDetailDTO> findAll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, @RequestParam(required = false) String sort,
+            HttpServletResponse response, ServletWebRequest request) throws IllegalOperationException {
+        String etag = versionesRecursos.getEtag(Recurso.COLOR, Recurso.PRENDA, Recurso.MARCA, Recurso.TIENDA);
+        if (respuestasCondicionales.noModificado("colores", etag, request))
+            return null;
+        KeysetPage<ColorEntity> pagina = colorService.getColores(cursor, size, sort);
+        if (pagina.hasNext())
+            response.setHeader(KeysetPagination.NEXT_CURSOR_HEADER, pagina.getNextCursor());
+        return colorMapper.toDetailDTOList(pagina.getContent());
     }
 
     @GetMapping(value = "/{id}")
-    @ResponseStatus(code = HttpStatus.OK)
-    public ColorDetailDTO findOne(@PathVariable Long id) throws EntityNotFoundException {
+    public ColorDetailDTO findOne(@PathVariable Long id, ServletWebRequest request) throws EntityNotFoundException {
+        String etag = versionesRecursos.getEtag(Recurso.COLOR, id, Recurso.PRENDA, Recurso.MARCA, Recurso.TIENDA);
+        if (respuestasCondicionales.noModificado("colores", etag, request))
+            return null;
         ColorEntity colorEntity = colorService.getColor(id);
-        return modelMapper.map(colorEntity, ColorDetailDTO.class);
+        return colorMapper.toDetailDTO(colorEntity);
+    }
+
+    /**
+     * Colores más parecidos al color dado según la diferencia ΔE en CIELAB.
+     */
+    @GetMapping(value = "/{id}/similares")
+    @ResponseStatus(code = HttpStatus.OK)
+    public List<ColorSimilarDTO> findSimilares(@PathVariable Long id, @RequestParam(required = false) Integer k)
+            throws EntityNotFoundException, IllegalOperationException {
+        return colorMapper.toSimilarDTOList(coloresSimilaresService.getColoresSimilares(id, k));
     }
 
     @PostMapping
     @ResponseStatus(code = HttpStatus.CREATED)
     public ColorDTO create(@RequestBody ColorDTO colorDTO) throws IllegalOperationException {
-        ColorEntity colorEntity = colorService.createColor(modelMapper.map(colorDTO, ColorEntity.class));
-        return modelMapper.map(colorEntity, ColorDTO.class);
+        ColorEntity colorEntity = colorService.createColor(colorMapper.toEntity(colorDTO));
+        return colorMapper.toDTO(colorEntity);
     }
 
     @PutMapping(value = "/{id}")
     @ResponseStatus(code = HttpStatus.OK)
     public ColorDTO update(@PathVariable Long id, @RequestBody ColorDTO colorDTO)
             throws EntityNotFoundException, IllegalOperationException {
-        ColorEntity colorEntity = colorService.updateColor(id, modelMapper.map(colorDTO, ColorEntity.class));
-        return modelMapper.map(colorEntity, ColorDTO.class);
+        ColorEntity colorEntity = colorService.updateColor(id, colorMapper.toEntity(colorDTO));
+        return colorMapper.toDTO(colorEntity);
     }
 
     @DeleteMapping(value = "/{id}")
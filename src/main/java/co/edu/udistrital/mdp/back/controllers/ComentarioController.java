@@ -2,8 +2,6 @@ package co.edu.udistrital.mdp.back.controllers;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,11 +14,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import co.edu.udistrital.mdp.back.config.PresupuestoConsultas;
 import co.edu.udistrital.mdp.back.dto.ComentarioDTO;
 import co.edu.udistrital.mdp.back.dto.UsuarioDTO;
 import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.UsuarioMapper;
 import co.edu.udistrital.mdp.back.services.ComentarioService;
 
 /**
@@ -35,7 +35,7 @@ public class ComentarioController {
     private ComentarioService comentarioService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private UsuarioMapper usuarioMapper;
 
     /**
 	 * Crea un nuevo comentario con la informacion que se recibe en el cuerpo de la
@@ -51,10 +51,10 @@ public class ComentarioController {
 	@PostMapping(value = "/{usuarioId}/comentarios")
 	@ResponseStatus(code = HttpStatus.CREATED)
 	public ComentarioDTO createReview(@PathVariable Long usuarioId, @RequestBody ComentarioDTO comentario)
-			throws EntityNotFoundException {
-		ComentarioEntity comentarioEnity = modelMapper.map(comentario, ComentarioEntity.class);
+			throws EntityNotFoundException, IllegalOperationException {
+		ComentarioEntity comentarioEnity = usuarioMapper.toComentarioEntity(comentario);
 		ComentarioEntity newComentario = comentarioService.createComentario(usuarioId, comentarioEnity);
-		return modelMapper.map(newComentario, ComentarioDTO.class);
+		return usuarioMapper.toComentarioDTO(newComentario);
 	}
 
     /**
@@ -66,10 +66,10 @@ public class ComentarioController {
 	 */
 	@GetMapping(value = "/{usuarioId}/comentarios")
 	@ResponseStatus(code = HttpStatus.OK)
+	@PresupuestoConsultas(2)
 	public List<ComentarioDTO> getComentarios(@PathVariable Long usuarioId) throws EntityNotFoundException {
 		List<ComentarioEntity> comentarios = comentarioService.getComentarios(usuarioId);
-		return modelMapper.map(comentarios, new TypeToken<List<ComentarioDTO>>() {
-		}.getType());
+		return usuarioMapper.toComentarioDTOList(comentarios);
 	}
 
     /**
@@ -84,7 +84,7 @@ public class ComentarioController {
 	public ComentarioDTO getComentario(@PathVariable Long usuarioId, @PathVariable Long comentarioId)
 			throws EntityNotFoundException {
 		ComentarioEntity entity = comentarioService.getComentario(usuarioId, comentarioId);
-		return modelMapper.map(entity, ComentarioDTO.class);
+		return usuarioMapper.toComentarioDTO(entity);
 	}
 
     /**
@@ -99,10 +99,10 @@ public class ComentarioController {
 	@PutMapping(value = "/{usuarioId}/comentarios/{comentariosId}")
 	@ResponseStatus(code = HttpStatus.OK)
 	public ComentarioDTO updateComentario(@PathVariable Long usuarioId, @PathVariable("comentariosId") Long comentarioId,
-			@RequestBody ComentarioDTO comentario) throws EntityNotFoundException {
-		ComentarioEntity comentarioEntity = modelMapper.map(comentario, ComentarioEntity.class);
+			@RequestBody ComentarioDTO comentario) throws EntityNotFoundException, IllegalOperationException {
+		ComentarioEntity comentarioEntity = usuarioMapper.toComentarioEntity(comentario);
 		ComentarioEntity newEntity = comentarioService.updateComentario(usuarioId, comentarioId, comentarioEntity);
-		return modelMapper.map(newEntity, ComentarioDTO.class);
+		return usuarioMapper.toComentarioDTO(newEntity);
 	}
 
     /**
@@ -0,0 +1,103 @@
+package co.edu.udistrital.mdp.back.controllers;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import co.edu.udistrital.mdp.back.services.ContenidoImagen;
+import co.edu.udistrital.mdp.back.services.RangoBytes;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Envía el contenido de una imagen con ETag fuerte (el hash SHA-256 y la variante),
+ * respuestas condicionales y rangos de bytes.
+ *
+ * Los bytes no pasan por el heap: si el conector de Tomcat soporta sendfile se le
+ * entrega el archivo y el rango, y él lo envía al socket con
+ * {@code FileChannel.transferTo}; si no, se copia con {@code transferTo} al canal de
+ * la respuesta.
+ */
+final class ContenidoImagenRespuesta {
+
+    // Atributos de petición con los que Tomcat anuncia y recibe un envío por sendfile
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    private ContenidoImagenRespuesta() {
+        throw new IllegalStateException("Clase de utilidad");
+    }
+
+    static void enviar(ContenidoImagen contenido, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String etag = "\"" + contenido.getEtiqueta() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // El contenido lo suben los usuarios: no se interpreta como otro tipo ni ejecuta scripts (SVG)
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader("Content-Security-Policy", "default-src 'none'; style-src 'unsafe-inline'; sandbox");
+        if (coincide(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long tamano = contenido.getTamano();
+        String siRango = request.getHeader(HttpHeaders.IF_RANGE);
+        RangoBytes rango = siRango == null || siRango.equals(etag)
+                ? RangoBytes.de(request.getHeader(HttpHeaders.RANGE), tamano)
+                : null;
+        if (rango == RangoBytes.NO_SATISFACIBLE) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamano);
+            return;
+        }
+        long inicio = 0;
+        long longitud = tamano;
+        if (rango != null) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + rango.inicio() + "-" + rango.fin() + "/" + tamano);
+            inicio = rango.inicio();
+            longitud = rango.longitud();
+        }
+        response.setContentType(contenido.getTipoContenido());
+        response.setContentLengthLong(longitud);
+        if ("HEAD".equals(request.getMethod()))
+            return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+            request.setAttribute(SENDFILE_ARCHIVO, contenido.getArchivo().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIN, inicio + longitud);
+            return;
+        }
+        try (FileChannel archivo = FileChannel.open(contenido.getArchivo(), StandardOpenOption.READ)) {
+            WritableByteChannel salida = Channels.newChannel(response.getOutputStream());
+            long enviados = 0;
+            while (enviados < longitud)
+                enviados += archivo.transferTo(inicio + enviados, longitud - enviados, salida);
+        }
+    }
+
+    /**
+     * Indica si el encabezado If-None-Match incluye la ETag (comparación débil, RFC 9110).
+     */
+    private static boolean coincide(String siNoCoincide, String etag) {
+        if (siNoCoincide == null)
+            return false;
+        for (String candidata : siNoCoincide.split(",")) {
+            String valor = candidata.trim();
+            if (valor.equals("*") || (valor.startsWith("W/") ? valor.substring(2) : valor).equals(etag))
+                return true;
+        }
+        return false;
+    }
+}
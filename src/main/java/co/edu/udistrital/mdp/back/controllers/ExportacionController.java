@@ -0,0 +1,73 @@
+package co.edu.udistrital.mdp.back.controllers;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.services.ExportacionService;
+import co.edu.udistrital.mdp.back.services.ExportacionService.Entidad;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Exportación de los datos en NDJSON. La respuesta va comprimida con gzip si el
+ * cliente envía Accept-Encoding: gzip (server.compression).
+ */
+@RestController
+@RequestMapping("/export")
+public class ExportacionController {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String SINCE = "since.";
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    /**
+     * Exporta todas las entidades, una tras otra. since.&lt;entidad&gt;=&lt;id&gt;
+     * exporta de esa entidad solo las filas con id mayor.
+     */
+    @GetMapping(produces = NDJSON)
+    public void exportarTodo(@RequestParam Map<String, String> parametros, HttpServletResponse response)
+            throws EntityNotFoundException, IllegalOperationException, IOException {
+        Map<Entidad, Long> desde = new LinkedHashMap<>();
+        for (Entidad entidad : Entidad.values())
+            desde.put(entidad, 0L);
+        for (Map.Entry<String, String> parametro : parametros.entrySet())
+            if (parametro.getKey().startsWith(SINCE))
+                desde.put(Entidad.de(parametro.getKey().substring(SINCE.length())), id(parametro.getValue()));
+        exportar(desde, response);
+    }
+
+    /**
+     * Exporta una entidad. since=&lt;id&gt; exporta solo las filas con id mayor.
+     */
+    @GetMapping(value = "/{entidad}", produces = NDJSON)
+    public void exportar(@PathVariable String entidad, @RequestParam(defaultValue = "0") Long since,
+            HttpServletResponse response) throws EntityNotFoundException, IllegalOperationException, IOException {
+        exportar(Map.of(Entidad.de(entidad), since), response);
+    }
+
+    private void exportar(Map<Entidad, Long> desde, HttpServletResponse response)
+            throws IllegalOperationException, IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        exportacionService.exportar(desde, response.getOutputStream());
+    }
+
+    private static long id(String valor) throws IllegalOperationException {
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalOperationException("El id desde el que se exporta no es válido: " + valor);
+        }
+    }
+}
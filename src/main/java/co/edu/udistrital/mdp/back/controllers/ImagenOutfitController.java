@@ -1,26 +1,38 @@
 package co.edu.udistrital.mdp.back.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import co.edu.udistrital.mdp.back.dto.ImagenOutfitDTO;
 import co.edu.udistrital.mdp.back.entities.ImagenOutfitEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.OutfitMapper;
+import co.edu.udistrital.mdp.back.services.ContenidoImagen;
+import co.edu.udistrital.mdp.back.services.ContenidoImagenService;
 import co.edu.udistrital.mdp.back.services.ImagenOutfitService;
+import co.edu.udistrital.mdp.back.services.VariantesImagenService;
+import co.edu.udistrital.mdp.back.services.VariantesImagenService.Variante;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 
 @RestController
@@ -33,23 +45,28 @@ public class ImagenOutfitController {
 
 	@Autowired
 
-	private ModelMapper modelMapper;
+	private OutfitMapper outfitMapper;
+
+	@Autowired
+	private ContenidoImagenService contenidoImagenService;
+
+	@Autowired
+	private VariantesImagenService variantesImagenService;
 
     @PostMapping(value = "/{outfitId}/imagenoutfits")
 	@ResponseStatus(code = HttpStatus.CREATED)
 	public ImagenOutfitDTO createImagenOutfit(@PathVariable Long outfitId, @RequestBody ImagenOutfitDTO imagenoutfit)
 			throws EntityNotFoundException, IllegalOperationException {
-		ImagenOutfitEntity imagenoutfitEnity = modelMapper.map(imagenoutfit, ImagenOutfitEntity.class);
+		ImagenOutfitEntity imagenoutfitEnity = outfitMapper.toImagenEntity(imagenoutfit);
 		ImagenOutfitEntity newImagenOutfit = imagenoutfitService.createImagenOutfit(outfitId, imagenoutfitEnity);
-		return modelMapper.map(newImagenOutfit, ImagenOutfitDTO.class);
+		return outfitMapper.toImagenDTO(newImagenOutfit);
 	}
 
     @GetMapping(value = "/{outfitId}/imagenoutfits")
 	@ResponseStatus(code = HttpStatus.OK)
 	public List<ImagenOutfitDTO> getImagenOutfits(@PathVariable Long outfitId)  {
 		List<ImagenOutfitEntity> imagenoutfits = imagenoutfitService.getImagenOutfits(outfitId);
-		return modelMapper.map(imagenoutfits, new TypeToken<List<ImagenOutfitDTO>>() {
-		}.getType());
+		return outfitMapper.toImagenDTOList(imagenoutfits);
 	}
 
     @GetMapping(value = "/{outfitId}/imagenoutfits/{imagenoutfitId}")
@@ -57,16 +74,16 @@ public class ImagenOutfitController {
 	public ImagenOutfitDTO getImagenOutfit(@PathVariable Long outfitId, @PathVariable Long imagenoutfitId)
 			throws EntityNotFoundException {
 		ImagenOutfitEntity entity = imagenoutfitService.getImagenOutfit(outfitId, imagenoutfitId);
-		return modelMapper.map(entity, ImagenOutfitDTO.class);
+		return outfitMapper.toImagenDTO(entity);
 	}
 
     @PutMapping(value = "/{outfitId}/imagenoutfits/{imagenoutfitsId}")
 	@ResponseStatus(code = HttpStatus.OK)
 	public ImagenOutfitDTO updateImagenOutfit(@PathVariable Long outfitId, @PathVariable("imagenoutfitsId") Long imagenoutfitId,
 			@RequestBody ImagenOutfitDTO imagenoutfit) throws EntityNotFoundException, IllegalOperationException {
-		ImagenOutfitEntity imagenoutfitEntity = modelMapper.map(imagenoutfit, ImagenOutfitEntity.class);
+		ImagenOutfitEntity imagenoutfitEntity = outfitMapper.toImagenEntity(imagenoutfit);
 		ImagenOutfitEntity newEntity = imagenoutfitService.updateImagenOutfit(outfitId, imagenoutfitId, imagenoutfitEntity);
-		return modelMapper.map(newEntity, ImagenOutfitDTO.class);
+		return outfitMapper.toImagenDTO(newEntity);
 	}
 
     @DeleteMapping(value = "/{outfitId}/imagenoutfits/{imagenoutfitId}")
@@ -75,4 +92,54 @@ public class ImagenOutfitController {
 			throws EntityNotFoundException, IllegalOperationException {
 		imagenoutfitService.deleteImagenOutfit(outfitId, imagenoutfitId);
 	}
+
+	/**
+	 * Sube el contenido de la imagen en el cuerpo de la petición, que se lee por
+	 * bloques sin cargarlo completo en memoria.
+	 */
+	@PutMapping(value = "/{outfitId}/imagenoutfits/{imagenId}/contenido", consumes = "image/*")
+	@ResponseStatus(code = HttpStatus.OK)
+	public ImagenOutfitDTO updateContenido(@PathVariable Long outfitId, @PathVariable Long imagenId,
+			@RequestHeader("Content-Type") String contentType, HttpServletRequest request)
+			throws EntityNotFoundException, IllegalOperationException, IOException {
+		try (InputStream entrada = request.getInputStream()) {
+			ImagenOutfitEntity entity = contenidoImagenService.guardarContenidoOutfit(outfitId, imagenId, entrada,
+					contentType);
+			return outfitMapper.toImagenDTO(entity);
+		}
+	}
+
+	/**
+	 * Sube el contenido de la imagen como formulario multipart (campo "archivo").
+	 */
+	@PostMapping(value = "/{outfitId}/imagenoutfits/{imagenId}/contenido",
+			consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	@ResponseStatus(code = HttpStatus.OK)
+	public ImagenOutfitDTO updateContenido(@PathVariable Long outfitId, @PathVariable Long imagenId,
+			@RequestParam("archivo") MultipartFile archivo)
+			throws EntityNotFoundException, IllegalOperationException, IOException {
+		try (InputStream entrada = archivo.getInputStream()) {
+			ImagenOutfitEntity entity = contenidoImagenService.guardarContenidoOutfit(outfitId, imagenId, entrada,
+					archivo.getContentType());
+			return outfitMapper.toImagenDTO(entity);
+		}
+	}
+
+	/**
+	 * Envía el contenido de la imagen, o una variante reducida (miniatura, tarjeta o
+	 * completa) si se pide. Mientras la variante se genera se envía el original.
+	 */
+	@GetMapping(value = "/{outfitId}/imagenoutfits/{imagenId}/contenido")
+	public void getContenido(@PathVariable Long outfitId, @PathVariable Long imagenId,
+			@RequestParam(required = false) String variante,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept, HttpServletRequest request,
+			HttpServletResponse response) throws EntityNotFoundException, IllegalOperationException, IOException {
+		ContenidoImagen contenido = contenidoImagenService.getContenidoOutfit(outfitId, imagenId);
+		if (variante != null) {
+			boolean webp = accept != null && accept.contains(VariantesImagenService.WEBP);
+			contenido = variantesImagenService.getVariante(contenido, Variante.deParametro(variante), webp);
+			response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		}
+		ContenidoImagenRespuesta.enviar(contenido, request, response);
+	}
 }
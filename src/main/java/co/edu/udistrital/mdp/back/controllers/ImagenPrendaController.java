@@ -1,26 +1,38 @@
 package co.edu.udistrital.mdp.back.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import co.edu.udistrital.mdp.back.dto.ImagenPrendaDTO;
 import co.edu.udistrital.mdp.back.entities.ImagenPrendaEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.ImagenPrendaMapper;
+import co.edu.udistrital.mdp.back.services.ContenidoImagen;
+import co.edu.udistrital.mdp.back.services.ContenidoImagenService;
 import co.edu.udistrital.mdp.back.services.ImagenPrendaService;
+import co.edu.udistrital.mdp.back.services.VariantesImagenService;
+import co.edu.udistrital.mdp.back.services.VariantesImagenService.Variante;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 
 @RestController
@@ -33,23 +45,28 @@ public class ImagenPrendaController {
 
 	@Autowired
 
-	private ModelMapper modelMapper;
+	private ImagenPrendaMapper imagenPrendaMapper;
+
+	@Autowired
+	private ContenidoImagenService contenidoImagenService;
+
+	@Autowired
+	private VariantesImagenService variantesImagenService;
 
     @PostMapping(value = "/{prendaId}/imagenprendas")
 	@ResponseStatus(code = HttpStatus.CREATED)
 	public ImagenPrendaDTO createImagenPrenda(@PathVariable Long prendaId, @RequestBody ImagenPrendaDTO imagenprenda)
 			throws EntityNotFoundException, IllegalOperationException{
-		ImagenPrendaEntity imagenprendaEnity = modelMapper.map(imagenprenda, ImagenPrendaEntity.class);
+		ImagenPrendaEntity imagenprendaEnity = imagenPrendaMapper.toEntity(imagenprenda);
 		ImagenPrendaEntity newImagenPrenda = imagenprendaService.createImagenPrenda(prendaId, imagenprendaEnity);
-		return modelMapper.map(newImagenPrenda, ImagenPrendaDTO.class);
+		return imagenPrendaMapper.toDTO(newImagenPrenda);
 	}
 
     @GetMapping(value = "/{prendaId}/imagenprendas")
 	@ResponseStatus(code = HttpStatus.OK)
 	public List<ImagenPrendaDTO> getImagenPrendas(@PathVariable Long prendaId)  {
 		List<ImagenPrendaEntity> imagenprendas = imagenprendaService.getImagenPrendas(prendaId);
-		return modelMapper.map(imagenprendas, new TypeToken<List<ImagenPrendaDTO>>() {
-		}.getType());
+		return imagenPrendaMapper.toDTOList(imagenprendas);
 	}
 
     @GetMapping(value = "/{prendaId}/imagenprendas/{imagenprendaId}")
@@ -57,16 +74,16 @@ public class ImagenPrendaController {
 	public ImagenPrendaDTO getImagenPrenda(@PathVariable Long prendaId, @PathVariable Long imagenprendaId)
 			throws EntityNotFoundException {
 		ImagenPrendaEntity entity = imagenprendaService.getImagenPrenda(prendaId, imagenprendaId);
-		return modelMapper.map(entity, ImagenPrendaDTO.class);
+		return imagenPrendaMapper.toDTO(entity);
 	}
 
     @PutMapping(value = "/{prendaId}/imagenprendas/{imagenprendasId}")
 	@ResponseStatus(code = HttpStatus.OK)
 	public ImagenPrendaDTO updateImagenPrenda(@PathVariable Long prendaId, @PathVariable("imagenprendasId") Long imagenprendaId,
 			@RequestBody ImagenPrendaDTO imagenprenda) throws EntityNotFoundException, IllegalOperationException {
-		ImagenPrendaEntity imagenprendaEntity = modelMapper.map(imagenprenda, ImagenPrendaEntity.class);
+		ImagenPrendaEntity imagenprendaEntity = imagenPrendaMapper.toEntity(imagenprenda);
 		ImagenPrendaEntity newEntity = imagenprendaService.updateImagenPrenda(prendaId, imagenprendaId, imagenprendaEntity);
-		return modelMapper.map(newEntity, ImagenPrendaDTO.class);
+		return imagenPrendaMapper.toDTO(newEntity);
 	}
 
     @DeleteMapping(value = "/{prendaId}/imagenprendas/{imagenprendaId}")
@@ -75,4 +92,54 @@ public class ImagenPrendaController {
 			throws EntityNotFoundException, IllegalOperationException {
 		imagenprendaService.deleteImagenPrenda(prendaId, imagenprendaId);
 	}
+
+	/**
+	 * Sube el contenido de la imagen en el cuerpo de la petición, que se lee por
+	 * bloques sin cargarlo completo en memoria.
+	 */
+	@PutMapping(value = "/{prendaId}/imagenprendas/{imagenId}/contenido", consumes = "image/*")
+	@ResponseStatus(code = HttpStatus.OK)
+	public ImagenPrendaDTO updateContenido(@PathVariable Long prendaId, @PathVariable Long imagenId,
+			@RequestHeader("Content-Type") String contentType, HttpServletRequest request)
+			throws EntityNotFoundException, IllegalOperationException, IOException {
+		try (InputStream entrada = request.getInputStream()) {
+			ImagenPrendaEntity entity = contenidoImagenService.guardarContenidoPrenda(prendaId, imagenId, entrada,
+					contentType);
+			return imagenPrendaMapper.toDTO(entity);
+		}
+	}
+
+	/**
+	 * Sube el contenido de la imagen como formulario multipart (campo "archivo").
+	 */
+	@PostMapping(value = "/{prendaId}/imagenprendas/{imagenId}/contenido",
+			consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	@ResponseStatus(code = HttpStatus.OK)
+	public ImagenPrendaDTO updateContenido(@PathVariable Long prendaId, @PathVariable Long imagenId,
+			@RequestParam("archivo") MultipartFile archivo)
+			throws EntityNotFoundException, IllegalOperationException, IOException {
+		try (InputStream entrada = archivo.getInputStream()) {
+			ImagenPrendaEntity entity = contenidoImagenService.guardarContenidoPrenda(prendaId, imagenId, entrada,
+					archivo.getContentType());
+			return imagenPrendaMapper.toDTO(entity);
+		}
+	}
+
+	/**
+	 * Envía el contenido de la imagen, o una variante reducida (miniatura, tarjeta o
+	 * completa) si se pide. Mientras la variante se genera se envía el original.
+	 */
+	@GetMapping(value = "/{prendaId}/imagenprendas/{imagenId}/contenido")
+	public void getContenido(@PathVariable Long prendaId, @PathVariable Long imagenId,
+			@RequestParam(required = false) String variante,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept, HttpServletRequest request,
+			HttpServletResponse response) throws EntityNotFoundException, IllegalOperationException, IOException {
+		ContenidoImagen contenido = contenidoImagenService.getContenidoPrenda(prendaId, imagenId);
+		if (variante != null) {
+			boolean webp = accept != null && accept.contains(VariantesImagenService.WEBP);
+			contenido = variantesImagenService.getVariante(contenido, Variante.deParametro(variante), webp);
+			response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		}
+		ContenidoImagenRespuesta.enviar(contenido, request, response);
+	}
 }
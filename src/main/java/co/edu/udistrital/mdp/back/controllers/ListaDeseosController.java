@@ -2,8 +2,6 @@ package co.edu.udistrital.mdp.back.controllers;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,10 +13,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import co.edu.udistrital.mdp.back.config.PresupuestoConsultas;
 import co.edu.udistrital.mdp.back.dto.ListaDeseosDTO;
 import co.edu.udistrital.mdp.back.dto.ListaDeseosDetailDTO;
 import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.mappers.ListaDeseosMapper;
 import co.edu.udistrital.mdp.back.services.ListaDeseosService;
 
 /**
@@ -33,7 +33,7 @@ public class ListaDeseosController {
 	private ListaDeseosService listaService;
 
 	@Autowired
-	private ModelMapper modelMapper;
+	private ListaDeseosMapper listaDeseosMapper;
 
     /**
 	 * Crea una nueva lista de deseos con la informacion que se recibe en el cuerpo de la
@@ -47,8 +47,8 @@ public class ListaDeseosController {
 	@PostMapping("/usuarios/{usuarioId}/listas")
 	@ResponseStatus(code = HttpStatus.CREATED)
 	public ListaDeseosDTO create(@PathVariable Long usuarioId, @RequestBody ListaDeseosDTO listadeseosDTO) throws EntityNotFoundException {
-		ListaDeseosEntity listadeseosEntity = listaService.createListaDeseos(usuarioId, modelMapper.map(listadeseosDTO, ListaDeseosEntity.class));
-		return modelMapper.map(listadeseosEntity, ListaDeseosDTO.class);
+		ListaDeseosEntity listadeseosEntity = listaService.createListaDeseos(usuarioId, listaDeseosMapper.toEntity(listadeseosDTO));
+		return listaDeseosMapper.toDTO(listadeseosEntity);
 	}
 
 	/**
@@ -61,8 +61,7 @@ public class ListaDeseosController {
 	@ResponseStatus(code = HttpStatus.OK)
 	public List<ListaDeseosDetailDTO> findAll() {
 		List<ListaDeseosEntity> listasdeseos = listaService.getListaDeseos();
-		return modelMapper.map(listasdeseos, new TypeToken<List<ListaDeseosDetailDTO>>() {
-		}.getType());
+		return listaDeseosMapper.toDetailDTOList(listasdeseos);
 	}
 
     /**
@@ -74,9 +73,10 @@ public class ListaDeseosController {
 	 */
 	@GetMapping(value = "/{id}")
 	@ResponseStatus(code = HttpStatus.OK)
+	@PresupuestoConsultas(2)
 	public ListaDeseosDetailDTO findOne(@PathVariable Long id) throws EntityNotFoundException {
 		ListaDeseosEntity listadeseosEntity = listaService.getListaDeseos(id);
-		return modelMapper.map(listadeseosEntity, ListaDeseosDetailDTO.class);
+		return listaDeseosMapper.toDetailDTO(listadeseosEntity);
 	}
 
     /**
@@ -92,7 +92,7 @@ public class ListaDeseosController {
 	@ResponseStatus(code = HttpStatus.OK)
 	public ListaDeseosDTO update(@PathVariable Long id, @RequestBody ListaDeseosDTO listadeseosDTO)
 			throws EntityNotFoundException {
-		ListaDeseosEntity listadeseosEntity = listaService.updateListaDeseos(id, modelMapper.map(listadeseosDTO, ListaDeseosEntity.class));
-		return modelMapper.map(listadeseosEntity, ListaDeseosDTO.class);
+		ListaDeseosEntity listadeseosEntity = listaService.updateListaDeseos(id, listaDeseosMapper.toEntity(listadeseosDTO));
+		return listaDeseosMapper.toDTO(listadeseosEntity);
 	}
 }
@@ -2,8 +2,6 @@ package co.edu.udistrital.mdp.back.controllers;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -21,7 +20,11 @@ import co.edu.udistrital.mdp.back.dto.OutfitDetailDTO;
 import co.edu.udistrital.mdp.back.entities.OutfitEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.OutfitMapper;
+import co.edu.udistrital.mdp.back.services.KeysetPage;
+import co.edu.udistrital.mdp.back.services.KeysetPagination;
 import co.edu.udistrital.mdp.back.services.ListaDeseosOutfitService;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Clase que implementa el recurso "listasdeseos/{id}/outfits".
@@ -36,7 +39,7 @@ public class ListaDeseosOutfitController {
 	private ListaDeseosOutfitService listaOutfitsService;
 
 	@Autowired
-	private ModelMapper modelMapper;
+	private OutfitMapper outfitMapper;
 
 	/**
 	 * Busca y devuelve el outfit con el ID recibido en la URL, relativo a una lista de deseos.
@@ -50,22 +53,29 @@ public class ListaDeseosOutfitController {
 	public OutfitDetailDTO getOutfit(@PathVariable Long listaDeseosId, @PathVariable Long outfitId)
 			throws EntityNotFoundException, IllegalOperationException {
 		OutfitEntity outfitEntity = listaOutfitsService.getOutfit(listaDeseosId, outfitId);
-		return modelMapper.map(outfitEntity, OutfitDetailDTO.class);
+		return outfitMapper.toDetailDTO(outfitEntity);
 	}
 
     /**
-	 * Busca y devuelve todos los outfits que existen en una lista de deseos.
+	 * Busca y devuelve una página de los outfits de una lista de deseos, ordenados
+	 * por id. Si hay más outfits, el cursor de la siguiente página se envía en el
+	 * encabezado X-Next-Cursor.
 	 *
 	 * @param listasDeseosId El ID de la lista de deseos del cual se buscan los outfits
+	 * @param cursor         Cursor de la página anterior (opcional).
+	 * @param size           Tamaño de la página (opcional).
 	 * @return JSONArray {@link OutfitDetailDTO} - Los outfits encontrados en la lista de deseos.
 	 *         Si no hay ninguno retorna una lista vacía.
 	 */
 	@GetMapping(value = "/{listaDeseosId}/outfits")
 	@ResponseStatus(code = HttpStatus.OK)
-	public List<OutfitDetailDTO> getOutfits(@PathVariable Long listaDeseosId) throws EntityNotFoundException {
-		List<OutfitEntity> outfitEntity = listaOutfitsService.getOutfits(listaDeseosId);
-		return modelMapper.map(outfitEntity, new TypeToken<List<OutfitDetailDTO>>() {
-		}.getType());
+	public List<OutfitDetailDTO> getOutfits(@PathVariable Long listaDeseosId,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size,
+			HttpServletResponse response) throws EntityNotFoundException, IllegalOperationException {
+		KeysetPage<OutfitEntity> pagina = listaOutfitsService.getOutfits(listaDeseosId, cursor, size);
+		if (pagina.hasNext())
+			response.setHeader(KeysetPagination.NEXT_CURSOR_HEADER, pagina.getNextCursor());
+		return outfitMapper.toDetailDTOList(pagina.getContent());
 	}
 
     /**
@@ -80,7 +90,35 @@ public class ListaDeseosOutfitController {
 	public OutfitDetailDTO addBook(@PathVariable Long listaDeseosId, @PathVariable Long outfitId)
 			throws EntityNotFoundException {
 		OutfitEntity outfitEntity = listaOutfitsService.addOutfit(listaDeseosId, outfitId);
-		return modelMapper.map(outfitEntity, OutfitDetailDTO.class);
+		return outfitMapper.toDetailDTO(outfitEntity);
+	}
+
+    /**
+	 * Agrega a una lista de deseos los outfits cuyos ids se reciben en el cuerpo. Los
+	 * que ya estaban en la lista se ignoran.
+	 *
+	 * @param listaDeseosId El ID de la lista de deseos
+	 * @param outfitIds     JSONArray con los ids de los outfits que se agregan.
+	 */
+	@PostMapping(value = "/{listaDeseosId}/outfits/agregar")
+	@ResponseStatus(code = HttpStatus.NO_CONTENT)
+	public void agregarOutfits(@PathVariable Long listaDeseosId, @RequestBody List<Long> outfitIds)
+			throws EntityNotFoundException, IllegalOperationException {
+		listaOutfitsService.agregarOutfits(listaDeseosId, outfitIds);
+	}
+
+    /**
+	 * Quita de una lista de deseos los outfits cuyos ids se reciben en el cuerpo. Los
+	 * que no estaban en la lista se ignoran.
+	 *
+	 * @param listaDeseosId El ID de la lista de deseos
+	 * @param outfitIds     JSONArray con los ids de los outfits que se quitan.
+	 */
+	@PostMapping(value = "/{listaDeseosId}/outfits/quitar")
+	@ResponseStatus(code = HttpStatus.NO_CONTENT)
+	public void quitarOutfits(@PathVariable Long listaDeseosId, @RequestBody List<Long> outfitIds)
+			throws EntityNotFoundException, IllegalOperationException {
+		listaOutfitsService.quitarOutfits(listaDeseosId, outfitIds);
 	}
 
     /**
@@ -96,11 +134,9 @@ public class ListaDeseosOutfitController {
 	@ResponseStatus(code = HttpStatus.OK)
 	public List<OutfitDetailDTO> replaceOutfits(@PathVariable Long listaDeseosId, @RequestBody List<OutfitDTO> outfits)
 			throws EntityNotFoundException {
-		List<OutfitEntity> entities = modelMapper.map(outfits, new TypeToken<List<OutfitEntity>>() {
-		}.getType());
+		List<OutfitEntity> entities = outfitMapper.toEntityList(outfits);
 		List<OutfitEntity> outfitsList = listaOutfitsService.addOutfits(listaDeseosId, entities);
-		return modelMapper.map(outfitsList, new TypeToken<List<OutfitDetailDTO>>() {
-		}.getType());
+		return outfitMapper.toDetailDTOList(outfitsList);
 	}
 
     /**
@@ -0,0 +1,114 @@
+package co.edu.udistrital.mdp.back.controllers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.udistrital.mdp.back.services.RecorridoAnidado;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Escribe listados JSON directamente en la respuesta con el generador de Jackson
+ * cuando sus filas vienen de un cursor: cada elemento se mapea a su DTO y se escribe
+ * apenas se lee, sin armar antes la lista de DTO. El JSON es el mismo que produce la
+ * lista completa. Las páginas ya acotadas se devuelven como lista de DTO.
+ *
+ * Si falla la lectura a mitad del listado la respuesta ya está comprometida: el
+ * error corta la conexión y el cliente recibe un JSON incompleto.
+ */
+final class ListadoJson {
+
+    private ListadoJson() {
+        throw new IllegalStateException("Clase de utilidad");
+    }
+
+    /**
+     * Abre un arreglo cuyos elementos llevan una colección anidada que se escribe a
+     * medida que se recorre. Se cierra con {@link Anidado#terminar()}.
+     *
+     * @param campo Nombre del campo de la colección anidada, que va al final de cada
+     *              elemento (como en los DTO de detalle, que extienden al DTO base).
+     */
+    static <P, H> Anidado<P, H> anidado(HttpServletResponse response, ObjectMapper objectMapper,
+            Function<P, ?> mapearPadre, String campo, Function<H, ?> mapearHijo) throws IOException {
+        return new Anidado<>(abrir(response, objectMapper), objectMapper, mapearPadre, campo, mapearHijo);
+    }
+
+    private static JsonGenerator abrir(HttpServletResponse response, ObjectMapper objectMapper) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        return objectMapper.getFactory().createGenerator(response.getOutputStream());
+    }
+
+    static final class Anidado<P, H> implements RecorridoAnidado<P, H> {
+
+        private final JsonGenerator generador;
+        private final ObjectMapper objectMapper;
+        private final Function<P, ?> mapearPadre;
+        private final String campo;
+        private final Function<H, ?> mapearHijo;
+        private boolean abierto;
+
+        private Anidado(JsonGenerator generador, ObjectMapper objectMapper, Function<P, ?> mapearPadre,
+                String campo, Function<H, ?> mapearHijo) throws IOException {
+            this.generador = generador;
+            this.objectMapper = objectMapper;
+            this.mapearPadre = mapearPadre;
+            this.campo = campo;
+            this.mapearHijo = mapearHijo;
+            generador.writeStartArray();
+        }
+
+        @Override
+        public void padre(P padre) {
+            try {
+                cerrarPadre();
+                generador.writeStartObject();
+                JsonNode campos = objectMapper.valueToTree(mapearPadre.apply(padre));
+                for (Iterator<Map.Entry<String, JsonNode>> it = campos.fields(); it.hasNext();) {
+                    Map.Entry<String, JsonNode> entrada = it.next();
+                    generador.writeFieldName(entrada.getKey());
+                    generador.writeTree(entrada.getValue());
+                }
+                generador.writeArrayFieldStart(campo);
+                abierto = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void hijo(H hijo) {
+            try {
+                generador.writeObject(mapearHijo.apply(hijo));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Cierra el último elemento y el arreglo. Solo se llama si el recorrido
+         * terminó: si falló, el JSON queda incompleto a propósito.
+         */
+        void terminar() throws IOException {
+            cerrarPadre();
+            generador.writeEndArray();
+            generador.close();
+        }
+
+        private void cerrarPadre() throws IOException {
+            if (!abierto)
+                return;
+            generador.writeEndArray();
+            generador.writeEndObject();
+            abierto = false;
+        }
+    }
+}
@@ -2,8 +2,6 @@ package co.edu.udistrital.mdp.back.controllers;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,15 +11,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import co.edu.udistrital.mdp.back.config.PresupuestoConsultas;
 import co.edu.udistrital.mdp.back.dto.MarcaDTO;
 import co.edu.udistrital.mdp.back.dto.MarcaDetailDTO;
 import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+import co.edu.udistrital.mdp.back.mappers.MarcaMapper;
+import co.edu.udistrital.mdp.back.services.KeysetPage;
+import co.edu.udistrital.mdp.back.services.KeysetPagination;
 import co.edu.udistrital.mdp.back.services.MarcaService;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/marcas")
@@ -31,33 +35,38 @@ public class MarcaController {
     private MarcaService marcaService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private MarcaMapper marcaMapper;
 
     @GetMapping
     @ResponseStatus(code = HttpStatus.OK)
-    public List<MarcaDTO> findAll() {
-        List<MarcaEntity> marcas = marcaService.getAllMarcas();
+    @PresupuestoConsultas(1)
+    public List<MarcaDTO> findAll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, @RequestParam(required = false) String sort,
+            HttpServletResponse response) throws IllegalOperationException {
+        KeysetPage<MarcaEntity> pagina = marcaService.getAllMarcas(cursor, size, sort);
+        if (pagina.hasNext())
+            response.setHeader(KeysetPagination.NEXT_CURSOR_HEADER, pagina.getNextCursor());
         
-        return modelMapper.map(marcas, new TypeToken<List<MarcaDTO>>() {
-        }.getType());
+        return marcaMapper.toDTOList(pagina.getContent());
     }
 
     @GetMapping(value = "/{id}")
     @ResponseStatus(code = HttpStatus.OK)
+    @PresupuestoConsultas(1)
     public MarcaDetailDTO findOne(@PathVariable Long id) throws EntityNotFoundException {
         MarcaEntity marcaEntity = marcaService.getMarcaById(id);
         
-        return modelMapper.map(marcaEntity, MarcaDetailDTO.class);
+        return marcaMapper.toDetailDTO(marcaEntity);
     }
 
     @PostMapping
     @ResponseStatus(code = HttpStatus.CREATED)
     public MarcaDTO create(@RequestBody MarcaDTO marcaDTO) throws IllegalOperationException, EntityNotFoundException {
-        MarcaEntity marcaToCreate = modelMapper.map(marcaDTO, MarcaEntity.class);
+        MarcaEntity marcaToCreate = marcaMapper.toEntity(marcaDTO);
         
         MarcaEntity marcaCreadaEntity = marcaService.createMarca(marcaToCreate);
         
-        return modelMapper.map(marcaCreadaEntity, MarcaDTO.class);
+        return marcaMapper.toDTO(marcaCreadaEntity);
     }
 
     @PutMapping(value = "/{id}")
@@ -65,11 +74,11 @@ public class MarcaController {
     public MarcaDTO update(@PathVariable Long id, @RequestBody MarcaDTO marcaDTO)
             throws EntityNotFoundException, IllegalOperationException {
         
-        MarcaEntity marcaDetailsEntity = modelMapper.map(marcaDTO, MarcaEntity.class);
+        MarcaEntity marcaDetailsEntity = marcaMapper.toEntity(marcaDTO);
         
         MarcaEntity marcaActualizadaEntity = marcaService.updateMarca(id, marcaDetailsEntity);
         
-        return modelMapper.map(marcaActualizadaEntity, MarcaDTO.class);
+        return marcaMapper.toDTO(marcaActualizadaEntity);
     }
 
     @DeleteMapping(value = "/{id}")
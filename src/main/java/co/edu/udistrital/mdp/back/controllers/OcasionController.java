@@ -2,8 +2,6 @@ package co.edu.udistrital.mdp.back.controllers;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,15 +11,24 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import co.edu.udistrital.mdp.back.config.PresupuestoConsultas;
 import co.edu.udistrital.mdp.back.dto.OcasionDTO;
 import co.edu.udistrital.mdp.back.dto.OcasionDetailDTO;
 import co.edu.udistrital.mdp.back.entities.OcasionEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.OcasionMapper;
+import co.edu.udistrital.mdp.back.services.KeysetPage;
+import co.edu.udistrital.mdp.back.services.KeysetPagination;
 import co.edu.udistrital.mdp.back.services.OcasionService;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/ocasiones")
@@ -31,35 +38,51 @@ public class OcasionController {
     private OcasionService ocasionService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private OcasionMapper ocasionMapper;
+
+    @Autowired
+    private VersionesRecursos versionesRecursos;
+
+    @Autowired
+    private RespuestasCondicionales respuestasCondicionales;
 
     @GetMapping
-    @ResponseStatus(code = HttpStatus.OK)
-    public List<OcasionDetailDTO> findAll() {
-        List<OcasionEntity> ocasiones = ocasionService.getOcasiones();
-        return modelMapper.map(ocasiones, new TypeToken<List<OcasionDetailDTO>>() {}.getType());
+    @PresupuestoConsultas(1)
+    public List<OcasionDetailDTO> findAll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, @RequestParam(required = false) String sort,
+            HttpServletResponse response, ServletWebRequest request) throws IllegalOperationException {
+        String etag = versionesRecursos.getEtag(Recurso.OCASION, Recurso.CATEGORIA);
+        if (respuestasCondicionales.noModificado("ocasiones", etag, request))
+            return null;
+        KeysetPage<OcasionEntity> pagina = ocasionService.getOcasiones(cursor, size, sort);
+        if (pagina.hasNext())
+            response.setHeader(KeysetPagination.NEXT_CURSOR_HEADER, pagina.getNextCursor());
+        return ocasionMapper.toDetailDTOList(pagina.getContent());
     }
 
     @GetMapping(value = "/{id}")
-    @ResponseStatus(code = HttpStatus.OK)
-    public OcasionDetailDTO findOne(@PathVariable Long id) throws EntityNotFoundException {
+    @PresupuestoConsultas(2)
+    public OcasionDetailDTO findOne(@PathVariable Long id, ServletWebRequest request) throws EntityNotFoundException {
+        String etag = versionesRecursos.getEtag(Recurso.OCASION, id, Recurso.CATEGORIA);
+        if (respuestasCondicionales.noModificado("ocasiones", etag, request))
+            return null;
         OcasionEntity ocasionEntity = ocasionService.getOcasion(id);
-        return modelMapper.map(ocasionEntity, OcasionDetailDTO.class);
+        return ocasionMapper.toDetailDTO(ocasionEntity);
     }
 
     @PostMapping
     @ResponseStatus(code = HttpStatus.CREATED)
     public OcasionDTO create(@RequestBody OcasionDTO ocasionDTO) throws IllegalOperationException {
-        OcasionEntity ocasionEntity = ocasionService.createOcasion(modelMapper.map(ocasionDTO, OcasionEntity.class));
-        return modelMapper.map(ocasionEntity, OcasionDTO.class);
+        OcasionEntity ocasionEntity = ocasionService.createOcasion(ocasionMapper.toEntity(ocasionDTO));
+        return ocasionMapper.toDTO(ocasionEntity);
     }
 
     @PutMapping(value = "/{id}")
     @ResponseStatus(code = HttpStatus.OK)
     public OcasionDTO update(@PathVariable Long id, @RequestBody OcasionDTO ocasionDTO)
             throws EntityNotFoundException, IllegalOperationException {
-        OcasionEntity ocasionEntity = ocasionService.updateOcasion(id, modelMapper.map(ocasionDTO, OcasionEntity.class));
-        return modelMapper.map(ocasionEntity, OcasionDTO.class);
+        OcasionEntity ocasionEntity = ocasionService.updateOcasion(id, ocasionMapper.toEntity(ocasionDTO));
+        return ocasionMapper.toDTO(ocasionEntity);
     }
 
     @DeleteMapping(value = "/{id}")
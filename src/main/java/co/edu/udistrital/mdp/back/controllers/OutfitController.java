@@ -1,7 +1,7 @@
 package co.edu.udistrital.mdp.back.controllers;
 
 import java.util.List;
-import org.modelmapper.ModelMapper;
+import java.util.concurrent.TimeoutException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,16 +11,26 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import co.edu.udistrital.mdp.back.config.PresupuestoConsultas;
 import co.edu.udistrital.mdp.back.dto.OutfitDTO;
 import co.edu.udistrital.mdp.back.dto.OutfitDetailDTO;
 import co.edu.udistrital.mdp.back.entities.OutfitEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.DetalleMapper;
+import co.edu.udistrital.mdp.back.mappers.OutfitMapper;
+import co.edu.udistrital.mdp.back.services.ConsultaDetalleService;
+import co.edu.udistrital.mdp.back.services.KeysetPage;
+import co.edu.udistrital.mdp.back.services.KeysetPagination;
 import co.edu.udistrital.mdp.back.services.OutfitService;
-import org.modelmapper.TypeToken;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 
@@ -30,38 +40,60 @@ public class OutfitController {
 	private OutfitService outfitService;
 
 	@Autowired
-	private ModelMapper modelMapper;
+	private OutfitMapper outfitMapper;
 
-	@GetMapping
-	@ResponseStatus(code = HttpStatus.OK)
+	@Autowired
+	private ConsultaDetalleService consultaDetalleService;
+
+	@Autowired
+	private DetalleMapper detalleMapper;
+
+	@Autowired
+	private VersionesRecursos versionesRecursos;
+
+	@Autowired
+	private RespuestasCondicionales respuestasCondicionales;
 
-	public List<OutfitDetailDTO> findAll() {
-		List<OutfitEntity> outfits = outfitService.getOutfits();
-		return modelMapper.map(outfits, new TypeToken<List<OutfitDetailDTO>>() {
-		}.getType());
+	@GetMapping
+	@PresupuestoConsultas(1)
+	public List<OutfitDetailDTO> findAll(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size, @RequestParam(required = false) String sort,
+			HttpServletResponse response, ServletWebRequest request) throws IllegalOperationException {
+		String etag = versionesRecursos.getEtag(Recurso.OUTFIT, Recurso.PRENDA, Recurso.COLOR, Recurso.MARCA,
+				Recurso.TIENDA, Recurso.LISTA_DESEOS, Recurso.RECOMENDACION);
+		if (respuestasCondicionales.noModificado("outfits", etag, request))
+			return null;
+		KeysetPage<OutfitEntity> pagina = outfitService.getOutfits(cursor, size, sort);
+		if (pagina.hasNext())
+			response.setHeader(KeysetPagination.NEXT_CURSOR_HEADER, pagina.getNextCursor());
+		return outfitMapper.toDetailDTOList(pagina.getContent());
 	}
 
 	@GetMapping(value = "/{id}")
-	@ResponseStatus(code = HttpStatus.OK)
-
-	public OutfitDetailDTO findOne(@PathVariable Long id) throws EntityNotFoundException {
-		OutfitEntity outfitEntity = outfitService.getOutfit(id);
-		return modelMapper.map(outfitEntity, OutfitDetailDTO.class);
+	@PresupuestoConsultas(4)
+	public OutfitDetailDTO findOne(@PathVariable Long id, ServletWebRequest request)
+			throws EntityNotFoundException, TimeoutException {
+		// Los cambios de sus listas de deseos incrementan la versión del outfit
+		String etag = versionesRecursos.getEtag(Recurso.OUTFIT, id, Recurso.PRENDA, Recurso.COLOR, Recurso.MARCA,
+				Recurso.TIENDA, Recurso.RECOMENDACION);
+		if (respuestasCondicionales.noModificado("outfits", etag, request))
+			return null;
+		return detalleMapper.toDetailDTO(consultaDetalleService.getOutfitDetalle(id));
 	}
 
 	@PostMapping
 	@ResponseStatus(code = HttpStatus.CREATED)
 	public OutfitDTO create(@RequestBody OutfitDTO outfitDTO) throws IllegalOperationException, EntityNotFoundException {
-		OutfitEntity outfitEntity = outfitService.createOutfit(modelMapper.map(outfitDTO, OutfitEntity.class));
-		return modelMapper.map(outfitEntity, OutfitDTO.class);
+		OutfitEntity outfitEntity = outfitService.createOutfit(outfitMapper.toEntity(outfitDTO));
+		return outfitMapper.toDTO(outfitEntity);
 	}
 
 	@PutMapping(value = "/{id}")
 	@ResponseStatus(code = HttpStatus.OK)
 	public OutfitDTO update(@PathVariable Long id, @RequestBody OutfitDTO outfitDTO)
 				throws EntityNotFoundException, IllegalOperationException {
-		OutfitEntity outfitEntity = outfitService.updateOutfit(id, modelMapper.map(outfitDTO, OutfitEntity.class));
-		return modelMapper.map(outfitEntity, OutfitDTO.class);
+		OutfitEntity outfitEntity = outfitService.updateOutfit(id, outfitMapper.toEntity(outfitDTO));
+		return outfitMapper.toDTO(outfitEntity);
 	}
 
 	@DeleteMapping(value = "/{id}")
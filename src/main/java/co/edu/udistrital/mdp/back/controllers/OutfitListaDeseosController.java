@@ -2,8 +2,6 @@ package co.edu.udistrital.mdp.back.controllers;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,14 +11,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import co.edu.udistrital.mdp.back.dto.ListaDeseosDTO;
 import co.edu.udistrital.mdp.back.dto.ListaDeseosDetailDTO;
+import co.edu.udistrital.mdp.back.dto.OutfitDTO;
 import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.ListaDeseosMapper;
+import co.edu.udistrital.mdp.back.mappers.OutfitMapper;
 import co.edu.udistrital.mdp.back.services.OutfitListaDeseosService;
 
 /**
@@ -36,7 +39,10 @@ public class OutfitListaDeseosController {
 	private OutfitListaDeseosService outfitListaService;
 
 	@Autowired
-	private ModelMapper modelMapper;
+	private ListaDeseosMapper listaDeseosMapper;
+
+	@Autowired
+	private OutfitMapper outfitMapper;
 
 	/**
 	 * Asocia una lista de deseos existente con un outfit existente
@@ -51,7 +57,7 @@ public class OutfitListaDeseosController {
 	public ListaDeseosDetailDTO addListaDeseos(@PathVariable Long listaDeseosId, @PathVariable Long outfitId)
 			throws EntityNotFoundException, IllegalOperationException {
 		ListaDeseosEntity listadeseosEntity = outfitListaService.addListaDeseos(outfitId, listaDeseosId);
-		return modelMapper.map(listadeseosEntity, ListaDeseosDetailDTO.class);
+		return listaDeseosMapper.toDetailDTO(listadeseosEntity);
 	}
 
     /**
@@ -66,7 +72,7 @@ public class OutfitListaDeseosController {
 	public ListaDeseosDetailDTO getListaDeseos(@PathVariable Long listaDeseosId, @PathVariable Long outfitId)
 			throws EntityNotFoundException, IllegalOperationException {
 		ListaDeseosEntity listadeseosEntity = outfitListaService.getListaDeseos(outfitId, listaDeseosId);
-		return modelMapper.map(listadeseosEntity, ListaDeseosDetailDTO.class);
+		return listaDeseosMapper.toDetailDTO(listadeseosEntity);
 	}
 
     /**
@@ -82,11 +88,9 @@ public class OutfitListaDeseosController {
 	@ResponseStatus(code = HttpStatus.OK)
 	public List<ListaDeseosDetailDTO> addListasDeseos(@PathVariable Long outfitId, @RequestBody List<ListaDeseosDTO> listasdeseos)
 			throws EntityNotFoundException {
-		List<ListaDeseosEntity> entities = modelMapper.map(listasdeseos, new TypeToken<List<ListaDeseosEntity>>() {
-		}.getType());
+		List<ListaDeseosEntity> entities = listaDeseosMapper.toEntityList(listasdeseos);
 		List<ListaDeseosEntity> listasdeseosList = outfitListaService.replaceListasDeseos(outfitId, entities);
-		return modelMapper.map(listasdeseosList, new TypeToken<List<ListaDeseosDetailDTO>>() {
-		}.getType());
+		return listaDeseosMapper.toDetailDTOList(listasdeseosList);
 	}
 
     /**
@@ -100,8 +104,7 @@ public class OutfitListaDeseosController {
 	@ResponseStatus(code = HttpStatus.OK)
 	public List<ListaDeseosDetailDTO> getListasDeseos(@PathVariable Long outfitId) throws EntityNotFoundException {
 		List<ListaDeseosEntity> listadeseosEntity = outfitListaService.getListasDeseos(outfitId);
-		return modelMapper.map(listadeseosEntity, new TypeToken<List<ListaDeseosDetailDTO>>() {
-		}.getType());
+		return listaDeseosMapper.toDetailDTOList(listadeseosEntity);
 	}
 
     /**
@@ -116,4 +119,20 @@ public class OutfitListaDeseosController {
 			throws EntityNotFoundException {
 		outfitListaService.removeListaDeseos(outfitId, listaDeseosId);
 	}
+
+    /**
+	 * Busca los outfits que más veces se han guardado junto con el outfit en las
+	 * listas de deseos.
+	 *
+	 * @param outfitId El ID del outfit
+	 * @param limite   Número máximo de outfits a devolver (por defecto 10)
+	 * @return JSONArray {@link OutfitDTO} - Los outfits, de más a menos listas compartidas.
+	 */
+	@GetMapping(value = "/{outfitId}/tambien-guardados")
+	@ResponseStatus(code = HttpStatus.OK)
+	public List<OutfitDTO> getTambienGuardados(@PathVariable Long outfitId,
+			@RequestParam(required = false) Integer limite) throws EntityNotFoundException, IllegalOperationException {
+		List<OutfitEntity> outfits = outfitListaService.getTambienGuardados(outfitId, limite);
+		return outfitMapper.toDTOList(outfits);
+	}
 }
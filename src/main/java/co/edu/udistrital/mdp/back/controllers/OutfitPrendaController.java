@@ -2,8 +2,6 @@ package co.edu.udistrital.mdp.back.controllers;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -21,6 +19,7 @@ import co.edu.udistrital.mdp.back.dto.PrendaDetailDTO;
 import co.edu.udistrital.mdp.back.entities.PrendaEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.PrendaMapper;
 import co.edu.udistrital.mdp.back.services.OutfitPrendaService;
 
 @RestController
@@ -30,14 +29,14 @@ public class OutfitPrendaController {
 	private OutfitPrendaService outfitPrendaService;
 
 	@Autowired
-	private ModelMapper modelMapper;
+	private PrendaMapper prendaMapper;
 
     @PostMapping(value = "/{outfitId}/prendas/{prendaId}")
 	@ResponseStatus(code = HttpStatus.OK)
 	public PrendaDetailDTO addPrenda(@PathVariable Long prendaId, @PathVariable Long outfitId)
 			throws EntityNotFoundException {
 		PrendaEntity prendaEntity = outfitPrendaService.addPrenda(outfitId, prendaId);
-		return modelMapper.map(prendaEntity, PrendaDetailDTO.class);
+		return prendaMapper.toDetailDTO(prendaEntity);
 	}
 
 
@@ -46,7 +45,7 @@ public class OutfitPrendaController {
 	public PrendaDetailDTO getPrenda(@PathVariable Long prendaId, @PathVariable Long outfitId)
 			throws EntityNotFoundException, IllegalOperationException {
 		PrendaEntity prendaEntity = outfitPrendaService.getPrenda(outfitId, prendaId);
-		return modelMapper.map(prendaEntity, PrendaDetailDTO.class);
+		return prendaMapper.toDetailDTO(prendaEntity);
 	}
 
 
@@ -54,11 +53,9 @@ public class OutfitPrendaController {
 	@ResponseStatus(code = HttpStatus.OK)
 	public List<PrendaDetailDTO> addPrendas(@PathVariable Long outfitId, @RequestBody List<PrendaDTO> prendas)
 			throws EntityNotFoundException {
-		List<PrendaEntity> entities = modelMapper.map(prendas, new TypeToken<List<PrendaEntity>>() {
-		}.getType());
+		List<PrendaEntity> entities = prendaMapper.toEntityList(prendas);
 		List<PrendaEntity> prendasList = outfitPrendaService.replacePrendas(outfitId, entities);
-		return modelMapper.map(prendasList, new TypeToken<List<PrendaDetailDTO>>() {
-		}.getType());
+		return prendaMapper.toDetailDTOList(prendasList);
 	}
 
 
@@ -66,8 +63,7 @@ public class OutfitPrendaController {
 	@ResponseStatus(code = HttpStatus.OK)
 	public List<PrendaDetailDTO> getPrendas(@PathVariable Long outfitId) throws EntityNotFoundException {
 		List<PrendaEntity> prendaEntity = outfitPrendaService.getPrendas(outfitId);
-		return modelMapper.map(prendaEntity, new TypeToken<List<PrendaDetailDTO>>() {
-		}.getType());
+		return prendaMapper.toDetailDTOList(prendaEntity);
 	}
 
 
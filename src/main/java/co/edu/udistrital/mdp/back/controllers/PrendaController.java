@@ -0,0 +1,134 @@
+package co.edu.udistrital.mdp.back.controllers;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.edu.udistrital.mdp.back.config.PresupuestoConsultas;
+import co.edu.udistrital.mdp.back.dto.BusquedaPrendasDTO;
+import co.edu.udistrital.mdp.back.dto.PrendaDTO;
+import co.edu.udistrital.mdp.back.dto.PrendaDetailDTO;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.mappers.PrendaMapper;
+import co.edu.udistrital.mdp.back.services.BusquedaPrendas;
+import co.edu.udistrital.mdp.back.services.ColoresSimilaresService;
+import co.edu.udistrital.mdp.back.services.KeysetPage;
+import co.edu.udistrital.mdp.back.services.KeysetPagination;
+import co.edu.udistrital.mdp.back.services.PrendaFacetasIndex.Faceta;
+import co.edu.udistrital.mdp.back.services.PrendaService;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/prendas")
+public class PrendaController {
+
+    @Autowired
+    private PrendaService prendaService;
+
+    @Autowired
+    private PrendaMapper prendaMapper;
+
+    @Autowired
+    private ColoresSimilaresService coloresSimilaresService;
+
+
+    @PostMapping
+    @ResponseStatus(code = HttpStatus.CREATED)
+    public PrendaDTO create(@RequestBody PrendaDTO prendaDTO) throws IllegalOperationException, EntityNotFoundException {
+
+        PrendaEntity prendaCreadaEntity = prendaService.createPrenda(prendaMapper.toEntity(prendaDTO));
+
+        return prendaMapper.toDTO(prendaCreadaEntity);
+    }
+
+
+    /**
+     * Lista las prendas por páginas, con el cursor de la siguiente en el encabezado
+     * X-Next-Cursor. Con colorCercano devuelve en cambio las k prendas de color más
+     * parecido a ese tono (ΔE en CIELAB), de la más a la menos parecida.
+     */
+    @GetMapping
+    @ResponseStatus(code = HttpStatus.OK)
+    public List<PrendaDTO> findAll(@RequestParam(required = false) String colorCercano,
+            @RequestParam(required = false) Integer k, @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, HttpServletResponse response)
+            throws IllegalOperationException {
+
+        if (colorCercano != null)
+            return prendaMapper.toDTOList(coloresSimilaresService.getPrendasColorCercano(colorCercano, k));
+
+        KeysetPage<PrendaEntity> pagina = prendaService.getPrendas(cursor, size);
+        if (pagina.hasNext())
+            response.setHeader(KeysetPagination.NEXT_CURSOR_HEADER, pagina.getNextCursor());
+        return prendaMapper.toDTOList(pagina.getContent());
+    }
+
+
+    /**
+     * Busca prendas por cualquier combinación de color, marca, categoría y tienda
+     * (cada parámetro admite varios ids) y devuelve, además de la página, el número
+     * de prendas de cada valor de cada faceta.
+     */
+    @GetMapping(value = "/buscar")
+    @ResponseStatus(code = HttpStatus.OK)
+    @PresupuestoConsultas(4)
+    public BusquedaPrendasDTO buscar(@RequestParam(required = false) List<Long> color,
+            @RequestParam(required = false) List<Long> marca, @RequestParam(required = false) List<Long> categoria,
+            @RequestParam(required = false) List<Long> tienda, @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, HttpServletResponse response)
+            throws IllegalOperationException {
+
+        Map<Faceta, List<Long>> filtros = new EnumMap<>(Faceta.class);
+        filtros.put(Faceta.COLOR, color);
+        filtros.put(Faceta.MARCA, marca);
+        filtros.put(Faceta.CATEGORIA, categoria);
+        filtros.put(Faceta.TIENDA, tienda);
+
+        BusquedaPrendas busqueda = prendaService.buscarPrendas(filtros, cursor, size);
+        if (busqueda.getPagina().hasNext())
+            response.setHeader(KeysetPagination.NEXT_CURSOR_HEADER, busqueda.getPagina().getNextCursor());
+
+        return prendaMapper.toBusquedaDTO(busqueda);
+    }
+
+
+    @GetMapping(value = "/{id}")
+    @ResponseStatus(code = HttpStatus.OK)
+    @PresupuestoConsultas(2)
+    public PrendaDetailDTO findOne(@PathVariable Long id) throws EntityNotFoundException {
+
+        return prendaMapper.toDetailDTO(prendaService.getPrendaById(id));
+    }
+
+    @PutMapping(value = "/{id}")
+    @ResponseStatus(code = HttpStatus.OK)
+    public PrendaDTO update(@PathVariable Long id, @RequestBody PrendaDTO prendaDTO)
+            throws EntityNotFoundException, IllegalOperationException {
+
+        PrendaEntity prendaActualizadaEntity = prendaService.updatePrenda(id, prendaMapper.toEntity(prendaDTO));
+
+        return prendaMapper.toDTO(prendaActualizadaEntity);
+    }
+
+    @DeleteMapping(value = "/{id}")
+    @ResponseStatus(code = HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable Long id) throws EntityNotFoundException, IllegalOperationException {
+
+        prendaService.deletePrenda(id);
+    }
+}
@@ -2,8 +2,6 @@ package co.edu.udistrital.mdp.back.controllers;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -21,6 +19,7 @@ import co.edu.udistrital.mdp.back.dto.OutfitDetailDTO;
 import co.edu.udistrital.mdp.back.entities.OutfitEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.OutfitMapper;
 import co.edu.udistrital.mdp.back.services.PrendaOutfitService;
 
 @RestController
@@ -30,7 +29,7 @@ public class PrendaOutfitController {
 	private PrendaOutfitService prendaOutfitService;
 
 	@Autowired
-	private ModelMapper modelMapper;
+	private OutfitMapper outfitMapper;
 
 
     @GetMapping(value = "/{prendaId}/outfits/{outfitId}")
@@ -38,7 +37,7 @@ public class PrendaOutfitController {
 	public OutfitDetailDTO getOutfit(@PathVariable Long prendaId, @PathVariable Long outfitId)
 			throws EntityNotFoundException, IllegalOperationException {
 		OutfitEntity outfitEntity = prendaOutfitService.getOutfit(prendaId, outfitId);
-		return modelMapper.map(outfitEntity, OutfitDetailDTO.class);
+		return outfitMapper.toDetailDTO(outfitEntity);
 	}
 
 
@@ -46,8 +45,7 @@ public class PrendaOutfitController {
 	@ResponseStatus(code = HttpStatus.OK)
 	public List<OutfitDetailDTO> getOutfits(@PathVariable Long prendaId) throws EntityNotFoundException {
 		List<OutfitEntity> outfitEntity = prendaOutfitService.getOutfits(prendaId);
-		return modelMapper.map(outfitEntity, new TypeToken<List<OutfitDetailDTO>>() {
-		}.getType());
+		return outfitMapper.toDetailDTOList(outfitEntity);
 	}
 
 
@@ -56,7 +54,7 @@ public class PrendaOutfitController {
 	public OutfitDetailDTO addOutfit(@PathVariable Long prendaId, @PathVariable Long outfitId)
 			throws EntityNotFoundException {
 		OutfitEntity outfitEntity = prendaOutfitService.addOutfit(prendaId, outfitId);
-		return modelMapper.map(outfitEntity, OutfitDetailDTO.class);
+		return outfitMapper.toDetailDTO(outfitEntity);
 	}
 
 
@@ -64,11 +62,9 @@ public class PrendaOutfitController {
 	@ResponseStatus(code = HttpStatus.OK)
 	public List<OutfitDetailDTO> replaceOutfits(@PathVariable Long prendaId, @RequestBody List<OutfitDTO> outfits)
 			throws EntityNotFoundException {
-		List<OutfitEntity> entities = modelMapper.map(outfits, new TypeToken<List<OutfitEntity>>() {
-		}.getType());
+		List<OutfitEntity> entities = outfitMapper.toEntityList(outfits);
 		List<OutfitEntity> outfitsList = prendaOutfitService.addOutfits(prendaId, entities);
-		return modelMapper.map(outfitsList, new TypeToken<List<OutfitDetailDTO>>() {
-		}.getType());
+		return outfitMapper.toDetailDTOList(outfitsList);
 
 	}
 
@@ -0,0 +1,40 @@
+package co.edu.udistrital.mdp.back.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Respuestas condicionales de los GET con ETag de versión (ver
+ * {@link co.edu.udistrital.mdp.back.services.VersionesRecursos}).
+ *
+ * El controlador calcula la ETag antes de consultar: si coincide con If-None-Match
+ * responde 304 sin tocar la base de datos ni los mappers. El Cache-Control de cada
+ * recurso se configura con http.cache-control.&lt;recurso&gt;.
+ */
+@Component
+class RespuestasCondicionales {
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${http.cache-control.defecto:no-cache}")
+    private String cacheControlDefecto;
+
+    /**
+     * Agrega la ETag y el Cache-Control a la respuesta y revisa If-None-Match.
+     *
+     * @param recurso Nombre del recurso en la configuración de Cache-Control.
+     * @param etag    ETag fuerte de la representación actual.
+     * @return true si el cliente ya tiene esta representación: la respuesta queda en
+     *         304 y el controlador debe devolver null.
+     */
+    boolean noModificado(String recurso, String etag, ServletWebRequest request) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+                environment.getProperty("http.cache-control." + recurso, cacheControlDefecto));
+        return request.checkNotModified(etag);
+    }
+}
@@ -2,8 +2,6 @@ package co.edu.udistrital.mdp.back.controllers;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,14 +11,22 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import co.edu.udistrital.mdp.back.config.PresupuestoConsultas;
+import co.edu.udistrital.mdp.back.dto.TiendaCercanaDTO;
 import co.edu.udistrital.mdp.back.dto.TiendaDTO;
 import co.edu.udistrital.mdp.back.entities.TiendaEntity;
+import co.edu.udistrital.mdp.back.mappers.TiendaMapper;
+import co.edu.udistrital.mdp.back.services.KeysetPage;
+import co.edu.udistrital.mdp.back.services.KeysetPagination;
 import co.edu.udistrital.mdp.back.services.TiendaService;
+import co.edu.udistrital.mdp.back.services.TiendasCercanasService;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/tiendas")
@@ -30,39 +36,61 @@ public class TiendaController {
     private TiendaService tiendaService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private TiendaMapper tiendaMapper;
+
+    @Autowired
+    private TiendasCercanasService tiendasCercanasService;
 
 
     @PostMapping
     @ResponseStatus(code = HttpStatus.CREATED)
     public TiendaDTO create(@RequestBody TiendaDTO tiendaDTO) throws IllegalOperationException {
 
-        TiendaEntity tiendaToCreate = modelMapper.map(tiendaDTO, TiendaEntity.class);
+        TiendaEntity tiendaToCreate = tiendaMapper.toEntity(tiendaDTO);
         
         TiendaEntity tiendaCreadaEntity = tiendaService.createTienda(tiendaToCreate);
         
-        return modelMapper.map(tiendaCreadaEntity, TiendaDTO.class);
+        return tiendaMapper.toDTO(tiendaCreadaEntity);
     }
 
 
     @GetMapping
     @ResponseStatus(code = HttpStatus.OK)
-    public List<TiendaDTO> findAll() {
-
-        List<TiendaEntity> tiendas = tiendaService.getAllTiendas(); 
+    @PresupuestoConsultas(1)
+    public List<TiendaDTO> findAll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, @RequestParam(required = false) String sort,
+            HttpServletResponse response) throws IllegalOperationException {
+
+        KeysetPage<TiendaEntity> pagina = tiendaService.getAllTiendas(cursor, size, sort);
+        if (pagina.hasNext())
+            response.setHeader(KeysetPagination.NEXT_CURSOR_HEADER, pagina.getNextCursor()); 
         
-        return modelMapper.map(tiendas, new TypeToken<List<TiendaDTO>>() {
-        }.getType());
+        return tiendaMapper.toDTOList(pagina.getContent());
+    }
+
+
+    /**
+     * Tiendas más cercanas al punto (lat, lon), a menos de radio kilómetros si se da,
+     * y solo las que venden la prenda si se da prendaId.
+     */
+    @GetMapping(value = "/cercanas")
+    @ResponseStatus(code = HttpStatus.OK)
+    public List<TiendaCercanaDTO> findCercanas(@RequestParam Double lat, @RequestParam Double lon,
+            @RequestParam(required = false) Double radio, @RequestParam(required = false) Integer k,
+            @RequestParam(required = false) Long prendaId) throws EntityNotFoundException, IllegalOperationException {
+
+        return tiendaMapper.toCercanaDTOList(tiendasCercanasService.getTiendasCercanas(lat, lon, radio, k, prendaId));
     }
 
 
     @GetMapping(value = "/{id}")
     @ResponseStatus(code = HttpStatus.OK)
+    @PresupuestoConsultas(1)
     public TiendaDTO findOne(@PathVariable Long id) throws EntityNotFoundException {
 
         TiendaEntity tiendaEntity = tiendaService.getTiendaById(id);
 
-        return modelMapper.map(tiendaEntity, TiendaDTO.class);
+        return tiendaMapper.toDTO(tiendaEntity);
     }
 
 
@@ -71,11 +99,11 @@ public class TiendaController {
     public TiendaDTO update(@PathVariable Long id, @RequestBody TiendaDTO tiendaDTO)
             throws EntityNotFoundException, IllegalOperationException {
 
-        TiendaEntity tiendaDetailsEntity = modelMapper.map(tiendaDTO, TiendaEntity.class);
+        TiendaEntity tiendaDetailsEntity = tiendaMapper.toEntity(tiendaDTO);
         
         TiendaEntity tiendaActualizadaEntity = tiendaService.updateTienda(id, tiendaDetailsEntity);
         
-        return modelMapper.map(tiendaActualizadaEntity, TiendaDTO.class);
+        return tiendaMapper.toDTO(tiendaActualizadaEntity);
     }
 
 
@@ -1,9 +1,8 @@
 package co.edu.udistrital.mdp.back.controllers;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,15 +12,29 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.udistrital.mdp.back.config.PresupuestoConsultas;
 import co.edu.udistrital.mdp.back.dto.UsuarioDTO;
 import co.edu.udistrital.mdp.back.dto.UsuarioDetailDTO;
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
 import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.DetalleMapper;
+import co.edu.udistrital.mdp.back.mappers.UsuarioMapper;
+import co.edu.udistrital.mdp.back.services.ConsultaDetalleService;
+import co.edu.udistrital.mdp.back.services.KeysetPage;
+import co.edu.udistrital.mdp.back.services.KeysetPagination;
 import co.edu.udistrital.mdp.back.services.UsuarioService;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Clase que implementa el recurso "usuarios".
@@ -36,7 +49,22 @@ public class UsuarioController {
     private UsuarioService usuarioService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private UsuarioMapper usuarioMapper;
+
+    @Autowired
+    private ConsultaDetalleService consultaDetalleService;
+
+    @Autowired
+    private DetalleMapper detalleMapper;
+
+    @Autowired
+    private VersionesRecursos versionesRecursos;
+
+    @Autowired
+    private RespuestasCondicionales respuestasCondicionales;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
 	/**
 	 * Crea un nuevo usuario con la informacion que se recibe en el cuerpo de la
@@ -50,36 +78,57 @@ public class UsuarioController {
 	@PostMapping
 	@ResponseStatus(code = HttpStatus.CREATED)
 	public UsuarioDTO create(@RequestBody UsuarioDTO usuarioDTO) throws IllegalOperationException {
-		UsuarioEntity usuarioEntity = usuarioService.createUsuario(modelMapper.map(usuarioDTO, UsuarioEntity.class));
-		return modelMapper.map(usuarioEntity, UsuarioDTO.class);
+		UsuarioEntity usuarioEntity = usuarioService.createUsuario(usuarioMapper.toEntity(usuarioDTO));
+		return usuarioMapper.toDTO(usuarioEntity);
 	}
 
     /**
-	 * Busca y devuelve todos los usuarios que existen en la aplicacion.
+	 * Busca y devuelve una página de los usuarios que existen en la aplicacion.
+	 * Si hay más usuarios, el cursor de la siguiente página se envía en el
+	 * encabezado X-Next-Cursor.
 	 *
-	 * @return JSONArray {@link UsuarioDetailDTO} - Los usuarios encontrados en la
-	 *         aplicación. Si no hay ninguno retorna una lista vacía.
+	 * La respuesta se escribe a medida que se leen los comentarios (ver
+	 * {@link ListadoJson}), sin tenerlos todos en memoria.
+	 *
+	 * @param cursor Cursor de la página anterior (opcional).
+	 * @param size   Tamaño de la página (opcional).
+	 * @param sort   Campo de ordenamiento, por ejemplo "nombre" o "nombre,desc" (opcional).
+	 * Escribe JSONArray {@link UsuarioDetailDTO} - Los usuarios encontrados en la
+	 *         aplicación. Si no hay ninguno escribe una lista vacía.
 	 */
 	@GetMapping
-	@ResponseStatus(code = HttpStatus.OK)
-	public List<UsuarioDetailDTO> findAll() {
-		List<UsuarioEntity> usuarios = usuarioService.getUsuarios();
-		return modelMapper.map(usuarios, new TypeToken<List<UsuarioDetailDTO>>() {
-		}.getType());
+	@PresupuestoConsultas(2)
+	public void findAll(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size, @RequestParam(required = false) String sort,
+			HttpServletResponse response, ServletWebRequest request) throws IllegalOperationException, IOException {
+		String etag = versionesRecursos.getEtag(Recurso.USUARIO, Recurso.COMENTARIO);
+		if (respuestasCondicionales.noModificado("usuarios", etag, request))
+			return;
+		KeysetPage<UsuarioEntity> pagina = usuarioService.getPaginaUsuarios(cursor, size, sort);
+		if (pagina.hasNext())
+			response.setHeader(KeysetPagination.NEXT_CURSOR_HEADER, pagina.getNextCursor());
+		ListadoJson.Anidado<UsuarioEntity, ComentarioEntity> listado = ListadoJson.anidado(response, objectMapper,
+				usuarioMapper::toDTO, "comentarios", usuarioMapper::toComentarioDTO);
+		usuarioService.recorrerComentarios(pagina.getContent(), listado);
+		listado.terminar();
 	}
 
     /**
-	 * Busca el usuario con el id asociado recibido en la URL y lo devuelve.
+	 * Busca el usuario con el id asociado recibido en la URL y lo devuelve. El
+	 * usuario y sus comentarios se consultan en paralelo.
 	 *
 	 * @param usuarioId Identificador del usuario que se esta buscando. Este debe ser una
 	 *               cadena de dígitos.
 	 * @return JSON {@link UsuarioDetailDTO} - El usuario buscado
 	 */
 	@GetMapping(value = "/{id}")
-	@ResponseStatus(code = HttpStatus.OK)
-	public UsuarioDetailDTO findOne(@PathVariable Long id) throws EntityNotFoundException {
-		UsuarioEntity usuarioEntity = usuarioService.getUsuario(id);
-		return modelMapper.map(usuarioEntity, UsuarioDetailDTO.class);
+	@PresupuestoConsultas(3)
+	public UsuarioDetailDTO findOne(@PathVariable Long id, ServletWebRequest request)
+			throws EntityNotFoundException, TimeoutException {
+		String etag = versionesRecursos.getEtag(Recurso.USUARIO, id, Recurso.COMENTARIO);
+		if (respuestasCondicionales.noModificado("usuarios", etag, request))
+			return null;
+		return detalleMapper.toDetailDTO(consultaDetalleService.getUsuarioDetalle(id));
 	}
 
     /**
@@ -95,8 +144,8 @@ public class UsuarioController {
 	@ResponseStatus(code = HttpStatus.OK)
 	public UsuarioDTO update(@PathVariable Long id, @RequestBody UsuarioDTO usuarioDTO)
 			throws EntityNotFoundException, IllegalOperationException {
-		UsuarioEntity usuarioEntity = usuarioService.updateUsuario(id, modelMapper.map(usuarioDTO, UsuarioEntity.class));
-		return modelMapper.map(usuarioEntity, UsuarioDTO.class);
+		UsuarioEntity usuarioEntity = usuarioService.updateUsuario(id, usuarioMapper.toEntity(usuarioDTO));
+		return usuarioMapper.toDTO(usuarioEntity);
 	}
 
     /**
@@ -0,0 +1,13 @@
+package co.edu.udistrital.mdp.back.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+public class BusquedaPrendasDTO {
+    private long total;
+    private List<PrendaDTO> prendas;
+    private Map<String, List<ValorFacetaDTO>> facetas;
+}
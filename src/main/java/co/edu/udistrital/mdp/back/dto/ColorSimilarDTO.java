@@ -0,0 +1,11 @@
+package co.edu.udistrital.mdp.back.dto;
+
+import lombok.Data;
+
+@Data
+public class ColorSimilarDTO {
+    private Long id;
+    private String nombre;
+    private String codigoHex;
+    private double distancia;
+}
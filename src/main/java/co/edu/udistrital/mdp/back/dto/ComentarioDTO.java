@@ -7,5 +7,6 @@ public class ComentarioDTO {
     private Long id;
     private String texto;
     private double calificacion;
+    private Long outfitId;
     private UsuarioDetailDTO usuario;
 }
@@ -5,5 +5,8 @@ import lombok.Data;
 @Data
 public class ImagenOutfitDTO {
     private String imagen;
+    private String hash;
+    private String tipoContenido;
+    private Long tamano;
     private OutfitDTO outfit;
 }
@@ -5,6 +5,9 @@ import lombok.Data;
 @Data
 public class ImagenPrendaDTO {
     private String imagen;
+    private String hash;
+    private String tipoContenido;
+    private Long tamano;
     private PrendaDTO prenda;
     private MarcaDTO marca;
 }
@@ -0,0 +1,12 @@
+package co.edu.udistrital.mdp.back.dto;
+
+import lombok.Data;
+
+@Data
+public class OutfitCalificadoDTO {
+    private Long id;
+    private String nombre;
+    private Double precioEstimado;
+    private ResumenCalificacionesDTO calificaciones;
+    private double puntaje;
+}
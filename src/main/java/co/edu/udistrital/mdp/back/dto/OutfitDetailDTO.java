@@ -8,6 +8,7 @@ import lombok.Data;
 
 @Data
 public class OutfitDetailDTO extends OutfitDTO {
+    private List<PrendaDTO> prendas = new ArrayList<>();
     private List<ListaDeseosDTO> listadeseos = new ArrayList<>();
     private List<RecomendacionDTO> recomendacion = new ArrayList<>();
 }
@@ -4,6 +4,7 @@ import lombok.Data;
 
 @Data
 public class PrendaDTO {
+    private Long id;
     private String nombre;
     private Double precio;
     private ColorDetailDTO color;
@@ -0,0 +1,11 @@
+package co.edu.udistrital.mdp.back.dto;
+
+import lombok.Data;
+
+@Data
+public class ResultadoBusquedaTextoDTO {
+    private String tipo;
+    private Long id;
+    private String texto;
+    private double puntaje;
+}
@@ -0,0 +1,15 @@
+package co.edu.udistrital.mdp.back.dto;
+
+import lombok.Data;
+
+@Data
+public class ResumenCalificacionesDTO {
+    private long numero;
+    private double suma;
+    private Double promedio;
+    private long estrellas1;
+    private long estrellas2;
+    private long estrellas3;
+    private long estrellas4;
+    private long estrellas5;
+}
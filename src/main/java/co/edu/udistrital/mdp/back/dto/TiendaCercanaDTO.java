@@ -0,0 +1,15 @@
+package co.edu.udistrital.mdp.back.dto;
+
+import lombok.Data;
+
+@Data
+public class TiendaCercanaDTO {
+    private Long id;
+    private String nombre;
+    private String direccion;
+    private String horario;
+    private String ubicacion;
+    private Double latitud;
+    private Double longitud;
+    private double distanciaKm;
+}
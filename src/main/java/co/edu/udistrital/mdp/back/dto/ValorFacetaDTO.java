@@ -0,0 +1,10 @@
+package co.edu.udistrital.mdp.back.dto;
+
+import lombok.Data;
+
+@Data
+public class ValorFacetaDTO {
+    private Long id;
+    private String nombre;
+    private int cantidad;
+}
@@ -1,5 +1,9 @@
 package co.edu.udistrital.mdp.back.entities;
 
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -21,6 +25,23 @@ public abstract class BaseEntity {
 
 	@PodamExclude
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	// Secuencia por entidad con asignación por bloques (pooled), para que
+	// Hibernate pueda agrupar los INSERT en lotes JDBC
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
 	private Long id;
+
+	private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+	private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+	/**
+	 * Forma normalizada de un nombre para las restricciones de unicidad: sin
+	 * espacios sobrantes, en minúsculas y sin tildes ("  Café " y "cafe" son iguales).
+	 */
+	public static String normalizar(String valor) {
+		if (valor == null)
+			return null;
+		String descompuesto = Normalizer.normalize(valor.trim(), Normalizer.Form.NFD);
+		String sinTildes = MARCAS_DIACRITICAS.matcher(descompuesto).replaceAll("");
+		return ESPACIOS.matcher(sinTildes).replaceAll(" ").toLowerCase(Locale.ROOT);
+	}
 }
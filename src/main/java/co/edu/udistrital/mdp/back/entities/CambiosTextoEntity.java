@@ -0,0 +1,28 @@
+package co.edu.udistrital.mdp.back.entities;
+
+import jakarta.persistence.*;
+
+import lombok.Data;
+
+/**
+ * Número de cambios de texto buscable confirmados por tipo de documento del índice
+ * de búsqueda de texto. Se suma en la misma transacción que cada cambio, de modo que
+ * el índice guardado en archivo puede saber si le falta alguno.
+ */
+@Data
+@Entity
+@Table(name = "cambios_texto", uniqueConstraints = @UniqueConstraint(name = "uk_cambios_texto_tipo",
+        columnNames = "tipo"))
+public class CambiosTextoEntity extends BaseEntity {
+
+    /**
+     * Nombre del tipo de documento (ver BusquedaTextoIndex.Tipo)
+     */
+    @Column(nullable = false)
+    private String tipo;
+
+    /**
+     * Cambios confirmados desde que se creó la fila
+     */
+    private long cambios;
+}
@@ -1,7 +1,12 @@
 package co.edu.udistrital.mdp.back.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import uk.co.jemos.podam.common.PodamExclude;
 
 import java.util.ArrayList;
@@ -13,6 +18,9 @@ import java.util.List;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_categoria_nombre", columnNames = "nombre_normalizado"))
 public class CategoriaEntity extends BaseEntity {
 
     // Edad recomendada para la categoría (ej: 18, 25, 40)
@@ -21,6 +29,14 @@ public class CategoriaEntity extends BaseEntity {
     // Nombre de la categoría (ej: "Juvenil", "Adulto", "Clásico")
     private String nombre;
 
+    /**
+     * Nombre normalizado (ver BaseEntity.normalizar), con índice único
+     */
+    @PodamExclude
+    @Setter(AccessLevel.NONE)
+    @Column(name = "nombre_normalizado")
+    private String nombreNormalizado;
+
     @PodamExclude
     @OneToMany(mappedBy = "categoria", cascade = CascadeType.PERSIST, orphanRemoval = true)
     private List<OutfitEntity> outfits;
@@ -28,4 +44,9 @@ public class CategoriaEntity extends BaseEntity {
     @PodamExclude
     @ManyToMany(mappedBy = "categorias")
     private List<OcasionEntity> ocasiones = new ArrayList<>();
-}
\ No newline at end of file
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+        this.nombreNormalizado = normalizar(nombre);
+    }
+}
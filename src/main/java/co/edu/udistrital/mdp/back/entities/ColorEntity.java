@@ -1,28 +1,49 @@
 package co.edu.udistrital.mdp.back.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
+import uk.co.jemos.podam.common.PodamExclude;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Clase que representa un color en la persistencia.
  */
 @Data
 @Entity
-@Table(name = "colores")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "colores", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_color_nombre", columnNames = "nombre_normalizado"),
+        @UniqueConstraint(name = "uk_color_codigo_hex", columnNames = "codigo_hex") })
 public class ColorEntity extends BaseEntity {
 
     /**
      * Nombre del color (ej: "Rojo", "Azul", "Verde")
      */
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String nombre;
 
     /**
-     * Código hexadecimal del color (ej: "#FFFFFF")
+     * Nombre normalizado (ver BaseEntity.normalizar), con índice único
+     */
+    @PodamExclude
+    @Setter(AccessLevel.NONE)
+    @Column(name = "nombre_normalizado")
+    private String nombreNormalizado;
+
+    /**
+     * Código hexadecimal del color (ej: "#FFFFFF"), en mayúsculas para que el
+     * índice único no distinga "#ff0000" de "#FF0000"
      */
-    @Column(name = "codigo_hex", nullable = false, unique = true, length = 20)
+    @Column(name = "codigo_hex", nullable = false, length = 20)
     private String codigoHex;
 
     /**
@@ -30,5 +51,13 @@ public class ColorEntity extends BaseEntity {
      */
     @OneToMany(mappedBy = "color", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PrendaEntity> prendas = new ArrayList<>();
-}
 
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+        this.nombreNormalizado = normalizar(nombre);
+    }
+
+    public void setCodigoHex(String codigoHex) {
+        this.codigoHex = codigoHex == null ? null : codigoHex.toUpperCase(Locale.ROOT);
+    }
+}
@@ -2,6 +2,7 @@ package co.edu.udistrital.mdp.back.entities;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import uk.co.jemos.podam.common.PodamExclude;
 
 /**
  * Clase que representa un comentario en la persistencia
@@ -13,8 +14,20 @@ public class ComentarioEntity extends BaseEntity {
 	private String texto;
     private double calificacion;
 
+    // Bloqueo optimista: el servicio resta la calificación anterior al resumen del
+    // outfit, así que una actualización concurrente debe fallar en vez de restarla dos veces
+    @PodamExclude
+    @Version
+    private Long version;
+
     // Muchos comentarios pueden pertenecer a un mismo usuario
     @ManyToOne
     @JoinColumn(name = "usuario_id")
     private UsuarioEntity usuario;
+
+    // Outfit que reseña el comentario (opcional). Perezoso: del outfit solo se usa el id
+    @PodamExclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "outfit_id")
+    private OutfitEntity outfit;
 }
@@ -2,6 +2,8 @@ package co.edu.udistrital.mdp.back.entities;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import uk.co.jemos.podam.common.PodamExclude;
 
 /**
@@ -15,9 +17,20 @@ public class ImagenOutfitEntity extends BaseEntity {
    // URL o ruta de la imagen almacenada
    private String imagen;
 
+   // Contenido binario subido: hash SHA-256 (su dirección en el almacén), tipo MIME y tamaño en bytes
+   @PodamExclude
+   @Column(length = 64)
+   private String hash;
+   @PodamExclude
+   private String tipoContenido;
+   @PodamExclude
+   private Long tamano;
+
    @PodamExclude
    // Una imagen puede pertenecer a un outfit
    @OneToOne(mappedBy = "imagen")
+   @EqualsAndHashCode.Exclude
+   @ToString.Exclude
    private OutfitEntity outfit;
 
 }
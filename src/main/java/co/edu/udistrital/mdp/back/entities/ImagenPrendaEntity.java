@@ -11,6 +11,16 @@ import uk.co.jemos.podam.common.PodamExclude;
 @Entity
 public class ImagenPrendaEntity extends BaseEntity{
     private String imagen;
+
+    // Contenido binario subido: hash SHA-256 (su dirección en el almacén), tipo MIME y tamaño en bytes
+    @PodamExclude
+    @Column(length = 64)
+    private String hash;
+    @PodamExclude
+    private String tipoContenido;
+    @PodamExclude
+    private Long tamano;
+
     @PodamExclude
    // Una imagen puede pertenecer a una prenda
    @OneToOne(mappedBy = "imagen")
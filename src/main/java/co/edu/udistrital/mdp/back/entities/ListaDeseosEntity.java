@@ -20,13 +20,17 @@ public class ListaDeseosEntity extends BaseEntity {
     @JoinColumn(name = "usuario_id")
     private UsuarioEntity usuario;
 
-    // Relación ListaDeseos - Outfit (lado dueño con JoinTable)
+    // Relación ListaDeseos - Outfit (lado dueño con JoinTable). La tabla es un
+    // conjunto: la llave única (lista_id, outfit_id) es el índice con el que se
+    // agrega, quita y consulta un outfit sin cargar la lista completa.
     @PodamExclude
     @ManyToMany
     @JoinTable(
         name = "lista_outfit", // nombre de la tabla intermedia
         joinColumns = @JoinColumn(name = "lista_id"), // FK a ListaDeseos
-        inverseJoinColumns = @JoinColumn(name = "outfit_id") // FK a Outfit
+        inverseJoinColumns = @JoinColumn(name = "outfit_id"), // FK a Outfit
+        uniqueConstraints = @UniqueConstraint(name = "uk_lista_outfit", columnNames = { "lista_id", "outfit_id" }),
+        indexes = @Index(name = "idx_lista_outfit_outfit", columnList = "outfit_id")
     )
     private List<OutfitEntity> outfits = new ArrayList<>();
 }
\ No newline at end of file
@@ -1,7 +1,12 @@
 package co.edu.udistrital.mdp.back.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import uk.co.jemos.podam.common.PodamExclude;
 
 import java.util.List;
@@ -12,9 +17,20 @@ import java.util.List;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_marca_nombre", columnNames = "nombre_normalizado"))
 public class MarcaEntity extends BaseEntity {
 
     private String nombre;
+
+    /**
+     * Nombre normalizado (ver BaseEntity.normalizar), con índice único
+     */
+    @PodamExclude
+    @Setter(AccessLevel.NONE)
+    @Column(name = "nombre_normalizado")
+    private String nombreNormalizado;
     private String logo;
     private String ubicacion;
 
@@ -25,6 +41,7 @@ public class MarcaEntity extends BaseEntity {
 
     @PodamExclude
     // Una marca puede tener muchas tiendas
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "marca", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<TiendaEntity> tiendas;
 
@@ -33,4 +50,9 @@ public class MarcaEntity extends BaseEntity {
     @OneToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "imagen_id")
     private ImagenPrendaEntity imagen;
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+        this.nombreNormalizado = normalizar(nombre);
+    }
 }
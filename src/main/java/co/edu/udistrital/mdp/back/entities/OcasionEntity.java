@@ -1,7 +1,12 @@
 package co.edu.udistrital.mdp.back.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import uk.co.jemos.podam.common.PodamExclude;
 
 import java.util.ArrayList;
@@ -12,12 +17,24 @@ import java.util.List;
  */
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_ocasion_nombre", columnNames = "nombre_normalizado"))
 public class OcasionEntity extends BaseEntity {
 
     private String nombre;
 
+    /**
+     * Nombre normalizado (ver BaseEntity.normalizar), con índice único
+     */
+    @PodamExclude
+    @Setter(AccessLevel.NONE)
+    @Column(name = "nombre_normalizado")
+    private String nombreNormalizado;
+
     // Relación Ocasion - Categoria (lado dueño con JoinTable)
     @PodamExclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany
     @JoinTable(
         name = "ocasion_categoria",
@@ -25,4 +42,9 @@ public class OcasionEntity extends BaseEntity {
         inverseJoinColumns = @JoinColumn(name = "categoria_id")
     )
     private List<CategoriaEntity> categorias = new ArrayList<>();
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+        this.nombreNormalizado = normalizar(nombre);
+    }
 }
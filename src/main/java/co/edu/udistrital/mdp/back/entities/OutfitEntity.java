@@ -33,6 +33,11 @@ public class OutfitEntity extends BaseEntity {
     @OneToMany(mappedBy = "outfit")
     private List<RecomendacionEntity> recomendaciones;
 
+    // Calificaciones de los comentarios sobre el outfit, mantenidas por ComentarioService
+    @PodamExclude
+    @Embedded
+    private ResumenCalificaciones calificaciones = new ResumenCalificaciones();
+
     // Relación Outfit - Lista de deseos (lado inverso, NO dueño)
     @PodamExclude
     @ManyToMany(mappedBy = "outfits")
@@ -18,6 +18,11 @@ public class RecomendacionEntity extends BaseEntity {
     // Puntaje interno que indica qué tan relevante es esta recomendación
     private Double puntaje;
 
+    @PodamExclude
+    // Indica si la recomendación fue calculada por el motor de recomendaciones
+    // (el motor solo reemplaza o elimina las recomendaciones generadas por él)
+    private Boolean generada = false;
+
     @PodamExclude
     // La recomendación está dirigida a un único usuario
     // Un usuario puede recibir muchas recomendaciones
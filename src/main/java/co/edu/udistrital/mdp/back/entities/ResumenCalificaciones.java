@@ -0,0 +1,50 @@
+package co.edu.udistrital.mdp.back.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+
+/**
+ * Conteo, suma e histograma de las calificaciones que los comentarios le dan a un
+ * outfit. Se mantienen por diferencias al crear, cambiar o borrar cada comentario,
+ * así que el promedio nunca requiere recorrer los comentarios.
+ */
+@Data
+@Embeddable
+public class ResumenCalificaciones {
+
+    public static final int MINIMA = 1;
+    public static final int MAXIMA = 5;
+
+    @Column(name = "numero_calificaciones", nullable = false)
+    private long numero;
+
+    @Column(name = "suma_calificaciones", nullable = false)
+    private double suma;
+
+    // Histograma: número de calificaciones redondeadas a cada número de estrellas
+    @Column(nullable = false)
+    private long estrellas1;
+    @Column(nullable = false)
+    private long estrellas2;
+    @Column(nullable = false)
+    private long estrellas3;
+    @Column(nullable = false)
+    private long estrellas4;
+    @Column(nullable = false)
+    private long estrellas5;
+
+    /**
+     * Promedio de las calificaciones, o nulo si no tiene.
+     */
+    public Double getPromedio() {
+        return numero == 0 ? null : suma / numero;
+    }
+
+    /**
+     * Número de estrellas (1 a 5) en el que se cuenta una calificación.
+     */
+    public static int estrellas(double calificacion) {
+        return (int) Math.max(MINIMA, Math.min(MAXIMA, Math.round(calificacion)));
+    }
+}
@@ -1,7 +1,12 @@
 package co.edu.udistrital.mdp.back.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import uk.co.jemos.podam.common.PodamExclude;
 
 import java.util.List;
@@ -12,13 +17,33 @@ import java.util.List;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_tienda_nombre", columnNames = "nombre_normalizado"))
 public class TiendaEntity extends BaseEntity {
 
     private String nombre;
+
+    /**
+     * Nombre normalizado (ver BaseEntity.normalizar), con índice único
+     */
+    @PodamExclude
+    @Setter(AccessLevel.NONE)
+    @Column(name = "nombre_normalizado")
+    private String nombreNormalizado;
     private String direccion;
     private String horario;
     private String ubicacion;
 
+    /**
+     * Coordenadas de la ubicación cuando esta se da como "latitud,longitud"; nulas
+     * si la ubicación es una dirección libre
+     */
+    @PodamExclude
+    private Double latitud;
+    @PodamExclude
+    private Double longitud;
+
     @PodamExclude
     // Una tienda pertenece a una marca
     @ManyToOne
@@ -29,4 +54,9 @@ public class TiendaEntity extends BaseEntity {
     // Una tienda puede tener muchas prendas
     @OneToMany(mappedBy = "tienda", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PrendaEntity> prendas;
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+        this.nombreNormalizado = normalizar(nombre);
+    }
 }
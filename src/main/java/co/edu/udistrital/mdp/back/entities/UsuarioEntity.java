@@ -4,7 +4,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import uk.co.jemos.podam.common.PodamExclude;
 
 /**
@@ -13,11 +15,20 @@ import uk.co.jemos.podam.common.PodamExclude;
 
 @Data
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_usuario_correo", columnNames = "correo_normalizado"))
 public class UsuarioEntity extends BaseEntity {
 
     private String nombre;
     private String correo;
 
+    /**
+     * Correo normalizado (ver BaseEntity.normalizar), con índice único
+     */
+    @PodamExclude
+    @Setter(AccessLevel.NONE)
+    @Column(name = "correo_normalizado")
+    private String correoNormalizado;
+
     @PodamExclude
     // Un usuario puede tener muchos comentarios
     @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -27,4 +38,9 @@ public class UsuarioEntity extends BaseEntity {
     // Un usuario tiene exactamente una lista de deseos
     @OneToOne(mappedBy = "usuario", cascade = CascadeType.ALL, orphanRemoval = true)
     private ListaDeseosEntity wishlist;
+
+    public void setCorreo(String correo) {
+        this.correo = correo;
+        this.correoNormalizado = normalizar(correo);
+    }
 }
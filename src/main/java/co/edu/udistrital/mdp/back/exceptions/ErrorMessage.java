@@ -5,6 +5,7 @@ public class ErrorMessage {
     public static final String COLOR_NOT_FOUND ="El color con el id dado no fue encontrado";
     public static final String COMENTARIO_NOT_FOUND ="El comentario con el id dado no fue encontrado";
     public static final String IMAGEN_NOT_FOUND ="La imagen con el id dado no fue encontrado";
+    public static final String CONTENIDO_IMAGEN_NOT_FOUND ="La imagen con el id dado no tiene contenido";
     public static final String LISTADESEOS_NOT_FOUND ="La lista de deseos con el id dado no fue encontrado";
     public static final String MARCA_NOT_FOUND ="La marca con el id dado no fue encontrado";
     public static final String OCASION_NOT_FOUND ="La ocasión con el id dado no fue encontrado";
@@ -1,10 +1,15 @@
 package co.edu.udistrital.mdp.back.exceptions;
 
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+import java.util.concurrent.TimeoutException;
 
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -43,6 +48,36 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return buildResponseEntity(apiError);
     }
 
+    /**
+     * Handles TimeoutException, thrown when a request does not finish its queries
+     * within its deadline.
+     *
+     * @param ex the TimeoutException
+     * @return the ApiError object
+     */
+    @ExceptionHandler(TimeoutException.class)
+    protected ResponseEntity<Object> handleTimeout(
+            TimeoutException ex) {
+        ApiError apiError = new ApiError(SERVICE_UNAVAILABLE);
+        apiError.setMessage(ex.getMessage());
+        return buildResponseEntity(apiError);
+    }
+
+    /**
+     * Handles OptimisticLockingFailureException, thrown when the entity changed
+     * concurrently between reading and updating it. The client may retry.
+     *
+     * @param ex the OptimisticLockingFailureException
+     * @return the ApiError object
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    protected ResponseEntity<Object> handleOptimisticLocking(
+            OptimisticLockingFailureException ex) {
+        ApiError apiError = new ApiError(CONFLICT);
+        apiError.setMessage(ex.getMessage());
+        return buildResponseEntity(apiError);
+    }
+
     private ResponseEntity<Object> buildResponseEntity(ApiError apiError) {
         return new ResponseEntity<>(apiError, apiError.getStatus());
     }
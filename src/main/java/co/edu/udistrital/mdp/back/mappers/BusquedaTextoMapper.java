@@ -0,0 +1,24 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+
+import co.edu.udistrital.mdp.back.dto.ResultadoBusquedaTextoDTO;
+import co.edu.udistrital.mdp.back.services.BusquedaTextoIndex.Tipo;
+import co.edu.udistrital.mdp.back.services.ResultadoBusquedaTexto;
+
+/**
+ * Mapper de los resultados de la búsqueda de texto.
+ */
+@Mapper(config = CentralMapperConfig.class)
+public interface BusquedaTextoMapper {
+
+    ResultadoBusquedaTextoDTO toDTO(ResultadoBusquedaTexto resultado);
+
+    List<ResultadoBusquedaTextoDTO> toDTOList(List<ResultadoBusquedaTexto> resultados);
+
+    default String toParametro(Tipo tipo) {
+        return tipo != null ? tipo.getParametro() : null;
+    }
+}
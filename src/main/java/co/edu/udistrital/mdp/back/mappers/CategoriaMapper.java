@@ -0,0 +1,28 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import java.util.List;
+
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Named;
+
+import co.edu.udistrital.mdp.back.dto.CategoriaDTO;
+import co.edu.udistrital.mdp.back.dto.CategoriaDetailDTO;
+import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
+
+/**
+ * Mapper de categorías.
+ */
+@Mapper(config = CentralMapperConfig.class)
+public interface CategoriaMapper {
+
+    CategoriaDTO toDTO(CategoriaEntity categoria);
+
+    @Named("detalle")
+    CategoriaDetailDTO toDetailDTO(CategoriaEntity categoria);
+
+    @IterableMapping(qualifiedByName = "detalle")
+    List<CategoriaDetailDTO> toDetailDTOList(List<CategoriaEntity> categorias);
+
+    CategoriaEntity toEntity(CategoriaDTO categoria);
+}
@@ -0,0 +1,18 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.NullValueCheckStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Configuración común de los mappers generados en compilación.
+ *
+ * Igual que ModelMapper, las propiedades del destino que no tienen una
+ * propiedad con el mismo nombre en el origen, o cuyo valor de origen es nulo,
+ * se dejan sin tocar.
+ */
+@MapperConfig(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS)
+public interface CentralMapperConfig {
+}
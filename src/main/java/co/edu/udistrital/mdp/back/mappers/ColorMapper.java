@@ -0,0 +1,38 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import java.util.List;
+
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+import co.edu.udistrital.mdp.back.dto.ColorDTO;
+import co.edu.udistrital.mdp.back.dto.ColorDetailDTO;
+import co.edu.udistrital.mdp.back.dto.ColorSimilarDTO;
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.services.ColorSimilar;
+
+/**
+ * Mapper de colores.
+ */
+@Mapper(config = CentralMapperConfig.class, uses = PrendaMapper.class)
+public interface ColorMapper {
+
+    ColorDTO toDTO(ColorEntity color);
+
+    @Named("detalle")
+    ColorDetailDTO toDetailDTO(ColorEntity color);
+
+    @IterableMapping(qualifiedByName = "detalle")
+    List<ColorDetailDTO> toDetailDTOList(List<ColorEntity> colores);
+
+    ColorEntity toEntity(ColorDTO color);
+
+    @Mapping(target = "id", source = "color.id")
+    @Mapping(target = "nombre", source = "color.nombre")
+    @Mapping(target = "codigoHex", source = "color.codigoHex")
+    ColorSimilarDTO toSimilarDTO(ColorSimilar similar);
+
+    List<ColorSimilarDTO> toSimilarDTOList(List<ColorSimilar> similares);
+}
@@ -0,0 +1,28 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import co.edu.udistrital.mdp.back.dto.OutfitDetailDTO;
+import co.edu.udistrital.mdp.back.dto.UsuarioDetailDTO;
+import co.edu.udistrital.mdp.back.services.OutfitDetalle;
+import co.edu.udistrital.mdp.back.services.UsuarioDetalle;
+
+/**
+ * Mapper del detalle de outfits y usuarios armado por ConsultaDetalleService. Las
+ * partes consultadas por separado reemplazan a las colecciones de la entidad.
+ */
+@Mapper(config = CentralMapperConfig.class, uses = { OutfitMapper.class, PrendaMapper.class,
+        ListaDeseosMapper.class, UsuarioMapper.class })
+public interface DetalleMapper {
+
+    @Mapping(target = ".", source = "outfit")
+    @Mapping(target = "prendas", source = "prendas")
+    @Mapping(target = "listadeseos", source = "listasDeseos")
+    @Mapping(target = "recomendacion", source = "recomendaciones")
+    OutfitDetailDTO toDetailDTO(OutfitDetalle detalle);
+
+    @Mapping(target = ".", source = "usuario")
+    @Mapping(target = "comentarios", source = "comentarios")
+    UsuarioDetailDTO toDetailDTO(UsuarioDetalle detalle);
+}
@@ -0,0 +1,28 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import co.edu.udistrital.mdp.back.dto.ImagenPrendaDTO;
+import co.edu.udistrital.mdp.back.entities.ImagenPrendaEntity;
+
+/**
+ * Mapper de imágenes de prendas.
+ */
+@Mapper(config = CentralMapperConfig.class, uses = { PrendaMapper.class, MarcaMapper.class })
+public interface ImagenPrendaMapper {
+
+    ImagenPrendaDTO toDTO(ImagenPrendaEntity imagen);
+
+    List<ImagenPrendaDTO> toDTOList(List<ImagenPrendaEntity> imagenes);
+
+    /**
+     * El contenido binario solo se cambia subiéndolo, no desde el DTO.
+     */
+    @Mapping(target = "hash", ignore = true)
+    @Mapping(target = "tipoContenido", ignore = true)
+    @Mapping(target = "tamano", ignore = true)
+    ImagenPrendaEntity toEntity(ImagenPrendaDTO imagen);
+}
@@ -0,0 +1,30 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import java.util.List;
+
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Named;
+
+import co.edu.udistrital.mdp.back.dto.ListaDeseosDTO;
+import co.edu.udistrital.mdp.back.dto.ListaDeseosDetailDTO;
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+
+/**
+ * Mapper de listas de deseos.
+ */
+@Mapper(config = CentralMapperConfig.class, uses = OutfitMapper.class)
+public interface ListaDeseosMapper {
+
+    ListaDeseosDTO toDTO(ListaDeseosEntity lista);
+
+    @Named("detalle")
+    ListaDeseosDetailDTO toDetailDTO(ListaDeseosEntity lista);
+
+    @IterableMapping(qualifiedByName = "detalle")
+    List<ListaDeseosDetailDTO> toDetailDTOList(List<ListaDeseosEntity> listas);
+
+    ListaDeseosEntity toEntity(ListaDeseosDTO lista);
+
+    List<ListaDeseosEntity> toEntityList(List<ListaDeseosDTO> listas);
+}
@@ -0,0 +1,27 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import java.util.List;
+
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Named;
+
+import co.edu.udistrital.mdp.back.dto.MarcaDTO;
+import co.edu.udistrital.mdp.back.dto.MarcaDetailDTO;
+import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+
+/**
+ * Mapper de marcas.
+ */
+@Mapper(config = CentralMapperConfig.class, uses = { PrendaMapper.class, TiendaMapper.class })
+public interface MarcaMapper {
+
+    MarcaDTO toDTO(MarcaEntity marca);
+
+    List<MarcaDTO> toDTOList(List<MarcaEntity> marcas);
+
+    @Named("detalle")
+    MarcaDetailDTO toDetailDTO(MarcaEntity marca);
+
+    MarcaEntity toEntity(MarcaDTO marca);
+}
@@ -0,0 +1,28 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import java.util.List;
+
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Named;
+
+import co.edu.udistrital.mdp.back.dto.OcasionDTO;
+import co.edu.udistrital.mdp.back.dto.OcasionDetailDTO;
+import co.edu.udistrital.mdp.back.entities.OcasionEntity;
+
+/**
+ * Mapper de ocasiones.
+ */
+@Mapper(config = CentralMapperConfig.class)
+public interface OcasionMapper {
+
+    OcasionDTO toDTO(OcasionEntity ocasion);
+
+    @Named("detalle")
+    OcasionDetailDTO toDetailDTO(OcasionEntity ocasion);
+
+    @IterableMapping(qualifiedByName = "detalle")
+    List<OcasionDetailDTO> toDetailDTOList(List<OcasionEntity> ocasiones);
+
+    OcasionEntity toEntity(OcasionDTO ocasion);
+}
@@ -0,0 +1,75 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import java.util.List;
+
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+import co.edu.udistrital.mdp.back.dto.ImagenOutfitDTO;
+import co.edu.udistrital.mdp.back.dto.OutfitCalificadoDTO;
+import co.edu.udistrital.mdp.back.dto.OutfitDTO;
+import co.edu.udistrital.mdp.back.dto.OutfitDetailDTO;
+import co.edu.udistrital.mdp.back.dto.RecomendacionDTO;
+import co.edu.udistrital.mdp.back.dto.ResumenCalificacionesDTO;
+import co.edu.udistrital.mdp.back.entities.ImagenOutfitEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.RecomendacionEntity;
+import co.edu.udistrital.mdp.back.entities.ResumenCalificaciones;
+import co.edu.udistrital.mdp.back.services.OutfitCalificado;
+
+/**
+ * Mapper de outfits, sus imágenes y recomendaciones.
+ */
+@Mapper(config = CentralMapperConfig.class)
+public interface OutfitMapper {
+
+    OutfitDTO toDTO(OutfitEntity outfit);
+
+    /**
+     * Las prendas del outfit solo se incluyen en su detalle (ver DetalleMapper).
+     */
+    @Named("detalle")
+    @Mapping(target = "prendas", ignore = true)
+    OutfitDetailDTO toDetailDTO(OutfitEntity outfit);
+
+    List<OutfitDTO> toDTOList(List<OutfitEntity> outfits);
+
+    @IterableMapping(qualifiedByName = "detalle")
+    List<OutfitDetailDTO> toDetailDTOList(List<OutfitEntity> outfits);
+
+    /**
+     * El outfit de la imagen es una referencia de vuelta: se mapea sin su
+     * imagen para no generar un ciclo.
+     */
+    @Mapping(target = "outfit", qualifiedByName = "outfitResumen")
+    ImagenOutfitDTO toImagenDTO(ImagenOutfitEntity imagen);
+
+    List<ImagenOutfitDTO> toImagenDTOList(List<ImagenOutfitEntity> imagenes);
+
+    RecomendacionDTO toRecomendacionDTO(RecomendacionEntity recomendacion);
+
+    @Named("outfitResumen")
+    @Mapping(target = "imagen", ignore = true)
+    OutfitDTO toResumenDTO(OutfitEntity outfit);
+
+    @Mapping(target = ".", source = "outfit")
+    OutfitCalificadoDTO toCalificadoDTO(OutfitCalificado outfit);
+
+    List<OutfitCalificadoDTO> toCalificadoDTOList(List<OutfitCalificado> outfits);
+
+    ResumenCalificacionesDTO toResumenCalificacionesDTO(ResumenCalificaciones calificaciones);
+
+    OutfitEntity toEntity(OutfitDTO outfit);
+
+    List<OutfitEntity> toEntityList(List<OutfitDTO> outfits);
+
+    /**
+     * El contenido binario solo se cambia subiéndolo, no desde el DTO.
+     */
+    @Mapping(target = "hash", ignore = true)
+    @Mapping(target = "tipoContenido", ignore = true)
+    @Mapping(target = "tamano", ignore = true)
+    ImagenOutfitEntity toImagenEntity(ImagenOutfitDTO imagen);
+}
@@ -0,0 +1,74 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import java.util.List;
+import java.util.Map;
+
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+import co.edu.udistrital.mdp.back.dto.BusquedaPrendasDTO;
+import co.edu.udistrital.mdp.back.dto.ColorDetailDTO;
+import co.edu.udistrital.mdp.back.dto.ImagenOutfitDTO;
+import co.edu.udistrital.mdp.back.dto.MarcaDetailDTO;
+import co.edu.udistrital.mdp.back.dto.PrendaDTO;
+import co.edu.udistrital.mdp.back.dto.PrendaDetailDTO;
+import co.edu.udistrital.mdp.back.dto.ValorFacetaDTO;
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.entities.ImagenPrendaEntity;
+import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.services.BusquedaPrendas;
+
+/**
+ * Mapper de prendas.
+ *
+ * El color y la marca de una prenda apuntan de vuelta a sus prendas, por lo
+ * que se mapean sin ellas para no generar un ciclo.
+ */
+@Mapper(config = CentralMapperConfig.class, uses = { OutfitMapper.class, TiendaMapper.class })
+public interface PrendaMapper {
+
+    @Mapping(target = "color", qualifiedByName = "colorResumen")
+    @Mapping(target = "marca", qualifiedByName = "marcaResumen")
+    PrendaDTO toDTO(PrendaEntity prenda);
+
+    List<PrendaDTO> toDTOList(List<PrendaEntity> prendas);
+
+    @Named("detalle")
+    @Mapping(target = "color", qualifiedByName = "colorResumen")
+    @Mapping(target = "marca", qualifiedByName = "marcaResumen")
+    PrendaDetailDTO toDetailDTO(PrendaEntity prenda);
+
+    @IterableMapping(qualifiedByName = "detalle")
+    List<PrendaDetailDTO> toDetailDTOList(List<PrendaEntity> prendas);
+
+    @Named("colorResumen")
+    @Mapping(target = "prendas", ignore = true)
+    ColorDetailDTO toColorResumenDTO(ColorEntity color);
+
+    @Named("marcaResumen")
+    @Mapping(target = "prendas", ignore = true)
+    MarcaDetailDTO toMarcaResumenDTO(MarcaEntity marca);
+
+    /**
+     * La imagen de una marca se expone con la forma de ImagenOutfitDTO.
+     */
+    ImagenOutfitDTO toImagenDTO(ImagenPrendaEntity imagen);
+
+    @Mapping(target = "prendas", source = "pagina.content")
+    BusquedaPrendasDTO toBusquedaDTO(BusquedaPrendas busqueda);
+
+    ValorFacetaDTO toValorFacetaDTO(BusquedaPrendas.ValorFaceta valor);
+
+    List<ValorFacetaDTO> toValorFacetaDTOList(List<BusquedaPrendas.ValorFaceta> valores);
+
+    Map<String, List<ValorFacetaDTO>> toFacetasDTO(Map<String, List<BusquedaPrendas.ValorFaceta>> facetas);
+
+    PrendaEntity toEntity(PrendaDTO prenda);
+
+    List<PrendaEntity> toEntityList(List<PrendaDTO> prendas);
+
+    ImagenPrendaEntity toImagenEntity(ImagenOutfitDTO imagen);
+}
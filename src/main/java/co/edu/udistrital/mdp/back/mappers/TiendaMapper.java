@@ -0,0 +1,29 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import co.edu.udistrital.mdp.back.dto.TiendaCercanaDTO;
+import co.edu.udistrital.mdp.back.dto.TiendaDTO;
+import co.edu.udistrital.mdp.back.entities.TiendaEntity;
+import co.edu.udistrital.mdp.back.services.TiendaCercana;
+
+/**
+ * Mapper de tiendas.
+ */
+@Mapper(config = CentralMapperConfig.class)
+public interface TiendaMapper {
+
+    TiendaDTO toDTO(TiendaEntity tienda);
+
+    List<TiendaDTO> toDTOList(List<TiendaEntity> tiendas);
+
+    TiendaEntity toEntity(TiendaDTO tienda);
+
+    @Mapping(target = ".", source = "tienda")
+    TiendaCercanaDTO toCercanaDTO(TiendaCercana cercana);
+
+    List<TiendaCercanaDTO> toCercanaDTOList(List<TiendaCercana> cercanas);
+}
@@ -0,0 +1,60 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import java.util.List;
+
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+import co.edu.udistrital.mdp.back.dto.ComentarioDTO;
+import co.edu.udistrital.mdp.back.dto.UsuarioDTO;
+import co.edu.udistrital.mdp.back.dto.UsuarioDetailDTO;
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+
+/**
+ * Mapper de usuarios y sus comentarios.
+ */
+@Mapper(config = CentralMapperConfig.class)
+public interface UsuarioMapper {
+
+    UsuarioDTO toDTO(UsuarioEntity usuario);
+
+    @Named("detalle")
+    UsuarioDetailDTO toDetailDTO(UsuarioEntity usuario);
+
+    @IterableMapping(qualifiedByName = "detalle")
+    List<UsuarioDetailDTO> toDetailDTOList(List<UsuarioEntity> usuarios);
+
+    /**
+     * El usuario del comentario es una referencia de vuelta: se mapea sin sus
+     * comentarios para no generar un ciclo.
+     */
+    @Mapping(target = "usuario", qualifiedByName = "usuarioResumen")
+    @Mapping(target = "outfitId", source = "outfit.id")
+    ComentarioDTO toComentarioDTO(ComentarioEntity comentario);
+
+    List<ComentarioDTO> toComentarioDTOList(List<ComentarioEntity> comentarios);
+
+    @Named("usuarioResumen")
+    @Mapping(target = "comentarios", ignore = true)
+    UsuarioDetailDTO toResumenDTO(UsuarioEntity usuario);
+
+    UsuarioEntity toEntity(UsuarioDTO usuario);
+
+    /**
+     * Del outfit reseñado solo se recibe el id; ComentarioService lo valida.
+     */
+    @Mapping(target = "outfit", source = "outfitId")
+    ComentarioEntity toComentarioEntity(ComentarioDTO comentario);
+
+    default OutfitEntity toOutfitReferencia(Long outfitId) {
+        if (outfitId == null)
+            return null;
+        OutfitEntity outfit = new OutfitEntity();
+        outfit.setId(outfitId);
+        return outfit;
+    }
+}
@@ -0,0 +1,26 @@
+package co.edu.udistrital.mdp.back.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import co.edu.udistrital.mdp.back.entities.CambiosTextoEntity;
+
+/**
+ * Interfaz que persiste los contadores de cambios del índice de búsqueda de texto
+ */
+
+@Repository
+public interface CambiosTextoRepository extends JpaRepository<CambiosTextoEntity, Long> {
+
+    /**
+     * Suma la cantidad dada a los cambios del tipo, en un solo UPDATE
+     *
+     * @return Número de filas actualizadas: cero si el tipo aún no tiene fila.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update CambiosTextoEntity c set c.cambios = c.cambios + :cantidad where c.tipo = :tipo")
+    int sumar(@Param("tipo") String tipo, @Param("cantidad") long cantidad);
+}
@@ -1,7 +1,20 @@
 package co.edu.udistrital.mdp.back.repositories;
 
+import java.util.Optional;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
 import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
 
 /**
@@ -9,5 +22,25 @@ import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
  */
 
 @Repository
-public interface CategoriaRepository extends JpaRepository<CategoriaEntity, Long> {
+public interface CategoriaRepository extends JpaRepository<CategoriaEntity, Long>,
+        JpaSpecificationExecutor<CategoriaEntity> {
+
+    /**
+     * Consulta una ventana de categorias a partir de la posición dada (paginación keyset).
+     * El resultado se guarda en el caché de consultas, que se invalida al modificar la tabla
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Window<CategoriaEntity> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Consulta una categoría junto con sus outfits y la imagen de cada uno
+     */
+    @EntityGraph(attributePaths = { "outfits", "outfits.imagen" })
+    Optional<CategoriaEntity> findConOutfitsById(Long id);
+
+    /**
+     * Consulta una categoría junto con sus ocasiones
+     */
+    @EntityGraph(attributePaths = "ocasiones")
+    Optional<CategoriaEntity> findConOcasionesById(Long id);
 }
@@ -1,9 +1,20 @@
 package co.edu.udistrital.mdp.back.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
 import co.edu.udistrital.mdp.back.entities.ColorEntity;
 
 /**
@@ -12,6 +23,26 @@ import co.edu.udistrital.mdp.back.entities.ColorEntity;
 
 @Repository
 public interface ColorRepository extends JpaRepository<ColorEntity, Long> {
-    Optional<ColorEntity> findByNombreIgnoreCase (String nombre);
-    Optional<ColorEntity> findByCodigoHexIgnoreCase (String codigoHex);
+    /**
+     * Busca un color por su nombre normalizado (ver BaseEntity.normalizar)
+     */
+    Optional<ColorEntity> findByNombreNormalizado(String nombreNormalizado);
+
+    /**
+     * Busca un color por su código HEX, que se guarda en mayúsculas
+     */
+    Optional<ColorEntity> findByCodigoHex(String codigoHex);
+
+    /**
+     * Consulta una ventana de colores a partir de la posición dada (paginación keyset).
+     * El resultado se guarda en el caché de consultas, que se invalida al modificar la tabla
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Window<ColorEntity> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Consulta el código HEX de todos los colores como filas [colorId, codigoHex]
+     */
+    @Query("select c.id, c.codigoHex from ColorEntity c")
+    List<Object[]> findCodigosHex();
 }
@@ -1,6 +1,12 @@
 package co.edu.udistrital.mdp.back.repositories;
 
+import java.util.List;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
 
@@ -11,4 +17,24 @@ import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
 @Repository
 public interface ComentarioRepository extends JpaRepository<ComentarioEntity, Long> {
     ComentarioEntity findByUsuarioIdAndId(Long usuarioId, Long id);
+
+    /**
+     * Consulta el promedio de calificación de cada usuario como pares [usuarioId, promedio]
+     */
+    @Query("select c.usuario.id, avg(c.calificacion) from ComentarioEntity c group by c.usuario.id")
+    List<Object[]> findPromedioCalificacionPorUsuario();
+
+    /**
+     * Consulta los comentarios de un usuario junto con el usuario
+     */
+    @EntityGraph(attributePaths = "usuario")
+    List<ComentarioEntity> findByUsuarioIdOrderById(Long usuarioId);
+
+    /**
+     * Deja sin outfit los comentarios que reseñan el outfit dado. Incrementa su
+     * versión para que una actualización concurrente no vuelva a asociarlos.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update versioned ComentarioEntity c set c.outfit = null where c.outfit.id = :outfitId")
+    int quitarOutfit(@Param("outfitId") Long outfitId);
 }
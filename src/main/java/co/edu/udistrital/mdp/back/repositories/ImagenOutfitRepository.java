@@ -1,7 +1,14 @@
 package co.edu.udistrital.mdp.back.repositories;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
 import co.edu.udistrital.mdp.back.entities.ImagenOutfitEntity;
 
 /**
@@ -10,4 +17,19 @@ import co.edu.udistrital.mdp.back.entities.ImagenOutfitEntity;
 
 @Repository
 public interface ImagenOutfitRepository extends JpaRepository<ImagenOutfitEntity, Long> {
+
+    /**
+     * Hashes de los contenidos que usan las imágenes.
+     */
+    @Query("select distinct i.hash from ImagenOutfitEntity i where i.hash is not null")
+    List<String> findHashes();
+
+    /**
+     * Cambia el contenido de la imagen sin leerla, en una transacción corta.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ImagenOutfitEntity i set i.hash = :hash, i.tipoContenido = :tipoContenido, i.tamano = :tamano where i.id = :id")
+    int actualizarContenido(@Param("id") Long id, @Param("hash") String hash,
+            @Param("tipoContenido") String tipoContenido, @Param("tamano") long tamano);
 }
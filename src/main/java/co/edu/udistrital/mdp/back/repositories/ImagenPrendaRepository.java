@@ -1,8 +1,30 @@
 package co.edu.udistrital.mdp.back.repositories;
+
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
 import co.edu.udistrital.mdp.back.entities.ImagenPrendaEntity;
 @Repository
 public interface ImagenPrendaRepository extends JpaRepository<ImagenPrendaEntity, Long>{
 
+    /**
+     * Hashes de los contenidos que usan las imágenes.
+     */
+    @Query("select distinct i.hash from ImagenPrendaEntity i where i.hash is not null")
+    List<String> findHashes();
+
+    /**
+     * Cambia el contenido de la imagen sin leerla, en una transacción corta.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ImagenPrendaEntity i set i.hash = :hash, i.tipoContenido = :tipoContenido, i.tamano = :tamano where i.id = :id")
+    int actualizarContenido(@Param("id") Long id, @Param("hash") String hash,
+            @Param("tipoContenido") String tipoContenido, @Param("tamano") long tamano);
 }
@@ -1,7 +1,19 @@
 package co.edu.udistrital.mdp.back.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
 import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
 
 /**
@@ -10,4 +22,73 @@ import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
 
 @Repository
 public interface ListaDeseosRepository extends JpaRepository<ListaDeseosEntity, Long> {
+
+    /**
+     * Tabla de la relación entre listas de deseos y outfits
+     */
+    String LISTA_OUTFIT = "lista_outfit";
+
+    /**
+     * Consulta el contenido de todas las listas de deseos como pares [usuarioId, outfitId]
+     */
+    @Query("select l.usuario.id, o.id from ListaDeseosEntity l join l.outfits o")
+    List<Object[]> findParesUsuarioOutfit();
+
+    /**
+     * Consulta la tabla lista_outfit como pares [listaId, outfitId] ordenados por lista
+     */
+    @Query("select l.id, o.id from ListaDeseosEntity l join l.outfits o order by l.id")
+    List<Object[]> findParesListaOutfit();
+
+    /**
+     * Consulta las listas de deseos que contienen el outfit dado
+     */
+    @EntityGraph(attributePaths = "usuario")
+    List<ListaDeseosEntity> findByOutfitsIdOrderById(Long outfitId);
+
+    /**
+     * Indica si el outfit está en la lista de deseos, buscando solo en la llave
+     * única de lista_outfit
+     */
+    @Query(value = "select count(*) > 0 from lista_outfit where lista_id = :listaId and outfit_id = :outfitId",
+            nativeQuery = true)
+    boolean existsOutfit(@Param("listaId") Long listaId, @Param("outfitId") Long outfitId);
+
+    /**
+     * Consulta cuáles de los outfits dados están en la lista de deseos
+     */
+    @Query(value = "select outfit_id from lista_outfit where lista_id = :listaId and outfit_id in :outfitIds",
+            nativeQuery = true)
+    List<Long> findOutfitIdsIn(@Param("listaId") Long listaId, @Param("outfitIds") Collection<Long> outfitIds);
+
+    /**
+     * Consulta los identificadores de los outfits de la lista de deseos en orden,
+     * sin cargar los outfits
+     */
+    @Query(value = "select outfit_id from lista_outfit where lista_id = :listaId order by outfit_id",
+            nativeQuery = true)
+    List<Long> findOutfitIds(@Param("listaId") Long listaId);
+
+    /**
+     * Agrega a la lista de deseos los outfits dados que existan y que no estén en
+     * ella, con un solo INSERT sobre lista_outfit. Se declara la tabla que modifica:
+     * sin ella Hibernate invalida todo el caché de segundo nivel y el de consultas
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = LISTA_OUTFIT))
+    @Query(value = "insert into lista_outfit (lista_id, outfit_id) select :listaId, o.id from outfit_entity o"
+            + " where o.id in :outfitIds and not exists"
+            + " (select 1 from lista_outfit lo where lo.lista_id = :listaId and lo.outfit_id = o.id)",
+            nativeQuery = true)
+    int insertOutfits(@Param("listaId") Long listaId, @Param("outfitIds") Collection<Long> outfitIds);
+
+    /**
+     * Quita de la lista de deseos los outfits dados con un solo DELETE sobre
+     * lista_outfit, declarando solo esa tabla como modificada
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = LISTA_OUTFIT))
+    @Query(value = "delete from lista_outfit where lista_id = :listaId and outfit_id in :outfitIds",
+            nativeQuery = true)
+    int deleteOutfits(@Param("listaId") Long listaId, @Param("outfitIds") Collection<Long> outfitIds);
 }
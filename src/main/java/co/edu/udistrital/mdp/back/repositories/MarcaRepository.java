@@ -1,7 +1,19 @@
 package co.edu.udistrital.mdp.back.repositories;
 
+import java.util.Optional;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
 import co.edu.udistrital.mdp.back.entities.MarcaEntity;
 
 /**
@@ -9,6 +21,17 @@ import co.edu.udistrital.mdp.back.entities.MarcaEntity;
  */
 
 @Repository
-public interface MarcaRepository extends JpaRepository<MarcaEntity, Long> {
-    boolean existsByNombre(String nombre);
+public interface MarcaRepository extends JpaRepository<MarcaEntity, Long>,
+        JpaSpecificationExecutor<MarcaEntity> {
+    /**
+     * Busca una marca por su nombre normalizado (ver BaseEntity.normalizar)
+     */
+    Optional<MarcaEntity> findByNombreNormalizado(String nombreNormalizado);
+
+    /**
+     * Consulta una ventana de marcas a partir de la posición dada (paginación keyset).
+     * El resultado se guarda en el caché de consultas, que se invalida al modificar la tabla
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Window<MarcaEntity> findBy(ScrollPosition position, Sort sort, Limit limit);
 }
@@ -1,24 +1,39 @@
 package co.edu.udistrital.mdp.back.repositories;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
 import co.edu.udistrital.mdp.back.entities.OcasionEntity;
 
-import java.util.Optional;
+import java.util.List;
 
 /**
  * Interfaz que maneja la persistencia de las ocasiones.
  */
 @Repository
-public interface OcasionRepository extends JpaRepository<OcasionEntity, Long> {
+public interface OcasionRepository extends JpaRepository<OcasionEntity, Long>,
+        JpaSpecificationExecutor<OcasionEntity> {
 
     /**
-     * Verifica si ya existe una ocasión con el mismo nombre (sin importar mayúsculas o minúsculas)
+     * Consulta una ventana de ocasiones a partir de la posición dada (paginación keyset).
+     * El resultado se guarda en el caché de consultas, que se invalida al modificar la tabla
      */
-    boolean existsByNombreIgnoreCase(String nombre);
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Window<OcasionEntity> findBy(ScrollPosition position, Sort sort, Limit limit);
 
     /**
-     * Busca una ocasión por su nombre (sin importar mayúsculas o minúsculas)
+     * Consulta las ocasiones de cada categoría como pares [categoriaId, ocasionId]
      */
-    Optional<OcasionEntity> findByNombreIgnoreCase(String nombre);
+    @Query("select c.id, o.id from OcasionEntity o join o.categorias c")
+    List<Object[]> findParesCategoriaOcasion();
 }
@@ -1,6 +1,19 @@
 package co.edu.udistrital.mdp.back.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import co.edu.udistrital.mdp.back.entities.OutfitEntity;
 
@@ -9,5 +22,92 @@ import co.edu.udistrital.mdp.back.entities.OutfitEntity;
  */
 
 @Repository
-public interface OutfitRepository extends JpaRepository<OutfitEntity, Long> {
+public interface OutfitRepository extends JpaRepository<OutfitEntity, Long>,
+        JpaSpecificationExecutor<OutfitEntity> {
+
+    /**
+     * Consulta una ventana de outfits a partir de la posición dada (paginación keyset).
+     * Trae en la misma consulta la imagen y la categoría de cada outfit.
+     */
+    @EntityGraph(attributePaths = { "imagen", "categoria" })
+    Window<OutfitEntity> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Consulta una ventana de los outfits de una lista de deseos a partir de la
+     * posición dada (paginación keyset sobre lista_outfit).
+     */
+    @EntityGraph(attributePaths = { "imagen", "categoria" })
+    Window<OutfitEntity> findByListasDeseosId(Long listaId, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Cuenta cuántos de los outfits dados existen
+     */
+    long countByIdIn(Collection<Long> ids);
+
+    /**
+     * Consulta el detalle de un outfit junto con su imagen y su categoría
+     */
+    @EntityGraph(attributePaths = { "imagen", "categoria" })
+    Optional<OutfitEntity> findDetalleById(Long id);
+
+    /**
+     * Consulta la categoría de todos los outfits como pares [outfitId, categoriaId]
+     */
+    @Query("select o.id, c.id from OutfitEntity o left join o.categoria c")
+    List<Object[]> findParesOutfitCategoria();
+
+    /**
+     * Suma la diferencia dada al precio estimado de los outfits dados con un solo
+     * UPDATE, sin leer su valor anterior.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update OutfitEntity o set o.precioEstimado = coalesce(o.precioEstimado, 0) + :delta where o.id in :ids")
+    int sumarPrecio(@Param("ids") Collection<Long> ids, @Param("delta") double delta);
+
+    /**
+     * Suma la diferencia dada al precio estimado de todos los outfits que contienen
+     * la prenda, siguiendo la tabla prenda_outfit.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update OutfitEntity o set o.precioEstimado = coalesce(o.precioEstimado, 0) + :delta"
+            + " where o.id in (select po.id from PrendaEntity p join p.outfits po where p.id = :prendaId)")
+    int sumarPrecioPorPrenda(@Param("prendaId") Long prendaId, @Param("delta") double delta);
+
+    /**
+     * Consulta los identificadores de todos los outfits en orden
+     */
+    @Query("select o.id from OutfitEntity o order by o.id")
+    List<Long> findIdsOrdenados();
+
+    /**
+     * Consulta para los outfits dados el precio guardado y la suma de los precios de
+     * sus prendas como filas [outfitId, precioEstimado, suma]
+     */
+    @Query("select o.id, o.precioEstimado, coalesce(sum(p.precio), 0) from OutfitEntity o left join o.prendas p"
+            + " where o.id in :ids group by o.id, o.precioEstimado")
+    List<Object[]> findPreciosCalculados(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Suma (delta = 1) o resta (delta = -1) una calificación al resumen del outfit
+     * con un solo UPDATE, sin leer los valores anteriores.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update OutfitEntity o set o.calificaciones.numero = o.calificaciones.numero + :delta,"
+            + " o.calificaciones.suma = o.calificaciones.suma + :delta * :calificacion,"
+            + " o.calificaciones.estrellas1 = o.calificaciones.estrellas1 + case when :estrellas = 1 then :delta else 0 end,"
+            + " o.calificaciones.estrellas2 = o.calificaciones.estrellas2 + case when :estrellas = 2 then :delta else 0 end,"
+            + " o.calificaciones.estrellas3 = o.calificaciones.estrellas3 + case when :estrellas = 3 then :delta else 0 end,"
+            + " o.calificaciones.estrellas4 = o.calificaciones.estrellas4 + case when :estrellas = 4 then :delta else 0 end,"
+            + " o.calificaciones.estrellas5 = o.calificaciones.estrellas5 + case when :estrellas = 5 then :delta else 0 end"
+            + " where o.id = :id")
+    int sumarCalificacion(@Param("id") Long id, @Param("delta") int delta, @Param("calificacion") double calificacion,
+            @Param("estrellas") int estrellas);
+
+    /**
+     * Consulta el número y la suma de calificaciones de los outfits calificados como
+     * filas [outfitId, numero, suma]
+     */
+    @Query("select o.id, o.calificaciones.numero, o.calificaciones.suma from OutfitEntity o"
+            + " where o.calificaciones.numero > 0")
+    List<Object[]> findResumenesCalificaciones();
 }
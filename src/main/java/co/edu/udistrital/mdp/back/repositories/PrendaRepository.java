@@ -1,6 +1,16 @@
 package co.edu.udistrital.mdp.back.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import co.edu.udistrital.mdp.back.entities.PrendaEntity;
 
@@ -9,5 +19,48 @@ import co.edu.udistrital.mdp.back.entities.PrendaEntity;
  */
 
 @Repository
-public interface PrendaRepository extends JpaRepository<PrendaEntity, Long> {  
+public interface PrendaRepository extends JpaRepository<PrendaEntity, Long> {
+
+    /**
+     * Consulta una ventana de prendas a partir de la posición dada (paginación keyset).
+     * Trae en la misma consulta el color, la marca y la imagen de la marca.
+     */
+    @EntityGraph(attributePaths = { "color", "marca", "marca.imagen" })
+    Window<PrendaEntity> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Consulta el color y la marca de las prendas de cada outfit como filas
+     * [outfitId, colorId, marcaId]
+     */
+    @Query("select o.id, c.id, m.id from PrendaEntity p join p.outfits o left join p.color c left join p.marca m")
+    List<Object[]> findColorMarcaPorOutfit();
+
+    /**
+     * Consulta las facetas de búsqueda de todas las prendas como filas
+     * [prendaId, colorId, marcaId, categoriaId, tiendaId]
+     */
+    @Query("select p.id, c.id, m.id, cat.id, t.id from PrendaEntity p left join p.color c left join p.marca m"
+            + " left join p.categoria cat left join p.tienda t")
+    List<Object[]> findFacetas();
+
+    /**
+     * Consulta las prendas de cualquiera de los colores dados
+     */
+    List<PrendaEntity> findByColorIdIn(Collection<Long> colorIds);
+
+    /**
+     * Consulta las tiendas que venden la prenda: la suya y las de las prendas de la
+     * misma marca con el mismo nombre
+     */
+    @Query("select distinct otra.tienda.id from PrendaEntity p, PrendaEntity otra where p.id = :prendaId"
+            + " and otra.tienda is not null"
+            + " and (otra.id = p.id or (otra.marca = p.marca and lower(otra.nombre) = lower(p.nombre)))")
+    List<Long> findTiendasConPrenda(@Param("prendaId") Long prendaId);
+
+    /**
+     * Consulta las prendas de un outfit con el color, la marca, su imagen y sus
+     * tiendas, que son lo que se muestra en el detalle del outfit
+     */
+    @EntityGraph(attributePaths = { "color", "marca", "marca.imagen", "marca.tiendas" })
+    List<PrendaEntity> findDetalleByOutfitsIdOrderById(Long outfitId);
 }
@@ -1,6 +1,12 @@
 package co.edu.udistrital.mdp.back.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import co.edu.udistrital.mdp.back.entities.RecomendacionEntity;
 import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
@@ -13,4 +19,20 @@ public interface RecomendacionRepository extends JpaRepository<RecomendacionEnti
      * Verifica si ya existe una recomendación con el mismo usuario y outfit
      */
     boolean existsByUsuarioAndOutfit(UsuarioEntity usuario, OutfitEntity outfit);
+
+    /**
+     * Consulta las recomendaciones de los usuarios dados como filas
+     * [id, usuarioId, outfitId, generada]
+     */
+    @Query("select r.id, r.usuario.id, r.outfit.id, r.generada from RecomendacionEntity r "
+            + "where r.usuario.id in :usuarios")
+    List<Object[]> findExistentesByUsuarioIdIn(@Param("usuarios") Collection<Long> usuarios);
+
+    /**
+     * Consulta las recomendaciones de un outfit junto con el outfit y su imagen. La
+     * lista de deseos del usuario es el lado inverso de un uno a uno: si no se trae
+     * aquí, Hibernate la consulta aparte por cada usuario.
+     */
+    @EntityGraph(attributePaths = { "outfit", "outfit.imagen", "usuario", "usuario.wishlist" })
+    List<RecomendacionEntity> findByOutfitIdOrderById(Long outfitId);
 }
@@ -1,7 +1,21 @@
 package co.edu.udistrital.mdp.back.repositories;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
 import co.edu.udistrital.mdp.back.entities.TiendaEntity;
 
 /**
@@ -9,6 +23,23 @@ import co.edu.udistrital.mdp.back.entities.TiendaEntity;
  */
 
 @Repository
-public interface TiendaRepository extends JpaRepository<TiendaEntity, Long> {
-    boolean existsByNombre(String nombre);
+public interface TiendaRepository extends JpaRepository<TiendaEntity, Long>,
+        JpaSpecificationExecutor<TiendaEntity> {
+    /**
+     * Busca una tienda por su nombre normalizado (ver BaseEntity.normalizar)
+     */
+    Optional<TiendaEntity> findByNombreNormalizado(String nombreNormalizado);
+
+    /**
+     * Consulta una ventana de tiendas a partir de la posición dada (paginación keyset).
+     * El resultado se guarda en el caché de consultas, que se invalida al modificar la tabla
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Window<TiendaEntity> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Consulta las coordenadas de las tiendas que tienen como filas [tiendaId, latitud, longitud]
+     */
+    @Query("select t.id, t.latitud, t.longitud from TiendaEntity t where t.latitud is not null and t.longitud is not null")
+    List<Object[]> findCoordenadas();
 }
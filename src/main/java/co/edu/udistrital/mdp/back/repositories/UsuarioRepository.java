@@ -1,8 +1,17 @@
 package co.edu.udistrital.mdp.back.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
 
@@ -11,6 +20,31 @@ import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
  */
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<UsuarioEntity, Long> {
-    Optional<UsuarioEntity> findByCorreo(String correo);
+public interface UsuarioRepository extends JpaRepository<UsuarioEntity, Long>,
+        JpaSpecificationExecutor<UsuarioEntity> {
+    /**
+     * Consulta una ventana de usuarios a partir de la posición dada (paginación keyset).
+     * Trae en la misma consulta la lista de deseos de cada usuario; los comentarios
+     * se cargan aparte con findConComentariosByIdIn para no paginar en memoria.
+     */
+    @EntityGraph(attributePaths = "wishlist")
+    Window<UsuarioEntity> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Carga en una sola consulta los comentarios de los usuarios dados
+     */
+    @EntityGraph(attributePaths = "comentarios")
+    List<UsuarioEntity> findConComentariosByIdIn(Collection<Long> ids);
+
+    /**
+     * Consulta el detalle de un usuario junto con sus comentarios y su lista de deseos
+     */
+    @EntityGraph(attributePaths = { "comentarios", "wishlist" })
+    Optional<UsuarioEntity> findDetalleById(Long id);
+
+    /**
+     * Consulta los identificadores de todos los usuarios
+     */
+    @Query("select u.id from UsuarioEntity u order by u.id")
+    List<Long> findAllIds();
 }
@@ -0,0 +1,67 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import co.edu.udistrital.mdp.back.entities.BaseEntity;
+
+/**
+ * Convierte un texto en los términos del índice de búsqueda: lo normaliza (sin
+ * tildes y en minúsculas), lo parte en palabras, descarta las palabras vacías del
+ * español y reduce cada palabra a su raíz con un lematizador ligero, de modo que
+ * "Pantalones" y "pantalón" dan el mismo término.
+ */
+final class AnalizadorTexto {
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /** Palabras vacías (ya normalizadas) que no aportan a la búsqueda */
+    private static final Set<String> VACIAS = Set.of("a", "al", "como", "con", "de", "del", "e", "el", "en", "es",
+            "la", "las", "lo", "los", "mas", "me", "mi", "muy", "no", "o", "para", "pero", "por", "que", "se", "sin",
+            "sobre", "su", "sus", "u", "un", "una", "unas", "unos", "y", "ya");
+
+    private AnalizadorTexto() {
+    }
+
+    /**
+     * Términos del texto en orden, con repeticiones.
+     */
+    static List<String> terminos(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null)
+            return terminos;
+        for (String palabra : SEPARADORES.split(BaseEntity.normalizar(texto))) {
+            if (!palabra.isEmpty() && !VACIAS.contains(palabra))
+                terminos.add(raiz(palabra));
+        }
+        return terminos;
+    }
+
+    /**
+     * Raíz de una palabra normalizada: quita la vocal final y las terminaciones de
+     * plural (-s, -es, -ces → -z). Las palabras de menos de cinco letras se dejan
+     * igual. Es la misma regla del lematizador ligero de español de Lucene.
+     */
+    static String raiz(String palabra) {
+        int n = palabra.length();
+        if (n < 5)
+            return palabra;
+        switch (palabra.charAt(n - 1)) {
+            case 'o', 'a', 'e':
+                return palabra.substring(0, n - 1);
+            case 's':
+                if (palabra.endsWith("eses"))
+                    return palabra.substring(0, n - 2);
+                if (palabra.endsWith("ces"))
+                    return palabra.substring(0, n - 3) + "z";
+                char anterior = palabra.charAt(n - 2);
+                if (anterior == 'o' || anterior == 'a' || anterior == 'e')
+                    return palabra.substring(0, n - 2);
+                return palabra;
+            default:
+                return palabra;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.List;
+import java.util.Map;
+
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de una búsqueda de prendas por facetas: la página de prendas, cuántas
+ * cumplen los filtros en total y, por faceta, cuántas hay de cada valor.
+ */
+@Getter
+@AllArgsConstructor
+public class BusquedaPrendas {
+
+    private final long total;
+    private final KeysetPage<PrendaEntity> pagina;
+    private final Map<String, List<ValorFaceta>> facetas;
+
+    /**
+     * Valor de una faceta con su número de prendas, por ejemplo "Rojo (1204)".
+     */
+    public record ValorFaceta(Long id, String nombre, int cantidad) {
+    }
+}
@@ -0,0 +1,653 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.udistrital.mdp.back.entities.CambiosTextoEntity;
+import co.edu.udistrital.mdp.back.repositories.CambiosTextoRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice invertido en memoria para la búsqueda de texto sobre los nombres de
+ * prendas, outfits y marcas y el texto de los comentarios.
+ *
+ * Cada texto es un documento con un número consecutivo. Por cada término (ver
+ * {@link AnalizadorTexto}) se guarda la lista de documentos que lo contienen con su
+ * frecuencia, codificada como diferencias entre números de documento en enteros de
+ * longitud variable. Las coincidencias se ordenan con BM25.
+ *
+ * Las listas tienen dos partes: la base, que está en el archivo del índice y se lee
+ * mapeada en memoria, y la cola en el heap con los documentos agregados desde que
+ * se guardó. Un cambio de texto marca el documento anterior como eliminado y agrega
+ * uno nuevo al final. Al guardar se descartan los eliminados, se renumeran los
+ * documentos y se escribe un archivo nuevo que pasa a ser la base.
+ *
+ * Cada cambio de texto suma uno al contador de su tipo en la tabla cambios_texto,
+ * en la misma transacción, y el índice cuenta los cambios que aplica; el archivo
+ * guarda esos conteos. Al iniciar la aplicación se usa el archivo si coincide con la
+ * base de datos (mismo número de filas, id máximo y cambios por tipo), así que un
+ * cambio confirmado que no alcanzó a guardarse (por ejemplo, si el proceso terminó
+ * sin pasar por {@link #guardar()}) obliga a reconstruirlo desde las tablas. Sin
+ * archivo configurado el índice solo vive en memoria.
+ */
+@Slf4j
+@Service
+public class BusquedaTextoIndex {
+
+    /**
+     * Tipos de documento del índice, con la entidad y el campo de donde sale su texto.
+     */
+    public enum Tipo {
+        PRENDA("prenda", "PrendaEntity", "nombre"),
+        OUTFIT("outfit", "OutfitEntity", "nombre"),
+        MARCA("marca", "MarcaEntity", "nombre"),
+        COMENTARIO("comentario", "ComentarioEntity", "texto");
+
+        private final String parametro;
+        private final String entidad;
+        private final String campo;
+
+        Tipo(String parametro, String entidad, String campo) {
+            this.parametro = parametro;
+            this.entidad = entidad;
+            this.campo = campo;
+        }
+
+        /**
+         * Nombre del tipo en los parámetros y en las respuestas.
+         */
+        public String getParametro() {
+            return parametro;
+        }
+
+        /**
+         * Tipo con el nombre dado, o nulo si no existe.
+         */
+        public static Tipo deParametro(String parametro) {
+            for (Tipo tipo : values()) {
+                if (tipo.parametro.equalsIgnoreCase(parametro))
+                    return tipo;
+            }
+            return null;
+        }
+
+        /**
+         * Tipo con el nombre de la constante dado (como se guarda en cambios_texto), o
+         * nulo si no existe.
+         */
+        static Tipo deNombre(String nombre) {
+            for (Tipo tipo : values()) {
+                if (tipo.name().equals(nombre))
+                    return tipo;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Documento que coincide con una búsqueda.
+     */
+    public record Coincidencia(Tipo tipo, Long id, double puntaje) {
+    }
+
+    private static final int MAGICO = 0x42545854;
+    private static final int VERSION = 2;
+
+    /** Parámetros de BM25: saturación de la frecuencia y peso de la longitud */
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CambiosTextoRepository cambiosTextoRepository;
+
+    /** Llave de los cambios pendientes de sumar en la transacción actual */
+    private final Object llaveCambios = new Object();
+
+    @Value("${busqueda.texto.archivo:}")
+    private String archivo;
+
+    private Indice indice = new Indice();
+
+    private volatile boolean sucio;
+
+    /**
+     * Busca los documentos que contienen al menos uno de los términos de la consulta
+     * y los devuelve de mayor a menor puntaje.
+     *
+     * @param consulta Texto buscado.
+     * @param tipo     Tipo de documento, o nulo para todos.
+     * @param limite   Número máximo de resultados.
+     * @return Coincidencias ordenadas por puntaje.
+     */
+    public List<Coincidencia> buscar(String consulta, Tipo tipo, int limite) {
+        LinkedHashSet<String> terminos = new LinkedHashSet<>(AnalizadorTexto.terminos(consulta));
+        candado.readLock().lock();
+        try {
+            Indice actual = indice;
+            float[] puntajes = new float[actual.documentos];
+            RoaringBitmap encontrados = new RoaringBitmap();
+            double longitudMedia = actual.vivos == 0 ? 1 : (double) actual.longitudTotal / actual.vivos;
+
+            for (String termino : terminos) {
+                Termino lista = actual.terminos.get(termino);
+                if (lista == null)
+                    continue;
+                double idf = Math.log(1 + (actual.documentos - lista.df + 0.5) / (lista.df + 0.5));
+                actual.recorrer(lista, (doc, frecuencia) -> {
+                    if (actual.eliminados.contains(doc) || (tipo != null && actual.tipos[doc] != tipo.ordinal()))
+                        return;
+                    double norma = K1 * (1 - B + B * actual.longitudes[doc] / longitudMedia);
+                    puntajes[doc] += (float) (idf * frecuencia * (K1 + 1) / (frecuencia + norma));
+                    encontrados.add(doc);
+                });
+            }
+
+            // Montículo con los mejores: en la cabeza el peor (menor puntaje, documento más nuevo)
+            Comparator<Integer> peorPrimero = Comparator.<Integer>comparingDouble(doc -> puntajes[doc])
+                    .thenComparing(Comparator.reverseOrder());
+            PriorityQueue<Integer> mejores = new PriorityQueue<>(peorPrimero);
+            encontrados.forEach((int doc) -> {
+                mejores.add(doc);
+                if (mejores.size() > limite)
+                    mejores.poll();
+            });
+
+            List<Coincidencia> coincidencias = new ArrayList<>(mejores.size());
+            while (!mejores.isEmpty()) {
+                int doc = mejores.poll();
+                coincidencias.add(new Coincidencia(Tipo.values()[actual.tipos[doc]], actual.ids[doc], puntajes[doc]));
+            }
+            Collections.reverse(coincidencias);
+            return coincidencias;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void registrarCambio(TextoModificadoEvent evento) {
+        candado.writeLock().lock();
+        try {
+            if (evento.texto() == null)
+                indice.quitar(evento.tipo(), evento.id());
+            else
+                indice.agregar(evento.tipo(), evento.id(), evento.texto());
+            indice.cambios[evento.tipo().ordinal()]++;
+            sucio = true;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cuenta el cambio en cambios_texto dentro de la transacción que lo hace. Los
+     * cambios de la transacción se acumulan y se suman al confirmarla, con un UPDATE
+     * por tipo. Sin transacción se suma de inmediato.
+     */
+    @EventListener
+    public void contarCambio(TextoModificadoEvent evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            transactionTemplate.executeWithoutResult(estado -> sumarCambios(Map.of(evento.tipo(), 1L)));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Tipo, Long> pendientes = (Map<Tipo, Long>) TransactionSynchronizationManager.getResource(llaveCambios);
+        if (pendientes == null) {
+            Map<Tipo, Long> nuevos = new EnumMap<>(Tipo.class);
+            TransactionSynchronizationManager.bindResource(llaveCambios, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    sumarCambios(nuevos);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(llaveCambios);
+                }
+            });
+            pendientes = nuevos;
+        }
+        pendientes.merge(evento.tipo(), 1L, Long::sum);
+    }
+
+    private void sumarCambios(Map<Tipo, Long> cambios) {
+        cambios.forEach((tipo, cantidad) -> {
+            if (cambiosTextoRepository.sumar(tipo.name(), cantidad) == 0) {
+                CambiosTextoEntity fila = new CambiosTextoEntity();
+                fila.setTipo(tipo.name());
+                fila.setCambios(cantidad);
+                cambiosTextoRepository.save(fila);
+            }
+        });
+    }
+
+    /**
+     * Carga el índice guardado si coincide con la base de datos o, si no, lo reconstruye.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        // Con las filas creadas de antemano, las transacciones solo hacen UPDATE
+        transactionTemplate.executeWithoutResult(estado -> sumarCambios(ceros()));
+        Path ruta = ruta();
+        if (ruta != null && Files.exists(ruta)) {
+            try {
+                Indice leido = leer(ruta);
+                if (Arrays.equals(leido.huella(), huellaBaseDatos())) {
+                    reemplazar(leido);
+                    log.info("Índice de búsqueda de texto cargado desde {}: {} documentos, {} términos", ruta,
+                            leido.vivos, leido.terminos.size());
+                    return;
+                }
+                log.info("El índice de búsqueda de texto guardado no coincide con la base de datos");
+            } catch (IOException | RuntimeException e) {
+                log.warn("No se pudo leer el índice de búsqueda de texto de {}", ruta, e);
+            }
+        }
+        reconstruir();
+    }
+
+    /**
+     * Reconstruye el índice desde las tablas y lo guarda.
+     */
+    public void reconstruir() {
+        log.info("Inicia proceso de reconstrucción del índice de búsqueda de texto");
+        Indice nuevo = new Indice();
+        transactionTemplate.executeWithoutResult(estado -> {
+            // Los conteos se leen antes que las tablas: si algo cambia mientras tanto
+            // el índice queda con menos cambios que la base de datos, nunca con más
+            nuevo.cambios = cambiosBaseDatos();
+            for (Tipo tipo : Tipo.values()) {
+                String consulta = "select e.id, e." + tipo.campo + " from " + tipo.entidad + " e order by e.id";
+                try (Stream<Object[]> filas = entityManager.createQuery(consulta, Object[].class).getResultStream()) {
+                    filas.forEach(fila -> nuevo.agregar(tipo, (Long) fila[0], (String) fila[1]));
+                }
+            }
+        });
+        reemplazar(nuevo);
+        sucio = true;
+        log.info("Finaliza proceso de reconstrucción del índice de búsqueda de texto: {} documentos, {} términos",
+                nuevo.vivos, nuevo.terminos.size());
+        guardar();
+    }
+
+    @Scheduled(fixedDelayString = "${busqueda.texto.guardado.intervalo:300000}")
+    public void guardarCambios() {
+        if (sucio)
+            guardar();
+    }
+
+    /**
+     * Compacta el índice y lo escribe en el archivo configurado, que pasa a ser su
+     * base. Las búsquedas esperan mientras se escribe.
+     */
+    @PreDestroy
+    public void guardar() {
+        Path ruta = ruta();
+        if (ruta == null)
+            return;
+        candado.writeLock().lock();
+        try {
+            if (ruta.getParent() != null)
+                Files.createDirectories(ruta.getParent());
+            Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+            long bytes = escribir(indice, temporal);
+            Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            indice = leer(ruta);
+            sucio = false;
+            log.info("Índice de búsqueda de texto guardado en {}: {} bytes", ruta, bytes);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el índice de búsqueda de texto en {}", ruta, e);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private Path ruta() {
+        return archivo == null || archivo.isBlank() ? null : Path.of(archivo);
+    }
+
+    private void reemplazar(Indice nuevo) {
+        candado.writeLock().lock();
+        try {
+            indice = nuevo;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Número de filas, id máximo y cambios confirmados de cada tipo en la base de datos.
+     */
+    private long[] huellaBaseDatos() {
+        long[] huella = new long[Tipo.values().length * 3];
+        transactionTemplate.executeWithoutResult(estado -> {
+            long[] cambios = cambiosBaseDatos();
+            for (Tipo tipo : Tipo.values()) {
+                Object[] fila = entityManager
+                        .createQuery("select count(e), max(e.id) from " + tipo.entidad + " e", Object[].class)
+                        .getSingleResult();
+                huella[tipo.ordinal() * 3] = (Long) fila[0];
+                huella[tipo.ordinal() * 3 + 1] = fila[1] != null ? (Long) fila[1] : 0;
+                huella[tipo.ordinal() * 3 + 2] = cambios[tipo.ordinal()];
+            }
+        });
+        return huella;
+    }
+
+    /**
+     * Cambios confirmados de cada tipo según cambios_texto.
+     */
+    private long[] cambiosBaseDatos() {
+        long[] cambios = new long[Tipo.values().length];
+        for (CambiosTextoEntity fila : cambiosTextoRepository.findAll()) {
+            Tipo tipo = Tipo.deNombre(fila.getTipo());
+            if (tipo != null)
+                cambios[tipo.ordinal()] = fila.getCambios();
+        }
+        return cambios;
+    }
+
+    private static Map<Tipo, Long> ceros() {
+        Map<Tipo, Long> ceros = new EnumMap<>(Tipo.class);
+        for (Tipo tipo : Tipo.values())
+            ceros.put(tipo, 0L);
+        return ceros;
+    }
+
+    /**
+     * Escribe el índice sin los documentos eliminados. Formato: encabezado, cambios
+     * aplicados por tipo, documentos (tipo, id, longitud), diccionario (término, frecuencia de documento, posición y
+     * tamaño de su lista, último documento) y las listas.
+     *
+     * @return Tamaño del archivo en bytes.
+     */
+    private static long escribir(Indice indice, Path ruta) throws IOException {
+        int[] numeros = new int[indice.documentos];
+        int vivos = 0;
+        for (int doc = 0; doc < indice.documentos; doc++)
+            numeros[doc] = indice.eliminados.contains(doc) ? -1 : vivos++;
+
+        Map<String, Termino> compactados = new LinkedHashMap<>();
+        indice.terminos.forEach((termino, lista) -> {
+            Termino compactado = new Termino();
+            indice.recorrer(lista, (doc, frecuencia) -> {
+                if (numeros[doc] >= 0)
+                    compactado.agregar(numeros[doc], frecuencia);
+            });
+            if (compactado.df > 0)
+                compactados.put(termino, compactado);
+        });
+
+        try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(ruta)))) {
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            for (long cambios : indice.cambios)
+                salida.writeLong(cambios);
+            salida.writeInt(vivos);
+            for (int doc = 0; doc < indice.documentos; doc++) {
+                if (numeros[doc] < 0)
+                    continue;
+                salida.writeByte(indice.tipos[doc]);
+                salida.writeLong(indice.ids[doc]);
+                salida.writeInt(indice.longitudes[doc]);
+            }
+
+            salida.writeInt(compactados.size());
+            int posicion = 0;
+            for (Map.Entry<String, Termino> entrada : compactados.entrySet()) {
+                byte[] termino = entrada.getKey().getBytes(StandardCharsets.UTF_8);
+                Termino lista = entrada.getValue();
+                salida.writeInt(termino.length);
+                salida.write(termino);
+                salida.writeInt(lista.df);
+                salida.writeInt(posicion);
+                salida.writeInt(lista.cola.tamano);
+                salida.writeInt(lista.ultimoDoc);
+                posicion += lista.cola.tamano;
+            }
+            for (Termino lista : compactados.values())
+                salida.write(lista.cola.datos, 0, lista.cola.tamano);
+            salida.flush();
+            return salida.size();
+        }
+    }
+
+    /**
+     * Lee un archivo escrito por {@link #escribir}. Los documentos y el diccionario
+     * se cargan en el heap; las listas quedan en el archivo mapeado.
+     */
+    private static Indice leer(Path ruta) throws IOException {
+        ByteBuffer datos;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        if (datos.getInt() != MAGICO || datos.getInt() != VERSION)
+            throw new IOException("El archivo " + ruta + " no es un índice de búsqueda de texto");
+
+        Indice indice = new Indice();
+        for (int i = 0; i < indice.cambios.length; i++)
+            indice.cambios[i] = datos.getLong();
+        int documentos = datos.getInt();
+        for (int doc = 0; doc < documentos; doc++)
+            indice.registrar(Tipo.values()[datos.get()], datos.getLong(), datos.getInt());
+
+        int terminos = datos.getInt();
+        for (int i = 0; i < terminos; i++) {
+            byte[] termino = new byte[datos.getInt()];
+            datos.get(termino);
+            Termino lista = new Termino();
+            lista.df = datos.getInt();
+            lista.inicioBase = datos.getInt();
+            lista.longitudBase = datos.getInt();
+            lista.ultimoDocBase = datos.getInt();
+            lista.ultimoDoc = lista.ultimoDocBase;
+            indice.terminos.put(new String(termino, StandardCharsets.UTF_8), lista);
+        }
+        indice.base = datos.slice(datos.position(), datos.remaining());
+        return indice;
+    }
+
+    @FunctionalInterface
+    private interface ConsumidorPosting {
+        void aceptar(int doc, int frecuencia);
+    }
+
+    /**
+     * Documentos, eliminados y diccionario de términos del índice.
+     */
+    private static class Indice {
+        private int documentos;
+        private byte[] tipos = new byte[16];
+        private long[] ids = new long[16];
+        private int[] longitudes = new int[16];
+        private final Map<Tipo, LongLongHashMap> documentoPorId = new EnumMap<>(Tipo.class);
+        private final RoaringBitmap eliminados = new RoaringBitmap();
+        private int vivos;
+        private long longitudTotal;
+        private final Map<String, Termino> terminos = new HashMap<>();
+        private ByteBuffer base;
+        /** Cambios de texto aplicados por tipo (ver cambios_texto) */
+        private long[] cambios = new long[Tipo.values().length];
+
+        Indice() {
+            for (Tipo tipo : Tipo.values())
+                documentoPorId.put(tipo, new LongLongHashMap());
+        }
+
+        /**
+         * Indexa el texto de la entidad como un documento nuevo, reemplazando el anterior.
+         */
+        void agregar(Tipo tipo, long id, String texto) {
+            quitar(tipo, id);
+            List<String> palabras = AnalizadorTexto.terminos(texto);
+            int doc = registrar(tipo, id, palabras.size());
+
+            Map<String, Integer> frecuencias = new LinkedHashMap<>();
+            for (String palabra : palabras)
+                frecuencias.merge(palabra, 1, Integer::sum);
+            frecuencias.forEach((termino, frecuencia) -> terminos.computeIfAbsent(termino, t -> new Termino())
+                    .agregar(doc, frecuencia));
+        }
+
+        int registrar(Tipo tipo, long id, int longitud) {
+            int doc = documentos++;
+            if (doc == tipos.length) {
+                int capacidad = tipos.length * 2;
+                tipos = Arrays.copyOf(tipos, capacidad);
+                ids = Arrays.copyOf(ids, capacidad);
+                longitudes = Arrays.copyOf(longitudes, capacidad);
+            }
+            tipos[doc] = (byte) tipo.ordinal();
+            ids[doc] = id;
+            longitudes[doc] = longitud;
+            documentoPorId.get(tipo).put(id, doc + 1L);
+            vivos++;
+            longitudTotal += longitud;
+            return doc;
+        }
+
+        void quitar(Tipo tipo, long id) {
+            int doc = (int) documentoPorId.get(tipo).get(id) - 1;
+            if (doc < 0)
+                return;
+            documentoPorId.get(tipo).put(id, 0);
+            eliminados.add(doc);
+            vivos--;
+            longitudTotal -= longitudes[doc];
+        }
+
+        /**
+         * Recorre la lista del término en orden de documento: primero la base y luego la cola.
+         */
+        void recorrer(Termino lista, ConsumidorPosting consumidor) {
+            if (lista.longitudBase > 0)
+                recorrer(base, lista.inicioBase, lista.inicioBase + lista.longitudBase, 0, consumidor);
+            if (lista.cola != null)
+                recorrer(ByteBuffer.wrap(lista.cola.datos), 0, lista.cola.tamano, lista.ultimoDocBase, consumidor);
+        }
+
+        private static void recorrer(ByteBuffer datos, int inicio, int fin, int anterior,
+                ConsumidorPosting consumidor) {
+            int[] posicion = { inicio };
+            int doc = anterior;
+            while (posicion[0] < fin) {
+                doc += leerVarint(datos, posicion);
+                consumidor.aceptar(doc, leerVarint(datos, posicion));
+            }
+        }
+
+        private static int leerVarint(ByteBuffer datos, int[] posicion) {
+            int valor = 0;
+            int desplazamiento = 0;
+            byte b;
+            do {
+                b = datos.get(posicion[0]++);
+                valor |= (b & 0x7F) << desplazamiento;
+                desplazamiento += 7;
+            } while (b < 0);
+            return valor;
+        }
+
+        /**
+         * Número de documentos, id máximo y cambios aplicados de cada tipo.
+         */
+        long[] huella() {
+            long[] huella = new long[Tipo.values().length * 3];
+            for (Tipo tipo : Tipo.values()) {
+                int i = tipo.ordinal() * 3;
+                huella[i] = documentoPorId.get(tipo).size();
+                documentoPorId.get(tipo).forEach((id, doc) -> huella[i + 1] = Math.max(huella[i + 1], id));
+                huella[i + 2] = cambios[tipo.ordinal()];
+            }
+            return huella;
+        }
+    }
+
+    /**
+     * Lista de documentos de un término: la parte que está en la base (posición y
+     * tamaño dentro del archivo) y la cola en el heap. Hasta que se compacta, la
+     * frecuencia de documento cuenta también los documentos eliminados.
+     */
+    private static class Termino {
+        private int df;
+        private int inicioBase;
+        private int longitudBase;
+        private int ultimoDocBase;
+        private Bytes cola;
+        private int ultimoDoc;
+
+        void agregar(int doc, int frecuencia) {
+            if (cola == null)
+                cola = new Bytes();
+            cola.varint(doc - ultimoDoc);
+            cola.varint(frecuencia);
+            ultimoDoc = doc;
+            df++;
+        }
+    }
+
+    /**
+     * Arreglo de bytes que crece, con escritura de enteros de longitud variable
+     * (7 bits por byte, el bit alto indica que sigue otro byte).
+     */
+    private static class Bytes {
+        private byte[] datos = new byte[8];
+        private int tamano;
+
+        void varint(int valor) {
+            if (tamano + 5 > datos.length)
+                datos = Arrays.copyOf(datos, Math.max(datos.length * 2, tamano + 5));
+            while ((valor & ~0x7F) != 0) {
+                datos[tamano++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            datos[tamano++] = (byte) valor;
+        }
+    }
+}
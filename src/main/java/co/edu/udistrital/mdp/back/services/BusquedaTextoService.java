@@ -0,0 +1,107 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.ComentarioRepository;
+import co.edu.udistrital.mdp.back.repositories.MarcaRepository;
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.services.BusquedaTextoIndex.Coincidencia;
+import co.edu.udistrital.mdp.back.services.BusquedaTextoIndex.Tipo;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Búsqueda de texto sin tildes sobre prendas, outfits, marcas y comentarios.
+ */
+@Slf4j
+@Service
+public class BusquedaTextoService {
+
+    @Autowired
+    private BusquedaTextoIndex busquedaTextoIndex;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    @Autowired
+    private OutfitRepository outfitRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private ComentarioRepository comentarioRepository;
+
+    /**
+     * Busca el texto en el índice y completa cada coincidencia con el texto actual
+     * de su entidad.
+     *
+     * @param consulta Texto buscado.
+     * @param tipo     Tipo de documento (prenda, outfit, marca o comentario), o nulo para todos.
+     * @param limite   Número máximo de resultados.
+     * @return Resultados de mayor a menor puntaje.
+     * @throws IllegalOperationException si la consulta no tiene términos, el tipo no existe o el límite no es válido.
+     */
+    @Transactional(readOnly = true)
+    public List<ResultadoBusquedaTexto> buscar(String consulta, String tipo, Integer limite)
+            throws IllegalOperationException {
+        log.info("Inicia proceso de búsqueda de texto");
+        if (AnalizadorTexto.terminos(consulta).isEmpty())
+            throw new IllegalOperationException("La consulta no tiene palabras para buscar");
+
+        Tipo filtro = null;
+        if (tipo != null && !tipo.isBlank()) {
+            filtro = Tipo.deParametro(tipo);
+            if (filtro == null)
+                throw new IllegalOperationException("El tipo de búsqueda " + tipo + " no existe");
+        }
+
+        List<Coincidencia> coincidencias = busquedaTextoIndex.buscar(consulta, filtro,
+                KeysetPagination.limit(limite).max());
+
+        Map<Tipo, List<Long>> idsPorTipo = new EnumMap<>(Tipo.class);
+        for (Coincidencia coincidencia : coincidencias)
+            idsPorTipo.computeIfAbsent(coincidencia.tipo(), t -> new ArrayList<>()).add(coincidencia.id());
+        Map<Tipo, Map<Long, String>> textos = new EnumMap<>(Tipo.class);
+        idsPorTipo.forEach((t, ids) -> textos.put(t, textos(t, ids)));
+
+        // Una entidad eliminada entre la búsqueda y la consulta de sus textos se omite
+        List<ResultadoBusquedaTexto> resultados = new ArrayList<>();
+        for (Coincidencia coincidencia : coincidencias) {
+            Map<Long, String> porId = textos.get(coincidencia.tipo());
+            if (porId.containsKey(coincidencia.id()))
+                resultados.add(new ResultadoBusquedaTexto(coincidencia.tipo(), coincidencia.id(),
+                        porId.get(coincidencia.id()), coincidencia.puntaje()));
+        }
+        log.info("Finaliza proceso de búsqueda de texto");
+        return resultados;
+    }
+
+    private Map<Long, String> textos(Tipo tipo, List<Long> ids) {
+        Map<Long, String> textos = new HashMap<>();
+        switch (tipo) {
+            case PRENDA -> prendaRepository.findAllById(ids)
+                    .forEach((PrendaEntity prenda) -> textos.put(prenda.getId(), prenda.getNombre()));
+            case OUTFIT -> outfitRepository.findAllById(ids)
+                    .forEach((OutfitEntity outfit) -> textos.put(outfit.getId(), outfit.getNombre()));
+            case MARCA -> marcaRepository.findAllById(ids)
+                    .forEach((MarcaEntity marca) -> textos.put(marca.getId(), marca.getNombre()));
+            case COMENTARIO -> comentarioRepository.findAllById(ids)
+                    .forEach((ComentarioEntity comentario) -> textos.put(comentario.getId(), comentario.getTexto()));
+        }
+        return textos;
+    }
+}
@@ -0,0 +1,21 @@
+package co.edu.udistrital.mdp.back.services;
+
+/**
+ * Evento que se publica cuando cambian las calificaciones de un outfit. El índice
+ * de mejor calificados lo usa para recalcular solo ese outfit.
+ *
+ * @param outfitId Identificador del outfit calificado.
+ * @param numero   Cambio en el número de calificaciones (1 al agregar una, -1 al
+ *                 quitarla).
+ * @param suma     Cambio en la suma de las calificaciones.
+ */
+public record CalificacionOutfitEvent(Long outfitId, long numero, double suma) {
+
+    public static CalificacionOutfitEvent agregada(Long outfitId, double calificacion) {
+        return new CalificacionOutfitEvent(outfitId, 1, calificacion);
+    }
+
+    public static CalificacionOutfitEvent quitada(Long outfitId, double calificacion) {
+        return new CalificacionOutfitEvent(outfitId, -1, -calificacion);
+    }
+}
@@ -0,0 +1,162 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.ResumenCalificaciones;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.ComentarioRepository;
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.services.MejorCalificadosIndex.Puntaje;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calificaciones de los outfits a partir de los comentarios que los reseñan.
+ *
+ * El número, la suma y el histograma de calificaciones de cada outfit se guardan en
+ * el outfit y se actualizan con un UPDATE por cada comentario creado, modificado o
+ * eliminado, así que nunca se agregan al consultar. El ranking de mejor calificados
+ * lo sirve {@link MejorCalificadosIndex}.
+ */
+@Slf4j
+@Service
+public class CalificacionesOutfitService {
+
+    static final int LIMITE_MEJOR_CALIFICADOS = 10;
+    static final int LIMITE_MAXIMO_MEJOR_CALIFICADOS = 100;
+
+    @Autowired
+    private OutfitRepository outfitRepository;
+
+    @Autowired
+    private ComentarioRepository comentarioRepository;
+
+    @Autowired
+    private MejorCalificadosIndex mejorCalificadosIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Valida el outfit que reseña el comentario, si tiene uno, y lo reemplaza por una
+     * referencia al outfit guardado.
+     *
+     * @throws EntityNotFoundException   si el outfit no existe.
+     * @throws IllegalOperationException si la calificación está fuera de rango.
+     */
+    void prepararComentario(ComentarioEntity comentario) throws EntityNotFoundException, IllegalOperationException {
+        if (comentario.getOutfit() == null)
+            return;
+
+        Long outfitId = comentario.getOutfit().getId();
+        if (outfitId == null || !outfitRepository.existsById(outfitId))
+            throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
+        if (comentario.getCalificacion() < ResumenCalificaciones.MINIMA
+                || comentario.getCalificacion() > ResumenCalificaciones.MAXIMA)
+            throw new IllegalOperationException("La calificación de un outfit debe estar entre "
+                    + ResumenCalificaciones.MINIMA + " y " + ResumenCalificaciones.MAXIMA);
+        comentario.setOutfit(outfitRepository.getReferenceById(outfitId));
+    }
+
+    /**
+     * Suma la calificación del comentario al outfit que reseña.
+     */
+    void agregar(Long outfitId, double calificacion) {
+        if (outfitId == null)
+            return;
+        outfitRepository.sumarCalificacion(outfitId, 1, calificacion, ResumenCalificaciones.estrellas(calificacion));
+        refrescar(outfitId);
+        eventPublisher.publishEvent(CalificacionOutfitEvent.agregada(outfitId, calificacion));
+    }
+
+    /**
+     * Quita la calificación del comentario del outfit que reseñaba.
+     */
+    void quitar(Long outfitId, double calificacion) {
+        if (outfitId == null)
+            return;
+        outfitRepository.sumarCalificacion(outfitId, -1, calificacion, ResumenCalificaciones.estrellas(calificacion));
+        refrescar(outfitId);
+        eventPublisher.publishEvent(CalificacionOutfitEvent.quitada(outfitId, calificacion));
+    }
+
+    /**
+     * Antes de eliminar un outfit, deja sus comentarios sin outfit y lo saca del
+     * ranking.
+     */
+    void quitarOutfit(OutfitEntity outfit) {
+        comentarioRepository.quitarOutfit(outfit.getId());
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.COMENTARIO, List.of()));
+        ResumenCalificaciones resumen = outfit.getCalificaciones();
+        if (resumen.getNumero() > 0)
+            eventPublisher.publishEvent(
+                    new CalificacionOutfitEvent(outfit.getId(), -resumen.getNumero(), -resumen.getSuma()));
+    }
+
+    /**
+     * Consulta el resumen de calificaciones de un outfit.
+     *
+     * @param outfitId Identificador del outfit.
+     * @return Número, suma, promedio e histograma de sus calificaciones.
+     * @throws EntityNotFoundException si el outfit no existe.
+     */
+    @Transactional
+    public ResumenCalificaciones getCalificaciones(Long outfitId) throws EntityNotFoundException {
+        log.info("Inicia proceso de consultar las calificaciones del outfit con id = {}", outfitId);
+        OutfitEntity outfit = outfitRepository.findById(outfitId)
+                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND));
+        log.info("Termina proceso de consultar las calificaciones del outfit con id = {}", outfitId);
+        return outfit.getCalificaciones();
+    }
+
+    /**
+     * Obtiene los outfits mejor calificados según su promedio bayesiano.
+     *
+     * @param limite Número máximo de outfits (por defecto 10, máximo 100).
+     * @return Outfits de mayor a menor puntaje.
+     * @throws IllegalOperationException si el límite no es válido.
+     */
+    @Transactional
+    public List<OutfitCalificado> getMejorCalificados(Integer limite) throws IllegalOperationException {
+        log.info("Inicia consulta de los outfits mejor calificados");
+        if (limite != null && limite < 1)
+            throw new IllegalOperationException("El límite debe ser mayor que cero");
+
+        int k = limite == null ? LIMITE_MEJOR_CALIFICADOS : Math.min(limite, LIMITE_MAXIMO_MEJOR_CALIFICADOS);
+        List<Puntaje> top = mejorCalificadosIndex.getTop(k);
+        Map<Long, OutfitEntity> outfits = outfitRepository.findAllById(top.stream().map(Puntaje::outfitId).toList())
+                .stream().collect(Collectors.toMap(OutfitEntity::getId, Function.identity()));
+
+        log.info("Finaliza consulta de los outfits mejor calificados");
+        return top.stream().filter(p -> outfits.containsKey(p.outfitId()))
+                .map(p -> new OutfitCalificado(outfits.get(p.outfitId()), p.bayesiano())).toList();
+    }
+
+    /**
+     * El UPDATE no pasa por el contexto de persistencia: si el outfit ya estaba
+     * cargado se refresca para que no quede con el resumen anterior.
+     */
+    private void refrescar(Long outfitId) {
+        OutfitEntity outfit = entityManager.getReference(OutfitEntity.class, outfitId);
+        if (Hibernate.isInitialized(outfit))
+            entityManager.refresh(outfit);
+    }
+}
@@ -0,0 +1,479 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.udistrital.mdp.back.entities.BaseEntity;
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.TiendaEntity;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.ColorRepository;
+import co.edu.udistrital.mdp.back.repositories.MarcaRepository;
+import co.edu.udistrital.mdp.back.repositories.TiendaRepository;
+import co.edu.udistrital.mdp.back.services.BusquedaTextoIndex.Tipo;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Importación masiva del catálogo (colores, marcas, tiendas y prendas) desde un
+ * archivo NDJSON o CSV.
+ *
+ * El archivo se lee registro por registro y se guarda en lotes, cada uno en su
+ * propia transacción, de modo que la memoria usada no depende del tamaño del
+ * archivo. Los colores (por código HEX), las marcas y las tiendas (por nombre
+ * normalizado) se resuelven con un caché propio de cada importación, y como los
+ * ids salen de secuencias los INSERT de cada lote se envían en lotes JDBC.
+ *
+ * Cada registro tiene un campo "tipo" (color, marca, tienda o prenda) y los campos
+ * de ese tipo. Las referencias deben existir o aparecer antes en el archivo.
+ */
+@Slf4j
+@Service
+public class CatalogoImportacionService {
+
+    /**
+     * Formatos de archivo soportados
+     */
+    public enum Formato {
+        NDJSON, CSV
+    }
+
+    static final int TAMANO_LOTE_MAXIMO = 10000;
+
+    static final String COLOR = "color";
+    static final String MARCA = "marca";
+    static final String TIENDA = "tienda";
+    static final String PRENDA = "prenda";
+
+    private static final Pattern CODIGO_HEX = Pattern.compile("^#([A-Fa-f0-9]{6})$");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private ColorRepository colorRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private TiendaRepository tiendaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${catalogo.importacion.tamano-lote:1000}")
+    private int tamanoLotePorDefecto;
+
+    /**
+     * Importa los registros del archivo.
+     *
+     * @param entrada    Contenido del archivo.
+     * @param formato    Formato del archivo.
+     * @param tamanoLote Número de registros por transacción (opcional).
+     * @return Reporte de la importación.
+     * @throws IllegalOperationException si el tamaño de lote o el encabezado del CSV no son válidos.
+     * @throws IOException si no se puede leer la entrada.
+     */
+    public ResultadoImportacion importar(Reader entrada, Formato formato, Integer tamanoLote)
+            throws IllegalOperationException, IOException {
+        int tamano = tamanoLote == null ? tamanoLotePorDefecto : tamanoLote;
+        if (tamano < 1 || tamano > TAMANO_LOTE_MAXIMO)
+            throw new IllegalOperationException("El tamaño de lote debe estar entre 1 y " + TAMANO_LOTE_MAXIMO);
+
+        log.info("Inicia proceso de importación del catálogo en formato {} con lotes de {}", formato, tamano);
+        long inicio = System.nanoTime();
+        BufferedReader lector = new BufferedReader(entrada);
+        LectorRegistros registros = formato == Formato.CSV ? new LectorCsv(lector) : new LectorNdjson(lector);
+        Importacion importacion = new Importacion();
+
+        List<Registro> lote = new ArrayList<>(tamano);
+        Registro registro;
+        while ((registro = registros.siguiente()) != null) {
+            lote.add(registro);
+            if (lote.size() == tamano) {
+                guardarLote(importacion, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty())
+            guardarLote(importacion, lote);
+
+        ResultadoImportacion resultado = importacion.resultado;
+        long nanos = System.nanoTime() - inicio;
+        resultado.setDuracionMs(nanos / 1_000_000);
+        resultado.setRegistrosPorSegundo(nanos == 0 ? 0 : resultado.getProcesados() * 1e9 / nanos);
+        log.info("Finaliza proceso de importación del catálogo: {} registros, {} fallidos, {} ms",
+                resultado.getProcesados(), resultado.getFallidos(), resultado.getDuracionMs());
+        return resultado;
+    }
+
+    /**
+     * Guarda un lote en una transacción. Los registros inválidos se reportan y se
+     * omiten; si la transacción falla, todo el lote se reporta como fallido.
+     */
+    private void guardarLote(Importacion importacion, List<Registro> lote) {
+        ResultadoImportacion resultado = importacion.resultado;
+        Map<String, Integer> creados = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(estado -> {
+                for (Registro registro : lote) {
+                    try {
+                        creados.merge(guardar(importacion, registro), 1, Integer::sum);
+                    } catch (IllegalOperationException e) {
+                        resultado.registrarError(registro.linea(), e.getMessage());
+                    }
+                }
+                entityManager.flush();
+            });
+            importacion.confirmar();
+            creados.forEach((tipo, cantidad) -> resultado.getCreados().merge(tipo, cantidad, Integer::sum));
+        } catch (RuntimeException e) {
+            importacion.descartar();
+            int perdidos = creados.values().stream().mapToInt(Integer::intValue).sum();
+            log.warn("No se pudo guardar el lote que inicia en la línea {}", lote.get(0).linea(), e);
+            resultado.registrarError(lote.get(0).linea(), "No se pudo guardar el lote de las líneas "
+                    + lote.get(0).linea() + " a " + lote.get(lote.size() - 1).linea(), perdidos);
+        } finally {
+            // Las entidades del lote ya no se necesitan: se liberan del contexto de persistencia
+            entityManager.clear();
+        }
+
+        resultado.setProcesados(resultado.getProcesados() + lote.size());
+        resultado.setLotes(resultado.getLotes() + 1);
+        log.info("Lote {} de la importación guardado: {} registros procesados", resultado.getLotes(),
+                resultado.getProcesados());
+    }
+
+    private String guardar(Importacion importacion, Registro registro) throws IllegalOperationException {
+        if (registro.error() != null)
+            throw new IllegalOperationException(registro.error());
+
+        String tipo = campo(registro, "tipo", true).toLowerCase(Locale.ROOT);
+        switch (tipo) {
+            case COLOR -> guardarColor(importacion, registro);
+            case MARCA -> guardarMarca(importacion, registro);
+            case TIENDA -> guardarTienda(importacion, registro);
+            case PRENDA -> guardarPrenda(importacion, registro);
+            default -> throw new IllegalOperationException("El tipo de registro no es válido: " + tipo);
+        }
+        return tipo;
+    }
+
+    private void guardarColor(Importacion importacion, Registro registro) throws IllegalOperationException {
+        String nombre = campo(registro, "nombre", true);
+        String codigoHex = campo(registro, "codigoHex", true);
+        if (!CODIGO_HEX.matcher(codigoHex).matches())
+            throw new IllegalOperationException("El código HEX del color no es válido (ej: #FFFFFF)");
+
+        String hex = codigoHex.toUpperCase(Locale.ROOT);
+        String nombreColor = BaseEntity.normalizar(nombre);
+        if (importacion.colores.buscar(hex, colorRepository::findByCodigoHex) != null)
+            throw new IllegalOperationException("Ya existe un color con el código " + codigoHex);
+        if (importacion.nombresColor.buscar(nombreColor, colorRepository::findByNombreNormalizado) != null)
+            throw new IllegalOperationException("Ya existe un color con ese nombre");
+
+        ColorEntity color = new ColorEntity();
+        color.setNombre(nombre);
+        color.setCodigoHex(codigoHex);
+        entityManager.persist(color);
+        importacion.colores.registrar(hex, color.getId());
+        eventPublisher.publishEvent(new ColorModificadoEvent(color.getId(), color.getCodigoHex()));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.COLOR, color.getId()));
+        importacion.nombresColor.registrar(nombreColor, color.getId());
+    }
+
+    private void guardarMarca(Importacion importacion, Registro registro) throws IllegalOperationException {
+        String nombre = campo(registro, "nombre", true);
+        if (importacion.marcas.buscar(BaseEntity.normalizar(nombre), marcaRepository::findByNombreNormalizado) != null)
+            throw new IllegalOperationException("Ya existe una marca con ese nombre");
+
+        MarcaEntity marca = new MarcaEntity();
+        marca.setNombre(nombre);
+        marca.setLogo(campo(registro, "logo", false));
+        marca.setUbicacion(campo(registro, "ubicacion", false));
+        entityManager.persist(marca);
+        importacion.marcas.registrar(marca.getNombreNormalizado(), marca.getId());
+        eventPublisher.publishEvent(TextoModificadoEvent.guardado(Tipo.MARCA, marca.getId(), marca.getNombre()));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.MARCA, marca.getId()));
+    }
+
+    private void guardarTienda(Importacion importacion, Registro registro) throws IllegalOperationException {
+        String nombre = campo(registro, "nombre", true);
+        if (importacion.tiendas.buscar(BaseEntity.normalizar(nombre), tiendaRepository::findByNombreNormalizado) != null)
+            throw new IllegalOperationException("Ya existe una tienda con ese nombre");
+
+        TiendaEntity tienda = new TiendaEntity();
+        tienda.setNombre(nombre);
+        tienda.setDireccion(campo(registro, "direccion", false));
+        tienda.setHorario(campo(registro, "horario", false));
+        tienda.setUbicacion(campo(registro, "ubicacion", false));
+        Coordenadas coordenadas = TiendaService.ubicar(tienda);
+        String marca = campo(registro, MARCA, false);
+        if (marca != null)
+            tienda.setMarca(entityManager.getReference(MarcaEntity.class, marca(importacion, marca)));
+        entityManager.persist(tienda);
+        importacion.tiendas.registrar(tienda.getNombreNormalizado(), tienda.getId());
+        eventPublisher.publishEvent(new TiendaModificadaEvent(tienda.getId(), coordenadas));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.TIENDA, tienda.getId()));
+    }
+
+    private void guardarPrenda(Importacion importacion, Registro registro) throws IllegalOperationException {
+        PrendaEntity prenda = new PrendaEntity();
+        prenda.setNombre(campo(registro, "nombre", true));
+
+        String precio = campo(registro, "precio", false);
+        if (precio != null) {
+            try {
+                prenda.setPrecio(Double.valueOf(precio));
+            } catch (NumberFormatException e) {
+                throw new IllegalOperationException("El precio no es válido: " + precio);
+            }
+            if (prenda.getPrecio() < 0)
+                throw new IllegalOperationException("El precio no puede ser negativo");
+        }
+
+        String codigoHex = campo(registro, COLOR, true);
+        Long color = importacion.colores.buscar(codigoHex.toUpperCase(Locale.ROOT),
+                colorRepository::findByCodigoHex);
+        if (color == null)
+            throw new IllegalOperationException("No existe un color con el código " + codigoHex);
+        prenda.setColor(entityManager.getReference(ColorEntity.class, color));
+
+        prenda.setMarca(entityManager.getReference(MarcaEntity.class, marca(importacion, campo(registro, MARCA, true))));
+
+        String tienda = campo(registro, TIENDA, false);
+        if (tienda != null) {
+            Long tiendaId = importacion.tiendas.buscar(BaseEntity.normalizar(tienda),
+                    tiendaRepository::findByNombreNormalizado);
+            if (tiendaId == null)
+                throw new IllegalOperationException("No existe una tienda con el nombre " + tienda);
+            prenda.setTienda(entityManager.getReference(TiendaEntity.class, tiendaId));
+        }
+        entityManager.persist(prenda);
+        eventPublisher.publishEvent(PrendaModificadaEvent.creada(prenda));
+        eventPublisher.publishEvent(TextoModificadoEvent.guardado(Tipo.PRENDA, prenda.getId(), prenda.getNombre()));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.PRENDA, prenda.getId()));
+    }
+
+    private Long marca(Importacion importacion, String nombre) throws IllegalOperationException {
+        Long marca = importacion.marcas.buscar(BaseEntity.normalizar(nombre), marcaRepository::findByNombreNormalizado);
+        if (marca == null)
+            throw new IllegalOperationException("No existe una marca con el nombre " + nombre);
+        return marca;
+    }
+
+    private static String campo(Registro registro, String nombre, boolean obligatorio)
+            throws IllegalOperationException {
+        String valor = registro.campos().get(nombre);
+        if (valor != null && !valor.isBlank())
+            return valor.trim();
+        if (obligatorio)
+            throw new IllegalOperationException("El campo " + nombre + " es obligatorio");
+        return null;
+    }
+
+    /**
+     * Estado de una importación: el reporte y los cachés de búsqueda.
+     */
+    private static class Importacion {
+        private final ResultadoImportacion resultado = new ResultadoImportacion();
+        private final Cache colores = new Cache();
+        private final Cache nombresColor = new Cache();
+        private final Cache marcas = new Cache();
+        private final Cache tiendas = new Cache();
+
+        void confirmar() {
+            List.of(colores, nombresColor, marcas, tiendas).forEach(Cache::confirmar);
+        }
+
+        void descartar() {
+            List.of(colores, nombresColor, marcas, tiendas).forEach(Cache::descartar);
+        }
+    }
+
+    /**
+     * Caché de ids por llave. Recuerda también las llaves que no existen, y separa
+     * las entidades creadas en el lote actual para descartarlas si el lote falla.
+     */
+    private static class Cache {
+        private static final long NO_EXISTE = -1;
+
+        private final Map<String, Long> confirmados = new HashMap<>();
+        private final Map<String, Long> delLote = new HashMap<>();
+
+        Long buscar(String llave, Function<String, ? extends Optional<? extends BaseEntity>> consulta) {
+            Long id = delLote.get(llave);
+            if (id == null) {
+                id = confirmados.computeIfAbsent(llave,
+                        k -> consulta.apply(k).map(BaseEntity::getId).orElse(NO_EXISTE));
+            }
+            return id == NO_EXISTE ? null : id;
+        }
+
+        void registrar(String llave, Long id) {
+            delLote.put(llave, id);
+        }
+
+        void confirmar() {
+            confirmados.putAll(delLote);
+            delLote.clear();
+        }
+
+        void descartar() {
+            delLote.clear();
+        }
+    }
+
+    /**
+     * Registro leído del archivo con sus campos, o con el error que impidió leerlo.
+     */
+    private record Registro(int linea, Map<String, String> campos, String error) {
+    }
+
+    private interface LectorRegistros {
+        Registro siguiente() throws IOException, IllegalOperationException;
+    }
+
+    /**
+     * Lee un objeto JSON por línea.
+     */
+    private static class LectorNdjson implements LectorRegistros {
+        private final BufferedReader lector;
+        private int linea;
+
+        LectorNdjson(BufferedReader lector) {
+            this.lector = lector;
+        }
+
+        @Override
+        public Registro siguiente() throws IOException {
+            String texto;
+            while ((texto = lector.readLine()) != null) {
+                linea++;
+                if (texto.isBlank())
+                    continue;
+                try {
+                    Map<String, Object> valores = MAPPER.readValue(texto,
+                            new TypeReference<LinkedHashMap<String, Object>>() {
+                            });
+                    Map<String, String> campos = new HashMap<>();
+                    valores.forEach((llave, valor) -> {
+                        if (valor != null)
+                            campos.put(llave, valor.toString());
+                    });
+                    return new Registro(linea, campos, null);
+                } catch (JsonProcessingException e) {
+                    return new Registro(linea, Map.of(), "El registro no es un objeto JSON válido");
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Lee un CSV con encabezado. Soporta campos entre comillas dobles (con "" como
+     * escape) dentro de una misma línea.
+     */
+    private static class LectorCsv implements LectorRegistros {
+        private final BufferedReader lector;
+        private int linea;
+        private String[] encabezado;
+
+        LectorCsv(BufferedReader lector) {
+            this.lector = lector;
+        }
+
+        @Override
+        public Registro siguiente() throws IOException, IllegalOperationException {
+            String texto;
+            while ((texto = lector.readLine()) != null) {
+                linea++;
+                if (linea == 1 && texto.startsWith("\uFEFF"))
+                    texto = texto.substring(1);
+                if (texto.isBlank())
+                    continue;
+
+                List<String> valores = dividir(texto);
+                if (encabezado == null) {
+                    if (valores == null || !valores.contains("tipo"))
+                        throw new IllegalOperationException("El encabezado del CSV debe tener la columna tipo");
+                    encabezado = valores.stream().map(String::trim).toArray(String[]::new);
+                    continue;
+                }
+                if (valores == null)
+                    return new Registro(linea, Map.of(), "La línea tiene comillas sin cerrar");
+                if (valores.size() != encabezado.length)
+                    return new Registro(linea, Map.of(), "La línea tiene " + valores.size()
+                            + " columnas y el encabezado " + encabezado.length);
+
+                Map<String, String> campos = new HashMap<>();
+                for (int i = 0; i < encabezado.length; i++)
+                    campos.put(encabezado[i], valores.get(i));
+                return new Registro(linea, campos, null);
+            }
+            return null;
+        }
+
+        /**
+         * Divide una línea en sus campos, o devuelve nulo si tiene comillas sin cerrar.
+         */
+        static List<String> dividir(String texto) {
+            List<String> valores = new ArrayList<>();
+            StringBuilder actual = new StringBuilder();
+            boolean comillas = false;
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                if (comillas) {
+                    if (c == '"' && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        comillas = false;
+                    } else {
+                        actual.append(c);
+                    }
+                } else if (c == '"') {
+                    comillas = true;
+                } else if (c == ',') {
+                    valores.add(actual.toString());
+                    actual.setLength(0);
+                } else {
+                    actual.append(c);
+                }
+            }
+            if (comillas)
+                return null;
+            valores.add(actual.toString());
+            return valores;
+        }
+    }
+}
@@ -6,8 +6,10 @@ import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
 import co.edu.udistrital.mdp.back.repositories.CategoriaRepository;
 import co.edu.udistrital.mdp.back.repositories.OcasionRepository;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,9 +25,12 @@ public class CategoriaOcasionService {
     @Autowired
     private OcasionRepository ocasionRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public List<OcasionEntity> getOcasionesPorCategoria(Long categoriaId) throws EntityNotFoundException {
-        CategoriaEntity categoria = categoriaRepository.findById(categoriaId)
+        CategoriaEntity categoria = categoriaRepository.findConOcasionesById(categoriaId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.CATEGORIA_NOT_FOUND));
         return categoria.getOcasiones();
     }
@@ -39,6 +44,8 @@ public class CategoriaOcasionService {
 
         categoria.getOcasiones().add(ocasion);
         categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.CATEGORIA, categoriaId));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OCASION, ocasionId));
         return ocasion;
     }
 
@@ -51,5 +58,7 @@ public class CategoriaOcasionService {
 
         categoria.getOcasiones().remove(ocasion);
         categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.CATEGORIA, categoriaId));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OCASION, ocasionId));
     }
 }
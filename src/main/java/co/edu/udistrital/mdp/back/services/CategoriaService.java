@@ -1,9 +1,11 @@
 package co.edu.udistrital.mdp.back.services;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,6 +16,7 @@ import co.edu.udistrital.mdp.back.repositories.CategoriaRepository;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,14 +24,31 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class CategoriaService {
 
+    /**
+     * Campos por los que se puede ordenar el listado paginado y su tipo
+     */
+    private static final Map<String, Class<?>> CAMPOS_ORDEN = Map.of(
+            "id", Long.class,
+            "nombre", String.class,
+            "edad", Integer.class);
+
+    /**
+     * Mensaje de error por restricción única de la categoría
+     */
+    private static final Map<String, String> RESTRICCIONES = Map.of(
+            "uk_categoria_nombre", "Ya existe una categoría con ese nombre");
+
     @Autowired
     OutfitRepository outfitRepository;
 
     @Autowired
     CategoriaRepository categoriaRepository;
 
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
 
-    @Transactional
+
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public CategoriaEntity createCategoria(CategoriaEntity categoriaEntity)
             throws IllegalOperationException {
 
@@ -38,16 +58,11 @@ public class CategoriaService {
             throw new IllegalOperationException("El nombre de la categoría no puede estar vacío");
         }
 
-
-        List<CategoriaEntity> existentes = categoriaRepository.findAll();
-        boolean existe = existentes.stream()
-                .anyMatch(c -> c.getNombre().equalsIgnoreCase(categoriaEntity.getNombre()));
-        if (existe) {
-            throw new IllegalOperationException("Ya existe una categoría con el nombre: " + categoriaEntity.getNombre());
-        }
-
+        // La unicidad del nombre (sin mayúsculas ni tildes) la verifica la base de datos
+        CategoriaEntity creada = RestriccionesUnicas.guardar(categoriaRepository, categoriaEntity, RESTRICCIONES);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.CATEGORIA, creada.getId()));
         log.info("Termina proceso de creación de la categoría");
-        return categoriaRepository.save(categoriaEntity);
+        return creada;
     }
 
 
@@ -57,6 +72,23 @@ public class CategoriaService {
         return categoriaRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de categorías usando paginación por cursor (keyset).
+     *
+     * @param cursor Cursor devuelto por la página anterior, o nulo para la primera página.
+     * @param size   Tamaño de página solicitado.
+     * @param sort   Campo de ordenamiento, opcionalmente seguido de ",desc".
+     * @return Página de CategoriaEntity con el cursor de la siguiente página.
+     * @throws IllegalOperationException si el cursor, el tamaño o el ordenamiento no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<CategoriaEntity> getCategorias(String cursor, Integer size, String sort)
+            throws IllegalOperationException {
+        log.info("Inicia proceso de consultar una página de categorías");
+        return KeysetPagination.page(categoriaRepository, categoriaRepository::findBy, cursor, size, sort,
+                CAMPOS_ORDEN);
+    }
+
     @Transactional
     public CategoriaEntity getCategoria(Long categoriaId) throws EntityNotFoundException {
         log.info("Inicia proceso de consultar la categoría con id = {}", categoriaId);
@@ -68,7 +100,7 @@ public class CategoriaService {
     }
 
 
-    @Transactional
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public CategoriaEntity updateCategoria(Long categoriaId, CategoriaEntity categoria)
             throws EntityNotFoundException, IllegalOperationException {
         log.info("Inicia proceso de actualizar la categoría con id = {}", categoriaId);
@@ -81,8 +113,10 @@ public class CategoriaService {
         }
 
         categoria.setId(categoriaId);
+        CategoriaEntity actualizada = RestriccionesUnicas.guardar(categoriaRepository, categoria, RESTRICCIONES);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.CATEGORIA, categoriaId));
         log.info("Termina proceso de actualizar la categoría con id = {}", categoriaId);
-        return categoriaRepository.save(categoria);
+        return actualizada;
     }
 
 
@@ -103,6 +137,7 @@ public class CategoriaService {
         }
 
         categoriaRepository.deleteById(categoriaId);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.CATEGORIA, categoriaId));
         log.info("Termina proceso de borrar la categoría con id = {}", categoriaId);
     }
 
@@ -110,7 +145,7 @@ public class CategoriaService {
     @Transactional
     public List<OutfitEntity> getOutfitsByCategoria(Long categoriaId) throws EntityNotFoundException {
         log.info("Inicia proceso de consultar los outfits de la categoría con id = {}", categoriaId);
-        Optional<CategoriaEntity> categoriaEntity = categoriaRepository.findById(categoriaId);
+        Optional<CategoriaEntity> categoriaEntity = categoriaRepository.findConOutfitsById(categoriaId);
         if (categoriaEntity.isEmpty())
             throw new EntityNotFoundException(ErrorMessage.CATEGORIA_NOT_FOUND);
 
@@ -0,0 +1,63 @@
+package co.edu.udistrital.mdp.back.services;
+
+/**
+ * Conversión de códigos HEX (sRGB) al espacio CIELAB, donde la distancia euclidiana
+ * entre dos colores (ΔE de 1976) se aproxima a la diferencia que percibe el ojo.
+ */
+final class CieLab {
+
+    /** Blanco de referencia D65 */
+    private static final double XN = 0.95047;
+    private static final double YN = 1.0;
+    private static final double ZN = 1.08883;
+
+    private static final double DELTA = 6.0 / 29;
+
+    private CieLab() {
+    }
+
+    /**
+     * Coordenadas [L, a, b] del color con código "#RRGGBB".
+     */
+    static double[] deHex(String codigoHex) {
+        int rgb = Integer.parseInt(codigoHex.substring(1), 16);
+        double r = lineal((rgb >> 16) & 0xFF);
+        double g = lineal((rgb >> 8) & 0xFF);
+        double b = lineal(rgb & 0xFF);
+
+        double x = (0.4124564 * r + 0.3575761 * g + 0.1804375 * b) / XN;
+        double y = (0.2126729 * r + 0.7151522 * g + 0.0721750 * b) / YN;
+        double z = (0.0193339 * r + 0.1191920 * g + 0.9503041 * b) / ZN;
+
+        double fx = f(x);
+        double fy = f(y);
+        double fz = f(z);
+        return new double[] { 116 * fy - 16, 500 * (fx - fy), 200 * (fy - fz) };
+    }
+
+    /**
+     * Diferencia de color ΔE*ab (CIE76) entre dos puntos CIELAB.
+     */
+    static double deltaE(double[] uno, double[] otro) {
+        return Math.sqrt(distanciaCuadrada(uno, otro));
+    }
+
+    static double distanciaCuadrada(double[] uno, double[] otro) {
+        double dl = uno[0] - otro[0];
+        double da = uno[1] - otro[1];
+        double db = uno[2] - otro[2];
+        return dl * dl + da * da + db * db;
+    }
+
+    /**
+     * Quita la corrección gamma de un canal sRGB (0-255).
+     */
+    private static double lineal(int canal) {
+        double c = canal / 255.0;
+        return c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+    }
+
+    private static double f(double t) {
+        return t > DELTA * DELTA * DELTA ? Math.cbrt(t) : t / (3 * DELTA * DELTA) + 4.0 / 29;
+    }
+}
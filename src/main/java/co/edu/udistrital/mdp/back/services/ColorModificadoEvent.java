@@ -0,0 +1,11 @@
+package co.edu.udistrital.mdp.back.services;
+
+/**
+ * Evento que se publica cuando se crea, actualiza o elimina un color. El índice de
+ * colores cercanos lo usa para ubicar el color en el espacio CIELAB.
+ *
+ * @param colorId   Identificador del color.
+ * @param codigoHex Código HEX nuevo, o nulo si el color se eliminó.
+ */
+public record ColorModificadoEvent(Long colorId, String codigoHex) {
+}
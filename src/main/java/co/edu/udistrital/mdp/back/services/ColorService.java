@@ -5,26 +5,47 @@ import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 import co.edu.udistrital.mdp.back.repositories.ColorRepository;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 @Slf4j
 @Service
 public class ColorService {
 
+    /**
+     * Campos por los que se puede ordenar el listado paginado y su tipo
+     */
+    private static final Map<String, Class<?>> CAMPOS_ORDEN = Map.of(
+            "id", Long.class,
+            "nombre", String.class);
+
+    /**
+     * Mensaje de error por restricción única del color
+     */
+    private static final Map<String, String> RESTRICCIONES = Map.of(
+            "uk_color_nombre", "Ya existe un color con ese nombre",
+            "uk_color_codigo_hex", "Ya existe un color con ese código HEX");
+
     @Autowired
     private ColorRepository colorRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Crear un color
      */
-    @Transactional
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public ColorEntity createColor(ColorEntity colorEntity) throws IllegalOperationException {
         log.info("Inicia proceso de creación de color");
 
@@ -36,13 +57,10 @@ public class ColorService {
             throw new IllegalOperationException("El código HEX del color no es válido (ej: #FFFFFF)");
         }
 
-        // Evitar duplicados por nombre
-        Optional<ColorEntity> existente = colorRepository.findByNombreIgnoreCase(colorEntity.getNombre());
-        if (existente.isPresent()) {
-            throw new IllegalOperationException("Ya existe un color con ese nombre");
-        }
-
-        ColorEntity saved = colorRepository.save(colorEntity);
+        // Los duplicados de nombre o código los rechaza la base de datos
+        ColorEntity saved = RestriccionesUnicas.guardar(colorRepository, colorEntity, RESTRICCIONES);
+        eventPublisher.publishEvent(new ColorModificadoEvent(saved.getId(), saved.getCodigoHex()));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.COLOR, saved.getId()));
         log.info("Finaliza proceso de creación de color con id = {}", saved.getId());
         return saved;
     }
@@ -56,6 +74,24 @@ public class ColorService {
         return colorRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de colores usando paginación por cursor (keyset).
+     *
+     * @param cursor Cursor devuelto por la página anterior, o nulo para la primera página.
+     * @param size   Tamaño de página solicitado.
+     * @param sort   Campo de ordenamiento, opcionalmente seguido de ",desc".
+     * @return Página de ColorEntity con el cursor de la siguiente página.
+     * @throws IllegalOperationException si el cursor, el tamaño o el ordenamiento no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ColorEntity> getColores(String cursor, Integer size, String sort)
+            throws IllegalOperationException {
+        log.info("Inicia proceso de consultar una página de colores");
+        Sort orden = KeysetPagination.sort(sort, CAMPOS_ORDEN);
+        ScrollPosition posicion = KeysetPagination.position(cursor, orden, CAMPOS_ORDEN);
+        return KeysetPagination.page(colorRepository.findBy(posicion, orden, KeysetPagination.limit(size)));
+    }
+
     /**
      * Obtener un color por id
      */
@@ -69,7 +105,7 @@ public class ColorService {
     /**
      * Actualizar un color
      */
-    @Transactional
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public ColorEntity updateColor(Long colorId, ColorEntity colorEntity)
             throws EntityNotFoundException, IllegalOperationException {
 
@@ -86,16 +122,12 @@ public class ColorService {
             throw new IllegalOperationException("El código HEX del color no es válido (ej: #FFFFFF)");
         }
 
-        // Evitar duplicado de nombre
-        Optional<ColorEntity> duplicado = colorRepository.findByNombreIgnoreCase(colorEntity.getNombre());
-        if (duplicado.isPresent() && !duplicado.get().getId().equals(colorId)) {
-            throw new IllegalOperationException("Ya existe un color con ese nombre");
-        }
-
         existente.setNombre(colorEntity.getNombre());
         existente.setCodigoHex(colorEntity.getCodigoHex());
 
-        ColorEntity updated = colorRepository.save(existente);
+        ColorEntity updated = RestriccionesUnicas.guardar(colorRepository, existente, RESTRICCIONES);
+        eventPublisher.publishEvent(new ColorModificadoEvent(colorId, updated.getCodigoHex()));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.COLOR, colorId));
         log.info("Finaliza proceso de actualización del color con id = {}", colorId);
         return updated;
     }
@@ -112,6 +144,8 @@ public class ColorService {
         }
 
         colorRepository.deleteById(colorId);
+        eventPublisher.publishEvent(new ColorModificadoEvent(colorId, null));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.COLOR, colorId));
         log.info("Finaliza proceso de eliminación del color con id = {}", colorId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package co.edu.udistrital.mdp.back.services;
+
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Color parecido a otro, con su diferencia ΔE en el espacio CIELAB.
+ */
+@Getter
+@AllArgsConstructor
+public class ColorSimilar {
+
+    private final ColorEntity color;
+    private final double distancia;
+}
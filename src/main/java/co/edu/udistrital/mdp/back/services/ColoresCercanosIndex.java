@@ -0,0 +1,163 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import co.edu.udistrital.mdp.back.repositories.ColorRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice de los colores en el espacio CIELAB para buscar los más parecidos a un
+ * tono (vecinos más cercanos por ΔE).
+ *
+ * Los colores se guardan en un árbol k-d de tres dimensiones (L, a, b). Como son
+ * pocos y cambian poco, cada cambio construye un árbol nuevo que reemplaza al
+ * anterior, de modo que las búsquedas no necesitan bloqueo. Se reconstruye desde
+ * la tabla de colores al iniciar la aplicación y se actualiza con los eventos de
+ * cambio de los colores una vez se confirma cada transacción.
+ */
+@Slf4j
+@Service
+public class ColoresCercanosIndex {
+
+    /**
+     * Color encontrado y su diferencia ΔE con el tono buscado.
+     */
+    public record Vecino(Long colorId, double distancia) {
+    }
+
+    @Autowired
+    private ColorRepository colorRepository;
+
+    private final Map<Long, double[]> colores = new HashMap<>();
+
+    private volatile Arbol arbol = new Arbol(new Punto[0]);
+
+    /**
+     * Busca los colores más cercanos al punto CIELAB dado. Los empates se resuelven
+     * por id, así que pedir más vecinos solo agrega colores al final de la lista.
+     *
+     * @param lab    Coordenadas [L, a, b] del tono buscado.
+     * @param limite Número de colores pedidos.
+     * @return Colores de menor a mayor distancia.
+     */
+    public List<Vecino> cercanos(double[] lab, int limite) {
+        return arbol.cercanos(lab, limite);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void registrarCambio(ColorModificadoEvent evento) {
+        if (evento.codigoHex() == null)
+            colores.remove(evento.colorId());
+        else
+            colores.put(evento.colorId(), CieLab.deHex(evento.codigoHex()));
+        arbol = Arbol.construir(colores);
+    }
+
+    /**
+     * Reconstruye el índice desde la tabla de colores.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconstruir() {
+        log.info("Inicia proceso de reconstrucción del índice de colores cercanos");
+        colores.clear();
+        for (Object[] fila : colorRepository.findCodigosHex())
+            colores.put((Long) fila[0], CieLab.deHex((String) fila[1]));
+        arbol = Arbol.construir(colores);
+        log.info("Finaliza proceso de reconstrucción del índice de colores cercanos: {} colores", colores.size());
+    }
+
+    private record Punto(long id, double[] lab) {
+    }
+
+    private record Candidato(Punto punto, double distancia) {
+    }
+
+    /** Orden de los candidatos del peor al mejor: más lejano primero y, a igual distancia, mayor id */
+    private static final Comparator<Candidato> PEOR_PRIMERO = Comparator.comparingDouble(Candidato::distancia)
+            .thenComparingLong(candidato -> candidato.punto().id()).reversed();
+
+    /**
+     * Árbol k-d implícito: el nodo de un rango del arreglo es su punto del medio, que
+     * lo divide por la mediana del eje (L, a o b según la profundidad).
+     */
+    private static final class Arbol {
+        private final Punto[] puntos;
+
+        private Arbol(Punto[] puntos) {
+            this.puntos = puntos;
+        }
+
+        static Arbol construir(Map<Long, double[]> colores) {
+            Punto[] puntos = new Punto[colores.size()];
+            int i = 0;
+            for (Map.Entry<Long, double[]> color : colores.entrySet())
+                puntos[i++] = new Punto(color.getKey(), color.getValue());
+            ordenar(puntos, 0, puntos.length, 0);
+            return new Arbol(puntos);
+        }
+
+        private static void ordenar(Punto[] puntos, int desde, int hasta, int eje) {
+            if (hasta - desde <= 1)
+                return;
+            Arrays.sort(puntos, desde, hasta, Comparator.comparingDouble(punto -> punto.lab()[eje]));
+            int medio = (desde + hasta) >>> 1;
+            ordenar(puntos, desde, medio, (eje + 1) % 3);
+            ordenar(puntos, medio + 1, hasta, (eje + 1) % 3);
+        }
+
+        List<Vecino> cercanos(double[] lab, int limite) {
+            PriorityQueue<Candidato> mejores = new PriorityQueue<>(PEOR_PRIMERO);
+            buscar(0, puntos.length, 0, lab, limite, mejores);
+
+            List<Vecino> vecinos = new ArrayList<>(mejores.size());
+            while (!mejores.isEmpty()) {
+                Candidato candidato = mejores.poll();
+                vecinos.add(new Vecino(candidato.punto().id(), Math.sqrt(candidato.distancia())));
+            }
+            return vecinos.reversed();
+        }
+
+        /**
+         * Recorre primero el lado del plano donde está el tono y solo baja al otro si
+         * el plano está más cerca que el peor de los mejores encontrados.
+         */
+        private void buscar(int desde, int hasta, int eje, double[] lab, int limite,
+                PriorityQueue<Candidato> mejores) {
+            if (desde >= hasta || limite <= 0)
+                return;
+            int medio = (desde + hasta) >>> 1;
+            Punto punto = puntos[medio];
+            mejores.add(new Candidato(punto, CieLab.distanciaCuadrada(punto.lab(), lab)));
+            if (mejores.size() > limite)
+                mejores.poll();
+
+            double diferencia = lab[eje] - punto.lab()[eje];
+            int siguiente = (eje + 1) % 3;
+            if (diferencia < 0) {
+                buscar(desde, medio, siguiente, lab, limite, mejores);
+                if (diferencia * diferencia <= peor(mejores, limite))
+                    buscar(medio + 1, hasta, siguiente, lab, limite, mejores);
+            } else {
+                buscar(medio + 1, hasta, siguiente, lab, limite, mejores);
+                if (diferencia * diferencia <= peor(mejores, limite))
+                    buscar(desde, medio, siguiente, lab, limite, mejores);
+            }
+        }
+
+        private static double peor(PriorityQueue<Candidato> mejores, int limite) {
+            return mejores.size() < limite ? Double.POSITIVE_INFINITY : mejores.peek().distancia();
+        }
+    }
+}
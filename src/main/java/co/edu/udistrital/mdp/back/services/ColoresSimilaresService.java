@@ -0,0 +1,116 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.ColorRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.services.ColoresCercanosIndex.Vecino;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Búsqueda de colores y prendas por parecido de tono (ΔE en CIELAB), usando el
+ * índice de colores cercanos en lugar de recorrer todos los colores.
+ */
+@Slf4j
+@Service
+public class ColoresSimilaresService {
+
+    private static final Pattern CODIGO_HEX = Pattern.compile("^#?([A-Fa-f0-9]{6})$");
+
+    @Autowired
+    private ColoresCercanosIndex coloresCercanosIndex;
+
+    @Autowired
+    private ColorRepository colorRepository;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    /**
+     * Obtiene los colores más parecidos a un color, sin incluirlo.
+     *
+     * @param colorId Identificador del color.
+     * @param k       Número de colores pedidos.
+     * @return Colores de menor a mayor diferencia.
+     * @throws EntityNotFoundException   si el color no existe.
+     * @throws IllegalOperationException si k no es válido.
+     */
+    @Transactional(readOnly = true)
+    public List<ColorSimilar> getColoresSimilares(Long colorId, Integer k)
+            throws EntityNotFoundException, IllegalOperationException {
+        log.info("Inicia proceso de consultar los colores similares al color con id = {}", colorId);
+        ColorEntity color = colorRepository.findById(colorId)
+                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.COLOR_NOT_FOUND));
+        int limite = KeysetPagination.limit(k).max();
+
+        double[] lab = CieLab.deHex(color.getCodigoHex());
+        List<Vecino> vecinos = new ArrayList<>(coloresCercanosIndex.cercanos(lab, limite + 1));
+        vecinos.removeIf(vecino -> vecino.colorId().equals(colorId));
+        if (vecinos.size() > limite)
+            vecinos = vecinos.subList(0, limite);
+
+        Map<Long, ColorEntity> colores = new HashMap<>();
+        colorRepository.findAllById(vecinos.stream().map(Vecino::colorId).toList())
+                .forEach(similar -> colores.put(similar.getId(), similar));
+        List<ColorSimilar> similares = new ArrayList<>();
+        for (Vecino vecino : vecinos) {
+            if (colores.containsKey(vecino.colorId()))
+                similares.add(new ColorSimilar(colores.get(vecino.colorId()), vecino.distancia()));
+        }
+        log.info("Finaliza proceso de consultar los colores similares al color con id = {}", colorId);
+        return similares;
+    }
+
+    /**
+     * Obtiene las k prendas cuyo color es más parecido al tono dado. Pide al índice
+     * los colores más cercanos y trae sus prendas, duplicando el número de colores
+     * hasta completar k prendas o agotar los colores.
+     *
+     * @param codigoHex Tono buscado, con o sin "#" (ej: #1A2B3C).
+     * @param k         Número de prendas pedidas.
+     * @return Prendas de menor a mayor diferencia de color (y por id a igual color).
+     * @throws IllegalOperationException si el código HEX o k no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public List<PrendaEntity> getPrendasColorCercano(String codigoHex, Integer k) throws IllegalOperationException {
+        log.info("Inicia proceso de consultar las prendas de color cercano a {}", codigoHex);
+        if (codigoHex == null || !CODIGO_HEX.matcher(codigoHex.trim()).matches())
+            throw new IllegalOperationException("El código HEX del color no es válido (ej: #FFFFFF)");
+        int limite = KeysetPagination.limit(k).max();
+        String hex = codigoHex.trim();
+        double[] lab = CieLab.deHex(hex.startsWith("#") ? hex : "#" + hex);
+
+        List<PrendaEntity> prendas = new ArrayList<>();
+        int revisados = 0;
+        for (int pedidos = limite; prendas.size() < limite; pedidos *= 2) {
+            List<Vecino> vecinos = coloresCercanosIndex.cercanos(lab, pedidos);
+            if (vecinos.size() <= revisados)
+                break;
+
+            Map<Long, Integer> rangos = new HashMap<>();
+            for (int i = revisados; i < vecinos.size(); i++)
+                rangos.put(vecinos.get(i).colorId(), i);
+            List<PrendaEntity> encontradas = new ArrayList<>(prendaRepository.findByColorIdIn(rangos.keySet()));
+            encontradas.sort(Comparator.<PrendaEntity>comparingInt(prenda -> rangos.get(prenda.getColor().getId()))
+                    .thenComparing(PrendaEntity::getId));
+            prendas.addAll(encontradas.subList(0, Math.min(encontradas.size(), limite - prendas.size())));
+            revisados = vecinos.size();
+        }
+        log.info("Finaliza proceso de consultar las prendas de color cercano a {}", codigoHex);
+        return prendas;
+    }
+}
@@ -1,9 +1,11 @@
 package co.edu.udistrital.mdp.back.services;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
@@ -13,6 +15,8 @@ import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
 import co.edu.udistrital.mdp.back.repositories.ComentarioRepository;
 import co.edu.udistrital.mdp.back.repositories.UsuarioRepository;
+import co.edu.udistrital.mdp.back.services.BusquedaTextoIndex.Tipo;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
@@ -27,26 +31,39 @@ public class ComentarioService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private CalificacionesOutfitService calificacionesOutfitService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
 	 * Se encarga de crear un Comentario en la base de datos.
 	 *
 	 * @param comentarioEntity Objeto de ComentarioEntity con los datos nuevos
 	 * @param usuarioId       id del Usuario el cual sera padre del nuevo Comentario.
 	 * @return Objeto de ComentarioEntity con los datos nuevos y su ID.
-	 * @throws EntityNotFoundException si el usuario no existe.
+	 * @throws EntityNotFoundException si el usuario o el outfit reseñado no existe.
+	 * @throws IllegalOperationException si la calificación del outfit está fuera de rango.
 	 *
 	 */
 	@Transactional
-	public ComentarioEntity createComentario(Long usuarioId, ComentarioEntity comentarioEntity) throws EntityNotFoundException {
+	public ComentarioEntity createComentario(Long usuarioId, ComentarioEntity comentarioEntity)
+			throws EntityNotFoundException, IllegalOperationException {
 		log.info("Inicia proceso de crear comentario");
         Optional<UsuarioEntity> usuarioEntity = usuarioRepository.findById(usuarioId);
 		if (usuarioEntity.isEmpty())
 			throw new EntityNotFoundException(ErrorMessage.USUARIO_NOT_FOUND);
 
+		calificacionesOutfitService.prepararComentario(comentarioEntity);
 		comentarioEntity.setUsuario(usuarioEntity.get());
+		ComentarioEntity guardado = comentarioRepository.save(comentarioEntity);
+		calificacionesOutfitService.agregar(outfitId(guardado), guardado.getCalificacion());
+		eventPublisher.publishEvent(TextoModificadoEvent.guardado(Tipo.COMENTARIO, guardado.getId(), guardado.getTexto()));
+		eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.COMENTARIO, guardado.getId()));
 
 		log.info("Termina proceso de creación del comentario");
-		return comentarioRepository.save(comentarioEntity);
+		return guardado;
 	}
 
 	/**
@@ -100,10 +117,13 @@ public class ComentarioService {
 	 * @param usuarioId       id del Usuario el cual sera padre del Comentario actualizado.
 	 * @param comentarioId     id del comentario que será actualizada.
 	 * @return Instancia de ComentarioEntity con los datos actualizados.
+	 * @throws EntityNotFoundException si el usuario, el comentario o el outfit reseñado no existe.
+	 * @throws IllegalOperationException si la calificación del outfit está fuera de rango.
 	 *
 	 */
 	@Transactional
-	public ComentarioEntity updateComentario(Long usuarioId, Long comentarioId, ComentarioEntity comentario) throws EntityNotFoundException {
+	public ComentarioEntity updateComentario(Long usuarioId, Long comentarioId, ComentarioEntity comentario)
+			throws EntityNotFoundException, IllegalOperationException {
 		log.info("Inicia proceso de actualizar el comentario con id = {0} del usuario con id = " + usuarioId,
 				comentarioId);
 		Optional<UsuarioEntity> usuarioEntity = usuarioRepository.findById(usuarioId);
@@ -114,11 +134,25 @@ public class ComentarioService {
 		if (comentarioEntity.isEmpty())
 			throw new EntityNotFoundException(ErrorMessage.COMENTARIO_NOT_FOUND);
 
+		calificacionesOutfitService.prepararComentario(comentario);
+		Long outfitAnterior = outfitId(comentarioEntity.get());
+		double calificacionAnterior = comentarioEntity.get().getCalificacion();
+
 		comentario.setId(comentarioId);
 		comentario.setUsuario(usuarioEntity.get());
+		// El UPDATE exige la versión leída junto con la calificación anterior: si otra
+		// transacción cambió el comentario, falla y se revierten los deltas del resumen
+		comentario.setVersion(comentarioEntity.get().getVersion());
 		log.info("Termina proceso de actualizar el comentario con id = {0} del usuario con id = " + usuarioId,
 				usuarioId);
-		return comentarioRepository.save(comentario);
+		ComentarioEntity guardado = comentarioRepository.save(comentario);
+		if (!Objects.equals(outfitAnterior, outfitId(guardado)) || calificacionAnterior != guardado.getCalificacion()) {
+			calificacionesOutfitService.quitar(outfitAnterior, calificacionAnterior);
+			calificacionesOutfitService.agregar(outfitId(guardado), guardado.getCalificacion());
+		}
+		eventPublisher.publishEvent(TextoModificadoEvent.guardado(Tipo.COMENTARIO, comentarioId, guardado.getTexto()));
+		eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.COMENTARIO, comentarioId));
+		return guardado;
 	}
 
 	/**
@@ -146,7 +180,14 @@ public class ComentarioService {
 			throw new IllegalOperationException(ErrorMessage.COMENTARIO_NO_ASOCIADO_A_USUARIO);
 		
 		comentarioRepository.deleteById(comentarioId);
+		calificacionesOutfitService.quitar(outfitId(comentarioEntity.get()), comentarioEntity.get().getCalificacion());
+		eventPublisher.publishEvent(TextoModificadoEvent.eliminado(Tipo.COMENTARIO, comentarioId));
+		eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.COMENTARIO, comentarioId));
 		log.info("Termina proceso de borrar el comentario con id = {0} del usuario con id = " + usuarioId,
 				comentarioId);
 	}
+
+	private static Long outfitId(ComentarioEntity comentario) {
+		return comentario.getOutfit() == null ? null : comentario.getOutfit().getId();
+	}
 }
@@ -0,0 +1,131 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.RecomendacionEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
+import co.edu.udistrital.mdp.back.repositories.ComentarioRepository;
+import co.edu.udistrital.mdp.back.repositories.ListaDeseosRepository;
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.repositories.RecomendacionRepository;
+import co.edu.udistrital.mdp.back.repositories.UsuarioRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Arma el detalle de outfits y usuarios consultando en paralelo sus partes
+ * independientes (ver {@link ConsultasParalelas}).
+ *
+ * Cada parte se lee en su propia transacción de solo lectura, con un timeout igual
+ * a lo que queda del plazo, y trae en la misma consulta lo que se muestra de ella:
+ * al terminar, las entidades quedan separadas del contexto de persistencia.
+ */
+@Slf4j
+@Service
+public class ConsultaDetalleService {
+
+    @Autowired
+    private OutfitRepository outfitRepository;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    @Autowired
+    private ListaDeseosRepository listaDeseosRepository;
+
+    @Autowired
+    private RecomendacionRepository recomendacionRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ComentarioRepository comentarioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${consultas.detalle.plazo:PT5S}")
+    private Duration plazo;
+
+    /**
+     * Consulta un outfit con su imagen, sus prendas, las listas de deseos que lo
+     * contienen y sus recomendaciones.
+     *
+     * @param outfitId Id del outfit.
+     * @return Detalle del outfit.
+     * @throws EntityNotFoundException si el outfit no existe.
+     * @throws TimeoutException        si las consultas no terminan en el plazo.
+     */
+    public OutfitDetalle getOutfitDetalle(Long outfitId) throws EntityNotFoundException, TimeoutException {
+        log.info("Inicia proceso de consultar el detalle del outfit con id = {}", outfitId);
+        try (ConsultasParalelas consultas = new ConsultasParalelas(plazo)) {
+            Future<OutfitEntity> outfit = consultas.fork(() -> leer(consultas,
+                    () -> outfitRepository.findDetalleById(outfitId))
+                    .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND)));
+            Future<List<PrendaEntity>> prendas = consultas.fork(() -> leer(consultas,
+                    () -> prendaRepository.findDetalleByOutfitsIdOrderById(outfitId)));
+            Future<List<ListaDeseosEntity>> listas = consultas.fork(() -> leer(consultas,
+                    () -> listaDeseosRepository.findByOutfitsIdOrderById(outfitId)));
+            Future<List<RecomendacionEntity>> recomendaciones = consultas.fork(() -> leer(consultas,
+                    () -> recomendacionRepository.findByOutfitIdOrderById(outfitId)));
+            consultas.join();
+
+            log.info("Termina proceso de consultar el detalle del outfit con id = {}", outfitId);
+            return new OutfitDetalle(outfit.resultNow(), prendas.resultNow(), listas.resultNow(),
+                    recomendaciones.resultNow());
+        }
+    }
+
+    /**
+     * Consulta un usuario con sus comentarios.
+     *
+     * @param usuarioId Id del usuario.
+     * @return Detalle del usuario.
+     * @throws EntityNotFoundException si el usuario no existe.
+     * @throws TimeoutException        si las consultas no terminan en el plazo.
+     */
+    public UsuarioDetalle getUsuarioDetalle(Long usuarioId) throws EntityNotFoundException, TimeoutException {
+        log.info("Inicia proceso de consultar el detalle del usuario con id = {}", usuarioId);
+        try (ConsultasParalelas consultas = new ConsultasParalelas(plazo)) {
+            Future<UsuarioEntity> usuario = consultas.fork(() -> leer(consultas,
+                    () -> usuarioRepository.findById(usuarioId))
+                    .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.USUARIO_NOT_FOUND)));
+            Future<List<ComentarioEntity>> comentarios = consultas.fork(() -> leer(consultas,
+                    () -> comentarioRepository.findByUsuarioIdOrderById(usuarioId)));
+            consultas.join();
+
+            log.info("Termina proceso de consultar el detalle del usuario con id = {}", usuarioId);
+            return new UsuarioDetalle(usuario.resultNow(), comentarios.resultNow());
+        }
+    }
+
+    /**
+     * Ejecuta una consulta en una transacción de solo lectura con un timeout de lo que
+     * queda del plazo, que Hibernate aplica a las sentencias. Hibernate da por vencida
+     * la transacción cuando le queda menos de un segundo, así que se le suma uno: el
+     * plazo lo controla ConsultasParalelas y el timeout solo evita que una sentencia
+     * siga corriendo en la base de datos mucho después.
+     */
+    private <T> T leer(ConsultasParalelas consultas, Supplier<T> consulta) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        transaccion.setReadOnly(true);
+        transaccion.setTimeout((int) Math.ceilDiv(consultas.restante().toMillis(), 1000) + 1);
+        return transaccion.execute(estado -> consulta.get());
+    }
+}
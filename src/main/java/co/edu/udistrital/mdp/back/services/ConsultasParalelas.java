@@ -0,0 +1,138 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import co.edu.udistrital.mdp.back.config.SentenciasPeticion;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+
+/**
+ * Ejecuta consultas independientes en paralelo, cada una en su propio hilo virtual,
+ * con un plazo común. Sigue el modelo de la concurrencia estructurada: las
+ * subtareas se crean con {@link #fork}, se esperan juntas con {@link #join} y no
+ * sobreviven al bloque try-with-resources que las abre. Si una falla o se vence el
+ * plazo, las demás se cancelan interrumpiendo sus hilos.
+ *
+ * StructuredTaskScope todavía es una vista previa en Java 21, así que se ofrece la
+ * misma forma (ShutdownOnFailure con joinUntil) sobre un ExecutorService de hilos
+ * virtuales.
+ *
+ * Las subtareas se cancelan interrumpiendo sus hilos y no con
+ * {@link Future#cancel(boolean)}: una subtarea cancelada así cuenta como terminada
+ * y el ExecutorService no espera su hilo al cerrarse.
+ *
+ * Las sentencias SQL de las subtareas cuentan en la petición que las inicia (ver
+ * {@link SentenciasPeticion}).
+ */
+public final class ConsultasParalelas implements AutoCloseable {
+
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Future<?>> subtareas = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Exception> falla = new AtomicReference<>();
+    private final Set<Thread> enCurso = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelada;
+    private final long limite;
+
+    /**
+     * @param plazo Tiempo máximo para completar todas las subtareas, desde ahora.
+     */
+    public ConsultasParalelas(Duration plazo) {
+        limite = System.nanoTime() + plazo.toNanos();
+    }
+
+    /**
+     * Tiempo que queda del plazo (cero si ya se venció).
+     */
+    public Duration restante() {
+        return Duration.ofNanos(Math.max(0, limite - System.nanoTime()));
+    }
+
+    /**
+     * Inicia una subtarea. Su resultado se obtiene con {@link Future#resultNow()}
+     * después de {@link #join}.
+     */
+    public <T> Future<T> fork(Callable<T> consulta) {
+        SentenciasPeticion peticion = SentenciasPeticion.actual();
+        Future<T> subtarea = hilos.submit(() -> {
+            enCurso.add(Thread.currentThread());
+            SentenciasPeticion.asociar(peticion);
+            try {
+                if (cancelada)
+                    throw new CancellationException();
+                return consulta.call();
+            } catch (Exception e) {
+                if (falla.compareAndSet(null, e))
+                    cancelar();
+                throw e;
+            } finally {
+                SentenciasPeticion.asociar(null);
+                enCurso.remove(Thread.currentThread());
+            }
+        });
+        subtareas.add(subtarea);
+        return subtarea;
+    }
+
+    /**
+     * Espera a que terminen todas las subtareas, a que una falle o a que se venza el
+     * plazo. En los dos últimos casos cancela las que sigan en curso.
+     *
+     * @throws EntityNotFoundException si una subtarea no encontró lo que consultaba.
+     * @throws TimeoutException        si se venció el plazo.
+     */
+    public void join() throws EntityNotFoundException, TimeoutException {
+        try {
+            for (Future<?> subtarea : subtareas) {
+                if (falla.get() != null)
+                    break;
+                subtarea.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (CancellationException | ExecutionException e) {
+            // La causa queda en falla
+        } catch (TimeoutException e) {
+            cancelar();
+            throw new TimeoutException("No se completaron las consultas en el plazo");
+        } catch (InterruptedException e) {
+            cancelar();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Se interrumpió la espera de las consultas", e);
+        }
+        Exception error = falla.get();
+        // Después del plazo las subtareas fallan por el timeout de sus transacciones
+        if (error != null && restante().isZero())
+            throw new TimeoutException("No se completaron las consultas en el plazo");
+        if (error instanceof EntityNotFoundException noEncontrada)
+            throw noEncontrada;
+        if (error instanceof RuntimeException enEjecucion)
+            throw enEjecucion;
+        if (error != null)
+            throw new IllegalStateException(error);
+    }
+
+    private void cancelar() {
+        cancelada = true;
+        for (Thread hilo : enCurso)
+            hilo.interrupt();
+    }
+
+    /**
+     * Cancela las subtareas que sigan en curso y espera a que terminen sus hilos.
+     */
+    @Override
+    public void close() {
+        cancelar();
+        hilos.close();
+    }
+}
@@ -0,0 +1,22 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.nio.file.Path;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Contenido binario de una imagen (o de una de sus variantes) listo para enviarse:
+ * el hash SHA-256 del original, una etiqueta que lo distingue de las demás variantes
+ * (para la ETag), tipo MIME, tamaño en bytes y archivo en el almacén.
+ */
+@Getter
+@AllArgsConstructor
+public class ContenidoImagen {
+
+    private final String hash;
+    private final String etiqueta;
+    private final String tipoContenido;
+    private final long tamano;
+    private final Path archivo;
+}
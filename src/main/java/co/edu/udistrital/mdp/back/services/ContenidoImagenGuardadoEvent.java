@@ -0,0 +1,11 @@
+package co.edu.udistrital.mdp.back.services;
+
+/**
+ * Evento que se publica cuando se guarda el contenido de una imagen. El servicio de
+ * variantes lo usa para generar en segundo plano las miniaturas del contenido.
+ *
+ * @param hash          Hash SHA-256 del contenido.
+ * @param tipoContenido Tipo MIME del contenido.
+ */
+public record ContenidoImagenGuardadoEvent(String hash, String tipoContenido) {
+}
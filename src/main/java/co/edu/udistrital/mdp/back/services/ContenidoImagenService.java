@@ -0,0 +1,176 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import co.edu.udistrital.mdp.back.entities.ImagenOutfitEntity;
+import co.edu.udistrital.mdp.back.entities.ImagenPrendaEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.ImagenOutfitRepository;
+import co.edu.udistrital.mdp.back.repositories.ImagenPrendaRepository;
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.services.ImagenAlmacen.Contenido;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Contenido binario de las imágenes de prendas y outfits. Los bytes se guardan en
+ * el {@link ImagenAlmacen} y la imagen solo guarda su hash, tipo y tamaño.
+ *
+ * Las subidas no abren una transacción mientras se leen los bytes: primero se
+ * guarda el archivo y después se actualiza la imagen con una sola sentencia. Cada
+ * contenido guardado se anuncia con un {@link ContenidoImagenGuardadoEvent} para
+ * generar sus variantes en segundo plano.
+ */
+@Slf4j
+@Service
+public class ContenidoImagenService {
+
+    @Autowired
+    private ImagenAlmacen imagenAlmacen;
+
+    @Autowired
+    private ImagenPrendaRepository imagenPrendaRepository;
+
+    @Autowired
+    private ImagenOutfitRepository imagenOutfitRepository;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    @Autowired
+    private OutfitRepository outfitRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Guarda el contenido de una imagen de prenda, reemplazando el anterior.
+     *
+     * @param prendaId      Id de la prenda.
+     * @param imagenId      Id de la imagen.
+     * @param entrada       Bytes de la imagen; no se cierra.
+     * @param tipoContenido Tipo MIME de la imagen (image/*).
+     * @return La imagen con el contenido nuevo.
+     * @throws EntityNotFoundException   si la prenda o la imagen no existen.
+     * @throws IllegalOperationException si el tipo no es de imagen, o el contenido está vacío o es muy grande.
+     * @throws IOException               si no se puede leer la entrada o guardar el archivo.
+     */
+    public ImagenPrendaEntity guardarContenidoPrenda(Long prendaId, Long imagenId, InputStream entrada,
+            String tipoContenido) throws EntityNotFoundException, IllegalOperationException, IOException {
+        log.info("Inicia proceso de guardar el contenido de la imagen con id = {} de la prenda con id = {}",
+                imagenId, prendaId);
+        String tipo = tipoImagen(tipoContenido);
+        if (!prendaRepository.existsById(prendaId))
+            throw new EntityNotFoundException(ErrorMessage.PRENDA_NOT_FOUND);
+        if (!imagenPrendaRepository.existsById(imagenId))
+            throw new EntityNotFoundException(ErrorMessage.IMAGEN_NOT_FOUND);
+
+        Contenido contenido = imagenAlmacen.guardar(entrada);
+        if (imagenPrendaRepository.actualizarContenido(imagenId, contenido.hash(), tipo, contenido.tamano()) == 0)
+            throw new EntityNotFoundException(ErrorMessage.IMAGEN_NOT_FOUND);
+        eventPublisher.publishEvent(new ContenidoImagenGuardadoEvent(contenido.hash(), tipo));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.PRENDA, prendaId));
+        log.info("Termina proceso de guardar el contenido de la imagen con id = {}: {}", imagenId, contenido.hash());
+        return imagenPrendaRepository.findById(imagenId)
+                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.IMAGEN_NOT_FOUND));
+    }
+
+    /**
+     * Obtiene el contenido de una imagen de prenda.
+     *
+     * @param prendaId Id de la prenda.
+     * @param imagenId Id de la imagen.
+     * @return Contenido de la imagen.
+     * @throws EntityNotFoundException si la prenda o la imagen no existen, o la imagen no tiene contenido.
+     */
+    public ContenidoImagen getContenidoPrenda(Long prendaId, Long imagenId) throws EntityNotFoundException {
+        log.info("Inicia proceso de consultar el contenido de la imagen con id = {} de la prenda con id = {}",
+                imagenId, prendaId);
+        if (!prendaRepository.existsById(prendaId))
+            throw new EntityNotFoundException(ErrorMessage.PRENDA_NOT_FOUND);
+        ImagenPrendaEntity imagen = imagenPrendaRepository.findById(imagenId)
+                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.IMAGEN_NOT_FOUND));
+        return contenido(imagen.getHash(), imagen.getTipoContenido(), imagen.getTamano());
+    }
+
+    /**
+     * Guarda el contenido de una imagen de outfit, reemplazando el anterior.
+     *
+     * @param outfitId      Id del outfit.
+     * @param imagenId      Id de la imagen.
+     * @param entrada       Bytes de la imagen; no se cierra.
+     * @param tipoContenido Tipo MIME de la imagen (image/*).
+     * @return La imagen con el contenido nuevo.
+     * @throws EntityNotFoundException   si el outfit o la imagen no existen.
+     * @throws IllegalOperationException si el tipo no es de imagen, o el contenido está vacío o es muy grande.
+     * @throws IOException               si no se puede leer la entrada o guardar el archivo.
+     */
+    public ImagenOutfitEntity guardarContenidoOutfit(Long outfitId, Long imagenId, InputStream entrada,
+            String tipoContenido) throws EntityNotFoundException, IllegalOperationException, IOException {
+        log.info("Inicia proceso de guardar el contenido de la imagen con id = {} del outfit con id = {}",
+                imagenId, outfitId);
+        String tipo = tipoImagen(tipoContenido);
+        if (!outfitRepository.existsById(outfitId))
+            throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
+        if (!imagenOutfitRepository.existsById(imagenId))
+            throw new EntityNotFoundException(ErrorMessage.IMAGEN_NOT_FOUND);
+
+        Contenido contenido = imagenAlmacen.guardar(entrada);
+        if (imagenOutfitRepository.actualizarContenido(imagenId, contenido.hash(), tipo, contenido.tamano()) == 0)
+            throw new EntityNotFoundException(ErrorMessage.IMAGEN_NOT_FOUND);
+        eventPublisher.publishEvent(new ContenidoImagenGuardadoEvent(contenido.hash(), tipo));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT, outfitId));
+        log.info("Termina proceso de guardar el contenido de la imagen con id = {}: {}", imagenId, contenido.hash());
+        return imagenOutfitRepository.findById(imagenId)
+                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.IMAGEN_NOT_FOUND));
+    }
+
+    /**
+     * Obtiene el contenido de una imagen de outfit.
+     *
+     * @param outfitId Id del outfit.
+     * @param imagenId Id de la imagen.
+     * @return Contenido de la imagen.
+     * @throws EntityNotFoundException si el outfit o la imagen no existen, o la imagen no tiene contenido.
+     */
+    public ContenidoImagen getContenidoOutfit(Long outfitId, Long imagenId) throws EntityNotFoundException {
+        log.info("Inicia proceso de consultar el contenido de la imagen con id = {} del outfit con id = {}",
+                imagenId, outfitId);
+        if (!outfitRepository.existsById(outfitId))
+            throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
+        ImagenOutfitEntity imagen = imagenOutfitRepository.findById(imagenId)
+                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.IMAGEN_NOT_FOUND));
+        return contenido(imagen.getHash(), imagen.getTipoContenido(), imagen.getTamano());
+    }
+
+    private ContenidoImagen contenido(String hash, String tipoContenido, Long tamano) throws EntityNotFoundException {
+        if (hash == null || !Files.isRegularFile(imagenAlmacen.ruta(hash)))
+            throw new EntityNotFoundException(ErrorMessage.CONTENIDO_IMAGEN_NOT_FOUND);
+        return new ContenidoImagen(hash, hash, tipoContenido, tamano, imagenAlmacen.ruta(hash));
+    }
+
+    /**
+     * Tipo MIME sin parámetros, que debe ser de imagen (image/png, image/jpeg, ...).
+     */
+    private static String tipoImagen(String tipoContenido) throws IllegalOperationException {
+        try {
+            MediaType tipo = tipoContenido == null ? null : MediaType.parseMediaType(tipoContenido);
+            if (tipo != null && tipo.getType().equals("image") && !tipo.isWildcardSubtype())
+                return tipo.getType() + "/" + tipo.getSubtype();
+        } catch (InvalidMediaTypeException e) {
+            // Se reporta abajo como tipo no válido
+        }
+        throw new IllegalOperationException("El tipo de contenido debe ser de imagen (image/...): " + tipoContenido);
+    }
+}
@@ -0,0 +1,56 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+
+/**
+ * Coordenadas geográficas en grados decimales.
+ */
+public record Coordenadas(double latitud, double longitud) {
+
+    /** Radio medio de la Tierra en kilómetros */
+    static final double RADIO_TIERRA_KM = 6371.0088;
+
+    private static final Pattern LAT_LON = Pattern
+            .compile("^\\s*(?:geo:)?\\s*([-+]?\\d{1,3}(?:\\.\\d+)?)\\s*[,;]\\s*([-+]?\\d{1,3}(?:\\.\\d+)?)\\s*$");
+
+    /**
+     * Lee las coordenadas de una ubicación de la forma "4.6097,-74.0817" (también
+     * con espacios, ";" o el prefijo "geo:").
+     *
+     * @return Las coordenadas, o nulo si la ubicación no tiene esa forma.
+     * @throws IllegalOperationException si la latitud o la longitud están fuera de rango.
+     */
+    public static Coordenadas de(String ubicacion) throws IllegalOperationException {
+        if (ubicacion == null)
+            return null;
+        Matcher matcher = LAT_LON.matcher(ubicacion);
+        if (!matcher.matches())
+            return null;
+        return validar(Double.parseDouble(matcher.group(1)), Double.parseDouble(matcher.group(2)));
+    }
+
+    /**
+     * @throws IllegalOperationException si la latitud o la longitud están fuera de rango.
+     */
+    public static Coordenadas validar(double latitud, double longitud) throws IllegalOperationException {
+        if (latitud < -90 || latitud > 90)
+            throw new IllegalOperationException("La latitud debe estar entre -90 y 90");
+        if (longitud < -180 || longitud > 180)
+            throw new IllegalOperationException("La longitud debe estar entre -180 y 180");
+        return new Coordenadas(latitud, longitud);
+    }
+
+    /**
+     * Distancia en kilómetros por el círculo máximo (fórmula del semiverseno).
+     */
+    static double distanciaKm(double latitud1, double longitud1, double latitud2, double longitud2) {
+        double dLat = Math.toRadians(latitud2 - latitud1);
+        double dLon = Math.toRadians(longitud2 - longitud1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(latitud1))
+                * Math.cos(Math.toRadians(latitud2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
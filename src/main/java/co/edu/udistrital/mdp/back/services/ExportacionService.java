@@ -0,0 +1,194 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.sql.DataSource;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exportación completa de los datos en NDJSON (un objeto JSON por línea) para el
+ * almacén de analítica y las copias de respaldo.
+ *
+ * Cada entidad se lee con una sola consulta de columnas, en orden de id, que se
+ * recorre hacia adelante con una sesión sin estado (StatelessSession) sobre la
+ * conexión de la transacción de solo lectura: no hay contexto de persistencia que
+ * crezca y cada fila se escribe apenas se lee, así que la memoria no depende del
+ * número de filas.
+ *
+ * Con "desde" solo se exportan las filas con id mayor, para que las cargas
+ * nocturnas transfieran solo las filas nuevas. Los ids salen de secuencias: una fila
+ * cuya transacción se confirme después de exportar un id mayor no se vuelve a ver.
+ */
+@Slf4j
+@Service
+public class ExportacionService {
+
+    /**
+     * Entidades que se exportan, con el nombre que usan la URL y el campo "entidad"
+     * de cada línea.
+     */
+    public enum Entidad {
+        USUARIOS("usuarios", "select u.id, u.nombre, u.correo from UsuarioEntity u where u.id > :desde order by u.id",
+                null, "id", "nombre", "correo"),
+        OUTFITS("outfits", "select o.id, o.nombre, o.precioEstimado, o.categoria.id, o.imagen.id,"
+                + " o.calificaciones.numero, o.calificaciones.suma from OutfitEntity o where o.id > :desde order by o.id",
+                null, "id", "nombre", "precioEstimado", "categoriaId", "imagenId", "numeroCalificaciones",
+                "sumaCalificaciones"),
+        PRENDAS("prendas", "select p.id, p.nombre, p.precio, p.color.id, p.marca.id, p.tienda.id, p.categoria.id,"
+                + " p.imagen.id from PrendaEntity p where p.id > :desde order by p.id",
+                null, "id", "nombre", "precio", "colorId", "marcaId", "tiendaId", "categoriaId", "imagenId"),
+        COMENTARIOS("comentarios", "select c.id, c.texto, c.calificacion, c.usuario.id, c.outfit.id"
+                + " from ComentarioEntity c where c.id > :desde order by c.id",
+                null, "id", "texto", "calificacion", "usuarioId", "outfitId"),
+        // Una línea por lista con los outfits de lista_outfit; la última columna es el outfit
+        LISTAS_DESEOS("listasdeseos", "select l.id, l.usuario.id, o.id from ListaDeseosEntity l"
+                + " left join l.outfits o where l.id > :desde order by l.id, o.id",
+                "outfits", "id", "usuarioId"),
+        RECOMENDACIONES("recomendaciones", "select r.id, r.motivo, r.puntaje, r.generada, r.usuario.id, r.outfit.id"
+                + " from RecomendacionEntity r where r.id > :desde order by r.id",
+                null, "id", "motivo", "puntaje", "generada", "usuarioId", "outfitId");
+
+        private final String nombre;
+        private final String consulta;
+        private final String anidado;
+        private final String[] campos;
+
+        Entidad(String nombre, String consulta, String anidado, String... campos) {
+            this.nombre = nombre;
+            this.consulta = consulta;
+            this.anidado = anidado;
+            this.campos = campos;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        /**
+         * Entidad con el nombre dado, como aparece en la URL.
+         *
+         * @throws EntityNotFoundException si no se exporta ninguna entidad con ese nombre.
+         */
+        public static Entidad de(String nombre) throws EntityNotFoundException {
+            for (Entidad entidad : values())
+                if (entidad.nombre.equals(nombre))
+                    return entidad;
+            throw new EntityNotFoundException("No se exporta ninguna entidad con el nombre " + nombre);
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${exportacion.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Escribe en la salida las filas de las entidades dadas, en el orden del mapa.
+     *
+     * @param desde  Entidades que se exportan, con el id a partir del cual (sin
+     *               incluirlo) se exportan sus filas. 0 exporta todas.
+     * @param salida Destino de las líneas NDJSON; no se cierra.
+     * @return Número de líneas escritas.
+     * @throws IllegalOperationException si algún id de inicio es negativo. Se revisa
+     *                                   antes de escribir.
+     * @throws IOException               si no se puede escribir en la salida.
+     */
+    @Transactional(readOnly = true)
+    public long exportar(Map<Entidad, Long> desde, OutputStream salida) throws IllegalOperationException, IOException {
+        for (Map.Entry<Entidad, Long> entrada : desde.entrySet())
+            if (entrada.getValue() < 0)
+                throw new IllegalOperationException("El id desde el que se exporta " + entrada.getKey().nombre
+                        + " no puede ser negativo");
+
+        log.info("Inicia proceso de exportación de {}", desde);
+        long lineas = 0;
+        Connection conexion = DataSourceUtils.getConnection(dataSource);
+        try (StatelessSession sesion = entityManagerFactory.unwrap(SessionFactory.class).withStatelessOptions()
+                .connection(conexion).openStatelessSession();
+                JsonGenerator generador = MAPPER.getFactory().createGenerator(salida, JsonEncoding.UTF8)) {
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Cada línea termina con su salto: sin el espacio que Jackson pone entre valores raíz
+            generador.setRootValueSeparator(null);
+            for (Map.Entry<Entidad, Long> entrada : desde.entrySet()) {
+                long escritas = exportar(sesion, entrada.getKey(), entrada.getValue(), generador);
+                log.info("Exportadas {} filas de {}", escritas, entrada.getKey().nombre);
+                lineas += escritas;
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(conexion, dataSource);
+        }
+        log.info("Finaliza proceso de exportación: {} líneas", lineas);
+        return lineas;
+    }
+
+    private long exportar(StatelessSession sesion, Entidad entidad, long desde, JsonGenerator generador)
+            throws IOException {
+        long lineas = 0;
+        Object actual = null;
+        try (ScrollableResults<Object[]> filas = sesion.createSelectionQuery(entidad.consulta, Object[].class)
+                .setParameter("desde", desde).setFetchSize(fetchSize).scroll(ScrollMode.FORWARD_ONLY)) {
+            while (filas.next()) {
+                Object[] fila = filas.get();
+                // Las filas de una misma entidad con colección anidada llegan seguidas
+                if (entidad.anidado == null || !Objects.equals(actual, fila[0])) {
+                    if (actual != null)
+                        terminarLinea(entidad, generador);
+                    escribirCampos(entidad, fila, generador);
+                    actual = fila[0];
+                    lineas++;
+                }
+                if (entidad.anidado != null && fila[entidad.campos.length] != null)
+                    generador.writeObject(fila[entidad.campos.length]);
+            }
+            if (actual != null)
+                terminarLinea(entidad, generador);
+        }
+        return lineas;
+    }
+
+    private static void escribirCampos(Entidad entidad, Object[] fila, JsonGenerator generador) throws IOException {
+        generador.writeStartObject();
+        generador.writeStringField("entidad", entidad.nombre);
+        for (int i = 0; i < entidad.campos.length; i++) {
+            generador.writeFieldName(entidad.campos[i]);
+            generador.writeObject(fila[i]);
+        }
+        if (entidad.anidado != null)
+            generador.writeArrayFieldStart(entidad.anidado);
+    }
+
+    private static void terminarLinea(Entidad entidad, JsonGenerator generador) throws IOException {
+        if (entidad.anidado != null)
+            generador.writeEndArray();
+        generador.writeEndObject();
+        generador.writeRaw('\n');
+    }
+}
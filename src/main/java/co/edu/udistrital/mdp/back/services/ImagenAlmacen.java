@@ -0,0 +1,218 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.ImagenOutfitRepository;
+import co.edu.udistrital.mdp.back.repositories.ImagenPrendaRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Almacén en disco del contenido de las imágenes, direccionado por contenido.
+ *
+ * Cada archivo se guarda una sola vez con el hash SHA-256 de sus bytes como nombre
+ * ({@code <directorio>/ab/abcdef...}), así que subir la misma imagen dos veces no
+ * ocupa más espacio y un archivo guardado nunca cambia. La subida se escribe por
+ * bloques en un archivo temporal mientras se calcula el hash y después se mueve a
+ * su dirección. Los archivos que ya no usa ninguna imagen se borran en una
+ * limpieza periódica, solo si son más antiguos que el período de gracia para no
+ * borrar los de subidas que todavía no se han guardado en la base de datos. Las
+ * variantes de un contenido ({@code <directorio>/variantes/ab/abcdef...-miniatura.jpg})
+ * se borran junto con él.
+ */
+@Slf4j
+@Service
+public class ImagenAlmacen {
+
+    /**
+     * Contenido guardado: hash SHA-256 en hexadecimal y tamaño en bytes.
+     */
+    public record Contenido(String hash, long tamano) {
+    }
+
+    private static final int LONGITUD_HASH = 64;
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{" + LONGITUD_HASH + "}");
+    private static final String TEMPORALES = "tmp";
+    private static final String VARIANTES = "variantes";
+    private static final int TAMANO_BLOQUE = 64 * 1024;
+
+    @Autowired
+    private ImagenPrendaRepository imagenPrendaRepository;
+
+    @Autowired
+    private ImagenOutfitRepository imagenOutfitRepository;
+
+    @Value("${imagenes.directorio:imagenes}")
+    private String directorio;
+
+    @Value("${imagenes.tamano-maximo:10485760}")
+    private long tamanoMaximo;
+
+    @Value("${imagenes.limpieza.gracia:PT1H}")
+    private Duration gracia;
+
+    /**
+     * Guarda el contenido leído de la entrada, o reutiliza el archivo si ya existe
+     * uno con los mismos bytes.
+     *
+     * @param entrada Bytes de la imagen; no se cierra.
+     * @return Hash y tamaño del contenido.
+     * @throws IllegalOperationException si el contenido está vacío o supera el tamaño máximo.
+     * @throws IOException si no se puede leer la entrada o escribir el archivo.
+     */
+    public Contenido guardar(InputStream entrada) throws IllegalOperationException, IOException {
+        Path temporal = temporal();
+        try {
+            MessageDigest sha256 = sha256();
+            long tamano = 0;
+            byte[] bloque = new byte[TAMANO_BLOQUE];
+            try (OutputStream salida = Files.newOutputStream(temporal)) {
+                int leidos;
+                while ((leidos = entrada.read(bloque)) != -1) {
+                    tamano += leidos;
+                    if (tamano > tamanoMaximo)
+                        throw new IllegalOperationException(
+                                "La imagen supera el tamaño máximo de " + tamanoMaximo + " bytes");
+                    sha256.update(bloque, 0, leidos);
+                    salida.write(bloque, 0, leidos);
+                }
+            }
+            if (tamano == 0)
+                throw new IllegalOperationException("La imagen no puede estar vacía");
+
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            Path destino = ruta(hash);
+            if (Files.exists(destino)) {
+                // Renueva la fecha para que la limpieza no lo borre antes de que la imagen lo use
+                Files.setLastModifiedTime(destino, FileTime.from(Instant.now()));
+                log.info("Contenido {} ya existe en el almacén de imágenes", hash);
+            } else {
+                publicar(temporal, destino);
+                log.info("Contenido {} guardado en el almacén de imágenes: {} bytes", hash, tamano);
+            }
+            return new Contenido(hash, tamano);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Ruta del archivo de un contenido.
+     *
+     * @param hash Hash SHA-256 del contenido en hexadecimal.
+     * @return Ruta del archivo (puede no existir).
+     */
+    public Path ruta(String hash) {
+        validarHash(hash);
+        return Path.of(directorio, hash.substring(0, 2), hash);
+    }
+
+    /**
+     * Ruta del archivo de una variante de un contenido (miniatura, otro formato...).
+     * Como el contenido nunca cambia, la variante tampoco y se puede guardar una vez.
+     *
+     * @param hash   Hash SHA-256 del contenido original.
+     * @param sufijo Nombre de la variante, incluida la extensión.
+     * @return Ruta del archivo (puede no existir).
+     */
+    public Path rutaVariante(String hash, String sufijo) {
+        validarHash(hash);
+        return Path.of(directorio, VARIANTES, hash.substring(0, 2), hash + "-" + sufijo);
+    }
+
+    /**
+     * Crea un archivo temporal vacío en el almacén, para escribir en él y luego
+     * moverlo a su ruta con {@link #publicar}.
+     */
+    public Path temporal() throws IOException {
+        return Files.createTempFile(Files.createDirectories(Path.of(directorio, TEMPORALES)), "archivo", ".tmp");
+    }
+
+    /**
+     * Mueve un archivo temporal a su ruta definitiva de forma atómica, de modo que
+     * nadie lee un archivo a medio escribir.
+     */
+    public void publicar(Path temporal, Path destino) throws IOException {
+        Files.createDirectories(destino.getParent());
+        Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void validarHash(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches())
+            throw new IllegalArgumentException("Hash de contenido inválido: " + hash);
+    }
+
+    /**
+     * Borra los archivos (y sus variantes) que no usa ninguna imagen y los temporales
+     * de subidas interrumpidas, con más antigüedad que el período de gracia.
+     */
+    @Scheduled(cron = "${imagenes.limpieza.cron:0 0 4 * * *}")
+    public void limpiar() {
+        limpiar(gracia);
+    }
+
+    int limpiar(Duration gracia) {
+        Path raiz = Path.of(directorio);
+        if (!Files.isDirectory(raiz))
+            return 0;
+        log.info("Inicia proceso de limpieza del almacén de imágenes");
+        Instant limite = Instant.now().minus(gracia);
+        Set<String> usados = new HashSet<>(imagenPrendaRepository.findHashes());
+        usados.addAll(imagenOutfitRepository.findHashes());
+
+        Path temporales = raiz.resolve(TEMPORALES);
+        List<Path> archivos;
+        try (Stream<Path> recorrido = Files.walk(raiz)) {
+            archivos = recorrido.filter(Files::isRegularFile).toList();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("No se pudo recorrer el almacén de imágenes en {}", raiz, e);
+            return 0;
+        }
+        int borrados = 0;
+        for (Path archivo : archivos) {
+            // Los contenidos se llaman como su hash y sus variantes empiezan por él
+            String nombre = archivo.getFileName().toString();
+            boolean usado = !archivo.startsWith(temporales)
+                    && usados.contains(nombre.substring(0, Math.min(nombre.length(), LONGITUD_HASH)));
+            try {
+                if (!usado && Files.getLastModifiedTime(archivo).toInstant().isBefore(limite)
+                        && Files.deleteIfExists(archivo))
+                    borrados++;
+            } catch (IOException e) {
+                log.warn("No se pudo borrar {} del almacén de imágenes", archivo, e);
+            }
+        }
+        log.info("Finaliza proceso de limpieza del almacén de imágenes: {} archivos borrados", borrados);
+        return borrados;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("La JVM no tiene SHA-256", e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,6 +15,7 @@ import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 import co.edu.udistrital.mdp.back.repositories.ImagenOutfitRepository;
 import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -26,6 +28,9 @@ public class ImagenOutfitService {
     @Autowired
     private OutfitRepository outfitRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
    
     @Transactional
     public ImagenOutfitEntity createImagenOutfit(Long outfitId, ImagenOutfitEntity imagenoutfitEntity)
@@ -44,8 +49,10 @@ public class ImagenOutfitService {
 
         imagenoutfitEntity.setOutfit(outfitEntity.get());
 
+        ImagenOutfitEntity creada = imagenoutfitRepository.save(imagenoutfitEntity);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT, outfitEntity.get().getId()));
         log.info("Termina proceso de creación de la imagen");
-        return imagenoutfitRepository.save(imagenoutfitEntity);
+        return creada;
     }
 
   
@@ -101,6 +108,7 @@ public ImagenOutfitEntity updateImagenOutfit(Long outfitId, Long imagenId, Image
     imagenOutfit.setImagen(imagenOutfitEntity.getImagen());
 
     ImagenOutfitEntity actualizado = imagenoutfitRepository.save(imagenOutfit);
+    eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT, outfitId));
 
     log.info("Termina proceso de actualización de imagen de outfit con id: {}", imagenId);
     return actualizado;
@@ -95,6 +95,10 @@ public ImagenPrendaEntity createImagenPrenda(Long prendaId, ImagenPrendaEntity i
         if (imagenPrenda.getImagen() == null || imagenPrenda.getImagen().isBlank())
             throw new IllegalOperationException("El campo 'imagen' no puede ser nulo o vacío");
 
+        // El contenido binario solo cambia al subir uno nuevo
+        imagenPrenda.setHash(imagenPrendaEntity.get().getHash());
+        imagenPrenda.setTipoContenido(imagenPrendaEntity.get().getTipoContenido());
+        imagenPrenda.setTamano(imagenPrendaEntity.get().getTamano());
         imagenPrenda.setId(imagenPrendaId);
         log.info("Termina proceso de actualizar la imagen de prenda con id = {}", imagenPrendaId);
         return imagenPrendaRepository.save(imagenPrenda);
@@ -0,0 +1,22 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Página de un listado paginado por cursor. Si nextCursor es nulo no hay más
+ * elementos después de esta página.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,269 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Utilidades para la paginación por cursor (keyset) de los listados.
+ *
+ * El cursor es el conjunto de valores de las llaves de ordenamiento (más el id)
+ * del último elemento de la página, codificado en Base64. La siguiente página
+ * se consulta con un WHERE sobre esas llaves, de modo que la página N cuesta lo
+ * mismo que la página 1.
+ */
+public final class KeysetPagination {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String ID = "id";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private KeysetPagination() {
+        throw new IllegalStateException("Clase de utilidad");
+    }
+
+    /**
+     * Valida el tamaño de página solicitado y lo limita al máximo permitido.
+     */
+    public static Limit limit(Integer size) throws IllegalOperationException {
+        if (size == null)
+            return Limit.of(DEFAULT_SIZE);
+        if (size < 1)
+            throw new IllegalOperationException("El tamaño de página debe ser mayor que cero");
+        return Limit.of(Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Construye el ordenamiento a partir de un parámetro de la forma
+     * "campo" o "campo,desc". El id siempre se agrega como desempate.
+     */
+    public static Sort sort(String sort, Map<String, Class<?>> campos) throws IllegalOperationException {
+        if (sort == null || sort.isBlank())
+            return Sort.by(ID);
+
+        String[] partes = sort.split(",");
+        String campo = partes[0].trim();
+        if (!campos.containsKey(campo))
+            throw new IllegalOperationException("No se puede ordenar por el campo: " + campo);
+
+        Sort.Direction direccion = Sort.Direction.ASC;
+        if (partes.length > 1) {
+            direccion = Sort.Direction.fromOptionalString(partes[1].trim())
+                    .orElseThrow(() -> new IllegalOperationException("Dirección de ordenamiento no válida"));
+        }
+
+        Sort orden = Sort.by(direccion, campo);
+        return ID.equals(campo) ? orden : orden.and(Sort.by(ID));
+    }
+
+    /**
+     * Decodifica el cursor recibido. Si no hay cursor se inicia desde el principio.
+     */
+    public static ScrollPosition position(String cursor, Sort sort, Map<String, Class<?>> campos)
+            throws IllegalOperationException {
+        Map<String, Object> llaves = llaves(cursor, sort, campos, null);
+        return llaves == null ? ScrollPosition.keyset() : ScrollPosition.forward(llaves);
+    }
+
+    /**
+     * Consulta una página de un listado cuyo campo de ordenamiento admite nulos.
+     *
+     * La paginación keyset compara con el valor del último elemento, y una
+     * comparación con NULL nunca es verdadera: los elementos sin valor se perderían.
+     * Por eso se recorren en dos tramos: primero los que tienen valor, en el orden
+     * solicitado, y al final los que no lo tienen, por id, en cualquier dirección.
+     * El cursor de ese segundo tramo lleva el campo en null. Ordenando por id se usa
+     * la consulta del repositorio, que puede tener sus propias sugerencias de caché.
+     *
+     * @param repositorio Repositorio de la entidad.
+     * @param porId       Consulta keyset del repositorio, para el ordenamiento por id.
+     * @param grafo       Asociaciones que se traen en la misma consulta.
+     * @throws IllegalOperationException si el cursor, el tamaño o el ordenamiento no son válidos.
+     */
+    public static <T> KeysetPage<T> page(JpaSpecificationExecutor<T> repositorio, Consulta<T> porId, String cursor,
+            Integer size, String sort, Map<String, Class<?>> campos, String... grafo)
+            throws IllegalOperationException {
+        Sort orden = sort(sort, campos);
+        Limit limite = limit(size);
+        Sort.Order primero = orden.iterator().next();
+        String campo = primero.getProperty();
+        if (ID.equals(campo))
+            return page(porId.findBy(position(cursor, orden, campos), orden, limite));
+
+        Specification<T> conValor = (raiz, consulta, criterios) -> criterios.isNotNull(raiz.get(campo));
+        Specification<T> sinValor = (raiz, consulta, criterios) -> criterios.isNull(raiz.get(campo));
+        Map<String, Object> llaves = llaves(cursor, orden, campos, campo);
+        int tamano = limite.max();
+
+        List<T> contenido = new ArrayList<>();
+        if (llaves == null || llaves.get(campo) != null) {
+            Specification<T> filtro = llaves == null ? conValor
+                    : conValor.and(despues(primero, llaves.get(campo), llaves.get(ID)));
+            List<T> filas = consultar(repositorio, filtro, orden, tamano + 1, grafo);
+            if (filas.size() > tamano) {
+                contenido.addAll(filas.subList(0, tamano));
+                return new KeysetPage<>(contenido, cursor(llavesDe(contenido.get(tamano - 1), campo)));
+            }
+            contenido.addAll(filas);
+        } else if (llaves.get(ID) != null) {
+            sinValor = sinValor.and(despues(Sort.Order.asc(ID), llaves.get(ID), null));
+        }
+
+        int faltantes = tamano - contenido.size();
+        if (faltantes == 0)
+            return new KeysetPage<>(contenido, repositorio.exists(sinValor) ? cursorSinValor(campo, null) : null);
+
+        List<T> filas = consultar(repositorio, sinValor, Sort.by(ID), faltantes + 1, grafo);
+        if (filas.size() <= faltantes) {
+            contenido.addAll(filas);
+            return new KeysetPage<>(contenido, null);
+        }
+        contenido.addAll(filas.subList(0, faltantes));
+        Object ultimo = llavesDe(contenido.get(contenido.size() - 1), campo).get(ID);
+        return new KeysetPage<>(contenido, cursorSinValor(campo, ultimo));
+    }
+
+    /**
+     * Convierte la ventana consultada en una página con el cursor siguiente.
+     */
+    public static <T> KeysetPage<T> page(Window<T> window) {
+        if (!window.hasNext() || window.isEmpty())
+            return new KeysetPage<>(window.getContent(), null);
+
+        KeysetScrollPosition ultima = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        return new KeysetPage<>(window.getContent(), cursor(ultima.getKeys()));
+    }
+
+    /**
+     * Codifica como cursor los valores de las llaves de ordenamiento del último
+     * elemento de una página.
+     */
+    public static String cursor(Map<String, ?> llaves) {
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(llaves);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No fue posible codificar el cursor de paginación", e);
+        }
+    }
+
+    /**
+     * Consulta keyset de un repositorio, como findBy(ScrollPosition, Sort, Limit).
+     */
+    @FunctionalInterface
+    public interface Consulta<T> {
+        Window<T> findBy(ScrollPosition position, Sort sort, Limit limit);
+    }
+
+    /**
+     * Valores tipados de las llaves del cursor, o null si no hay cursor. Solo el
+     * campo que admite nulos puede venir en null y, en ese caso, también el id
+     * (inicio del tramo sin valor).
+     */
+    private static Map<String, Object> llaves(String cursor, Sort sort, Map<String, Class<?>> campos, String nulable)
+            throws IllegalOperationException {
+        if (cursor == null || cursor.isBlank())
+            return null;
+
+        Map<String, Object> llaves;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            llaves = MAPPER.readValue(json, new TypeReference<LinkedHashMap<String, Object>>() {
+            });
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalOperationException("El cursor de paginación no es válido");
+        }
+
+        boolean sinValor = nulable != null && llaves.containsKey(nulable) && llaves.get(nulable) == null;
+        Map<String, Object> tipadas = new LinkedHashMap<>();
+        for (Sort.Order orden : sort) {
+            String campo = orden.getProperty();
+            if (!llaves.containsKey(campo))
+                throw new IllegalOperationException("El cursor no corresponde al ordenamiento solicitado");
+            Object valor = llaves.get(campo);
+            if (valor == null && !(sinValor && (campo.equals(nulable) || ID.equals(campo))))
+                throw new IllegalOperationException("El cursor no corresponde al ordenamiento solicitado");
+            tipadas.put(campo, valor == null ? null : convertir(valor, campos.get(campo)));
+        }
+        if (tipadas.size() != llaves.size())
+            throw new IllegalOperationException("El cursor no corresponde al ordenamiento solicitado");
+        return tipadas;
+    }
+
+    private static String cursorSinValor(String campo, Object id) {
+        Map<String, Object> llaves = new LinkedHashMap<>();
+        llaves.put(campo, null);
+        llaves.put(ID, id);
+        return cursor(llaves);
+    }
+
+    /**
+     * Elementos que van después de la posición (valor, id) en el orden dado. Si id
+     * es null el orden es solo por el campo.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <T> Specification<T> despues(Sort.Order orden, Object valor, Object id) {
+        return (raiz, consulta, criterios) -> {
+            Expression<Comparable> campo = raiz.get(orden.getProperty());
+            Comparable referencia = (Comparable) valor;
+            Predicate siguiente = orden.isAscending() ? criterios.greaterThan(campo, referencia)
+                    : criterios.lessThan(campo, referencia);
+            if (id == null)
+                return siguiente;
+            Expression<Comparable> llave = raiz.get(ID);
+            return criterios.or(siguiente,
+                    criterios.and(criterios.equal(campo, referencia), criterios.greaterThan(llave, (Comparable) id)));
+        };
+    }
+
+    private static <T> List<T> consultar(JpaSpecificationExecutor<T> repositorio, Specification<T> filtro, Sort orden,
+            int limite, String... grafo) {
+        return repositorio.findBy(filtro, consulta -> consulta.sortBy(orden).limit(limite).project(grafo).all());
+    }
+
+    private static Map<String, Object> llavesDe(Object entidad, String campo) {
+        BeanWrapper propiedades = new BeanWrapperImpl(entidad);
+        Map<String, Object> llaves = new LinkedHashMap<>();
+        llaves.put(campo, propiedades.getPropertyValue(campo));
+        llaves.put(ID, propiedades.getPropertyValue(ID));
+        return llaves;
+    }
+
+    private static Object convertir(Object valor, Class<?> tipo) throws IllegalOperationException {
+        if (tipo == null || tipo == String.class)
+            return valor.toString();
+        if (!(valor instanceof Number numero))
+            throw new IllegalOperationException("El cursor de paginación no es válido");
+        if (tipo == Long.class)
+            return numero.longValue();
+        if (tipo == Integer.class)
+            return numero.intValue();
+        if (tipo == Double.class)
+            return numero.doubleValue();
+        throw new IllegalStateException("Tipo de llave de ordenamiento no soportado: " + tipo.getSimpleName());
+    }
+}
@@ -0,0 +1,49 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.Collection;
+import java.util.List;
+
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+
+/**
+ * Evento que se publica cuando cambia el contenido de una lista de deseos. El
+ * motor de recomendaciones lo usa para recalcular solo al dueño de la lista y el
+ * índice de outfits guardados juntos para actualizar sus conteos.
+ *
+ * Solo lleva lo que cambió, de modo que publicarlo no exige leer la lista completa.
+ *
+ * @param listaId   Identificador de la lista de deseos.
+ * @param usuarioId Identificador del dueño de la lista de deseos (puede ser nulo).
+ * @param agregados Outfits que entraron a la lista.
+ * @param quitados  Outfits que salieron de la lista.
+ */
+public record ListaDeseosModificadaEvent(Long listaId, Long usuarioId, List<Long> agregados, List<Long> quitados) {
+
+    /**
+     * Crea el evento de un cambio con los outfits que se agregaron y quitaron.
+     */
+    public static ListaDeseosModificadaEvent de(ListaDeseosEntity lista, Collection<Long> agregados,
+            Collection<Long> quitados) {
+        return new ListaDeseosModificadaEvent(lista.getId(), usuarioId(lista), List.copyOf(agregados),
+                List.copyOf(quitados));
+    }
+
+    /**
+     * Crea el evento de una lista que se elimina: salen todos sus outfits.
+     */
+    public static ListaDeseosModificadaEvent eliminada(ListaDeseosEntity lista) {
+        return de(lista, List.of(), outfitIds(lista));
+    }
+
+    /**
+     * Identificadores de los outfits que tiene la lista en este momento.
+     */
+    public static List<Long> outfitIds(ListaDeseosEntity lista) {
+        return lista.getOutfits().stream().map(OutfitEntity::getId).toList();
+    }
+
+    private static Long usuarioId(ListaDeseosEntity lista) {
+        return lista.getUsuario() != null ? lista.getUsuario().getId() : null;
+    }
+}
@@ -1,8 +1,18 @@
 package co.edu.udistrital.mdp.back.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.Hibernate;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,25 +23,42 @@ import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 import co.edu.udistrital.mdp.back.repositories.ListaDeseosRepository;
 import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Clase que implementa la conexión con la persistencia para la relación entre
  * la entidad de ListaDeseos y Outfit.
+ *
+ * La lista de deseos es un conjunto: agregar, quitar y consultar un outfit se
+ * hacen directamente sobre la tabla lista_outfit, por su llave única, sin cargar
+ * la colección de outfits de la lista.
  */
 
 @Slf4j
 @Service
 public class ListaDeseosOutfitService {
 
+    static final int MAXIMO_LOTE = 1000;
+
+    private static final Sort ORDEN = Sort.by("id");
+    private static final Map<String, Class<?>> CAMPOS_ORDEN = Map.of("id", Long.class);
+
     @Autowired
     private ListaDeseosRepository listaDeseosRepository;
 
     @Autowired
     private OutfitRepository outfitRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManager entityManager;
+
     /**
-     * Asocia un Outfit existente a una Lista de deseos.
+     * Asocia un Outfit existente a una Lista de deseos. Si ya estaba asociado no
+     * cambia nada.
      *
      * @param listaId  Identificador de la lista de deseos
      * @param outfitId Identificador del outfit
@@ -47,11 +74,35 @@ public class ListaDeseosOutfitService {
         OutfitEntity outfit = outfitRepository.findById(outfitId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND));
 
-        lista.getOutfits().add(outfit);
+        cambiarOutfits(lista, List.of(outfitId), List.of());
         log.info("Finaliza proceso de asociar outfit {} a la lista {}", outfitId, listaId);
         return outfit;
     }
 
+    /**
+     * Asocia varios outfits existentes a una lista de deseos. Los que ya estaban
+     * asociados se ignoran.
+     *
+     * @param listaId   Identificador de la lista de deseos
+     * @param outfitIds Identificadores de los outfits
+     * @return Número de outfits que se agregaron
+     * @throws EntityNotFoundException   si la lista o alguno de los outfits no existen
+     * @throws IllegalOperationException si se envían más outfits de los permitidos
+     */
+    @Transactional
+    public int agregarOutfits(Long listaId, Collection<Long> outfitIds)
+            throws EntityNotFoundException, IllegalOperationException {
+        log.info("Inicia proceso de agregar {} outfits a la lista {}", outfitIds.size(), listaId);
+
+        ListaDeseosEntity lista = listaDeseosRepository.findById(listaId)
+                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND));
+        Set<Long> ids = validarOutfits(outfitIds);
+
+        int agregados = cambiarOutfits(lista, ids, List.of());
+        log.info("Finaliza proceso de agregar outfits a la lista {}: {} agregados", listaId, agregados);
+        return agregados;
+    }
+
     /**
      * Obtiene una colección de outfits asociadas a una lista de deseos.
      *
@@ -68,6 +119,30 @@ public class ListaDeseosOutfitService {
         return lista.getOutfits();
     }
 
+    /**
+     * Obtiene una página de los outfits de una lista de deseos, ordenados por id y
+     * paginados por cursor (keyset).
+     *
+     * @param listaId Identificador de la lista de deseos
+     * @param cursor  Cursor devuelto por la página anterior, o nulo para la primera página.
+     * @param size    Tamaño de página solicitado.
+     * @return Página de OutfitEntity con el cursor de la siguiente página.
+     * @throws EntityNotFoundException   si la lista no existe
+     * @throws IllegalOperationException si el cursor o el tamaño no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<OutfitEntity> getOutfits(Long listaId, String cursor, Integer size)
+            throws EntityNotFoundException, IllegalOperationException {
+        log.info("Inicia proceso de consultar una página de los outfits de la lista {}", listaId);
+
+        if (!listaDeseosRepository.existsById(listaId))
+            throw new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND);
+
+        ScrollPosition posicion = KeysetPagination.position(cursor, ORDEN, CAMPOS_ORDEN);
+        return KeysetPagination.page(outfitRepository.findByListasDeseosId(listaId, posicion, ORDEN,
+                KeysetPagination.limit(size)));
+    }
+
     /**
      * Obtiene un outfit específico de una lista.
      *
@@ -82,13 +157,13 @@ public class ListaDeseosOutfitService {
             throws EntityNotFoundException, IllegalOperationException {
         log.info("Inicia proceso de consultar el outfit {} de la lista {}", outfitId, listaId);
 
-        ListaDeseosEntity lista = listaDeseosRepository.findById(listaId)
-                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND));
+        if (!listaDeseosRepository.existsById(listaId))
+            throw new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND);
 
         OutfitEntity outfit = outfitRepository.findById(outfitId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND));
 
-        if (!lista.getOutfits().contains(outfit)) {
+        if (!listaDeseosRepository.existsOutfit(listaId, outfitId)) {
             throw new IllegalOperationException("El outfit no está asociado a la lista de deseos");
         }
 
@@ -96,7 +171,8 @@ public class ListaDeseosOutfitService {
     }
 
     /**
-     * Reemplaza los outfits asociados a una lista.
+     * Reemplaza los outfits asociados a una lista. Solo se insertan y borran las
+     * filas de lista_outfit que cambian.
      *
      * @param listaId  Identificador de la lista
      * @param outfits  Nueva lista de outfits
@@ -111,18 +187,21 @@ public class ListaDeseosOutfitService {
         ListaDeseosEntity lista = listaDeseosRepository.findById(listaId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND));
 
-        for (OutfitEntity outfit : outfits) {
-            outfitRepository.findById(outfit.getId())
-                    .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND));
-        }
+        Set<Long> nuevos = new LinkedHashSet<>();
+        for (OutfitEntity outfit : outfits)
+            nuevos.add(outfit.getId());
+        if (outfitRepository.countByIdIn(nuevos) != nuevos.size())
+            throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
 
-        lista.setOutfits(outfits);
+        List<Long> sobrantes = new ArrayList<>(listaDeseosRepository.findOutfitIds(listaId));
+        sobrantes.removeAll(nuevos);
+        cambiarOutfits(lista, nuevos, sobrantes);
         log.info("Finaliza proceso de reemplazo de outfits en lista {}", listaId);
-        return lista.getOutfits();
+        return outfitRepository.findAllById(nuevos);
     }
 
     /**
-     * Elimina un outfit de una lista de deseos.
+     * Elimina un outfit de una lista de deseos. Si no estaba asociado no cambia nada.
      *
      * @param listaId  Identificador de la lista
      * @param outfitId Identificador del outfit
@@ -135,10 +214,88 @@ public class ListaDeseosOutfitService {
         ListaDeseosEntity lista = listaDeseosRepository.findById(listaId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND));
 
-        OutfitEntity outfit = outfitRepository.findById(outfitId)
-                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND));
+        if (!outfitRepository.existsById(outfitId))
+            throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
 
-        lista.getOutfits().remove(outfit);
+        cambiarOutfits(lista, List.of(), List.of(outfitId));
         log.info("Finaliza proceso de eliminación del outfit {} de la lista {}", outfitId, listaId);
     }
+
+    /**
+     * Elimina varios outfits de una lista de deseos. Los que no estaban asociados se
+     * ignoran.
+     *
+     * @param listaId   Identificador de la lista
+     * @param outfitIds Identificadores de los outfits
+     * @return Número de outfits que se quitaron
+     * @throws EntityNotFoundException   si la lista o alguno de los outfits no existen
+     * @throws IllegalOperationException si se envían más outfits de los permitidos
+     */
+    @Transactional
+    public int quitarOutfits(Long listaId, Collection<Long> outfitIds)
+            throws EntityNotFoundException, IllegalOperationException {
+        log.info("Inicia proceso de quitar {} outfits de la lista {}", outfitIds.size(), listaId);
+
+        ListaDeseosEntity lista = listaDeseosRepository.findById(listaId)
+                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND));
+        Set<Long> ids = validarOutfits(outfitIds);
+
+        int quitados = cambiarOutfits(lista, List.of(), ids);
+        log.info("Finaliza proceso de quitar outfits de la lista {}: {} quitados", listaId, quitados);
+        return quitados;
+    }
+
+    /**
+     * Agrega y quita outfits de la lista directamente en lista_outfit. De la tabla
+     * solo se leen las filas de los outfits dados, y el evento lleva solo los que
+     * cambiaron, así que el costo no depende del tamaño de la lista.
+     *
+     * @return Número de filas agregadas y quitadas.
+     */
+    int cambiarOutfits(ListaDeseosEntity lista, Collection<Long> agregar, Collection<Long> quitar) {
+        Set<Long> ids = new LinkedHashSet<>(agregar);
+        ids.addAll(quitar);
+        if (ids.isEmpty())
+            return 0;
+
+        Set<Long> presentes = Set.copyOf(listaDeseosRepository.findOutfitIdsIn(lista.getId(), ids));
+        List<Long> agregados = agregar.stream().distinct().filter(id -> !presentes.contains(id)).toList();
+        List<Long> quitados = quitar.stream().distinct().filter(presentes::contains).toList();
+        if (agregados.isEmpty() && quitados.isEmpty())
+            return 0;
+
+        if (!agregados.isEmpty())
+            listaDeseosRepository.insertOutfits(lista.getId(), agregados);
+        if (!quitados.isEmpty())
+            listaDeseosRepository.deleteOutfits(lista.getId(), quitados);
+        refrescar(lista, ids);
+
+        eventPublisher.publishEvent(ListaDeseosModificadaEvent.de(lista, agregados, quitados));
+        return agregados.size() + quitados.size();
+    }
+
+    private Set<Long> validarOutfits(Collection<Long> outfitIds)
+            throws EntityNotFoundException, IllegalOperationException {
+        Set<Long> ids = new LinkedHashSet<>(outfitIds);
+        if (ids.size() > MAXIMO_LOTE)
+            throw new IllegalOperationException("No se pueden modificar más de " + MAXIMO_LOTE + " outfits a la vez");
+        if (ids.contains(null) || outfitRepository.countByIdIn(ids) != ids.size())
+            throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
+        return ids;
+    }
+
+    /**
+     * Las colecciones que ya estaban cargadas en este contexto de persistencia no
+     * ven los cambios hechos sobre la tabla, así que se vuelven a leer. Las que no
+     * se han cargado no se tocan.
+     */
+    private void refrescar(ListaDeseosEntity lista, Collection<Long> outfitIds) {
+        if (Hibernate.isInitialized(lista.getOutfits()))
+            entityManager.refresh(lista);
+        for (Long outfitId : outfitIds) {
+            OutfitEntity outfit = entityManager.getReference(OutfitEntity.class, outfitId);
+            if (Hibernate.isInitialized(outfit) && Hibernate.isInitialized(outfit.getListasDeseos()))
+                entityManager.refresh(outfit);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package co.edu.udistrital.mdp.back.services;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
@@ -32,6 +33,12 @@ public class ListaDeseosService {
     @Autowired
     private OutfitRepository outfitRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ListaDeseosOutfitService listaDeseosOutfitService;
+
     /**
 	 * Se encarga de crear una ListaDeseos en la base de datos.
 	 *
@@ -93,8 +100,9 @@ public class ListaDeseosService {
         ListaDeseosEntity entity = listaDeseosRepository.findById(listaId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND));
 
-        // Aquí podrías actualizar atributos si tu ListaDeseosEntity tiene más datos
-        entity.setOutfits(listaNueva.getOutfits());
+        // Aquí podrías actualizar atributos si tu ListaDeseosEntity tiene más datos.
+        // Los outfits no se reemplazan: se cambian con las operaciones de conjunto de
+        // ListaDeseosOutfitService.
 
         ListaDeseosEntity updated = listaDeseosRepository.save(entity);
         log.info("Finaliza proceso de actualización de lista de deseos con id = {}", listaId);
@@ -114,6 +122,7 @@ public class ListaDeseosService {
         ListaDeseosEntity entity = listaDeseosRepository.findById(listaId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND));
 
+        eventPublisher.publishEvent(ListaDeseosModificadaEvent.eliminada(entity));
         listaDeseosRepository.delete(entity);
         log.info("Finaliza proceso de eliminación de lista de deseos con id = {}", listaId);
     }
@@ -141,11 +150,11 @@ public class ListaDeseosService {
         OutfitEntity outfit = outfitRepository.findById(outfitId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND));
 
-        if (lista.getOutfits().contains(outfit)) {
+        if (listaDeseosRepository.existsOutfit(listaId, outfitId)) {
             throw new IllegalOperationException("El outfit ya está en la lista de deseos");
         }
 
-        lista.getOutfits().add(outfit);
+        listaDeseosOutfitService.cambiarOutfits(lista, List.of(outfitId), List.of());
         log.info("Finaliza proceso de agregar outfit {} a la lista de deseos {}", outfitId, listaId);
         return outfit;
     }
@@ -166,4 +175,5 @@ public class ListaDeseosService {
 
         return lista.getOutfits();
     }
+
 }
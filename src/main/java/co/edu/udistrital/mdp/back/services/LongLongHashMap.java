@@ -0,0 +1,161 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.Arrays;
+
+/**
+ * Tabla hash de direccionamiento abierto de long a long, sin objetos por entrada.
+ *
+ * Usa sondeo lineal y borrado por desplazamiento hacia atrás, de modo que no
+ * quedan lápidas. Una llave cuyo valor llega a cero se elimina. No es segura
+ * para uso concurrente: quien la comparte debe sincronizar los accesos.
+ */
+final class LongLongHashMap {
+
+    /** Llave reservada para marcar las posiciones vacías */
+    static final long VACIO = Long.MIN_VALUE;
+
+    private static final int CAPACIDAD_MINIMA = 8;
+
+    private long[] llaves;
+    private long[] valores;
+    private int mascara;
+    private int tamano;
+
+    /**
+     * Acción que recibe cada par llave-valor de la tabla.
+     */
+    @FunctionalInterface
+    interface Consumidor {
+        void aceptar(long llave, long valor);
+    }
+
+    LongLongHashMap() {
+        this(CAPACIDAD_MINIMA);
+    }
+
+    LongLongHashMap(int esperados) {
+        int capacidad = Integer.highestOneBit(Math.max(CAPACIDAD_MINIMA, esperados * 2) - 1) << 1;
+        inicializar(capacidad);
+    }
+
+    int size() {
+        return tamano;
+    }
+
+    boolean isEmpty() {
+        return tamano == 0;
+    }
+
+    /**
+     * Devuelve el valor de la llave, o cero si no está.
+     */
+    long get(long llave) {
+        int i = buscar(llave);
+        return i < 0 ? 0 : valores[i];
+    }
+
+    /**
+     * Asigna el valor de la llave. Asignar cero elimina la llave.
+     */
+    void put(long llave, long valor) {
+        int i = buscar(llave);
+        if (i >= 0) {
+            if (valor == 0)
+                eliminar(i);
+            else
+                valores[i] = valor;
+        } else if (valor != 0) {
+            insertar(llave, valor);
+        }
+    }
+
+    /**
+     * Suma delta al valor de la llave (que vale cero si no está) y devuelve el
+     * resultado. Si el resultado es cero la llave se elimina.
+     */
+    long sumar(long llave, long delta) {
+        int i = buscar(llave);
+        if (i < 0) {
+            if (delta != 0)
+                insertar(llave, delta);
+            return delta;
+        }
+        long valor = valores[i] + delta;
+        if (valor == 0)
+            eliminar(i);
+        else
+            valores[i] = valor;
+        return valor;
+    }
+
+    void forEach(Consumidor consumidor) {
+        for (int i = 0; i < llaves.length; i++) {
+            if (llaves[i] != VACIO)
+                consumidor.aceptar(llaves[i], valores[i]);
+        }
+    }
+
+    private void inicializar(int capacidad) {
+        llaves = new long[capacidad];
+        valores = new long[capacidad];
+        Arrays.fill(llaves, VACIO);
+        mascara = capacidad - 1;
+    }
+
+    private int posicionIdeal(long llave) {
+        long h = llave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+
+    private int buscar(long llave) {
+        if (llave == VACIO)
+            throw new IllegalArgumentException("Llave no soportada: " + llave);
+        int i = posicionIdeal(llave);
+        while (llaves[i] != VACIO) {
+            if (llaves[i] == llave)
+                return i;
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    private void insertar(long llave, long valor) {
+        if ((tamano + 1) * 2 > llaves.length)
+            crecer();
+        int i = posicionIdeal(llave);
+        while (llaves[i] != VACIO)
+            i = (i + 1) & mascara;
+        llaves[i] = llave;
+        valores[i] = valor;
+        tamano++;
+    }
+
+    private void eliminar(int posicion) {
+        int libre = posicion;
+        int i = (posicion + 1) & mascara;
+        while (llaves[i] != VACIO) {
+            // La entrada se mueve al hueco si su posición ideal no está entre el hueco y ella
+            int ideal = posicionIdeal(llaves[i]);
+            if (((i - ideal) & mascara) >= ((i - libre) & mascara)) {
+                llaves[libre] = llaves[i];
+                valores[libre] = valores[i];
+                libre = i;
+            }
+            i = (i + 1) & mascara;
+        }
+        llaves[libre] = VACIO;
+        valores[libre] = 0;
+        tamano--;
+    }
+
+    private void crecer() {
+        long[] viejasLlaves = llaves;
+        long[] viejosValores = valores;
+        inicializar(viejasLlaves.length * 2);
+        tamano = 0;
+        for (int i = 0; i < viejasLlaves.length; i++) {
+            if (viejasLlaves[i] != VACIO)
+                insertar(viejasLlaves[i], viejosValores[i]);
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package co.edu.udistrital.mdp.back.services;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import co.edu.udistrital.mdp.back.entities.BaseEntity;
 import co.edu.udistrital.mdp.back.entities.MarcaEntity;
 import co.edu.udistrital.mdp.back.entities.TiendaEntity;
 import co.edu.udistrital.mdp.back.repositories.MarcaRepository;
@@ -13,6 +17,8 @@ import co.edu.udistrital.mdp.back.repositories.TiendaRepository;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.services.BusquedaTextoIndex.Tipo;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,20 +26,32 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class MarcaService {
 
+    /**
+     * Campos por los que se puede ordenar el listado paginado y su tipo
+     */
+    private static final Map<String, Class<?>> CAMPOS_ORDEN = Map.of(
+            "id", Long.class,
+            "nombre", String.class);
+
+    /**
+     * Mensaje de error por restricción única de la marca
+     */
+    private static final Map<String, String> RESTRICCIONES = Map.of(
+            "uk_marca_nombre", "Ya existe una marca con ese nombre");
+
     @Autowired
     private MarcaRepository marcaRepository;
 
     @Autowired
     private TiendaRepository tiendaRepository;
 
-    @Transactional
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public MarcaEntity createMarca(MarcaEntity marca) throws EntityNotFoundException, IllegalOperationException {
         log.info("Inicia proceso de crear marca");
 
-        // Validar nombre único
-        if (marcaRepository.existsByNombre(marca.getNombre()))
-            throw new IllegalOperationException("Ya existe una marca con ese nombre");
-
         // Validar tiendas asociadas
         if (marca.getTiendas() == null || marca.getTiendas().isEmpty())
             throw new IllegalOperationException("La marca debe tener al menos una tienda asociada");
@@ -44,8 +62,12 @@ public class MarcaService {
                 throw new EntityNotFoundException("La tienda con id " + tienda.getId() + " no existe");
         }
 
+        // La unicidad del nombre la verifica la base de datos
+        MarcaEntity creada = RestriccionesUnicas.guardar(marcaRepository, marca, RESTRICCIONES);
+        eventPublisher.publishEvent(TextoModificadoEvent.guardado(Tipo.MARCA, creada.getId(), creada.getNombre()));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.MARCA, creada.getId()));
         log.info("Marca creada correctamente");
-        return marcaRepository.save(marca);
+        return creada;
     }
 
     @Transactional
@@ -55,8 +77,11 @@ public class MarcaService {
         MarcaEntity marca = marcaRepository.findById(marcaId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.MARCA_NOT_FOUND));
 
-        // Validar nombre único
-        if (!marca.getNombre().equals(marcaDetails.getNombre()) && marcaRepository.existsByNombre(marcaDetails.getNombre()))
+        // Validar nombre único. Aquí se consulta el índice en lugar de sincronizar, porque
+        // el reemplazo de la colección de tiendas solo se puede resolver al confirmar
+        Optional<MarcaEntity> duplicada = marcaRepository
+                .findByNombreNormalizado(BaseEntity.normalizar(marcaDetails.getNombre()));
+        if (duplicada.isPresent() && !duplicada.get().getId().equals(marcaId))
             throw new IllegalOperationException("Ya existe una marca con ese nombre");
 
         // Validar tiendas asociadas
@@ -73,8 +98,11 @@ public class MarcaService {
         marca.setImagen(marcaDetails.getImagen());
         marca.setTiendas(marcaDetails.getTiendas());
 
+        MarcaEntity guardada = marcaRepository.save(marca);
+        eventPublisher.publishEvent(TextoModificadoEvent.guardado(Tipo.MARCA, marcaId, guardada.getNombre()));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.MARCA, marcaId));
         log.info("Marca actualizada correctamente");
-        return marcaRepository.save(marca);
+        return guardada;
     }
 
     @Transactional
@@ -89,6 +117,8 @@ public class MarcaService {
             throw new IllegalOperationException("No se puede eliminar la marca, tiene prendas asociadas");
 
         marcaRepository.delete(marca);
+        eventPublisher.publishEvent(TextoModificadoEvent.eliminado(Tipo.MARCA, marcaId));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.MARCA, marcaId));
         log.info("Marca eliminada correctamente");
     }
 
@@ -96,6 +126,22 @@ public class MarcaService {
         return marcaRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de marcas usando paginación por cursor (keyset).
+     *
+     * @param cursor Cursor devuelto por la página anterior, o nulo para la primera página.
+     * @param size   Tamaño de página solicitado.
+     * @param sort   Campo de ordenamiento, opcionalmente seguido de ",desc".
+     * @return Página de MarcaEntity con el cursor de la siguiente página.
+     * @throws IllegalOperationException si el cursor, el tamaño o el ordenamiento no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<MarcaEntity> getAllMarcas(String cursor, Integer size, String sort)
+            throws IllegalOperationException {
+        log.info("Inicia proceso de consultar una página de marcas");
+        return KeysetPagination.page(marcaRepository, marcaRepository::findBy, cursor, size, sort, CAMPOS_ORDEN);
+    }
+
     public MarcaEntity getMarcaById(Long marcaId) throws EntityNotFoundException {
         return marcaRepository.findById(marcaId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.MARCA_NOT_FOUND));
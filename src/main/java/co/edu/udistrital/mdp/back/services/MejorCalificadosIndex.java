@@ -0,0 +1,183 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ranking en memoria de los outfits mejor calificados por promedio bayesiano:
+ *
+ * puntaje = (peso * media + suma) / (peso + numero)
+ *
+ * Un outfit con pocas calificaciones queda cerca de la media y solo se aleja de
+ * ella a medida que acumula calificaciones. La media es la de todas las
+ * calificaciones al reconstruir el índice, así que cada calificación nueva solo
+ * cambia el puntaje de su outfit: se reubica en un ConcurrentSkipListSet ordenado
+ * (O(log n)) y el top k se lee recorriendo sus primeros k elementos, sin agregar
+ * nada al consultar.
+ *
+ * Se reconstruye desde los resúmenes guardados en los outfits al iniciar la
+ * aplicación y se actualiza con los eventos de calificación una vez se confirma
+ * cada transacción.
+ */
+@Slf4j
+@Service
+public class MejorCalificadosIndex {
+
+    /**
+     * Puntaje de un outfit calificado.
+     */
+    public record Puntaje(long outfitId, long numero, double suma, double bayesiano) {
+    }
+
+    private static final Comparator<Puntaje> ORDEN = Comparator.comparingDouble(Puntaje::bayesiano).reversed()
+            .thenComparingLong(Puntaje::outfitId);
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    @Autowired
+    private OutfitRepository outfitRepository;
+
+    @Value("${calificaciones.bayes.peso:10}")
+    private double peso;
+
+    @Value("${calificaciones.bayes.media:3.0}")
+    private double mediaPrevia;
+
+    private volatile Ranking ranking;
+
+    @PostConstruct
+    void iniciar() {
+        ranking = new Ranking(mediaPrevia);
+    }
+
+    /**
+     * Devuelve los outfits con mayor puntaje bayesiano, de mayor a menor (los
+     * empates por id ascendente).
+     *
+     * @param limite Número máximo de outfits a devolver.
+     */
+    public List<Puntaje> getTop(int limite) {
+        List<Puntaje> top = new ArrayList<>(limite);
+        for (Puntaje puntaje : ranking.orden) {
+            if (top.size() == limite)
+                break;
+            top.add(puntaje);
+        }
+        return top;
+    }
+
+    /**
+     * Puntaje actual del outfit, o nulo si no tiene calificaciones.
+     */
+    public Puntaje getPuntaje(long outfitId) {
+        return ranking.puntajes.get(outfitId);
+    }
+
+    /**
+     * Suma al outfit los cambios en el número y la suma de sus calificaciones y lo
+     * reubica en el ranking. Las actualizaciones de un mismo outfit se serializan en
+     * su entrada del mapa; las de outfits distintos corren en paralelo.
+     */
+    public void actualizar(long outfitId, long cambioNumero, double cambioSuma) {
+        candado.readLock().lock();
+        try {
+            Ranking actual = ranking;
+            actual.puntajes.compute(outfitId, (id, anterior) -> {
+                long numero = cambioNumero;
+                double suma = cambioSuma;
+                if (anterior != null) {
+                    actual.orden.remove(anterior);
+                    numero += anterior.numero();
+                    suma += anterior.suma();
+                }
+                if (numero <= 0)
+                    return null;
+
+                Puntaje nuevo = new Puntaje(id, numero, suma, actual.bayesiano(numero, suma));
+                actual.orden.add(nuevo);
+                return nuevo;
+            });
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void registrarCalificacion(CalificacionOutfitEvent evento) {
+        actualizar(evento.outfitId(), evento.numero(), evento.suma());
+    }
+
+    /**
+     * Reconstruye el ranking desde el número y la suma de calificaciones guardados en
+     * cada outfit, y recalcula la media global con la que se puntúa.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        log.info("Inicia proceso de reconstrucción del índice de outfits mejor calificados");
+        List<Object[]> filas = outfitRepository.findResumenesCalificaciones();
+
+        long numeroTotal = 0;
+        double sumaTotal = 0;
+        for (Object[] fila : filas) {
+            numeroTotal += ((Number) fila[1]).longValue();
+            sumaTotal += ((Number) fila[2]).doubleValue();
+        }
+
+        Ranking nuevo = new Ranking(numeroTotal == 0 ? mediaPrevia : sumaTotal / numeroTotal);
+        for (Object[] fila : filas) {
+            long numero = ((Number) fila[1]).longValue();
+            double suma = ((Number) fila[2]).doubleValue();
+            Puntaje puntaje = new Puntaje((Long) fila[0], numero, suma, nuevo.bayesiano(numero, suma));
+            nuevo.puntajes.put(puntaje.outfitId(), puntaje);
+            nuevo.orden.add(puntaje);
+        }
+
+        candado.writeLock().lock();
+        try {
+            ranking = nuevo;
+        } finally {
+            candado.writeLock().unlock();
+        }
+        log.info("Finaliza proceso de reconstrucción del índice: {} outfits calificados, media {}", filas.size(),
+                nuevo.media);
+    }
+
+    double getMedia() {
+        return ranking.media;
+    }
+
+    /**
+     * Puntajes de los outfits y su orden, calculados con una misma media.
+     */
+    private final class Ranking {
+
+        private final double media;
+        private final Map<Long, Puntaje> puntajes = new ConcurrentHashMap<>();
+        private final NavigableSet<Puntaje> orden = new ConcurrentSkipListSet<>(ORDEN);
+
+        private Ranking(double media) {
+            this.media = media;
+        }
+
+        private double bayesiano(long numero, double suma) {
+            return (peso * media + suma) / (peso + numero);
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.RecomendacionEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+import co.edu.udistrital.mdp.back.repositories.ComentarioRepository;
+import co.edu.udistrital.mdp.back.repositories.ListaDeseosRepository;
+import co.edu.udistrital.mdp.back.repositories.OcasionRepository;
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.repositories.RecomendacionRepository;
+import co.edu.udistrital.mdp.back.repositories.UsuarioRepository;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Motor que calcula en el servidor las recomendaciones de outfits de cada usuario.
+ *
+ * El puntaje de un outfit para un usuario combina la afinidad con el contenido de
+ * su lista de deseos (categoría, ocasiones de la categoría, colores y marcas de las
+ * prendas) y cuántos usuarios con outfits en común también lo guardaron. Como los
+ * comentarios no están asociados a un outfit, el promedio de calificación del
+ * usuario frente al promedio general solo escala sus puntajes.
+ *
+ * El cálculo se reparte entre los núcleos con fork/join sobre una instantánea de
+ * los datos, leída en una sola transacción de solo lectura, y los resultados se escriben por lotes de usuarios con un upsert en
+ * lotes JDBC. Las recomendaciones creadas por los clientes (generada = false) no
+ * se modifican.
+ */
+@Slf4j
+@Service
+public class MotorRecomendacionService {
+
+    static final double PESO_CATEGORIA = 0.35;
+    static final double PESO_OCASION = 0.15;
+    static final double PESO_COLOR = 0.15;
+    static final double PESO_MARCA = 0.15;
+    static final double PESO_COGUARDADO = 0.20;
+
+    static final String MOTIVO_CATEGORIA = "Misma categoría que outfits de tu lista de deseos";
+    static final String MOTIVO_OCASION = "Para ocasiones que sueles buscar";
+    static final String MOTIVO_COLOR = "Con colores que sueles guardar";
+    static final String MOTIVO_MARCA = "Con marcas que sueles guardar";
+    static final String MOTIVO_COGUARDADO = "Guardado por usuarios con gustos similares";
+
+    private static final String[] MOTIVOS = { MOTIVO_CATEGORIA, MOTIVO_OCASION, MOTIVO_COLOR, MOTIVO_MARCA,
+            MOTIVO_COGUARDADO };
+    private static final double[] PESOS = { PESO_CATEGORIA, PESO_OCASION, PESO_COLOR, PESO_MARCA,
+            PESO_COGUARDADO };
+
+    /** Número de usuarios que calcula cada tarea de fork/join sin dividirse */
+    private static final int UMBRAL_TAREA = 32;
+
+    /** Número de usuarios cuyas recomendaciones se escriben en una misma transacción */
+    private static final int LOTE_USUARIOS = 500;
+
+    private static final String ACTUALIZAR = "UPDATE recomendacion_entity SET puntaje = ?, motivo = ? WHERE id = ?";
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ListaDeseosRepository listaDeseosRepository;
+
+    @Autowired
+    private OutfitRepository outfitRepository;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    @Autowired
+    private OcasionRepository ocasionRepository;
+
+    @Autowired
+    private ComentarioRepository comentarioRepository;
+
+    @Autowired
+    private RecomendacionRepository recomendacionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${recomendaciones.top:10}")
+    private int top;
+
+    // Transacción de las consultas de la instantánea
+    private TransactionTemplate lectura;
+
+    // Usuarios cuya lista de deseos cambió desde el último recálculo incremental
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void iniciar() {
+        lectura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        lectura.setReadOnly(true);
+        lectura.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Recalcula las recomendaciones de todos los usuarios.
+     *
+     * @return Número de recomendaciones escritas.
+     */
+    @Scheduled(cron = "${recomendaciones.recalculo.cron:0 0 3 * * *}")
+    public int recalcularTodas() {
+        log.info("Inicia proceso de recálculo de recomendaciones de todos los usuarios");
+        Instantanea datos = cargarInstantanea();
+        int escritas = calcularYEscribir(datos, datos.usuarios);
+        log.info("Finaliza proceso de recálculo de recomendaciones: {} recomendaciones para {} usuarios",
+                escritas, datos.usuarios.size());
+        return escritas;
+    }
+
+    /**
+     * Recalcula las recomendaciones de los usuarios dados. Los puntajes de los demás
+     * usuarios no se actualizan hasta el siguiente recálculo completo.
+     *
+     * @param usuarioIds Identificadores de los usuarios a recalcular.
+     * @return Número de recomendaciones escritas.
+     */
+    public int recalcularUsuarios(Collection<Long> usuarioIds) {
+        log.info("Inicia proceso de recálculo de recomendaciones de {} usuarios", usuarioIds.size());
+        if (usuarioIds.isEmpty())
+            return 0;
+
+        Instantanea datos = cargarInstantanea();
+        Set<Long> existentes = new HashSet<>(datos.usuarios);
+        List<Long> usuarios = usuarioIds.stream().distinct().filter(existentes::contains).sorted().toList();
+        int escritas = calcularYEscribir(datos, usuarios);
+        log.info("Finaliza proceso de recálculo de recomendaciones: {} recomendaciones para {} usuarios",
+                escritas, usuarios.size());
+        return escritas;
+    }
+
+    /**
+     * Recalcula las recomendaciones de los usuarios cuya lista de deseos cambió.
+     *
+     * @return Número de recomendaciones escritas.
+     */
+    @Scheduled(fixedDelayString = "${recomendaciones.pendientes.intervalo:60000}")
+    public int recalcularPendientes() {
+        if (pendientes.isEmpty())
+            return 0;
+
+        List<Long> usuarios = new ArrayList<>(pendientes);
+        pendientes.removeAll(usuarios);
+        return recalcularUsuarios(usuarios);
+    }
+
+    /**
+     * Marca como pendiente de recálculo al dueño de una lista de deseos modificada,
+     * una vez se confirma la transacción que la modificó.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void registrarCambio(ListaDeseosModificadaEvent evento) {
+        if (evento.usuarioId() != null)
+            pendientes.add(evento.usuarioId());
+    }
+
+    Set<Long> getPendientes() {
+        return pendientes;
+    }
+
+    private int calcularYEscribir(Instantanea datos, List<Long> usuarios) {
+        List<List<Puntuacion>> resultados = ForkJoinPool.commonPool()
+                .invoke(new CalculoTask(datos, usuarios, top, 0, usuarios.size()));
+
+        int escritas = 0;
+        for (int inicio = 0; inicio < usuarios.size(); inicio += LOTE_USUARIOS) {
+            int fin = Math.min(inicio + LOTE_USUARIOS, usuarios.size());
+            List<Long> lote = usuarios.subList(inicio, fin);
+            List<Puntuacion> puntuaciones = new ArrayList<>();
+            resultados.subList(inicio, fin).forEach(puntuaciones::addAll);
+
+            escritas += transactionTemplate.execute(estado -> escribirLote(lote, puntuaciones));
+        }
+        return escritas;
+    }
+
+    /**
+     * Hace el upsert de las recomendaciones del lote: las nuevas se insertan por
+     * lotes JDBC (ids por secuencia), las generadas que siguen en el top se
+     * actualizan en un solo batch y las que salieron del top se eliminan. Las
+     * recomendaciones creadas por los clientes no se tocan.
+     *
+     * @return Número de recomendaciones insertadas o actualizadas.
+     */
+    private int escribirLote(List<Long> usuarios, List<Puntuacion> puntuaciones) {
+        Map<List<Long>, Object[]> existentes = new HashMap<>();
+        for (Object[] fila : recomendacionRepository.findExistentesByUsuarioIdIn(usuarios))
+            existentes.put(List.of((Long) fila[1], (Long) fila[2]), fila);
+
+        Set<Long> vigentes = new HashSet<>();
+        List<Object[]> actualizaciones = new ArrayList<>();
+        int insertadas = 0;
+        for (Puntuacion p : puntuaciones) {
+            Object[] existente = existentes.get(List.of(p.usuarioId(), p.outfitId()));
+            if (existente == null) {
+                RecomendacionEntity nueva = new RecomendacionEntity();
+                nueva.setUsuario(entityManager.getReference(UsuarioEntity.class, p.usuarioId()));
+                nueva.setOutfit(entityManager.getReference(OutfitEntity.class, p.outfitId()));
+                nueva.setPuntaje(p.puntaje());
+                nueva.setMotivo(p.motivo());
+                nueva.setGenerada(true);
+                entityManager.persist(nueva);
+                insertadas++;
+            } else if (Boolean.TRUE.equals(existente[3])) {
+                vigentes.add((Long) existente[0]);
+                actualizaciones.add(new Object[] { p.puntaje(), p.motivo(), existente[0] });
+            }
+        }
+
+        List<Long> obsoletas = new ArrayList<>();
+        for (Object[] fila : existentes.values()) {
+            if (Boolean.TRUE.equals(fila[3]) && !vigentes.contains((Long) fila[0]))
+                obsoletas.add((Long) fila[0]);
+        }
+        if (!obsoletas.isEmpty())
+            recomendacionRepository.deleteAllByIdInBatch(obsoletas);
+
+        jdbcTemplate.batchUpdate(ACTUALIZAR, actualizaciones);
+        entityManager.flush();
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.RECOMENDACION, List.of()));
+        return insertadas + actualizaciones.size();
+    }
+
+    /**
+     * Lee la instantánea en una sola transacción para que todas sus consultas vean el
+     * mismo estado de la base. Si la base no garantiza lectura repetible, las filas
+     * de outfits que ya no están en la instantánea se ignoran.
+     */
+    private Instantanea cargarInstantanea() {
+        return lectura.execute(estado -> leerInstantanea());
+    }
+
+    private Instantanea leerInstantanea() {
+        Instantanea datos = new Instantanea();
+        datos.usuarios = usuarioRepository.findAllIds();
+
+        for (Object[] fila : listaDeseosRepository.findParesUsuarioOutfit()) {
+            Long usuario = (Long) fila[0];
+            Long outfit = (Long) fila[1];
+            datos.deseos.computeIfAbsent(usuario, k -> new LinkedHashSet<>()).add(outfit);
+            datos.guardadoPor.computeIfAbsent(outfit, k -> new ArrayList<>()).add(usuario);
+        }
+
+        Map<Long, Set<Long>> ocasionesPorCategoria = new HashMap<>();
+        for (Object[] fila : ocasionRepository.findParesCategoriaOcasion())
+            ocasionesPorCategoria.computeIfAbsent((Long) fila[0], k -> new HashSet<>()).add((Long) fila[1]);
+
+        for (Object[] fila : outfitRepository.findParesOutfitCategoria()) {
+            Caracteristicas c = new Caracteristicas();
+            c.categoria = (Long) fila[1];
+            if (c.categoria != null)
+                c.ocasiones = ocasionesPorCategoria.getOrDefault(c.categoria, Set.of());
+            datos.outfits.put((Long) fila[0], c);
+        }
+
+        for (Object[] fila : prendaRepository.findColorMarcaPorOutfit()) {
+            Caracteristicas c = datos.outfits.get((Long) fila[0]);
+            if (c == null)
+                continue;
+            if (fila[1] != null)
+                c.colores.add((Long) fila[1]);
+            if (fila[2] != null)
+                c.marcas.add((Long) fila[2]);
+        }
+
+        List<Object[]> promedios = comentarioRepository.findPromedioCalificacionPorUsuario();
+        double general = promedios.stream().mapToDouble(fila -> (Double) fila[1]).average().orElse(0);
+        if (general > 0) {
+            for (Object[] fila : promedios) {
+                double factor = Math.max(0.5, Math.min(1.5, (Double) fila[1] / general));
+                datos.factor.put((Long) fila[0], factor);
+            }
+        }
+        return datos;
+    }
+
+    /**
+     * Calcula las mejores recomendaciones de un usuario a partir de la instantánea.
+     */
+    static List<Puntuacion> puntuar(Instantanea datos, Long usuario, int top) {
+        Set<Long> deseos = datos.deseos.getOrDefault(usuario, Set.of());
+        if (deseos.isEmpty())
+            return List.of();
+
+        // Perfil: fracción de los outfits guardados que tiene cada característica
+        Map<Long, Double> categorias = new HashMap<>();
+        Map<Long, Double> ocasiones = new HashMap<>();
+        Map<Long, Double> colores = new HashMap<>();
+        Map<Long, Double> marcas = new HashMap<>();
+        double peso = 1.0 / deseos.size();
+        for (Long outfit : deseos) {
+            Caracteristicas c = datos.outfits.get(outfit);
+            if (c == null)
+                continue;
+            if (c.categoria != null)
+                categorias.merge(c.categoria, peso, Double::sum);
+            c.ocasiones.forEach(o -> ocasiones.merge(o, peso, Double::sum));
+            c.colores.forEach(o -> colores.merge(o, peso, Double::sum));
+            c.marcas.forEach(o -> marcas.merge(o, peso, Double::sum));
+        }
+
+        // Usuarios que guardaron alguno de los mismos outfits y lo que ellos guardaron
+        Set<Long> vecinos = new HashSet<>();
+        for (Long outfit : deseos)
+            vecinos.addAll(datos.guardadoPor.getOrDefault(outfit, List.of()));
+        vecinos.remove(usuario);
+        Map<Long, Integer> coguardados = new HashMap<>();
+        for (Long vecino : vecinos)
+            datos.deseos.get(vecino).forEach(o -> coguardados.merge(o, 1, Integer::sum));
+
+        double factor = datos.factor.getOrDefault(usuario, 1.0);
+        Comparator<Puntuacion> orden = Comparator.comparingDouble(Puntuacion::puntaje)
+                .thenComparing(Puntuacion::outfitId, Comparator.reverseOrder());
+        PriorityQueue<Puntuacion> mejores = new PriorityQueue<>(orden);
+        double[] aportes = new double[PESOS.length];
+
+        for (Map.Entry<Long, Caracteristicas> entrada : datos.outfits.entrySet()) {
+            Long outfit = entrada.getKey();
+            if (deseos.contains(outfit))
+                continue;
+
+            Caracteristicas c = entrada.getValue();
+            aportes[0] = c.categoria == null ? 0 : categorias.getOrDefault(c.categoria, 0.0);
+            aportes[1] = promedio(c.ocasiones, ocasiones);
+            aportes[2] = promedio(c.colores, colores);
+            aportes[3] = promedio(c.marcas, marcas);
+            aportes[4] = vecinos.isEmpty() ? 0 : coguardados.getOrDefault(outfit, 0) / (double) vecinos.size();
+
+            double puntaje = 0;
+            int principal = 0;
+            for (int i = 0; i < PESOS.length; i++) {
+                aportes[i] *= PESOS[i];
+                puntaje += aportes[i];
+                if (aportes[i] > aportes[principal])
+                    principal = i;
+            }
+            if (puntaje <= 0)
+                continue;
+
+            Puntuacion candidata = new Puntuacion(usuario, outfit, puntaje * factor, MOTIVOS[principal]);
+            if (mejores.size() < top) {
+                mejores.add(candidata);
+            } else if (orden.compare(candidata, mejores.peek()) > 0) {
+                mejores.poll();
+                mejores.add(candidata);
+            }
+        }
+
+        List<Puntuacion> resultado = new ArrayList<>(mejores);
+        resultado.sort(orden.reversed());
+        return resultado;
+    }
+
+    private static double promedio(Set<Long> valores, Map<Long, Double> perfil) {
+        if (valores.isEmpty())
+            return 0;
+        double suma = 0;
+        for (Long valor : valores)
+            suma += perfil.getOrDefault(valor, 0.0);
+        return suma / valores.size();
+    }
+
+    /**
+     * Puntaje calculado de un outfit para un usuario.
+     */
+    record Puntuacion(Long usuarioId, Long outfitId, double puntaje, String motivo) {
+    }
+
+    /**
+     * Características de un outfit que se comparan con el perfil del usuario.
+     */
+    static class Caracteristicas {
+        Long categoria;
+        Set<Long> ocasiones = Set.of();
+        Set<Long> colores = new HashSet<>();
+        Set<Long> marcas = new HashSet<>();
+    }
+
+    /**
+     * Copia en memoria de los datos que usa el cálculo. Solo se lee desde las tareas.
+     */
+    static class Instantanea {
+        List<Long> usuarios = List.of();
+        Map<Long, Set<Long>> deseos = new HashMap<>();
+        Map<Long, List<Long>> guardadoPor = new HashMap<>();
+        Map<Long, Caracteristicas> outfits = new HashMap<>();
+        Map<Long, Double> factor = new HashMap<>();
+    }
+
+    /**
+     * Tarea que divide el rango de usuarios a la mitad hasta llegar al umbral y
+     * devuelve las recomendaciones de cada usuario en el mismo orden del rango.
+     */
+    private static class CalculoTask extends RecursiveTask<List<List<Puntuacion>>> {
+
+        private final transient Instantanea datos;
+        private final transient List<Long> usuarios;
+        private final int top;
+        private final int inicio;
+        private final int fin;
+
+        CalculoTask(Instantanea datos, List<Long> usuarios, int top, int inicio, int fin) {
+            this.datos = datos;
+            this.usuarios = usuarios;
+            this.top = top;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+
+        @Override
+        protected List<List<Puntuacion>> compute() {
+            if (fin - inicio <= UMBRAL_TAREA) {
+                List<List<Puntuacion>> resultado = new ArrayList<>(fin - inicio);
+                for (int i = inicio; i < fin; i++)
+                    resultado.add(puntuar(datos, usuarios.get(i), top));
+                return resultado;
+            }
+
+            int mitad = (inicio + fin) >>> 1;
+            CalculoTask izquierda = new CalculoTask(datos, usuarios, top, inicio, mitad);
+            CalculoTask derecha = new CalculoTask(datos, usuarios, top, mitad, fin);
+            izquierda.fork();
+            List<List<Puntuacion>> resultado = new ArrayList<>(derecha.compute());
+            resultado.addAll(0, izquierda.join());
+            return resultado;
+        }
+    }
+}
@@ -6,8 +6,10 @@ import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
 import co.edu.udistrital.mdp.back.repositories.CategoriaRepository;
 import co.edu.udistrital.mdp.back.repositories.OcasionRepository;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +25,9 @@ public class OcasionCategoriaService {
     @Autowired
     private CategoriaRepository categoriaRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public List<CategoriaEntity> getCategoriasPorOcasion(Long ocasionId) throws EntityNotFoundException {
         OcasionEntity ocasion = ocasionRepository.findById(ocasionId)
@@ -39,6 +44,8 @@ public class OcasionCategoriaService {
 
         ocasion.getCategorias().add(categoria);
         ocasionRepository.save(ocasion);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OCASION, ocasionId));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.CATEGORIA, categoriaId));
         return categoria;
     }
 
@@ -51,5 +58,7 @@ public class OcasionCategoriaService {
 
         ocasion.getCategorias().remove(categoria);
         ocasionRepository.save(ocasion);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OCASION, ocasionId));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.CATEGORIA, categoriaId));
     }
 }
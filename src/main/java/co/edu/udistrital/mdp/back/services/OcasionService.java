@@ -6,29 +6,47 @@ import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 import co.edu.udistrital.mdp.back.repositories.OcasionRepository;
 import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 @Slf4j
 @Service
 public class OcasionService {
 
+    /**
+     * Campos por los que se puede ordenar el listado paginado y su tipo
+     */
+    private static final Map<String, Class<?>> CAMPOS_ORDEN = Map.of(
+            "id", Long.class,
+            "nombre", String.class);
+
+    /**
+     * Mensaje de error por restricción única de la ocasión
+     */
+    private static final Map<String, String> RESTRICCIONES = Map.of(
+            "uk_ocasion_nombre", "Ya existe una ocasión con ese nombre");
+
     @Autowired
     private OcasionRepository ocasionRepository;
 
     @Autowired
     private OutfitRepository outfitRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Crear una nueva ocasión
      */
-    @Transactional
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public OcasionEntity createOcasion(final OcasionEntity ocasionEntity)
             throws IllegalOperationException {
 
@@ -36,12 +54,9 @@ public class OcasionService {
 
         validarOcasion(ocasionEntity);
 
-        // Evitar duplicados por nombre
-        if (ocasionRepository.existsByNombreIgnoreCase(ocasionEntity.getNombre())) {
-            throw new IllegalOperationException("Ya existe una ocasión con ese nombre");
-        }
-
-        OcasionEntity saved = ocasionRepository.save(ocasionEntity);
+        // Los duplicados por nombre los rechaza la base de datos
+        OcasionEntity saved = RestriccionesUnicas.guardar(ocasionRepository, ocasionEntity, RESTRICCIONES);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OCASION, saved.getId()));
         log.info("Finaliza proceso de creación de ocasión con id = {}", saved.getId());
         return saved;
     }
@@ -57,6 +72,22 @@ public class OcasionService {
         return ocasiones;
     }
 
+    /**
+     * Obtiene una página de ocasiones usando paginación por cursor (keyset).
+     *
+     * @param cursor Cursor devuelto por la página anterior, o nulo para la primera página.
+     * @param size   Tamaño de página solicitado.
+     * @param sort   Campo de ordenamiento, opcionalmente seguido de ",desc".
+     * @return Página de OcasionEntity con el cursor de la siguiente página.
+     * @throws IllegalOperationException si el cursor, el tamaño o el ordenamiento no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<OcasionEntity> getOcasiones(String cursor, Integer size, String sort)
+            throws IllegalOperationException {
+        log.info("Inicia proceso de consultar una página de ocasiones");
+        return KeysetPagination.page(ocasionRepository, ocasionRepository::findBy, cursor, size, sort, CAMPOS_ORDEN);
+    }
+
     /**
      * Consultar una ocasión por ID
      */
@@ -72,7 +103,7 @@ public class OcasionService {
     /**
      * Actualizar una ocasión
      */
-    @Transactional
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public OcasionEntity updateOcasion(final Long ocasionId, final OcasionEntity ocasionEntity)
             throws EntityNotFoundException, IllegalOperationException {
 
@@ -83,16 +114,11 @@ public class OcasionService {
 
         validarOcasion(ocasionEntity);
 
-        // Validar duplicado de nombre
-        Optional<OcasionEntity> duplicada = ocasionRepository.findByNombreIgnoreCase(ocasionEntity.getNombre());
-        if (duplicada.isPresent() && !duplicada.get().getId().equals(ocasionId)) {
-            throw new IllegalOperationException("Ya existe otra ocasión con ese nombre");
-        }
-
         existente.setNombre(ocasionEntity.getNombre());
         existente.setCategorias(ocasionEntity.getCategorias());
 
-        OcasionEntity updated = ocasionRepository.save(existente);
+        OcasionEntity updated = RestriccionesUnicas.guardar(ocasionRepository, existente, RESTRICCIONES);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OCASION, ocasionId));
         log.info("Finaliza proceso de actualización de la ocasión con id = {}", ocasionId);
         return updated;
     }
@@ -114,6 +140,7 @@ public class OcasionService {
         }
 
         ocasionRepository.delete(ocasion);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OCASION, ocasionId));
         log.info("Finaliza proceso de eliminación de la ocasión con id = {}", ocasionId);
     }
 
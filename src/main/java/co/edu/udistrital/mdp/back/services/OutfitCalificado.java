@@ -0,0 +1,16 @@
+package co.edu.udistrital.mdp.back.services;
+
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outfit del ranking de mejor calificados, con su puntaje bayesiano.
+ */
+@Getter
+@AllArgsConstructor
+public class OutfitCalificado {
+
+    private final OutfitEntity outfit;
+    private final double puntaje;
+}
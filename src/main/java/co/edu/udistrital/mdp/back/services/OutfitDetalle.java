@@ -0,0 +1,24 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.List;
+
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.RecomendacionEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Detalle de un outfit: el outfit con su imagen y las partes que se consultan por
+ * separado. Las entidades ya vienen cargadas con lo que se muestra en el detalle.
+ */
+@Getter
+@AllArgsConstructor
+public class OutfitDetalle {
+
+    private final OutfitEntity outfit;
+    private final List<PrendaEntity> prendas;
+    private final List<ListaDeseosEntity> listasDeseos;
+    private final List<RecomendacionEntity> recomendaciones;
+}
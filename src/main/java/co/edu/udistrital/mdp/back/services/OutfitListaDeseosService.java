@@ -1,6 +1,11 @@
 package co.edu.udistrital.mdp.back.services;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -24,12 +29,21 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class OutfitListaDeseosService {
 
+    static final int LIMITE_TAMBIEN_GUARDADOS = 10;
+    static final int LIMITE_MAXIMO_TAMBIEN_GUARDADOS = 100;
+
     @Autowired
     private OutfitRepository outfitRepository;
 
     @Autowired
     private ListaDeseosRepository listaDeseosRepository;
 
+    @Autowired
+    private TambienGuardadosIndex tambienGuardadosIndex;
+
+    @Autowired
+    private ListaDeseosOutfitService listaDeseosOutfitService;
+
     /**
      * Asocia una lista de deseos a un outfit.
      *
@@ -51,11 +65,11 @@ public class OutfitListaDeseosService {
         ListaDeseosEntity listaDeseos = listaDeseosRepository.findById(listaId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND));
 
-        if (outfit.getListasDeseos().contains(listaDeseos)) {
+        if (listaDeseosRepository.existsOutfit(listaId, outfit.getId())) {
             throw new IllegalOperationException("La lista ya está asociada a este outfit");
         }
 
-        outfit.getListasDeseos().add(listaDeseos);
+        listaDeseosOutfitService.cambiarOutfits(listaDeseos, List.of(outfitId), List.of());
         log.info("Finaliza proceso de asociar lista de deseos {} al outfit {}", listaId, outfitId);
 
         return listaDeseos;
@@ -99,7 +113,7 @@ public class OutfitListaDeseosService {
         ListaDeseosEntity listaDeseos = listaDeseosRepository.findById(listaId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND));
 
-        if (!outfit.getListasDeseos().contains(listaDeseos)) {
+        if (!listaDeseosRepository.existsOutfit(listaDeseos.getId(), outfit.getId())) {
             throw new IllegalOperationException("La lista de deseos no está asociada a este outfit");
         }
 
@@ -124,14 +138,23 @@ public class OutfitListaDeseosService {
         OutfitEntity outfit = outfitRepository.findById(outfitId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND));
 
+        List<ListaDeseosEntity> persistidas = new ArrayList<>();
         for (ListaDeseosEntity lista : nuevasListas) {
-            listaDeseosRepository.findById(lista.getId())
-                    .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND));
+            persistidas.add(listaDeseosRepository.findById(lista.getId())
+                    .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND)));
         }
 
-        outfit.setListasDeseos(nuevasListas);
+        // La relación se persiste desde la lista de deseos, que es el lado dueño
+        List<Long> nuevas = persistidas.stream().map(ListaDeseosEntity::getId).toList();
+        for (ListaDeseosEntity lista : List.copyOf(outfit.getListasDeseos())) {
+            if (!nuevas.contains(lista.getId()))
+                listaDeseosOutfitService.cambiarOutfits(lista, List.of(), List.of(outfitId));
+        }
+        for (ListaDeseosEntity lista : persistidas)
+            listaDeseosOutfitService.cambiarOutfits(lista, List.of(outfitId), List.of());
+
         log.info("Finaliza proceso de reemplazo de listas de deseos para el outfit {}", outfitId);
-        return nuevasListas;
+        return persistidas;
     }
 
     /**
@@ -151,7 +174,36 @@ public class OutfitListaDeseosService {
         ListaDeseosEntity listaDeseos = listaDeseosRepository.findById(listaId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.LISTADESEOS_NOT_FOUND));
 
-        outfit.getListasDeseos().remove(listaDeseos);
+        listaDeseosOutfitService.cambiarOutfits(listaDeseos, List.of(), List.of(outfit.getId()));
         log.info("Finaliza proceso de eliminar asociación de la lista de deseos {} del outfit {}", listaId, outfitId);
     }
+
+    /**
+     * Obtiene los outfits que más veces se han guardado junto con un outfit en
+     * las listas de deseos.
+     *
+     * @param outfitId Identificador del outfit.
+     * @param limite   Número máximo de outfits (por defecto 10, máximo 100).
+     * @return Outfits ordenados de más a menos listas compartidas.
+     * @throws EntityNotFoundException si el outfit no existe.
+     * @throws IllegalOperationException si el límite no es válido.
+     */
+    @Transactional
+    public List<OutfitEntity> getTambienGuardados(Long outfitId, Integer limite)
+            throws EntityNotFoundException, IllegalOperationException {
+        log.info("Inicia consulta de outfits guardados junto con el outfit {}", outfitId);
+
+        if (limite != null && limite < 1)
+            throw new IllegalOperationException("El límite debe ser mayor que cero");
+        if (!outfitRepository.existsById(outfitId))
+            throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
+
+        int k = limite == null ? LIMITE_TAMBIEN_GUARDADOS : Math.min(limite, LIMITE_MAXIMO_TAMBIEN_GUARDADOS);
+        List<Long> ids = Arrays.stream(tambienGuardadosIndex.getTop(outfitId, k)).boxed().toList();
+        Map<Long, OutfitEntity> outfits = outfitRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(OutfitEntity::getId, Function.identity()));
+
+        log.info("Finaliza consulta de outfits guardados junto con el outfit {}", outfitId);
+        return ids.stream().filter(outfits::containsKey).map(outfits::get).toList();
+    }
 }
@@ -1,10 +1,12 @@
 package co.edu.udistrital.mdp.back.services;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
@@ -16,6 +18,7 @@ import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 
 import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -27,6 +30,12 @@ public class OutfitPrendaService {
 	@Autowired
 	private PrendaRepository prendaRepository;
 
+	@Autowired
+	private PrecioOutfitService precioOutfitService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
     @Transactional
 	public PrendaEntity addPrenda(Long outfitId, Long prendaId) throws EntityNotFoundException {
 		log.info("Inicia proceso de asociarle una prenda al outfit con id = {0}", outfitId);
@@ -38,7 +47,7 @@ public class OutfitPrendaService {
 		if (outfitEntity.isEmpty())
 			throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
 
-		outfitEntity.get().getPrendas().add(prendaEntity.get());
+		asociar(outfitEntity.get(), prendaEntity.get());
 		log.info("Termina proceso de asociarle una prenda al outfit con id = {0}", outfitId);
 		return prendaEntity.get();
 	}
@@ -83,14 +92,20 @@ public class OutfitPrendaService {
 		if (outfitEntity.isEmpty())
 			throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
 
+		List<PrendaEntity> nuevas = new ArrayList<>();
 		for (PrendaEntity prenda : list) {
 			Optional<PrendaEntity> prendaEntity = prendaRepository.findById(prenda.getId());
 			if (prendaEntity.isEmpty())
 				throw new EntityNotFoundException(ErrorMessage.PRENDA_NOT_FOUND);
+			nuevas.add(prendaEntity.get());
+		}
 
-			if (!outfitEntity.get().getPrendas().contains(prendaEntity.get()))
-				outfitEntity.get().getPrendas().add(prendaEntity.get());
+		for (PrendaEntity prenda : new ArrayList<>(outfitEntity.get().getPrendas())) {
+			if (nuevas.stream().noneMatch(p -> p.getId().equals(prenda.getId())))
+				desasociar(outfitEntity.get(), prenda);
 		}
+		for (PrendaEntity prenda : nuevas)
+			asociar(outfitEntity.get(), prenda);
 		log.info("Termina proceso de reemplazar las prendas del outfit con id = {0}", outfitId);
 		return outfitEntity.get().getPrendas();
 	}
@@ -108,9 +123,36 @@ public class OutfitPrendaService {
 		if (outfitEntity.isEmpty())
 			throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
 
-		outfitEntity.get().getPrendas().remove(prendaEntity.get());
+		desasociar(outfitEntity.get(), prendaEntity.get());
 
 		log.info("Termina proceso de borrar una prenda del outfit con id = {0}", outfitId);
 	}
 
+	/**
+	 * Asocia la prenda al outfit por el lado dueño (prenda_outfit) y suma su precio al del outfit.
+	 */
+	private void asociar(OutfitEntity outfit, PrendaEntity prenda) {
+		if (prenda.getOutfits().stream().anyMatch(o -> o.getId().equals(outfit.getId())))
+			return;
+		prenda.getOutfits().add(outfit);
+		outfit.getPrendas().add(prenda);
+		precioOutfitService.sumar(List.of(outfit), PrecioOutfitService.precio(prenda));
+		publicarCambio(outfit, prenda);
+	}
+
+	/**
+	 * Desasocia la prenda del outfit y resta su precio del outfit si estaban asociados.
+	 */
+	private void desasociar(OutfitEntity outfit, PrendaEntity prenda) {
+		outfit.getPrendas().removeIf(p -> p.getId().equals(prenda.getId()));
+		if (prenda.getOutfits().removeIf(o -> o.getId().equals(outfit.getId()))) {
+			precioOutfitService.sumar(List.of(outfit), -PrecioOutfitService.precio(prenda));
+			publicarCambio(outfit, prenda);
+		}
+	}
+
+	private void publicarCambio(OutfitEntity outfit, PrendaEntity prenda) {
+		eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT, outfit.getId()));
+		eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.PRENDA, prenda.getId()));
+	}
 }
@@ -1,9 +1,12 @@
 package co.edu.udistrital.mdp.back.services;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,12 +21,22 @@ import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
 import co.edu.udistrital.mdp.back.repositories.RecomendacionRepository;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.services.BusquedaTextoIndex.Tipo;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
 public class OutfitService {
 
+    /**
+     * Campos por los que se puede ordenar el listado paginado y su tipo
+     */
+    private static final Map<String, Class<?>> CAMPOS_ORDEN = Map.of(
+            "id", Long.class,
+            "nombre", String.class,
+            "precioEstimado", Double.class);
+
     @Autowired
     OutfitRepository outfitRepository;
 
@@ -36,6 +49,12 @@ public class OutfitService {
     @Autowired
     RecomendacionRepository recomendacionRepository;
 
+    @Autowired
+    CalificacionesOutfitService calificacionesOutfitService;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
     
     @Transactional
     public OutfitEntity createOutfit(OutfitEntity outfitEntity)
@@ -58,10 +77,14 @@ public class OutfitService {
             throw new IllegalOperationException("Debe asociar al menos una prenda al outfit");
         }
 
+        List<PrendaEntity> prendas = new ArrayList<>();
         for (PrendaEntity prenda : outfitEntity.getPrendas()) {
-            if (prenda.getId() == null || prendaRepository.findById(prenda.getId()).isEmpty()) {
+            Optional<PrendaEntity> prendaEntity = prenda.getId() == null ? Optional.empty()
+                    : prendaRepository.findById(prenda.getId());
+            if (prendaEntity.isEmpty()) {
                 throw new IllegalOperationException("La prenda con id " + prenda.getId() + " no es válida");
             }
+            prendas.add(prendaEntity.get());
         }
 
      
@@ -74,8 +97,18 @@ public class OutfitService {
             }
         }
 
+        // El precio lo calcula el servidor; desde aquí se mantiene por diferencias (PrecioOutfitService)
+        outfitEntity.setPrendas(prendas);
+        outfitEntity.setPrecioEstimado(prendas.stream().mapToDouble(PrecioOutfitService::precio).sum());
+        OutfitEntity guardado = outfitRepository.save(outfitEntity);
+        for (PrendaEntity prenda : prendas) {
+            prenda.getOutfits().add(guardado);
+        }
+        eventPublisher.publishEvent(TextoModificadoEvent.guardado(Tipo.OUTFIT, guardado.getId(), guardado.getNombre()));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT, guardado.getId()));
+
         log.info("Termina proceso de creación del outfit");
-        return outfitRepository.save(outfitEntity);
+        return guardado;
     }
 
    
@@ -85,11 +118,28 @@ public class OutfitService {
         return outfitRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de outfits usando paginación por cursor (keyset).
+     *
+     * @param cursor Cursor devuelto por la página anterior, o nulo para la primera página.
+     * @param size   Tamaño de página solicitado.
+     * @param sort   Campo de ordenamiento, opcionalmente seguido de ",desc".
+     * @return Página de OutfitEntity con el cursor de la siguiente página.
+     * @throws IllegalOperationException si el cursor, el tamaño o el ordenamiento no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<OutfitEntity> getOutfits(String cursor, Integer size, String sort)
+            throws IllegalOperationException {
+        log.info("Inicia proceso de consultar una página de outfits");
+        return KeysetPagination.page(outfitRepository, outfitRepository::findBy, cursor, size, sort, CAMPOS_ORDEN,
+                "imagen", "categoria");
+    }
+
     
     @Transactional
     public OutfitEntity getOutfit(Long outfitId) throws EntityNotFoundException {
         log.info("Inicia proceso de consultar el outfit con id = {}", outfitId);
-        Optional<OutfitEntity> outfitEntity = outfitRepository.findById(outfitId);
+        Optional<OutfitEntity> outfitEntity = outfitRepository.findDetalleById(outfitId);
         if (outfitEntity.isEmpty())
             throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
         log.info("Termina proceso de consultar el outfit con id = {}", outfitId);
@@ -123,8 +173,14 @@ public class OutfitService {
         }
 
         outfit.setId(outfitId);
+        outfit.setPrecioEstimado(existingOutfit.get().getPrecioEstimado());
+        // Las calificaciones las mantienen los comentarios: el outfit de la petición no las trae
+        outfit.setCalificaciones(existingOutfit.get().getCalificaciones());
+        OutfitEntity guardado = outfitRepository.save(outfit);
+        eventPublisher.publishEvent(TextoModificadoEvent.guardado(Tipo.OUTFIT, outfitId, guardado.getNombre()));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT, outfitId));
         log.info("Termina proceso de actualizar el outfit con id = {}", outfitId);
-        return outfitRepository.save(outfit);
+        return guardado;
     }
 
 
@@ -135,7 +191,10 @@ public class OutfitService {
         if (outfitEntity.isEmpty())
             throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
 
+        calificacionesOutfitService.quitarOutfit(outfitEntity.get());
         outfitRepository.deleteById(outfitId);
+        eventPublisher.publishEvent(TextoModificadoEvent.eliminado(Tipo.OUTFIT, outfitId));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT, outfitId));
         log.info("Termina proceso de borrar el outfit con id = {}", outfitId);
     }
 }
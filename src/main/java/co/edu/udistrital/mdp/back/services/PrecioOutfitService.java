@@ -0,0 +1,154 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantiene el precio estimado de cada outfit igual a la suma de los precios de sus
+ * prendas (una prenda sin precio cuenta como 0).
+ *
+ * Cada cambio (asociar o desasociar una prenda, o cambiar su precio) se aplica solo
+ * como una diferencia sobre los outfits afectados, con un UPDATE atómico en la base
+ * de datos; nunca se vuelven a sumar las prendas. La verificación periódica sí
+ * recalcula las sumas, por lotes en paralelo, y corrige los outfits desviados.
+ */
+@Slf4j
+@Service
+public class PrecioOutfitService {
+
+    /**
+     * Diferencia máxima entre el precio guardado y el calculado que se atribuye al
+     * redondeo de las sumas sucesivas y no se corrige
+     */
+    private static final double TOLERANCIA = 0.005;
+
+    @Autowired
+    private OutfitRepository outfitRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${outfits.precio.verificacion.tamano-lote:1000}")
+    private int tamanoLote;
+
+    /**
+     * Precio de la prenda, o 0 si no tiene.
+     */
+    public static double precio(PrendaEntity prenda) {
+        return valor(prenda.getPrecio());
+    }
+
+    /**
+     * Suma la diferencia al precio de los outfits dados y recarga las instancias
+     * administradas para que no queden con el precio anterior.
+     *
+     * @param outfits Outfits afectados.
+     * @param delta   Diferencia a sumar.
+     */
+    public void sumar(Collection<OutfitEntity> outfits, double delta) {
+        if (delta == 0 || outfits.isEmpty())
+            return;
+        List<Long> ids = outfits.stream().map(OutfitEntity::getId).toList();
+        outfitRepository.sumarPrecio(ids, delta);
+        refrescar(outfits);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT, ids));
+    }
+
+    /**
+     * Propaga el cambio de precio de una prenda a todos los outfits que la contienen.
+     *
+     * @param prenda   Prenda con el precio nuevo, ya guardada.
+     * @param anterior Precio anterior de la prenda (nulo si es nueva).
+     */
+    public void propagarCambioPrecio(PrendaEntity prenda, Double anterior) {
+        double delta = precio(prenda) - valor(anterior);
+        if (delta == 0)
+            return;
+        int afectados = outfitRepository.sumarPrecioPorPrenda(prenda.getId(), delta);
+        log.info("Cambio de precio de la prenda con id = {} propagado a {} outfits", prenda.getId(), afectados);
+        // Si no se cargaron los outfits de la prenda solo cambia la versión del listado:
+        // el detalle de cada outfit ya cambia con la versión de las prendas
+        List<Long> ids = List.of();
+        if (Hibernate.isInitialized(prenda.getOutfits())) {
+            refrescar(prenda.getOutfits());
+            ids = prenda.getOutfits().stream().map(OutfitEntity::getId).toList();
+        }
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT, ids));
+    }
+
+    /**
+     * Verifica que el precio de cada outfit sea la suma de los precios de sus prendas
+     * y corrige los que se desviaron. Los lotes de outfits se verifican en paralelo,
+     * cada uno en su propia transacción.
+     *
+     * @return Número de outfits corregidos.
+     */
+    @Scheduled(cron = "${outfits.precio.verificacion.cron:0 30 3 * * *}")
+    public int verificarPrecios() {
+        log.info("Inicia proceso de verificación del precio de los outfits");
+        List<Long> ids = outfitRepository.findIdsOrdenados();
+        int lotes = (ids.size() + tamanoLote - 1) / tamanoLote;
+        int corregidos = IntStream.range(0, lotes).parallel()
+                .map(i -> {
+                    List<Long> lote = ids.subList(i * tamanoLote, Math.min((i + 1) * tamanoLote, ids.size()));
+                    return transactionTemplate.execute(estado -> verificarLote(lote));
+                })
+                .sum();
+        log.info("Finaliza proceso de verificación del precio de los outfits: {} de {} corregidos",
+                corregidos, ids.size());
+        return corregidos;
+    }
+
+    /**
+     * Corrige sumando la diferencia y no sobrescribiendo el precio, de modo que una
+     * actualización concurrente que ocurra después de la consulta no se pierda.
+     */
+    private int verificarLote(List<Long> ids) {
+        int corregidos = 0;
+        for (Object[] fila : outfitRepository.findPreciosCalculados(ids)) {
+            Double guardado = (Double) fila[1];
+            double calculado = ((Number) fila[2]).doubleValue();
+            if (guardado == null || Math.abs(calculado - guardado) > TOLERANCIA) {
+                log.warn("El precio del outfit con id = {} era {} y debía ser {}", fila[0], guardado, calculado);
+                outfitRepository.sumarPrecio(List.of((Long) fila[0]), calculado - valor(guardado));
+                eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT, (Long) fila[0]));
+                corregidos++;
+            }
+        }
+        return corregidos;
+    }
+
+    private void refrescar(Collection<OutfitEntity> outfits) {
+        for (OutfitEntity outfit : outfits) {
+            if (entityManager.contains(outfit))
+                entityManager.refresh(outfit);
+        }
+    }
+
+    private static double valor(Double precio) {
+        return precio == null ? 0 : precio;
+    }
+}
@@ -0,0 +1,254 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.services.PrendaModificadaEvent.Facetas;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice en memoria de las prendas por valor de cada faceta de búsqueda (color,
+ * marca, categoría y tienda).
+ *
+ * Cada valor de una faceta tiene un bitmap comprimido (Roaring) con los ids de sus
+ * prendas, de modo que filtrar es intersecar bitmaps y contar las prendas de cada
+ * valor es una intersección sin materializar. Los ids se guardan como enteros de 32
+ * bits. Se reconstruye desde la tabla de prendas al iniciar la aplicación y se
+ * actualiza con los eventos de cambio de las prendas una vez se confirma cada
+ * transacción.
+ */
+@Slf4j
+@Service
+public class PrendaFacetasIndex {
+
+    /**
+     * Facetas por las que se pueden filtrar las prendas.
+     */
+    public enum Faceta {
+        COLOR("color", Facetas::colorId),
+        MARCA("marca", Facetas::marcaId),
+        CATEGORIA("categoria", Facetas::categoriaId),
+        TIENDA("tienda", Facetas::tiendaId);
+
+        private final String parametro;
+        private final Function<Facetas, Long> valor;
+
+        Faceta(String parametro, Function<Facetas, Long> valor) {
+            this.parametro = parametro;
+            this.valor = valor;
+        }
+
+        /**
+         * Nombre de la faceta en los parámetros y en las respuestas.
+         */
+        public String getParametro() {
+            return parametro;
+        }
+    }
+
+    /**
+     * Resultado de una búsqueda en el índice.
+     *
+     * @param total   Número de prendas que cumplen los filtros.
+     * @param ids     Identificadores de la página pedida, en orden ascendente.
+     * @param conteos Por faceta, número de prendas de cada valor (de mayor a menor).
+     */
+    public record Resultado(long total, long[] ids, Map<Faceta, Map<Long, Integer>> conteos) {
+    }
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    private Indice indice = new Indice();
+
+    /**
+     * Busca las prendas que cumplen los filtros: dentro de una faceta basta con uno
+     * de los valores dados y entre facetas deben cumplirse todas. El conteo de cada
+     * faceta se calcula con los filtros de las demás, para que sus otros valores
+     * sigan mostrando cuántas prendas agregarían.
+     *
+     * @param filtros   Valores pedidos por faceta (las facetas sin valores no filtran).
+     * @param despuesDe Id de la última prenda de la página anterior, o 0.
+     * @param limite    Tamaño de la página.
+     * @return Total, página de ids y conteos por faceta.
+     */
+    public Resultado buscar(Map<Faceta, ? extends Collection<Long>> filtros, long despuesDe, int limite) {
+        candado.readLock().lock();
+        try {
+            Map<Faceta, RoaringBitmap> seleccion = new EnumMap<>(Faceta.class);
+            filtros.forEach((faceta, valores) -> {
+                if (valores != null && !valores.isEmpty())
+                    seleccion.put(faceta, union(indice.valores.get(faceta), valores));
+            });
+
+            RoaringBitmap coincidencias = interseccion(seleccion, null);
+            Map<Faceta, Map<Long, Integer>> conteos = new EnumMap<>(Faceta.class);
+            for (Faceta faceta : Faceta.values()) {
+                RoaringBitmap base = seleccion.containsKey(faceta) ? interseccion(seleccion, faceta) : coincidencias;
+                conteos.put(faceta, contar(base, indice.valores.get(faceta)));
+            }
+            return new Resultado(coincidencias.getLongCardinality(), pagina(coincidencias, despuesDe, limite),
+                    conteos);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void registrarCambio(PrendaModificadaEvent evento) {
+        int prenda = Math.toIntExact(evento.prendaId());
+        candado.writeLock().lock();
+        try {
+            if (evento.antes() != null)
+                indice.quitar(prenda, evento.antes());
+            if (evento.despues() != null)
+                indice.agregar(prenda, evento.despues());
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reconstruye el índice desde la tabla de prendas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        log.info("Inicia proceso de reconstrucción del índice de facetas de prendas");
+        Indice nuevo = new Indice();
+        for (Object[] fila : prendaRepository.findFacetas()) {
+            nuevo.agregar(Math.toIntExact((Long) fila[0]),
+                    new Facetas((Long) fila[1], (Long) fila[2], (Long) fila[3], (Long) fila[4]));
+        }
+        long bytes = nuevo.comprimir();
+
+        candado.writeLock().lock();
+        try {
+            indice = nuevo;
+        } finally {
+            candado.writeLock().unlock();
+        }
+        log.info("Finaliza proceso de reconstrucción del índice de facetas: {} prendas, {} bytes",
+                nuevo.todas.getCardinality(), bytes);
+    }
+
+    /**
+     * Intersección de los bitmaps seleccionados, sin el de la faceta excluida. Si no
+     * queda ninguno son todas las prendas. El resultado no se debe modificar.
+     */
+    private RoaringBitmap interseccion(Map<Faceta, RoaringBitmap> seleccion, Faceta excluida) {
+        RoaringBitmap resultado = null;
+        for (Map.Entry<Faceta, RoaringBitmap> entrada : seleccion.entrySet()) {
+            if (entrada.getKey() == excluida)
+                continue;
+            resultado = resultado == null ? entrada.getValue() : RoaringBitmap.and(resultado, entrada.getValue());
+        }
+        return resultado == null ? indice.todas : resultado;
+    }
+
+    private static RoaringBitmap union(Map<Long, RoaringBitmap> valores, Collection<Long> pedidos) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        for (Long valor : pedidos) {
+            RoaringBitmap bitmap = valores.get(valor);
+            if (bitmap != null)
+                bitmaps.add(bitmap);
+        }
+        return RoaringBitmap.or(bitmaps.iterator());
+    }
+
+    private Map<Long, Integer> contar(RoaringBitmap base, Map<Long, RoaringBitmap> valores) {
+        List<Map.Entry<Long, Integer>> conteos = new ArrayList<>();
+        for (Map.Entry<Long, RoaringBitmap> entrada : valores.entrySet()) {
+            int cantidad = base == indice.todas ? entrada.getValue().getCardinality()
+                    : RoaringBitmap.andCardinality(base, entrada.getValue());
+            if (cantidad > 0)
+                conteos.add(Map.entry(entrada.getKey(), cantidad));
+        }
+        conteos.sort(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        Map<Long, Integer> ordenados = new LinkedHashMap<>();
+        conteos.forEach(entrada -> ordenados.put(entrada.getKey(), entrada.getValue()));
+        return ordenados;
+    }
+
+    private static long[] pagina(RoaringBitmap coincidencias, long despuesDe, int limite) {
+        long[] ids = new long[limite];
+        int tamano = 0;
+        PeekableIntIterator iterador = coincidencias.getIntIterator();
+        if (despuesDe > 0)
+            iterador.advanceIfNeeded(Math.toIntExact(despuesDe + 1));
+        while (tamano < limite && iterador.hasNext())
+            ids[tamano++] = iterador.next();
+        return Arrays.copyOf(ids, tamano);
+    }
+
+    /**
+     * Bitmap de todas las prendas y, por faceta, bitmap de las prendas de cada valor.
+     */
+    private static class Indice {
+        private final RoaringBitmap todas = new RoaringBitmap();
+        private final Map<Faceta, Map<Long, RoaringBitmap>> valores = new EnumMap<>(Faceta.class);
+
+        Indice() {
+            for (Faceta faceta : Faceta.values())
+                valores.put(faceta, new HashMap<>());
+        }
+
+        void agregar(int prenda, Facetas facetas) {
+            todas.add(prenda);
+            for (Faceta faceta : Faceta.values()) {
+                Long valor = faceta.valor.apply(facetas);
+                if (valor != null)
+                    valores.get(faceta).computeIfAbsent(valor, v -> new RoaringBitmap()).add(prenda);
+            }
+        }
+
+        void quitar(int prenda, Facetas facetas) {
+            todas.remove(prenda);
+            for (Faceta faceta : Faceta.values()) {
+                Long valor = faceta.valor.apply(facetas);
+                RoaringBitmap bitmap = valor != null ? valores.get(faceta).get(valor) : null;
+                if (bitmap == null)
+                    continue;
+                bitmap.remove(prenda);
+                if (bitmap.isEmpty())
+                    valores.get(faceta).remove(valor);
+            }
+        }
+
+        /**
+         * Compacta los bitmaps (rangos consecutivos como corridas) y devuelve su tamaño en bytes.
+         */
+        long comprimir() {
+            todas.runOptimize();
+            long bytes = todas.getLongSizeInBytes();
+            for (Map<Long, RoaringBitmap> bitmaps : valores.values()) {
+                for (RoaringBitmap bitmap : bitmaps.values()) {
+                    bitmap.runOptimize();
+                    bytes += bitmap.getLongSizeInBytes();
+                }
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package co.edu.udistrital.mdp.back.services;
+
+import co.edu.udistrital.mdp.back.entities.BaseEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+
+/**
+ * Evento que se publica cuando se crea, actualiza o elimina una prenda. El índice
+ * de facetas lo usa para mover la prenda entre los valores de cada faceta.
+ *
+ * @param prendaId Identificador de la prenda.
+ * @param antes    Facetas de la prenda antes del cambio (nulo si es nueva).
+ * @param despues  Facetas de la prenda después del cambio (nulo si se eliminó).
+ */
+public record PrendaModificadaEvent(Long prendaId, Facetas antes, Facetas despues) {
+
+    /**
+     * Valores de las facetas de búsqueda de una prenda. Cualquiera puede ser nulo.
+     */
+    public record Facetas(Long colorId, Long marcaId, Long categoriaId, Long tiendaId) {
+
+        public static Facetas de(PrendaEntity prenda) {
+            return new Facetas(id(prenda.getColor()), id(prenda.getMarca()), id(prenda.getCategoria()),
+                    id(prenda.getTienda()));
+        }
+
+        private static Long id(BaseEntity entidad) {
+            return entidad != null ? entidad.getId() : null;
+        }
+    }
+
+    public static PrendaModificadaEvent creada(PrendaEntity prenda) {
+        return new PrendaModificadaEvent(prenda.getId(), null, Facetas.de(prenda));
+    }
+
+    public static PrendaModificadaEvent actualizada(PrendaEntity prenda, Facetas antes) {
+        return new PrendaModificadaEvent(prenda.getId(), antes, Facetas.de(prenda));
+    }
+
+    public static PrendaModificadaEvent eliminada(PrendaEntity prenda) {
+        return new PrendaModificadaEvent(prenda.getId(), Facetas.de(prenda), null);
+    }
+}
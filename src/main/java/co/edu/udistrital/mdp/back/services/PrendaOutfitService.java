@@ -1,10 +1,13 @@
 package co.edu.udistrital.mdp.back.services;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
@@ -16,6 +19,7 @@ import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 
 import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -27,6 +31,12 @@ public class PrendaOutfitService {
 	@Autowired
 	private PrendaRepository prendaRepository;
 
+	@Autowired
+	private PrecioOutfitService precioOutfitService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
     @Transactional
 	public OutfitEntity addOutfit(Long prendaId, Long outfitId) throws EntityNotFoundException {
 		log.info("Inicia proceso de asociarle un outfit a la prenda con id = {0}", prendaId);
@@ -39,7 +49,13 @@ public class PrendaOutfitService {
 		if (outfitEntity.isEmpty())
 			throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
 
-		outfitEntity.get().getPrendas().add(prendaEntity.get());
+		if (prendaEntity.get().getOutfits().stream().noneMatch(o -> o.getId().equals(outfitId))) {
+			prendaEntity.get().getOutfits().add(outfitEntity.get());
+			outfitEntity.get().getPrendas().add(prendaEntity.get());
+			precioOutfitService.sumar(List.of(outfitEntity.get()), PrecioOutfitService.precio(prendaEntity.get()));
+			eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT, outfitId));
+			eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.PRENDA, prendaId));
+		}
 		log.info("Termina proceso de asociarle un libro al autor con id = {0}", prendaId);
 		return outfitEntity.get();
 	}
@@ -84,15 +100,31 @@ public class PrendaOutfitService {
 		if (prendaEntity.isEmpty())
 			throw new EntityNotFoundException(ErrorMessage.PRENDA_NOT_FOUND);
 
+		List<OutfitEntity> nuevos = new ArrayList<>();
 		for (OutfitEntity outfit : outfits) {
 			Optional<OutfitEntity> bookEntity = outfitRepository.findById(outfit.getId());
 			if (bookEntity.isEmpty())
 				throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
-
+			nuevos.add(bookEntity.get());
 		}
+
+		PrendaEntity prenda = prendaEntity.get();
+		List<OutfitEntity> retirados = prenda.getOutfits().stream()
+				.filter(o -> nuevos.stream().noneMatch(n -> n.getId().equals(o.getId()))).toList();
+		List<OutfitEntity> agregados = nuevos.stream()
+				.filter(n -> prenda.getOutfits().stream().noneMatch(o -> o.getId().equals(n.getId()))).toList();
+		retirados.forEach(o -> o.getPrendas().removeIf(p -> p.getId().equals(prendaId)));
+		agregados.forEach(o -> o.getPrendas().add(prenda));
+		prenda.setOutfits(nuevos);
+
+		double precio = PrecioOutfitService.precio(prenda);
+		precioOutfitService.sumar(retirados, -precio);
+		precioOutfitService.sumar(agregados, precio);
+		eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT,
+				Stream.concat(retirados.stream(), agregados.stream()).map(OutfitEntity::getId).toList()));
+		eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.PRENDA, prendaId));
 		log.info("Finaliza proceso de reemplazar los outfits asociados a la prenda con id = {0}", prendaId);
-		prendaEntity.get().setOutfits(outfits);
-		return prendaEntity.get().getOutfits();
+		return prenda.getOutfits();
 	}
 
 
@@ -107,8 +139,12 @@ public class PrendaOutfitService {
 		if (outfitEntity.isEmpty())
 			throw new EntityNotFoundException(ErrorMessage.OUTFIT_NOT_FOUND);
 
-		outfitEntity.get().getPrendas().remove(prendaEntity.get());
-		prendaEntity.get().getOutfits().remove(outfitEntity.get());
+		outfitEntity.get().getPrendas().removeIf(p -> p.getId().equals(prendaId));
+		if (prendaEntity.get().getOutfits().removeIf(o -> o.getId().equals(outfitId))) {
+			precioOutfitService.sumar(List.of(outfitEntity.get()), -PrecioOutfitService.precio(prendaEntity.get()));
+			eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.OUTFIT, outfitId));
+			eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.PRENDA, prendaId));
+		}
 		log.info("Finaliza proceso de borrar un libro del author con id = {0}", prendaId);
 	}
 }
@@ -1,21 +1,43 @@
 package co.edu.udistrital.mdp.back.services;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import co.edu.udistrital.mdp.back.entities.BaseEntity;
 import co.edu.udistrital.mdp.back.entities.PrendaEntity;
 import co.edu.udistrital.mdp.back.entities.MarcaEntity;
 import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.entities.TiendaEntity;
 import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
 import co.edu.udistrital.mdp.back.repositories.MarcaRepository;
 import co.edu.udistrital.mdp.back.repositories.CategoriaRepository;
+import co.edu.udistrital.mdp.back.repositories.ColorRepository;
+import co.edu.udistrital.mdp.back.repositories.TiendaRepository;
+import co.edu.udistrital.mdp.back.services.BusquedaPrendas.ValorFaceta;
+import co.edu.udistrital.mdp.back.services.BusquedaTextoIndex.Tipo;
+import co.edu.udistrital.mdp.back.services.PrendaFacetasIndex.Faceta;
+import co.edu.udistrital.mdp.back.services.PrendaModificadaEvent.Facetas;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -23,6 +45,10 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class PrendaService {
 
+    private static final String ID = "id";
+    private static final Sort ORDEN = Sort.by(ID);
+    private static final Map<String, Class<?>> CAMPOS_ORDEN = Map.of(ID, Long.class);
+
     @Autowired
     private PrendaRepository prendaRepository;
 
@@ -32,6 +58,21 @@ public class PrendaService {
     @Autowired
     private CategoriaRepository categoriaRepository;
 
+    @Autowired
+    private ColorRepository colorRepository;
+
+    @Autowired
+    private TiendaRepository tiendaRepository;
+
+    @Autowired
+    private PrecioOutfitService precioOutfitService;
+
+    @Autowired
+    private PrendaFacetasIndex prendaFacetasIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public PrendaEntity createPrenda(PrendaEntity prenda) throws EntityNotFoundException, IllegalOperationException {
         log.info("Inicia proceso de crear prenda");
@@ -51,8 +92,13 @@ public class PrendaService {
         prenda.setMarca(marca);
         prenda.setCategoria(categoria);
 
+        PrendaEntity guardada = prendaRepository.save(prenda);
+        precioOutfitService.propagarCambioPrecio(guardada, null);
+        eventPublisher.publishEvent(PrendaModificadaEvent.creada(guardada));
+        eventPublisher.publishEvent(TextoModificadoEvent.guardado(Tipo.PRENDA, guardada.getId(), guardada.getNombre()));
         log.info("Prenda creada correctamente");
-        return prendaRepository.save(prenda);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.PRENDA, guardada.getId()));
+        return guardada;
     }
 
     @Transactional
@@ -76,14 +122,22 @@ public class PrendaService {
         if (prendaDetails.getImagen() == null)
             throw new IllegalOperationException("La prenda debe tener imagen");
 
+        Facetas antes = Facetas.de(prenda);
         prenda.setNombre(prendaDetails.getNombre());
         prenda.setMarca(marca);
         prenda.setCategoria(categoria);
         prenda.setColor(prendaDetails.getColor());
         prenda.setImagen(prendaDetails.getImagen());
+        Double precioAnterior = prenda.getPrecio();
+        prenda.setPrecio(prendaDetails.getPrecio());
 
+        PrendaEntity guardada = prendaRepository.save(prenda);
+        precioOutfitService.propagarCambioPrecio(guardada, precioAnterior);
+        eventPublisher.publishEvent(PrendaModificadaEvent.actualizada(guardada, antes));
+        eventPublisher.publishEvent(TextoModificadoEvent.guardado(Tipo.PRENDA, guardada.getId(), guardada.getNombre()));
         log.info("Prenda actualizada correctamente");
-        return prendaRepository.save(prenda);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.PRENDA, guardada.getId()));
+        return guardada;
     }
 
     @Transactional
@@ -98,6 +152,9 @@ public class PrendaService {
             throw new IllegalOperationException("No se puede eliminar la prenda, tiene imágenes o está en outfits");
 
         prendaRepository.delete(prenda);
+        eventPublisher.publishEvent(PrendaModificadaEvent.eliminada(prenda));
+        eventPublisher.publishEvent(TextoModificadoEvent.eliminado(Tipo.PRENDA, prendaId));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.PRENDA, prendaId));
         log.info("Prenda eliminada correctamente");
     }
 
@@ -105,8 +162,87 @@ public class PrendaService {
         return prendaRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de prendas, por id, usando paginación por cursor (keyset).
+     *
+     * @param cursor Cursor devuelto por la página anterior, o nulo para la primera página.
+     * @param size   Tamaño de página solicitado.
+     * @return Página de PrendaEntity con el cursor de la siguiente página.
+     * @throws IllegalOperationException si el cursor o el tamaño no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<PrendaEntity> getPrendas(String cursor, Integer size) throws IllegalOperationException {
+        log.info("Inicia proceso de consultar una página de prendas");
+        ScrollPosition posicion = KeysetPagination.position(cursor, ORDEN, CAMPOS_ORDEN);
+        return KeysetPagination.page(prendaRepository.findBy(posicion, ORDEN, KeysetPagination.limit(size)));
+    }
+
     public PrendaEntity getPrendaById(Long prendaId) throws EntityNotFoundException {
         return prendaRepository.findById(prendaId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.PRENDA_NOT_FOUND));
     }
+
+    /**
+     * Busca prendas por color, marca, categoría y tienda usando el índice de facetas.
+     * Dentro de una faceta basta con uno de los valores pedidos; entre facetas deben
+     * cumplirse todas. Las prendas se paginan por id con cursor.
+     *
+     * @param filtros Identificadores pedidos por faceta.
+     * @param cursor  Cursor devuelto por la página anterior, o nulo para la primera página.
+     * @param size    Tamaño de página solicitado.
+     * @return Página de prendas, total y conteos por valor de cada faceta.
+     * @throws IllegalOperationException si el cursor o el tamaño no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public BusquedaPrendas buscarPrendas(Map<Faceta, List<Long>> filtros, String cursor, Integer size)
+            throws IllegalOperationException {
+        log.info("Inicia proceso de búsqueda de prendas por facetas");
+        int limite = KeysetPagination.limit(size).max();
+        ScrollPosition posicion = KeysetPagination.position(cursor, ORDEN, CAMPOS_ORDEN);
+        long despuesDe = posicion.isInitial() ? 0 : (Long) ((KeysetScrollPosition) posicion).getKeys().get(ID);
+
+        PrendaFacetasIndex.Resultado resultado = prendaFacetasIndex.buscar(filtros, despuesDe, limite + 1);
+        long[] ids = Arrays.copyOf(resultado.ids(), Math.min(limite, resultado.ids().length));
+        String siguiente = resultado.ids().length > limite
+                ? KeysetPagination.cursor(Map.of(ID, ids[ids.length - 1]))
+                : null;
+
+        Map<Long, PrendaEntity> porId = prendaRepository.findAllById(Arrays.stream(ids).boxed().toList()).stream()
+                .collect(Collectors.toMap(PrendaEntity::getId, Function.identity()));
+        List<PrendaEntity> prendas = new ArrayList<>();
+        for (long id : ids) {
+            if (porId.containsKey(id))
+                prendas.add(porId.get(id));
+        }
+
+        Map<String, List<ValorFaceta>> facetas = new LinkedHashMap<>();
+        resultado.conteos().forEach((faceta, conteos) -> {
+            Map<Long, String> nombres = nombres(faceta, conteos.keySet());
+            facetas.put(faceta.getParametro(), conteos.entrySet().stream()
+                    .map(conteo -> new ValorFaceta(conteo.getKey(), nombres.get(conteo.getKey()), conteo.getValue()))
+                    .toList());
+        });
+        log.info("Finaliza proceso de búsqueda de prendas por facetas: {} prendas", resultado.total());
+        return new BusquedaPrendas(resultado.total(), new KeysetPage<>(prendas, siguiente), facetas);
+    }
+
+    /**
+     * Nombres de los valores de una faceta, por id.
+     */
+    private Map<Long, String> nombres(Faceta faceta, Collection<Long> ids) {
+        if (ids.isEmpty())
+            return Map.of();
+        return switch (faceta) {
+            case COLOR -> nombres(colorRepository.findAllById(ids), ColorEntity::getNombre);
+            case MARCA -> nombres(marcaRepository.findAllById(ids), MarcaEntity::getNombre);
+            case CATEGORIA -> nombres(categoriaRepository.findAllById(ids), CategoriaEntity::getNombre);
+            case TIENDA -> nombres(tiendaRepository.findAllById(ids), TiendaEntity::getNombre);
+        };
+    }
+
+    private static <T extends BaseEntity> Map<Long, String> nombres(List<T> entidades, Function<T, String> nombre) {
+        Map<Long, String> nombres = new HashMap<>();
+        entidades.forEach(entidad -> nombres.put(entidad.getId(), nombre.apply(entidad)));
+        return nombres;
+    }
 }
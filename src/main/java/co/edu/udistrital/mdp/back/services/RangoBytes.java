@@ -0,0 +1,62 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.Locale;
+
+/**
+ * Rango de bytes pedido con el encabezado HTTP {@code Range} (RFC 9110, sección 14).
+ * Solo se atiende un rango; si se piden varios se responde el contenido completo,
+ * como permite la norma.
+ *
+ * @param inicio Primer byte del rango.
+ * @param fin    Último byte del rango, incluido.
+ */
+public record RangoBytes(long inicio, long fin) {
+
+    /** Rango que no se puede satisfacer: empieza después del final del contenido */
+    public static final RangoBytes NO_SATISFACIBLE = new RangoBytes(-1, -1);
+
+    private static final String UNIDAD = "bytes=";
+
+    /**
+     * Interpreta el encabezado {@code Range} para un contenido del tamaño dado.
+     *
+     * @param encabezado Valor del encabezado, o nulo si no se envió.
+     * @param tamano     Tamaño del contenido en bytes.
+     * @return El rango pedido, {@link #NO_SATISFACIBLE}, o nulo si se debe responder
+     *         el contenido completo (sin encabezado, inválido o con varios rangos).
+     */
+    public static RangoBytes de(String encabezado, long tamano) {
+        if (encabezado == null || !encabezado.toLowerCase(Locale.ROOT).startsWith(UNIDAD))
+            return null;
+        String rango = encabezado.substring(UNIDAD.length()).trim();
+        int guion = rango.indexOf('-');
+        if (rango.indexOf(',') >= 0 || guion < 0)
+            return null;
+        try {
+            String desde = rango.substring(0, guion).trim();
+            String hasta = rango.substring(guion + 1).trim();
+            if (desde.isEmpty()) {
+                // Sufijo: los últimos n bytes
+                long ultimos = Long.parseLong(hasta);
+                if (ultimos < 0)
+                    return null;
+                if (ultimos == 0)
+                    return NO_SATISFACIBLE;
+                return new RangoBytes(Math.max(0, tamano - ultimos), tamano - 1);
+            }
+            long inicio = Long.parseLong(desde);
+            long fin = hasta.isEmpty() ? Long.MAX_VALUE : Long.parseLong(hasta);
+            if (inicio < 0 || fin < inicio)
+                return null;
+            if (inicio >= tamano)
+                return NO_SATISFACIBLE;
+            return new RangoBytes(inicio, Math.min(fin, tamano - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long longitud() {
+        return fin - inicio + 1;
+    }
+}
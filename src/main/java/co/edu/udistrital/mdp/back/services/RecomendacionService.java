@@ -9,9 +9,11 @@ import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
 import co.edu.udistrital.mdp.back.repositories.RecomendacionRepository;
 import co.edu.udistrital.mdp.back.repositories.UsuarioRepository;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +32,9 @@ public class RecomendacionService {
 
     @Autowired
     private OutfitRepository outfitRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     /**
      * Crear una nueva recomendación
@@ -62,6 +67,7 @@ public class RecomendacionService {
     recomendacionEntity.setOutfit(outfit);
 
     RecomendacionEntity saved = recomendacionRepository.save(recomendacionEntity);
+    eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.RECOMENDACION, saved.getId()));
 
     log.info("Finaliza proceso de creación de recomendación con id = {}", saved.getId());
     return saved;
@@ -110,6 +116,7 @@ public class RecomendacionService {
 
         recomendacionEntity.setId(recomendacionId);
         RecomendacionEntity updated = recomendacionRepository.save(recomendacionEntity);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.RECOMENDACION, recomendacionId));
 
         log.info("Finaliza proceso de actualización de recomendación con id = {}", recomendacionId);
         return updated;
@@ -136,6 +143,7 @@ public class RecomendacionService {
         }
 
         recomendacionRepository.deleteById(recomendacionId);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.RECOMENDACION, recomendacionId));
 
         log.info("Finaliza proceso de eliminación de recomendación con id = {}", recomendacionId);
     }
@@ -0,0 +1,16 @@
+package co.edu.udistrital.mdp.back.services;
+
+/**
+ * Recibe un listado con una colección anidada a medida que se lee: cada elemento y
+ * después sus hijos, en orden. Lo usan los listados que se escriben en la respuesta
+ * sin armar antes todo el grafo de DTO.
+ *
+ * @param <P> Tipo de los elementos del listado.
+ * @param <H> Tipo de los elementos de la colección anidada.
+ */
+public interface RecorridoAnidado<P, H> {
+
+    void padre(P padre);
+
+    void hijo(H hijo);
+}
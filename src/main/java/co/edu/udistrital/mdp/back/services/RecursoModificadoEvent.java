@@ -0,0 +1,25 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.Collection;
+import java.util.List;
+
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+
+/**
+ * Evento que se publica cuando un servicio crea, modifica o elimina entidades de un
+ * recurso, o cambia sus relaciones. Las versiones de los recursos lo usan para
+ * invalidar las ETag de sus respuestas.
+ *
+ * @param recurso Recurso modificado.
+ * @param ids     Identificadores de las entidades modificadas.
+ */
+public record RecursoModificadoEvent(Recurso recurso, Collection<Long> ids) {
+
+    public static RecursoModificadoEvent de(Recurso recurso, Long id) {
+        return new RecursoModificadoEvent(recurso, List.of(id));
+    }
+
+    public static RecursoModificadoEvent de(Recurso recurso, Collection<Long> ids) {
+        return new RecursoModificadoEvent(recurso, List.copyOf(ids));
+    }
+}
@@ -0,0 +1,59 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+
+/**
+ * Guarda una entidad dejando que la base de datos verifique la unicidad de sus
+ * nombres: en lugar de consultar antes de insertar, se envía el INSERT (o el
+ * UPDATE) y si viola una de las restricciones únicas conocidas se traduce al
+ * IllegalOperationException con el mensaje de esa restricción.
+ *
+ * Los métodos que lo usan deben declarar rollbackFor = IllegalOperationException,
+ * porque la transacción queda marcada para deshacerse.
+ */
+final class RestriccionesUnicas {
+
+    private RestriccionesUnicas() {
+    }
+
+    /**
+     * @param repositorio Repositorio de la entidad.
+     * @param entidad     Entidad a guardar.
+     * @param mensajes    Mensaje de error por nombre de restricción única.
+     * @return La entidad guardada.
+     * @throws IllegalOperationException si se viola una de las restricciones dadas.
+     */
+    static <T> T guardar(JpaRepository<T, Long> repositorio, T entidad, Map<String, String> mensajes)
+            throws IllegalOperationException {
+        try {
+            return repositorio.saveAndFlush(entidad);
+        } catch (DataIntegrityViolationException e) {
+            String violada = restriccion(e);
+            for (Map.Entry<String, String> mensaje : mensajes.entrySet()) {
+                if (violada.contains(mensaje.getKey().toLowerCase(Locale.ROOT)))
+                    throw new IllegalOperationException(mensaje.getValue());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Nombre de la restricción violada (o el mensaje del driver si Hibernate no lo
+     * pudo extraer), en minúsculas.
+     */
+    private static String restriccion(DataIntegrityViolationException e) {
+        String nombre = e.getCause() instanceof ConstraintViolationException violacion
+                ? violacion.getConstraintName()
+                : null;
+        if (nombre == null)
+            nombre = String.valueOf(e.getMostSpecificCause().getMessage());
+        return nombre.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,19 @@
+package co.edu.udistrital.mdp.back.services;
+
+import co.edu.udistrital.mdp.back.services.BusquedaTextoIndex.Tipo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Documento encontrado por la búsqueda de texto: qué entidad es, su texto y el
+ * puntaje con que coincidió.
+ */
+@Getter
+@AllArgsConstructor
+public class ResultadoBusquedaTexto {
+
+    private final Tipo tipo;
+    private final Long id;
+    private final String texto;
+    private final double puntaje;
+}
@@ -0,0 +1,46 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * Reporte de una importación del catálogo: cuántos registros se leyeron, cuántos
+ * se crearon de cada tipo y cuáles fallaron (con su línea en el archivo).
+ */
+@Data
+public class ResultadoImportacion {
+
+    /** Número máximo de errores que se detallan en el reporte */
+    public static final int MAX_ERRORES = 100;
+
+    private int procesados;
+    private int fallidos;
+    private int lotes;
+    private long duracionMs;
+    private double registrosPorSegundo;
+    private Map<String, Integer> creados = new LinkedHashMap<>();
+    private List<ErrorImportacion> errores = new ArrayList<>();
+
+    /**
+     * Error de un registro del archivo importado.
+     *
+     * @param linea   Línea del archivo (empezando en 1).
+     * @param mensaje Descripción del error.
+     */
+    public record ErrorImportacion(int linea, String mensaje) {
+    }
+
+    void registrarError(int linea, String mensaje) {
+        registrarError(linea, mensaje, 1);
+    }
+
+    void registrarError(int linea, String mensaje, int registros) {
+        fallidos += registros;
+        if (errores.size() < MAX_ERRORES)
+            errores.add(new ErrorImportacion(linea, mensaje));
+    }
+}
@@ -0,0 +1,283 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import co.edu.udistrital.mdp.back.repositories.ListaDeseosRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice en memoria de cuántas listas de deseos tienen a la vez cada par de outfits.
+ *
+ * Es una matriz dispersa y simétrica: cada outfit tiene una fila (tabla long a long)
+ * con los outfits guardados junto a él y el número de listas en que coinciden. Junto
+ * a ella se guarda el contenido de cada lista, para que los eventos de cambio solo
+ * tengan que traer los outfits que entraron y salieron. Se reconstruye desde
+ * lista_outfit al iniciar la aplicación y se actualiza con esos eventos una vez se
+ * confirma cada transacción.
+ */
+@Slf4j
+@Service
+public class TambienGuardadosIndex {
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    @Autowired
+    private ListaDeseosRepository listaDeseosRepository;
+
+    private Matriz matriz = new Matriz();
+
+    /**
+     * Devuelve los outfits guardados más veces junto con el outfit dado, de mayor a
+     * menor número de listas compartidas (los empates por id ascendente).
+     *
+     * @param outfitId Identificador del outfit.
+     * @param limite   Número máximo de outfits a devolver.
+     * @return Identificadores de los outfits.
+     */
+    public long[] getTop(long outfitId, int limite) {
+        candado.readLock().lock();
+        try {
+            LongLongHashMap fila = matriz.fila(outfitId, false);
+            if (fila == null)
+                return new long[0];
+
+            Seleccion seleccion = new Seleccion(Math.min(limite, fila.size()));
+            fila.forEach(seleccion);
+            return Arrays.copyOf(seleccion.ids, seleccion.tamano);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de listas de deseos que tienen a la vez los dos outfits.
+     */
+    public long getVeces(long outfitId, long otroId) {
+        candado.readLock().lock();
+        try {
+            LongLongHashMap fila = matriz.fila(outfitId, false);
+            return fila == null ? 0 : fila.get(otroId);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Actualiza los conteos con el cambio de contenido de una lista de deseos. Solo
+     * se tocan los pares de algún outfit agregado o quitado: con los que siguen en la
+     * lista y entre ellos mismos, de modo que el costo crece con el tamaño del cambio
+     * por el de la lista y no con el cuadrado de la lista. Los outfits que ya estaban
+     * (o que ya no estaban) en la lista se ignoran.
+     *
+     * @param listaId   Identificador de la lista de deseos.
+     * @param agregados Outfits que entraron a la lista.
+     * @param quitados  Outfits que salieron de la lista.
+     */
+    public void actualizar(Long listaId, List<Long> agregados, List<Long> quitados) {
+        candado.writeLock().lock();
+        try {
+            LongLongHashMap contenido = matriz.contenidos.computeIfAbsent(listaId, id -> new LongLongHashMap());
+            long[] salen = distintos(quitados.stream().filter(id -> contenido.get(id) != 0).toList());
+            for (long outfit : salen)
+                contenido.put(outfit, 0);
+            long[] entran = distintos(agregados.stream().filter(id -> contenido.get(id) == 0).toList());
+
+            sumarPares(salen, contenido, -1);
+            sumarPares(entran, contenido, 1);
+            for (long outfit : entran)
+                contenido.put(outfit, 1);
+            if (contenido.isEmpty())
+                matriz.contenidos.remove(listaId);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suma delta a los pares de cada outfit cambiado con los que siguen en la lista y
+     * a los pares entre los cambiados.
+     */
+    private void sumarPares(long[] cambiados, LongLongHashMap comunes, long delta) {
+        for (int i = 0; i < cambiados.length; i++) {
+            long cambiado = cambiados[i];
+            comunes.forEach((comun, presente) -> matriz.sumarPar(cambiado, comun, delta));
+            for (int j = i + 1; j < cambiados.length; j++)
+                matriz.sumarPar(cambiado, cambiados[j], delta);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void registrarCambio(ListaDeseosModificadaEvent evento) {
+        actualizar(evento.listaId(), evento.agregados(), evento.quitados());
+    }
+
+    /**
+     * Reconstruye el índice desde la tabla lista_outfit. Las filas se reparten entre
+     * los núcleos según el outfit, de modo que cada partición se arma sin
+     * sincronización y al final solo se unen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        log.info("Inicia proceso de reconstrucción del índice de outfits guardados juntos");
+        Map<Long, long[]> contenidos = agruparPorLista(listaDeseosRepository.findParesListaOutfit());
+        List<long[]> listas = List.copyOf(contenidos.values());
+
+        int particiones = ForkJoinPool.getCommonPoolParallelism();
+        List<Matriz> partes = IntStream.range(0, particiones).parallel()
+                .mapToObj(p -> construirParticion(listas, p, particiones))
+                .toList();
+
+        Matriz nueva = new Matriz();
+        for (Matriz parte : partes) {
+            parte.posiciones.forEach((outfit, posicion) -> {
+                nueva.filas.add(parte.filas.get((int) posicion - 1));
+                nueva.posiciones.put(outfit, nueva.filas.size());
+            });
+        }
+        contenidos.forEach((listaId, outfits) -> {
+            LongLongHashMap contenido = new LongLongHashMap(outfits.length);
+            for (long outfit : outfits)
+                contenido.put(outfit, 1);
+            nueva.contenidos.put(listaId, contenido);
+        });
+
+        candado.writeLock().lock();
+        try {
+            matriz = nueva;
+        } finally {
+            candado.writeLock().unlock();
+        }
+        log.info("Finaliza proceso de reconstrucción del índice: {} listas, {} outfits", listas.size(),
+                nueva.filas.size());
+    }
+
+    private static Matriz construirParticion(List<long[]> listas, int particion, int particiones) {
+        Matriz parte = new Matriz();
+        for (long[] outfits : listas) {
+            for (long outfit : outfits) {
+                if (Math.floorMod(Long.hashCode(outfit), particiones) != particion)
+                    continue;
+                LongLongHashMap fila = parte.fila(outfit, true);
+                for (long otro : outfits) {
+                    if (otro != outfit)
+                        fila.sumar(otro, 1);
+                }
+            }
+        }
+        return parte;
+    }
+
+    /**
+     * Convierte los pares [listaId, outfitId] ordenados por lista en un arreglo de
+     * outfits distintos por lista.
+     */
+    private static Map<Long, long[]> agruparPorLista(List<Object[]> pares) {
+        Map<Long, long[]> listas = new LinkedHashMap<>();
+        long[] actual = new long[8];
+        int tamano = 0;
+        Long listaActual = null;
+        for (Object[] par : pares) {
+            if (!par[0].equals(listaActual)) {
+                if (tamano > 0)
+                    listas.put(listaActual, distintos(Arrays.copyOf(actual, tamano)));
+                listaActual = (Long) par[0];
+                tamano = 0;
+            }
+            if (tamano == actual.length)
+                actual = Arrays.copyOf(actual, tamano * 2);
+            actual[tamano++] = (Long) par[1];
+        }
+        if (tamano > 0)
+            listas.put(listaActual, distintos(Arrays.copyOf(actual, tamano)));
+        return listas;
+    }
+
+    private static long[] distintos(List<Long> outfits) {
+        return distintos(outfits.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private static long[] distintos(long[] outfits) {
+        return Arrays.stream(outfits).sorted().distinct().toArray();
+    }
+
+    /**
+     * Filas de la matriz: posiciones guarda, por outfit, la posición de su fila más uno.
+     * contenidos guarda, por lista, sus outfits como llaves con valor uno.
+     */
+    private static class Matriz {
+        private final LongLongHashMap posiciones = new LongLongHashMap();
+        private final List<LongLongHashMap> filas = new ArrayList<>();
+        private final Map<Long, LongLongHashMap> contenidos = new HashMap<>();
+
+        LongLongHashMap fila(long outfit, boolean crear) {
+            long posicion = posiciones.get(outfit);
+            if (posicion > 0)
+                return filas.get((int) posicion - 1);
+            if (!crear)
+                return null;
+            LongLongHashMap fila = new LongLongHashMap();
+            filas.add(fila);
+            posiciones.put(outfit, filas.size());
+            return fila;
+        }
+
+        void sumarPar(long a, long b, long delta) {
+            sumar(a, b, delta);
+            sumar(b, a, delta);
+        }
+
+        private void sumar(long outfit, long otro, long delta) {
+            LongLongHashMap fila = fila(outfit, delta > 0);
+            // Un conteo que ya está en cero no se vuelve negativo
+            if (fila != null && (delta > 0 || fila.get(otro) > 0))
+                fila.sumar(otro, delta);
+        }
+    }
+
+    /**
+     * Selección de los k mayores conteos de una fila en arreglos primitivos.
+     */
+    private static class Seleccion implements LongLongHashMap.Consumidor {
+        private final long[] ids;
+        private final long[] veces;
+        private int tamano;
+
+        Seleccion(int limite) {
+            ids = new long[limite];
+            veces = new long[limite];
+        }
+
+        @Override
+        public void aceptar(long id, long conteo) {
+            if (ids.length == 0 || (tamano == ids.length && !mejor(id, conteo, tamano - 1)))
+                return;
+
+            int i = tamano == ids.length ? tamano - 1 : tamano++;
+            while (i > 0 && mejor(id, conteo, i - 1)) {
+                ids[i] = ids[i - 1];
+                veces[i] = veces[i - 1];
+                i--;
+            }
+            ids[i] = id;
+            veces[i] = conteo;
+        }
+
+        private boolean mejor(long id, long conteo, int posicion) {
+            return conteo > veces[posicion] || (conteo == veces[posicion] && id < ids[posicion]);
+        }
+    }
+}
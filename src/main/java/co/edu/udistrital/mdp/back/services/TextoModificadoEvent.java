@@ -0,0 +1,22 @@
+package co.edu.udistrital.mdp.back.services;
+
+import co.edu.udistrital.mdp.back.services.BusquedaTextoIndex.Tipo;
+
+/**
+ * Evento que se publica cuando cambia el texto buscable de una prenda, outfit,
+ * marca o comentario. El índice de búsqueda de texto lo usa para reindexarlo.
+ *
+ * @param tipo  Tipo del documento.
+ * @param id    Identificador de la entidad.
+ * @param texto Texto nuevo, o nulo si la entidad se eliminó.
+ */
+public record TextoModificadoEvent(Tipo tipo, Long id, String texto) {
+
+    public static TextoModificadoEvent guardado(Tipo tipo, Long id, String texto) {
+        return new TextoModificadoEvent(tipo, id, texto != null ? texto : "");
+    }
+
+    public static TextoModificadoEvent eliminado(Tipo tipo, Long id) {
+        return new TextoModificadoEvent(tipo, id, null);
+    }
+}
@@ -0,0 +1,16 @@
+package co.edu.udistrital.mdp.back.services;
+
+import co.edu.udistrital.mdp.back.entities.TiendaEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Tienda encontrada por el localizador, con su distancia en kilómetros al punto buscado.
+ */
+@Getter
+@AllArgsConstructor
+public class TiendaCercana {
+
+    private final TiendaEntity tienda;
+    private final double distanciaKm;
+}
@@ -0,0 +1,11 @@
+package co.edu.udistrital.mdp.back.services;
+
+/**
+ * Evento que se publica cuando se crea, actualiza o elimina una tienda. El índice
+ * de tiendas cercanas lo usa para ubicarla en la grilla.
+ *
+ * @param tiendaId    Identificador de la tienda.
+ * @param coordenadas Coordenadas nuevas, o nulo si la tienda se eliminó o no tiene.
+ */
+public record TiendaModificadaEvent(Long tiendaId, Coordenadas coordenadas) {
+}
@@ -1,8 +1,10 @@
 package co.edu.udistrital.mdp.back.services;
 
 import java.util.List; // Necesario para devolver listas
+import java.util.Map;
 import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,6 +12,7 @@ import co.edu.udistrital.mdp.back.entities.TiendaEntity;
 import co.edu.udistrital.mdp.back.repositories.TiendaRepository;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -17,10 +20,26 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class TiendaService {
 
+    /**
+     * Campos por los que se puede ordenar el listado paginado y su tipo
+     */
+    private static final Map<String, Class<?>> CAMPOS_ORDEN = Map.of(
+            "id", Long.class,
+            "nombre", String.class);
+
+    /**
+     * Mensaje de error por restricción única de la tienda
+     */
+    private static final Map<String, String> RESTRICCIONES = Map.of(
+            "uk_tienda_nombre", "Ya existe una tienda con ese nombre");
+
     @Autowired
     private TiendaRepository tiendaRepository;
 
-    @Transactional
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public TiendaEntity createTienda(TiendaEntity tienda) throws IllegalOperationException {
         log.info("Inicia proceso de crear tienda");
 
@@ -35,22 +54,23 @@ public class TiendaService {
         // Validar ubicación
         if (tienda.getUbicacion() == null)
             throw new IllegalOperationException("La tienda debe tener ubicación");
+        Coordenadas coordenadas = ubicar(tienda);
 
+        // La unicidad del nombre la verifica la base de datos
+        TiendaEntity creada = RestriccionesUnicas.guardar(tiendaRepository, tienda, RESTRICCIONES);
+        eventPublisher.publishEvent(new TiendaModificadaEvent(creada.getId(), coordenadas));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.TIENDA, creada.getId()));
         log.info("Tienda creada correctamente");
-        return tiendaRepository.save(tienda);
+        return creada;
     }
 
-    @Transactional
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public TiendaEntity updateTienda(Long tiendaId, TiendaEntity tiendaDetails) throws EntityNotFoundException, IllegalOperationException {
         log.info("Inicia proceso de actualizar tienda");
 
         TiendaEntity tienda = tiendaRepository.findById(tiendaId)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.TIENDA_NOT_FOUND));
 
-        // Validar nombre duplicado
-        if (!tienda.getNombre().equals(tiendaDetails.getNombre()) && tiendaRepository.existsByNombre(tiendaDetails.getNombre()))
-            throw new IllegalOperationException("El nombre ya existe");
-
         // Validar marcas
         if (tiendaDetails.getMarca() == null)
             throw new IllegalOperationException("La tienda debe tener al menos una marca asociada");
@@ -58,9 +78,13 @@ public class TiendaService {
         tienda.setNombre(tiendaDetails.getNombre());
         tienda.setUbicacion(tiendaDetails.getUbicacion());
         tienda.setMarca(tiendaDetails.getMarca());
+        Coordenadas coordenadas = ubicar(tienda);
 
+        TiendaEntity actualizada = RestriccionesUnicas.guardar(tiendaRepository, tienda, RESTRICCIONES);
+        eventPublisher.publishEvent(new TiendaModificadaEvent(tiendaId, coordenadas));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.TIENDA, tiendaId));
         log.info("Tienda actualizada correctamente");
-        return tiendaRepository.save(tienda);
+        return actualizada;
     }
 
     @Transactional
@@ -71,8 +95,21 @@ public class TiendaService {
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.TIENDA_NOT_FOUND));
 
         tiendaRepository.delete(tienda);
+        eventPublisher.publishEvent(new TiendaModificadaEvent(tiendaId, null));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.TIENDA, tiendaId));
         log.info("Tienda eliminada correctamente");
     }
+
+    /**
+     * Asigna la latitud y la longitud de la tienda si su ubicación son coordenadas
+     * ("latitud,longitud"); si es una dirección libre quedan nulas.
+     */
+    static Coordenadas ubicar(TiendaEntity tienda) throws IllegalOperationException {
+        Coordenadas coordenadas = Coordenadas.de(tienda.getUbicacion());
+        tienda.setLatitud(coordenadas != null ? coordenadas.latitud() : null);
+        tienda.setLongitud(coordenadas != null ? coordenadas.longitud() : null);
+        return coordenadas;
+    }
     
     // ------------------------------------------------------------------
     // MÉTODOS DE CONSULTA FALTANTES (READ)
@@ -87,6 +124,22 @@ public class TiendaService {
         return tiendaRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de tiendas usando paginación por cursor (keyset).
+     *
+     * @param cursor Cursor devuelto por la página anterior, o nulo para la primera página.
+     * @param size   Tamaño de página solicitado.
+     * @param sort   Campo de ordenamiento, opcionalmente seguido de ",desc".
+     * @return Página de TiendaEntity con el cursor de la siguiente página.
+     * @throws IllegalOperationException si el cursor, el tamaño o el ordenamiento no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<TiendaEntity> getAllTiendas(String cursor, Integer size, String sort)
+            throws IllegalOperationException {
+        log.info("Inicia proceso de consultar una página de tiendas");
+        return KeysetPagination.page(tiendaRepository, tiendaRepository::findBy, cursor, size, sort, CAMPOS_ORDEN);
+    }
+
     /**
      * Obtiene los datos de una instancia de Tienda a partir de su ID.
      * @param tiendaId Identificador de la instancia a consultar.
@@ -0,0 +1,207 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import co.edu.udistrital.mdp.back.repositories.TiendaRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice espacial de las tiendas con coordenadas.
+ *
+ * Divide el mapa en una grilla de celdas de {@value #TAMANO_CELDA} grados y guarda
+ * cada tienda en la celda de sus coordenadas. Una búsqueda por radio solo revisa
+ * las celdas que cubren el círculo, y la de los k más cercanos repite la búsqueda
+ * por radio duplicándolo hasta encontrar k tiendas. Se reconstruye desde la tabla
+ * de tiendas al iniciar la aplicación y se actualiza con los eventos de cambio de
+ * las tiendas una vez se confirma cada transacción.
+ */
+@Slf4j
+@Service
+public class TiendasCercanasIndex {
+
+    /**
+     * Tienda encontrada y su distancia en kilómetros al punto buscado.
+     */
+    public record Cercana(Long tiendaId, double distanciaKm) {
+    }
+
+    /** Lado de cada celda de la grilla en grados (unos 11 km en latitud) */
+    static final double TAMANO_CELDA = 0.1;
+
+    private static final int FILAS = (int) Math.round(180 / TAMANO_CELDA);
+    private static final int COLUMNAS = (int) Math.round(360 / TAMANO_CELDA);
+    private static final double RADIO_INICIAL_KM = 5;
+    private static final double MEDIA_CIRCUNFERENCIA_KM = Math.PI * Coordenadas.RADIO_TIERRA_KM;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    @Autowired
+    private TiendaRepository tiendaRepository;
+
+    private final Map<Long, Ubicada> tiendas = new HashMap<>();
+    private final Map<Integer, List<Ubicada>> celdas = new HashMap<>();
+
+    /**
+     * Busca las tiendas que cumplen el filtro más cercanas al punto dado.
+     *
+     * @param latitud  Latitud del punto.
+     * @param longitud Longitud del punto.
+     * @param radioKm  Distancia máxima en kilómetros, o nulo para no limitarla.
+     * @param limite   Número máximo de tiendas.
+     * @param filtro   Tiendas que se pueden devolver, por id.
+     * @return Tiendas de la más cercana a la más lejana.
+     */
+    public List<Cercana> buscar(double latitud, double longitud, Double radioKm, int limite, LongPredicate filtro) {
+        candado.readLock().lock();
+        try {
+            if (radioKm != null)
+                return mejores(dentroDelRadio(latitud, longitud, radioKm, filtro), limite);
+
+            double radio = RADIO_INICIAL_KM;
+            while (true) {
+                List<Cercana> encontradas = dentroDelRadio(latitud, longitud, radio, filtro);
+                if (encontradas.size() >= limite || radio >= MEDIA_CIRCUNFERENCIA_KM)
+                    return mejores(encontradas, limite);
+                radio *= 2;
+            }
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void registrarCambio(TiendaModificadaEvent evento) {
+        candado.writeLock().lock();
+        try {
+            quitar(evento.tiendaId());
+            if (evento.coordenadas() != null)
+                agregar(new Ubicada(evento.tiendaId(), evento.coordenadas().latitud(),
+                        evento.coordenadas().longitud()));
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reconstruye el índice desde la tabla de tiendas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        log.info("Inicia proceso de reconstrucción del índice de tiendas cercanas");
+        List<Object[]> filas = tiendaRepository.findCoordenadas();
+        candado.writeLock().lock();
+        try {
+            tiendas.clear();
+            celdas.clear();
+            for (Object[] fila : filas)
+                agregar(new Ubicada((Long) fila[0], (Double) fila[1], (Double) fila[2]));
+        } finally {
+            candado.writeLock().unlock();
+        }
+        log.info("Finaliza proceso de reconstrucción del índice de tiendas cercanas: {} tiendas en {} celdas",
+                tiendas.size(), celdas.size());
+    }
+
+    private void agregar(Ubicada tienda) {
+        tiendas.put(tienda.id(), tienda);
+        celdas.computeIfAbsent(celda(fila(tienda.latitud()), columna(tienda.longitud())), c -> new ArrayList<>())
+                .add(tienda);
+    }
+
+    private void quitar(Long tiendaId) {
+        Ubicada tienda = tiendas.remove(tiendaId);
+        if (tienda == null)
+            return;
+        int celda = celda(fila(tienda.latitud()), columna(tienda.longitud()));
+        List<Ubicada> enCelda = celdas.get(celda);
+        enCelda.remove(tienda);
+        if (enCelda.isEmpty())
+            celdas.remove(celda);
+    }
+
+    /**
+     * Tiendas a menos del radio. Recorre las celdas del rectángulo que contiene el
+     * círculo o, si son más que las celdas ocupadas, directamente las ocupadas. El
+     * rectángulo es el del casquete esférico: si incluye un polo abarca todas las
+     * longitudes.
+     */
+    private List<Cercana> dentroDelRadio(double latitud, double longitud, double radioKm, LongPredicate filtro) {
+        double angulo = radioKm / Coordenadas.RADIO_TIERRA_KM;
+        double latMin = latitud - Math.toDegrees(angulo);
+        double latMax = latitud + Math.toDegrees(angulo);
+        int filaMin = fila(Math.max(-90, latMin));
+        int filaMax = fila(Math.min(90, latMax));
+
+        int columnaMin = 0;
+        int anchoColumnas = COLUMNAS;
+        double cosLat = Math.cos(Math.toRadians(latitud));
+        if (latMin > -90 && latMax < 90 && angulo < Math.PI / 2 && Math.sin(angulo) < cosLat) {
+            double dLon = Math.toDegrees(Math.asin(Math.sin(angulo) / cosLat));
+            columnaMin = (int) Math.floor((longitud - dLon + 180) / TAMANO_CELDA);
+            int columnaMax = (int) Math.floor((longitud + dLon + 180) / TAMANO_CELDA);
+            anchoColumnas = Math.min(COLUMNAS, columnaMax - columnaMin + 1);
+        }
+
+        List<Cercana> encontradas = new ArrayList<>();
+        if ((long) (filaMax - filaMin + 1) * anchoColumnas > celdas.size()) {
+            for (List<Ubicada> enCelda : celdas.values())
+                agregarDentro(enCelda, latitud, longitud, radioKm, filtro, encontradas);
+            return encontradas;
+        }
+        for (int fila = filaMin; fila <= filaMax; fila++) {
+            for (int i = 0; i < anchoColumnas; i++) {
+                List<Ubicada> enCelda = celdas.get(celda(fila, Math.floorMod(columnaMin + i, COLUMNAS)));
+                if (enCelda != null)
+                    agregarDentro(enCelda, latitud, longitud, radioKm, filtro, encontradas);
+            }
+        }
+        return encontradas;
+    }
+
+    private static void agregarDentro(List<Ubicada> enCelda, double latitud, double longitud, double radioKm,
+            LongPredicate filtro, List<Cercana> encontradas) {
+        for (Ubicada tienda : enCelda) {
+            if (!filtro.test(tienda.id()))
+                continue;
+            double distancia = Coordenadas.distanciaKm(latitud, longitud, tienda.latitud(), tienda.longitud());
+            if (distancia <= radioKm)
+                encontradas.add(new Cercana(tienda.id(), distancia));
+        }
+    }
+
+    private static List<Cercana> mejores(List<Cercana> encontradas, int limite) {
+        encontradas.sort(Comparator.comparingDouble(Cercana::distanciaKm).thenComparing(Cercana::tiendaId));
+        return encontradas.size() > limite ? new ArrayList<>(encontradas.subList(0, limite)) : encontradas;
+    }
+
+    private static int fila(double latitud) {
+        return Math.min(FILAS - 1, (int) Math.floor((latitud + 90) / TAMANO_CELDA));
+    }
+
+    /**
+     * Columna de la longitud, normalizada al rango [-180, 180).
+     */
+    private static int columna(double longitud) {
+        int columna = (int) Math.floor((longitud + 180) / TAMANO_CELDA);
+        return Math.floorMod(columna, COLUMNAS);
+    }
+
+    private static int celda(int fila, int columna) {
+        return fila * COLUMNAS + columna;
+    }
+
+    private record Ubicada(Long id, double latitud, double longitud) {
+    }
+}
@@ -0,0 +1,85 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.udistrital.mdp.back.entities.TiendaEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.repositories.TiendaRepository;
+import co.edu.udistrital.mdp.back.services.TiendasCercanasIndex.Cercana;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Localizador de tiendas: las tiendas más cercanas a un punto, opcionalmente dentro
+ * de un radio y solo las que venden una prenda.
+ */
+@Slf4j
+@Service
+public class TiendasCercanasService {
+
+    @Autowired
+    private TiendasCercanasIndex tiendasCercanasIndex;
+
+    @Autowired
+    private TiendaRepository tiendaRepository;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    /**
+     * Busca las tiendas cercanas al punto dado.
+     *
+     * @param latitud  Latitud del punto.
+     * @param longitud Longitud del punto.
+     * @param radioKm  Distancia máxima en kilómetros, o nulo para las k más cercanas a cualquier distancia.
+     * @param k        Número máximo de tiendas.
+     * @param prendaId Prenda que deben vender las tiendas (ver PrendaRepository.findTiendasConPrenda), o nulo.
+     * @return Tiendas de la más cercana a la más lejana.
+     * @throws EntityNotFoundException   si la prenda no existe.
+     * @throws IllegalOperationException si las coordenadas, el radio o k no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public List<TiendaCercana> getTiendasCercanas(Double latitud, Double longitud, Double radioKm, Integer k,
+            Long prendaId) throws EntityNotFoundException, IllegalOperationException {
+        log.info("Inicia proceso de consultar las tiendas cercanas a ({}, {})", latitud, longitud);
+        if (latitud == null || longitud == null)
+            throw new IllegalOperationException("La latitud y la longitud son obligatorias");
+        Coordenadas.validar(latitud, longitud);
+        if (radioKm != null && !(radioKm > 0))
+            throw new IllegalOperationException("El radio debe ser mayor que cero");
+        int limite = KeysetPagination.limit(k).max();
+
+        LongPredicate filtro = tienda -> true;
+        if (prendaId != null) {
+            if (!prendaRepository.existsById(prendaId))
+                throw new EntityNotFoundException(ErrorMessage.PRENDA_NOT_FOUND);
+            Set<Long> tiendas = new HashSet<>(prendaRepository.findTiendasConPrenda(prendaId));
+            filtro = tiendas::contains;
+        }
+
+        List<Cercana> cercanas = tiendasCercanasIndex.buscar(latitud, longitud, radioKm, limite, filtro);
+        Map<Long, TiendaEntity> tiendas = new HashMap<>();
+        tiendaRepository.findAllById(cercanas.stream().map(Cercana::tiendaId).toList())
+                .forEach(tienda -> tiendas.put(tienda.getId(), tienda));
+
+        List<TiendaCercana> resultado = new ArrayList<>();
+        for (Cercana cercana : cercanas) {
+            if (tiendas.containsKey(cercana.tiendaId()))
+                resultado.add(new TiendaCercana(tiendas.get(cercana.tiendaId()), cercana.distanciaKm()));
+        }
+        log.info("Finaliza proceso de consultar las tiendas cercanas a ({}, {})", latitud, longitud);
+        return resultado;
+    }
+}
@@ -0,0 +1,19 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.List;
+
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Detalle de un usuario: el usuario y sus comentarios, que se consultan por separado.
+ */
+@Getter
+@AllArgsConstructor
+public class UsuarioDetalle {
+
+    private final UsuarioEntity usuario;
+    private final List<ComentarioEntity> comentarios;
+}
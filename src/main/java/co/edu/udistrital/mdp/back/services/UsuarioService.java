@@ -1,9 +1,17 @@
 package co.edu.udistrital.mdp.back.services;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
@@ -15,6 +23,11 @@ import co.edu.udistrital.mdp.back.exceptions.ErrorMessage;
 import co.edu.udistrital.mdp.back.repositories.ComentarioRepository;
 import co.edu.udistrital.mdp.back.repositories.ListaDeseosRepository;
 import co.edu.udistrital.mdp.back.repositories.UsuarioRepository;
+import co.edu.udistrital.mdp.back.services.BusquedaTextoIndex.Tipo;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
@@ -23,6 +36,20 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 
 public class UsuarioService {
+
+    /**
+     * Campos por los que se puede ordenar el listado paginado y su tipo
+     */
+    private static final Map<String, Class<?>> CAMPOS_ORDEN = Map.of(
+            "id", Long.class,
+            "nombre", String.class,
+            "correo", String.class);
+
+    /**
+     * Mensaje de error por restricción única del usuario
+     */
+    private static final Map<String, String> RESTRICCIONES = Map.of(
+            "uk_usuario_correo", "Ya existe un usuario con ese correo");
     
     @Autowired
 	private UsuarioRepository usuarioRepository;
@@ -33,6 +60,19 @@ public class UsuarioService {
     @Autowired
     private ListaDeseosRepository listaDeseosRepository;
 
+    @Autowired
+    private CalificacionesOutfitService calificacionesOutfitService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Filas que se piden al driver por viaje y que se leen antes de limpiar el contexto de persistencia
+    @Value("${listados.streaming.lote:500}")
+    private int lote;
+
     /**
      * Crea un nuevo Usuario en la base de datos.
      *
@@ -40,7 +80,7 @@ public class UsuarioService {
      * @return UsuarioEntity creado con su ID.
      * @throws IllegalOperationException si el nombre o correo son inválidos o si ya existe un usuario con ese correo.
      */
-    @Transactional
+    @Transactional(rollbackOn = IllegalOperationException.class)
     public UsuarioEntity createUsuario(UsuarioEntity usuario) throws IllegalOperationException {
         log.info("Inicia proceso de creación del usuario");
 
@@ -52,11 +92,9 @@ public class UsuarioService {
             throw new IllegalOperationException("El correo no puede estar vacío");
         }
 
-        if (usuarioRepository.findByCorreo(usuario.getCorreo()).isPresent()) {
-            throw new IllegalOperationException("Ya existe un usuario con ese correo");
-        }
-
-        UsuarioEntity creado = usuarioRepository.save(usuario);
+        // La unicidad del correo (sin mayúsculas) la verifica la base de datos
+        UsuarioEntity creado = RestriccionesUnicas.guardar(usuarioRepository, usuario, RESTRICCIONES);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.USUARIO, creado.getId()));
         log.info("Finaliza proceso de creación del usuario con id = {}", creado.getId());
         return creado;
     }
@@ -72,6 +110,96 @@ public class UsuarioService {
         return usuarioRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de usuarios usando paginación por cursor (keyset).
+     *
+     * @param cursor Cursor devuelto por la página anterior, o nulo para la primera página.
+     * @param size   Tamaño de página solicitado.
+     * @param sort   Campo de ordenamiento, opcionalmente seguido de ",desc".
+     * @return Página de UsuarioEntity con el cursor de la siguiente página.
+     * @throws IllegalOperationException si el cursor, el tamaño o el ordenamiento no son válidos.
+     */
+    @Transactional
+    public KeysetPage<UsuarioEntity> getUsuarios(String cursor, Integer size, String sort)
+            throws IllegalOperationException {
+        KeysetPage<UsuarioEntity> pagina = getPaginaUsuarios(cursor, size, sort);
+        if (!pagina.getContent().isEmpty())
+            usuarioRepository.findConComentariosByIdIn(pagina.getContent().stream().map(UsuarioEntity::getId).toList());
+        return pagina;
+    }
+
+    /**
+     * Obtiene una página de usuarios sin cargar sus comentarios, que se recorren
+     * después con {@link #recorrerComentarios}.
+     *
+     * @param cursor Cursor devuelto por la página anterior, o nulo para la primera página.
+     * @param size   Tamaño de página solicitado.
+     * @param sort   Campo de ordenamiento, opcionalmente seguido de ",desc".
+     * @return Página de UsuarioEntity con el cursor de la siguiente página.
+     * @throws IllegalOperationException si el cursor, el tamaño o el ordenamiento no son válidos.
+     */
+    @Transactional
+    public KeysetPage<UsuarioEntity> getPaginaUsuarios(String cursor, Integer size, String sort)
+            throws IllegalOperationException {
+        log.info("Inicia proceso de consultar una página de usuarios");
+        return KeysetPagination.page(usuarioRepository, usuarioRepository::findBy, cursor, size, sort, CAMPOS_ORDEN,
+                "wishlist");
+    }
+
+    /**
+     * Recorre los usuarios dados con sus comentarios sin tenerlos todos en memoria:
+     * los comentarios se leen en una sola consulta, en el orden de los usuarios, y
+     * cada uno se entrega apenas se lee. Cada cierto número de filas se limpia el
+     * contexto de persistencia, así que los usuarios y comentarios recibidos quedan
+     * separados de él.
+     *
+     * @param usuarios  Usuarios a recorrer, en el orden en que se entregan.
+     * @param recorrido Recibe cada usuario seguido de sus comentarios.
+     */
+    @Transactional
+    public void recorrerComentarios(List<UsuarioEntity> usuarios,
+            RecorridoAnidado<UsuarioEntity, ComentarioEntity> recorrido) {
+        log.info("Inicia proceso de recorrer los comentarios de {} usuarios", usuarios.size());
+        if (usuarios.isEmpty())
+            return;
+
+        int leidos = 0;
+        try (Stream<ComentarioEntity> comentarios = consultarComentarios(usuarios)) {
+            Iterator<ComentarioEntity> iterador = comentarios.iterator();
+            ComentarioEntity siguiente = iterador.hasNext() ? iterador.next() : null;
+            for (UsuarioEntity usuario : usuarios) {
+                recorrido.padre(usuario);
+                while (siguiente != null && siguiente.getUsuario().getId().equals(usuario.getId())) {
+                    recorrido.hijo(siguiente);
+                    if (++leidos % lote == 0)
+                        entityManager.clear();
+                    siguiente = iterador.hasNext() ? iterador.next() : null;
+                }
+            }
+        }
+        log.info("Termina proceso de recorrer {} comentarios", leidos);
+    }
+
+    /**
+     * Comentarios de los usuarios dados ordenados por la posición de su usuario en la
+     * lista y después por id. La consulta solo depende del número de usuarios.
+     */
+    private Stream<ComentarioEntity> consultarComentarios(List<UsuarioEntity> usuarios) {
+        String posiciones = IntStream.range(0, usuarios.size())
+                .mapToObj(i -> " when :u" + i + " then " + i)
+                .collect(Collectors.joining());
+        TypedQuery<ComentarioEntity> consulta = entityManager.createQuery(
+                "select c from ComentarioEntity c join fetch c.usuario u where u.id in :ids"
+                        + " order by case u.id" + posiciones + " end, c.id",
+                ComentarioEntity.class);
+        consulta.setParameter("ids", usuarios.stream().map(UsuarioEntity::getId).toList());
+        for (int i = 0; i < usuarios.size(); i++)
+            consulta.setParameter("u" + i, usuarios.get(i).getId());
+        return consulta.setHint(AvailableHints.HINT_FETCH_SIZE, lote)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
 	/**
      * Obtiene un usuario por su ID.
      *
@@ -82,7 +210,7 @@ public class UsuarioService {
     @Transactional
     public UsuarioEntity getUsuario(Long usuarioId) throws EntityNotFoundException {
         log.info("Inicia proceso de consultar el usuario con id = {}", usuarioId);
-        Optional<UsuarioEntity> usuarioEntity = usuarioRepository.findById(usuarioId);
+        Optional<UsuarioEntity> usuarioEntity = usuarioRepository.findDetalleById(usuarioId);
 
         if (usuarioEntity.isEmpty()) {
             throw new EntityNotFoundException(ErrorMessage.USUARIO_NOT_FOUND);
@@ -101,7 +229,7 @@ public class UsuarioService {
      * @throws EntityNotFoundException si no existe el usuario.
      * @throws IllegalOperationException si los datos son inválidos o el correo está duplicado.
      */
-    @Transactional
+    @Transactional(rollbackOn = IllegalOperationException.class)
     public UsuarioEntity updateUsuario(Long usuarioId, UsuarioEntity usuario)
             throws EntityNotFoundException, IllegalOperationException {
         log.info("Inicia proceso de actualizar el usuario con id = {}", usuarioId);
@@ -119,14 +247,9 @@ public class UsuarioService {
             throw new IllegalOperationException("El correo no puede estar vacío");
         }
 
-        // Verificar duplicidad de correo
-        Optional<UsuarioEntity> existingUser = usuarioRepository.findByCorreo(usuario.getCorreo());
-        if (existingUser.isPresent() && !existingUser.get().getId().equals(usuarioId)) {
-            throw new IllegalOperationException("Ya existe un usuario con ese correo");
-        }
-
         usuario.setId(usuarioId);
-        UsuarioEntity actualizado = usuarioRepository.save(usuario);
+        UsuarioEntity actualizado = RestriccionesUnicas.guardar(usuarioRepository, usuario, RESTRICCIONES);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.USUARIO, usuarioId));
         log.info("Finaliza proceso de actualizar el usuario con id = {}", usuarioId);
         return actualizado;
     }
@@ -146,7 +269,20 @@ public class UsuarioService {
             throw new EntityNotFoundException(ErrorMessage.USUARIO_NOT_FOUND);
         }
 
+        // Los comentarios se eliminan en cascada con el usuario
+        for (ComentarioEntity comentario : usuarioEntity.get().getComentarios()) {
+            eventPublisher.publishEvent(TextoModificadoEvent.eliminado(Tipo.COMENTARIO, comentario.getId()));
+            if (comentario.getOutfit() != null)
+                calificacionesOutfitService.quitar(comentario.getOutfit().getId(), comentario.getCalificacion());
+        }
+        // La lista de deseos también se elimina en cascada
+        if (usuarioEntity.get().getWishlist() != null)
+            eventPublisher.publishEvent(ListaDeseosModificadaEvent.eliminada(usuarioEntity.get().getWishlist()));
         usuarioRepository.deleteById(usuarioId);
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.USUARIO, usuarioId));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.COMENTARIO,
+                usuarioEntity.get().getComentarios().stream().map(ComentarioEntity::getId).toList()));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.RECOMENDACION, List.of()));
         log.info("Finaliza proceso de eliminar el usuario con id = {}", usuarioId);
     }
 
@@ -159,8 +295,9 @@ public class UsuarioService {
      * @param usuarioId ID del usuario.
      * @param comentario Comentario a agregar.
      * @return ComentarioEntity creado.
-     * @throws EntityNotFoundException si no se encuentra el usuario.
-     * @throws IllegalOperationException si el texto del comentario está vacío.
+     * @throws EntityNotFoundException si no se encuentra el usuario o el outfit reseñado.
+     * @throws IllegalOperationException si el texto del comentario está vacío o la
+     *                                   calificación del outfit está fuera de rango.
      */
     @Transactional
     public ComentarioEntity addComentario(Long usuarioId, ComentarioEntity comentario)
@@ -172,11 +309,17 @@ public class UsuarioService {
             throw new IllegalOperationException("El comentario no puede estar vacío");
         }
 
+        calificacionesOutfitService.prepararComentario(comentario);
+
         // Actualiza ambos lados de la relación
         usuario.getComentarios().add(comentario);
         comentario.setUsuario(usuario);
 
         ComentarioEntity creado = comentarioRepository.save(comentario);
+        if (creado.getOutfit() != null)
+            calificacionesOutfitService.agregar(creado.getOutfit().getId(), creado.getCalificacion());
+        eventPublisher.publishEvent(TextoModificadoEvent.guardado(Tipo.COMENTARIO, creado.getId(), creado.getTexto()));
+        eventPublisher.publishEvent(RecursoModificadoEvent.de(Recurso.COMENTARIO, creado.getId()));
         log.info("Comentario agregado al usuario con id = {}", usuarioId);
         return creado;
     }
@@ -0,0 +1,363 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Variantes reducidas del contenido de las imágenes (miniatura, tarjeta y completa)
+ * para no enviar el original a las grillas del catálogo.
+ *
+ * Las variantes se generan en segundo plano con pocos hilos y una cola acotada
+ * cuando se guarda un contenido. Si la cola está llena la solicitud se descarta en
+ * lugar de esperar, y mientras una variante no exista se envía el original y se
+ * vuelve a solicitar. Se guardan en el almacén junto al original y, como el
+ * contenido no cambia, se generan una sola vez. Si la generación falla (imagen
+ * dañada o demasiado grande) no se vuelve a intentar hasta que pase el período de
+ * reintento, para no decodificarla en cada consulta. Se escriben en JPEG (PNG si la
+ * imagen tiene transparencia) y también en WebP si la JVM tiene un escritor WebP
+ * para ImageIO.
+ *
+ * Publica en actuator imagenes.variantes.cola (solicitudes en espera),
+ * imagenes.variantes.espera y imagenes.variantes.duracion (tiempo en la cola y
+ * generando), y los contadores imagenes.variantes.rechazadas y
+ * imagenes.variantes.fallidas.
+ */
+@Slf4j
+@Service
+public class VariantesImagenService implements MeterBinder {
+
+    /**
+     * Variantes de una imagen, por el tamaño máximo de su lado más largo.
+     */
+    public enum Variante {
+        MINIATURA(160), TARJETA(480), COMPLETA(1600);
+
+        private final int lado;
+
+        Variante(int lado) {
+            this.lado = lado;
+        }
+
+        public int getLado() {
+            return lado;
+        }
+
+        public String getParametro() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Variante deParametro(String parametro) throws IllegalOperationException {
+            for (Variante variante : values())
+                if (variante.getParametro().equalsIgnoreCase(parametro.trim()))
+                    return variante;
+            throw new IllegalOperationException(
+                    "La variante debe ser miniatura, tarjeta o completa, no " + parametro);
+        }
+    }
+
+    public static final String WEBP = "image/webp";
+    static final String JPEG = "image/jpeg";
+    static final String PNG = "image/png";
+    private static final float CALIDAD = 0.85f;
+
+    @Autowired
+    private ImagenAlmacen imagenAlmacen;
+
+    @Value("${imagenes.variantes.hilos:2}")
+    private int hilos;
+
+    @Value("${imagenes.variantes.cola:200}")
+    private int capacidadCola;
+
+    @Value("${imagenes.variantes.maximo-pixeles:50000000}")
+    private long maximoPixeles;
+
+    @Value("${imagenes.variantes.reintento:PT1H}")
+    private Duration reintento;
+
+    private ThreadPoolExecutor ejecutor;
+
+    /** Contenidos en cola o generándose, para no solicitarlos dos veces */
+    private final Set<String> pendientes = ConcurrentHashMap.newKeySet();
+
+    /** Contenidos que ImageIO no puede leer (SVG, formatos sin lector...) */
+    private final Set<String> noSoportados = ConcurrentHashMap.newKeySet();
+
+    /** Contenidos cuya generación falló, con el instante del fallo (System.nanoTime) */
+    private final Map<String, Long> fallidos = new ConcurrentHashMap<>();
+
+    private volatile Timer espera;
+    private volatile Timer duracion;
+    private volatile Counter rechazadas;
+    private volatile Counter fallidas;
+
+    @PostConstruct
+    void iniciar() {
+        AtomicInteger numero = new AtomicInteger();
+        ejecutor = new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), tarea -> {
+                    Thread hilo = new Thread(tarea, "variantes-imagen-" + numero.incrementAndGet());
+                    hilo.setDaemon(true);
+                    hilo.setPriority(Thread.MIN_PRIORITY);
+                    return hilo;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("imagenes.variantes.cola", ejecutor, e -> e.getQueue().size())
+                .description("Solicitudes de variantes en espera").register(registry);
+        Gauge.builder("imagenes.variantes.activas", ejecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Variantes generándose").register(registry);
+        espera = Timer.builder("imagenes.variantes.espera")
+                .description("Tiempo de las solicitudes en la cola").register(registry);
+        duracion = Timer.builder("imagenes.variantes.duracion")
+                .description("Tiempo de generación de las variantes de un contenido").register(registry);
+        rechazadas = Counter.builder("imagenes.variantes.rechazadas")
+                .description("Solicitudes descartadas por cola llena").register(registry);
+        fallidas = Counter.builder("imagenes.variantes.fallidas")
+                .description("Contenidos cuyas variantes no se pudieron generar").register(registry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void registrarContenido(ContenidoImagenGuardadoEvent evento) {
+        solicitar(evento.hash());
+    }
+
+    /**
+     * Busca una variante del contenido. Si todavía no existe, solicita generarla y
+     * devuelve el original.
+     *
+     * @param original Contenido original de la imagen.
+     * @param variante Variante pedida.
+     * @param webp     Si el cliente acepta WebP.
+     * @return La variante, o el original mientras no exista.
+     */
+    public ContenidoImagen getVariante(ContenidoImagen original, Variante variante, boolean webp) {
+        if (webp) {
+            ContenidoImagen encontrada = existente(original.getHash(), variante, WEBP);
+            if (encontrada != null)
+                return encontrada;
+        }
+        for (String tipo : new String[] { JPEG, PNG }) {
+            ContenidoImagen encontrada = existente(original.getHash(), variante, tipo);
+            if (encontrada != null)
+                return encontrada;
+        }
+        solicitar(original.getHash());
+        return original;
+    }
+
+    /**
+     * Solicita generar las variantes del contenido sin esperar a que terminen.
+     *
+     * @return false si no se aceptó la solicitud (cola llena, formato no soportado o
+     *         fallo reciente).
+     */
+    public boolean solicitar(String hash) {
+        if (noSoportados.contains(hash))
+            return false;
+        Long fallo = fallidos.get(hash);
+        if (fallo != null) {
+            if (System.nanoTime() - fallo < reintento.toNanos())
+                return false;
+            fallidos.remove(hash, fallo);
+        }
+        if (!pendientes.add(hash))
+            return true;
+        long solicitud = System.nanoTime();
+        try {
+            ejecutor.execute(() -> generar(hash, solicitud));
+            return true;
+        } catch (RejectedExecutionException e) {
+            pendientes.remove(hash);
+            if (rechazadas != null)
+                rechazadas.increment();
+            log.warn("Cola de variantes de imagen llena: se descarta la solicitud de {}", hash);
+            return false;
+        }
+    }
+
+    private ContenidoImagen existente(String hash, Variante variante, String tipo) {
+        String sufijo = sufijo(variante, tipo);
+        Path archivo = imagenAlmacen.rutaVariante(hash, sufijo);
+        try {
+            return new ContenidoImagen(hash, hash + "-" + sufijo, tipo, Files.size(archivo), archivo);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void generar(String hash, long solicitud) {
+        long inicio = System.nanoTime();
+        if (espera != null)
+            espera.record(inicio - solicitud, TimeUnit.NANOSECONDS);
+        try {
+            BufferedImage imagen = leer(imagenAlmacen.ruta(hash));
+            if (imagen == null) {
+                noSoportados.add(hash);
+                log.info("No se generan variantes de {}: formato no soportado", hash);
+                return;
+            }
+            boolean transparente = imagen.getColorModel().hasAlpha();
+            String tipo = transparente ? PNG : JPEG;
+            boolean webp = ImageIO.getImageWritersByMIMEType(WEBP).hasNext();
+            // De la más grande a la más pequeña, reduciendo cada una desde la anterior
+            BufferedImage fuente = imagen;
+            Variante[] variantes = Variante.values();
+            for (int i = variantes.length - 1; i >= 0; i--) {
+                fuente = escalar(fuente, variantes[i].getLado(), transparente);
+                escribir(hash, variantes[i], fuente, tipo);
+                if (webp)
+                    escribir(hash, variantes[i], fuente, WEBP);
+            }
+            log.info("Variantes de {} generadas en {} ms", hash, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            fallidos.put(hash, System.nanoTime());
+            if (fallidas != null)
+                fallidas.increment();
+            log.warn("No se pudieron generar las variantes de {}", hash, e);
+        } finally {
+            pendientes.remove(hash);
+            if (duracion != null)
+                duracion.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Lee la imagen. Si es mucho más grande que la variante más grande se decodifica
+     * saltando píxeles, para no ocupar memoria con píxeles que se van a descartar.
+     *
+     * @return La imagen, o nulo si ImageIO no tiene lector para su formato.
+     */
+    private BufferedImage leer(Path archivo) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(archivo.toFile())) {
+            Iterator<ImageReader> lectores = entrada == null ? null : ImageIO.getImageReaders(entrada);
+            if (lectores == null || !lectores.hasNext())
+                return null;
+            ImageReader lector = lectores.next();
+            try {
+                lector.setInput(entrada, true, true);
+                int ancho = lector.getWidth(0);
+                int alto = lector.getHeight(0);
+                int paso = Math.max(1, Math.max(ancho, alto) / (2 * Variante.COMPLETA.getLado()));
+                if ((long) ancho * alto / ((long) paso * paso) > maximoPixeles)
+                    throw new IOException("La imagen es demasiado grande: " + ancho + "x" + alto);
+                ImageReadParam parametros = lector.getDefaultReadParam();
+                parametros.setSourceSubsampling(paso, paso, 0, 0);
+                return lector.read(0, parametros);
+            } finally {
+                lector.dispose();
+            }
+        }
+    }
+
+    /**
+     * Reduce la imagen hasta que su lado más largo mida como mucho {@code lado},
+     * dividiéndola a la mitad en cada paso con interpolación bilineal (da casi la
+     * calidad de un filtro de área, mucho más rápido).
+     */
+    static BufferedImage escalar(BufferedImage imagen, int lado, boolean transparente) {
+        int tipo = transparente ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int ancho = imagen.getWidth();
+        int alto = imagen.getHeight();
+        double escala = Math.min(1.0, (double) lado / Math.max(ancho, alto));
+        int anchoFinal = Math.max(1, (int) Math.round(ancho * escala));
+        int altoFinal = Math.max(1, (int) Math.round(alto * escala));
+        BufferedImage actual = imagen;
+        do {
+            ancho = Math.max(anchoFinal, ancho / 2);
+            alto = Math.max(altoFinal, alto / 2);
+            BufferedImage reducida = new BufferedImage(ancho, alto, tipo);
+            Graphics2D grafico = reducida.createGraphics();
+            grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            grafico.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            grafico.drawImage(actual, 0, 0, ancho, alto, null);
+            grafico.dispose();
+            actual = reducida;
+        } while (ancho != anchoFinal || alto != altoFinal);
+        return actual;
+    }
+
+    private void escribir(String hash, Variante variante, BufferedImage imagen, String tipo) throws IOException {
+        Path destino = imagenAlmacen.rutaVariante(hash, sufijo(variante, tipo));
+        if (Files.exists(destino))
+            return;
+        Iterator<ImageWriter> escritores = ImageIO.getImageWritersByMIMEType(tipo);
+        if (!escritores.hasNext())
+            throw new IOException("No hay escritor de imágenes para " + tipo);
+        ImageWriter escritor = escritores.next();
+        Path temporal = imagenAlmacen.temporal();
+        try {
+            try (ImageOutputStream salida = ImageIO.createImageOutputStream(temporal.toFile())) {
+                escritor.setOutput(salida);
+                ImageWriteParam parametros = escritor.getDefaultWriteParam();
+                if (!tipo.equals(PNG) && parametros.canWriteCompressed()) {
+                    parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    if (parametros.getCompressionType() == null)
+                        parametros.setCompressionType(parametros.getCompressionTypes()[0]);
+                    parametros.setCompressionQuality(CALIDAD);
+                }
+                escritor.write(null, new IIOImage(imagen, null, null), parametros);
+            } finally {
+                escritor.dispose();
+            }
+            imagenAlmacen.publicar(temporal, destino);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private static String sufijo(Variante variante, String tipo) {
+        String extension = switch (tipo) {
+            case PNG -> "png";
+            case WEBP -> "webp";
+            default -> "jpg";
+        };
+        return variante.getParametro() + "." + extension;
+    }
+}
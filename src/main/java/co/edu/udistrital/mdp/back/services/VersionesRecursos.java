@@ -0,0 +1,106 @@
+package co.edu.udistrital.mdp.back.services;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Versiones en memoria de los recursos de la API, con las que se arman ETag fuertes
+ * sin consultar la base de datos.
+ *
+ * Cada recurso tiene una versión de colección, que cambia con cualquier escritura
+ * sobre él, y una versión por entidad, que cambia solo con las escrituras sobre esa
+ * entidad. Los servicios publican un {@link RecursoModificadoEvent} en sus métodos
+ * de escritura y las versiones se incrementan cuando se confirma la transacción: así
+ * una respuesta nunca lleva la versión nueva con los datos anteriores. Las ETag
+ * incluyen la época del proceso, para que no se repitan después de reiniciar.
+ */
+@Service
+public class VersionesRecursos {
+
+    /**
+     * Recursos con versión: los de las respuestas con ETag y los que estas incluyen.
+     */
+    public enum Recurso {
+        CATEGORIA, COLOR, COMENTARIO, LISTA_DESEOS, MARCA, OCASION, OUTFIT, PRENDA, RECOMENDACION, TIENDA, USUARIO
+    }
+
+    private final String epoca = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Map<Recurso, Versiones> versiones = new EnumMap<>(Recurso.class);
+
+    public VersionesRecursos() {
+        for (Recurso recurso : Recurso.values())
+            versiones.put(recurso, new Versiones());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void registrarModificacion(RecursoModificadoEvent evento) {
+        Versiones recurso = versiones.get(evento.recurso());
+        recurso.coleccion.incrementAndGet();
+        for (Long id : evento.ids())
+            recurso.entidades.merge(id, 1L, Long::sum);
+    }
+
+    /**
+     * Los cambios de contenido de las listas de deseos ya se publican como
+     * {@link ListaDeseosModificadaEvent}: cambian las listas y los outfits que
+     * entraron o salieron de ellas.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void registrarCambio(ListaDeseosModificadaEvent evento) {
+        Set<Long> cambiados = new HashSet<>(evento.agregados());
+        cambiados.addAll(evento.quitados());
+        registrarModificacion(RecursoModificadoEvent.de(Recurso.LISTA_DESEOS, List.of()));
+        registrarModificacion(RecursoModificadoEvent.de(Recurso.OUTFIT, cambiados));
+    }
+
+    public long getVersion(Recurso recurso) {
+        return versiones.get(recurso).coleccion.get();
+    }
+
+    public long getVersion(Recurso recurso, Long id) {
+        return versiones.get(recurso).entidades.getOrDefault(id, 0L);
+    }
+
+    /**
+     * ETag de un listado, que cambia con cualquier escritura sobre los recursos que
+     * muestra.
+     *
+     * @param recursos Recurso listado y recursos incluidos en cada elemento.
+     */
+    public String getEtag(Recurso... recursos) {
+        StringBuilder etag = new StringBuilder("\"").append(epoca);
+        for (Recurso recurso : recursos)
+            etag.append('.').append(getVersion(recurso));
+        return etag.append('"').toString();
+    }
+
+    /**
+     * ETag de una entidad, que cambia con las escrituras sobre ella y con cualquier
+     * escritura sobre los recursos que incluye su representación.
+     *
+     * @param recurso   Recurso de la entidad.
+     * @param id        Identificador de la entidad.
+     * @param incluidos Recursos incluidos en su representación.
+     */
+    public String getEtag(Recurso recurso, Long id, Recurso... incluidos) {
+        StringBuilder etag = new StringBuilder("\"").append(epoca).append('.').append(id).append('.')
+                .append(getVersion(recurso, id));
+        for (Recurso incluido : incluidos)
+            etag.append('.').append(getVersion(incluido));
+        return etag.append('"').toString();
+    }
+
+    private static final class Versiones {
+
+        private final AtomicLong coleccion = new AtomicLong();
+        private final Map<Long, Long> entidades = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,134 @@
+package co.edu.udistrital.mdp.back.carga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pruebas de la lectura de colecciones de Postman del generador de carga.
+ */
+class ColeccionTest {
+
+    private static final String COLECCION = """
+            {
+              "info": {"name": "Usuario"},
+              "item": [
+                {
+                  "name": "Crear un usuario",
+                  "event": [{
+                    "listen": "test",
+                    "script": {"exec": [
+                      "var data = pm.response.json();",
+                      "pm.globals.set(\\"usuario_id_1\\", data.id);",
+                      "pm.environment.set('primer_outfit', data.outfits[0].id);",
+                      "pm.globals.set(\\"fijo\\", \\"constante\\");",
+                      "pm.test(\\"Status code is 201\\", function () { pm.response.to.have.status(201); });"
+                    ]}
+                  }],
+                  "request": {
+                    "method": "POST",
+                    "header": [
+                      {"key": "Accept", "value": "application/json"},
+                      {"key": "Host", "value": "otro"},
+                      {"key": "X-Desactivado", "value": "1", "disabled": true}
+                    ],
+                    "body": {"mode": "raw", "raw": "{\\"nombre\\": \\"Ana\\"}", "options": {"raw": {"language": "json"}}},
+                    "url": {"raw": "{{baseUrl}}/usuarios\\n  "}
+                  }
+                },
+                {
+                  "name": "Consultas",
+                  "item": [
+                    {
+                      "name": "Obtener un usuario",
+                      "event": [{
+                        "listen": "test",
+                        "script": {"exec": ["pm.collectionVariables.set(\\"lista_id\\", pm.response.json().wishlist.id);"]}
+                      }],
+                      "request": {"method": "GET", "url": "{{baseUrl}}/usuarios/{{usuario_id_1}}"}
+                    }
+                  ]
+                },
+                {
+                  "name": "Subir imagen",
+                  "request": {"method": "POST", "body": {"mode": "formdata", "formdata": []},
+                    "url": {"raw": "{{baseUrl}}/imagenes"}}
+                },
+                {
+                  "name": "Texto",
+                  "request": {"method": "PUT", "body": {"mode": "raw", "raw": "hola"},
+                    "url": {"raw": "{{baseUrl}}/texto"}}
+                }
+              ],
+              "variable": [
+                {"key": "baseUrl", "value": "http://localhost:8080/api"},
+                {"key": "apagada", "value": "x", "disabled": true}
+              ]
+            }
+            """;
+
+    @TempDir
+    private Path directorio;
+
+    private Coleccion leer(String json) throws IOException {
+        Path archivo = directorio.resolve("Usuario.postman_collection.json");
+        Files.writeString(archivo, json);
+        return Coleccion.leer(archivo);
+    }
+
+    @Test
+    void testLeerPeticiones() throws IOException {
+        Coleccion coleccion = leer(COLECCION);
+
+        assertEquals("Usuario", coleccion.nombre());
+        // Las carpetas se aplanan y se omiten los cuerpos que no son raw
+        assertEquals(List.of("Usuario/Crear un usuario", "Usuario/Obtener un usuario", "Usuario/Texto"),
+                coleccion.peticiones().stream().map(Peticion::clave).toList());
+        assertEquals(Map.of("baseUrl", "http://localhost:8080/api"), coleccion.variables());
+    }
+
+    @Test
+    void testLeerSolicitud() throws IOException {
+        Peticion crear = leer(COLECCION).peticiones().get(0);
+
+        assertEquals("POST", crear.metodo());
+        assertEquals("{{baseUrl}}/usuarios", crear.url());
+        assertEquals("{\"nombre\": \"Ana\"}", crear.cuerpo());
+        assertEquals(Map.of("Accept", "application/json", "Content-Type", "application/json"), crear.encabezados());
+    }
+
+    @Test
+    void testLeerSolicitudSinCuerpo() throws IOException {
+        List<Peticion> peticiones = leer(COLECCION).peticiones();
+
+        Peticion obtener = peticiones.get(1);
+        assertEquals("GET", obtener.metodo());
+        assertEquals("{{baseUrl}}/usuarios/{{usuario_id_1}}", obtener.url());
+        assertNull(obtener.cuerpo());
+        assertTrue(obtener.encabezados().isEmpty());
+
+        assertEquals(Map.of("Content-Type", "text/plain"), peticiones.get(2).encabezados());
+    }
+
+    @Test
+    void testLeerCapturas() throws IOException {
+        List<Peticion> peticiones = leer(COLECCION).peticiones();
+
+        // "fijo" no sale de la respuesta
+        assertEquals(Map.of("usuario_id_1", ".id", "primer_outfit", ".outfits[0].id"), peticiones.get(0).capturas());
+        assertEquals(Map.of("lista_id", ".wishlist.id"), peticiones.get(1).capturas());
+        assertTrue(peticiones.get(2).capturas().isEmpty());
+    }
+
+    @Test
+    void testLeerNoJson() throws IOException {
+        assertThrows(IOException.class, () -> leer("{ no es JSON"));
+    }
+}
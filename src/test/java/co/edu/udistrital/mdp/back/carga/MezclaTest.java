@@ -0,0 +1,62 @@
+package co.edu.udistrital.mdp.back.carga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de la mezcla de peticiones del generador de carga.
+ */
+class MezclaTest {
+
+    private static final Peticion LISTAR = peticion("Marca", "Obtener marcas", "GET");
+    private static final Peticion OBTENER = peticion("Marca", "Obtener una marca", "GET");
+    private static final Peticion CREAR = peticion("Marca", "Crear una marca", "POST");
+    private static final Peticion USUARIO = peticion("Usuario", "Obtener un usuario", "GET");
+    private static final List<Peticion> DISPONIBLES = List.of(LISTAR, OBTENER, CREAR, USUARIO);
+
+    private static Peticion peticion(String coleccion, String nombre, String metodo) {
+        return new Peticion(coleccion, nombre, metodo, "{{baseUrl}}/" + nombre, null, Map.of(), Map.of());
+    }
+
+    @Test
+    void testMezclaPorDefecto() {
+        Mezcla mezcla = Mezcla.de(DISPONIBLES, null);
+
+        assertEquals(List.of(LISTAR, OBTENER, USUARIO), mezcla.peticiones());
+        assertEquals(1.0 / 3, mezcla.proporcion(OBTENER), 1e-9);
+    }
+
+    @Test
+    void testMezclaConPesos() {
+        Mezcla mezcla = Mezcla.de(DISPONIBLES, "Marca/*=1, Usuario/Obtener un usuario=5");
+
+        assertEquals(List.of(LISTAR, OBTENER, CREAR, USUARIO), mezcla.peticiones());
+        assertEquals(0.625, mezcla.proporcion(USUARIO), 1e-9);
+        assertEquals(0.125, mezcla.proporcion(CREAR), 1e-9);
+        assertTrue(mezcla.peticiones().contains(mezcla.siguiente()));
+    }
+
+    @Test
+    void testMezclaInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> Mezcla.de(DISPONIBLES, "Prenda/*"));
+        assertThrows(IllegalArgumentException.class, () -> Mezcla.de(DISPONIBLES, "Marca/*=0"));
+        assertThrows(IllegalArgumentException.class, () -> Mezcla.de(List.of(CREAR), null));
+    }
+
+    @Test
+    void testSinPeticiones() {
+        Mezcla mezcla = Mezcla.de(DISPONIBLES, "Marca/Obtener marcas=2,Marca/Obtener una marca=1,Usuario/*=1")
+                .sin(Set.of(OBTENER));
+
+        assertEquals(List.of(LISTAR, USUARIO), mezcla.peticiones());
+        assertEquals(2.0 / 3, mezcla.proporcion(LISTAR), 1e-9);
+        for (int i = 0; i < 100; i++)
+            assertNotEquals(OBTENER, mezcla.siguiente());
+        assertThrows(IllegalArgumentException.class, () -> mezcla.sin(Set.of(LISTAR, USUARIO)));
+    }
+}
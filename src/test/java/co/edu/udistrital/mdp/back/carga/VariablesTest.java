@@ -0,0 +1,101 @@
+package co.edu.udistrital.mdp.back.carga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de la resolución y la captura de variables del generador de carga.
+ */
+class VariablesTest {
+
+    private Variables variables;
+
+    @BeforeEach
+    void setUp() {
+        variables = new Variables();
+        variables.poner("baseUrl", "http://localhost:8080/api");
+        variables.poner("usuario_id", "7");
+    }
+
+    @Test
+    void testResolver() {
+        assertEquals("http://localhost:8080/api/usuarios/7", variables.resolver("{{baseUrl}}/usuarios/{{usuario_id}}"));
+        assertEquals("{\"id\": 7}", variables.resolver("{\"id\": {{ usuario_id }}}"));
+        assertEquals("sin variables", variables.resolver("sin variables"));
+        assertNull(variables.resolver(null));
+    }
+
+    @Test
+    void testResolverSinDistinguirMayusculas() {
+        assertEquals("http://localhost:8080/api/marcas", variables.resolver("{{baseURL}}/marcas"));
+    }
+
+    @Test
+    void testResolverVariableFaltante() {
+        NoSuchElementException e = assertThrows(NoSuchElementException.class,
+                () -> variables.resolver("{{baseUrl}}/outfits/{{outfit_id}}"));
+        assertEquals("outfit_id", e.getMessage());
+    }
+
+    @Test
+    void testResolverValorConCaracteresEspeciales() {
+        variables.poner("nombre", "a$1\\b");
+        assertEquals("nombre=a$1\\b", variables.resolver("nombre={{nombre}}"));
+    }
+
+    @Test
+    void testUsadas() {
+        assertEquals(Set.of("baseUrl", "outfit_id"), Variables.usadas("{{baseUrl}}/outfits/{{ outfit_id }}"));
+        assertTrue(Variables.usadas(null).isEmpty());
+        assertTrue(Variables.usadas("{outfit_id}}").isEmpty());
+    }
+
+    @Test
+    void testCopiaIndependiente() {
+        Variables copia = variables.copia();
+        copia.poner("usuario_id", "8");
+        copia.poner("nueva", "x");
+
+        assertEquals("7", variables.resolver("{{usuario_id}}"));
+        assertFalse(variables.contiene("nueva"));
+        assertEquals("8", copia.resolver("{{usuario_id}}"));
+    }
+
+    @Test
+    void testCapturar() {
+        byte[] respuesta = """
+                {"id": 15, "nombre": "Ana", "outfits": [{"id": 3}, {"id": 4}], "wishlist": {"id": 2}}
+                """.getBytes(StandardCharsets.UTF_8);
+        variables.capturar(Map.of("usuario_id", ".id", "outfit_id", ".outfits[1].id", "lista", ".wishlist",
+                "nombre", ".nombre"), respuesta);
+
+        assertEquals("15", variables.resolver("{{usuario_id}}"));
+        assertEquals("4", variables.resolver("{{outfit_id}}"));
+        assertEquals("{\"id\":2}", variables.resolver("{{lista}}"));
+        assertEquals("Ana", variables.resolver("{{nombre}}"));
+    }
+
+    @Test
+    void testCapturarLista() {
+        byte[] respuesta = "[{\"id\": 21}, {\"id\": 22}]".getBytes(StandardCharsets.UTF_8);
+        variables.capturar(Map.of("primero", "[0].id"), respuesta);
+        assertEquals("21", variables.resolver("{{primero}}"));
+    }
+
+    @Test
+    void testCapturarRutaInexistente() {
+        variables.capturar(Map.of("usuario_id", ".id"),
+                "{\"apierror\": {\"status\": \"NOT_FOUND\"}}".getBytes(StandardCharsets.UTF_8));
+        variables.capturar(Map.of("usuario_id", ".id"), "{\"id\": null}".getBytes(StandardCharsets.UTF_8));
+        variables.capturar(Map.of("usuario_id", ".id"), "no es JSON".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("7", variables.resolver("{{usuario_id}}"));
+    }
+}
@@ -0,0 +1,270 @@
+package co.edu.udistrital.mdp.back.mappers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.udistrital.mdp.back.dto.CategoriaDetailDTO;
+import co.edu.udistrital.mdp.back.dto.ColorDetailDTO;
+import co.edu.udistrital.mdp.back.dto.ComentarioDTO;
+import co.edu.udistrital.mdp.back.dto.ImagenOutfitDTO;
+import co.edu.udistrital.mdp.back.dto.ImagenPrendaDTO;
+import co.edu.udistrital.mdp.back.dto.ListaDeseosDetailDTO;
+import co.edu.udistrital.mdp.back.dto.MarcaDTO;
+import co.edu.udistrital.mdp.back.dto.MarcaDetailDTO;
+import co.edu.udistrital.mdp.back.dto.OcasionDetailDTO;
+import co.edu.udistrital.mdp.back.dto.OutfitDTO;
+import co.edu.udistrital.mdp.back.dto.OutfitDetailDTO;
+import co.edu.udistrital.mdp.back.dto.PrendaDTO;
+import co.edu.udistrital.mdp.back.dto.PrendaDetailDTO;
+import co.edu.udistrital.mdp.back.dto.RecomendacionDTO;
+import co.edu.udistrital.mdp.back.dto.TiendaDTO;
+import co.edu.udistrital.mdp.back.dto.UsuarioDTO;
+import co.edu.udistrital.mdp.back.dto.UsuarioDetailDTO;
+import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.ImagenOutfitEntity;
+import co.edu.udistrital.mdp.back.entities.ImagenPrendaEntity;
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+import co.edu.udistrital.mdp.back.entities.OcasionEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.RecomendacionEntity;
+import co.edu.udistrital.mdp.back.entities.TiendaEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Verifica que los mappers generados producen la misma salida que ModelMapper.
+ * Los grafos se arman sin referencias de vuelta, que es el caso en el que la
+ * salida de ModelMapper se puede serializar.
+ */
+@SpringJUnitConfig({ OutfitMapperImpl.class, UsuarioMapperImpl.class, ListaDeseosMapperImpl.class,
+        CategoriaMapperImpl.class, OcasionMapperImpl.class, TiendaMapperImpl.class, PrendaMapperImpl.class,
+        ColorMapperImpl.class, MarcaMapperImpl.class, ImagenPrendaMapperImpl.class })
+class MapperTest {
+
+    @Autowired
+    private OutfitMapper outfitMapper;
+
+    @Autowired
+    private UsuarioMapper usuarioMapper;
+
+    @Autowired
+    private ListaDeseosMapper listaDeseosMapper;
+
+    @Autowired
+    private CategoriaMapper categoriaMapper;
+
+    @Autowired
+    private OcasionMapper ocasionMapper;
+
+    @Autowired
+    private TiendaMapper tiendaMapper;
+
+    @Autowired
+    private PrendaMapper prendaMapper;
+
+    @Autowired
+    private ColorMapper colorMapper;
+
+    @Autowired
+    private MarcaMapper marcaMapper;
+
+    @Autowired
+    private ImagenPrendaMapper imagenPrendaMapper;
+
+    private ModelMapper modelMapper = new ModelMapper();
+    private ObjectMapper json = new ObjectMapper();
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    private List<OutfitEntity> outfitList = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            OutfitEntity outfit = factory.manufacturePojo(OutfitEntity.class);
+            outfit.setId((long) i);
+            outfit.getImagen().setOutfit(null);
+            outfit.setRecomendaciones(new ArrayList<>());
+            outfitList.add(outfit);
+        }
+    }
+
+    private void assertMismaSalida(Object esperado, Object obtenido) throws JsonProcessingException {
+        assertEquals(json.writeValueAsString(esperado), json.writeValueAsString(obtenido));
+    }
+
+    @Test
+    void testOutfit() throws JsonProcessingException {
+        OutfitEntity outfit = outfitList.get(0);
+        outfit.getListasDeseos().add(factory.manufacturePojo(ListaDeseosEntity.class));
+        outfit.getRecomendaciones().add(factory.manufacturePojo(RecomendacionEntity.class));
+
+        assertMismaSalida(modelMapper.map(outfit, OutfitDetailDTO.class), outfitMapper.toDetailDTO(outfit));
+        assertMismaSalida(modelMapper.map(outfit, OutfitDTO.class), outfitMapper.toDTO(outfit));
+        assertMismaSalida(modelMapper.map(outfitList, new TypeToken<List<OutfitDetailDTO>>() {
+        }.getType()), outfitMapper.toDetailDTOList(outfitList));
+    }
+
+    @Test
+    void testOutfitSinImagen() throws JsonProcessingException {
+        OutfitEntity outfit = outfitList.get(0);
+        outfit.setImagen(null);
+
+        assertMismaSalida(modelMapper.map(outfit, OutfitDetailDTO.class), outfitMapper.toDetailDTO(outfit));
+    }
+
+    @Test
+    void testOutfitToEntity() throws JsonProcessingException {
+        OutfitDTO dto = factory.manufacturePojo(OutfitDTO.class);
+        dto.getImagen().setOutfit(null);
+
+        OutfitEntity esperado = modelMapper.map(dto, OutfitEntity.class);
+        OutfitEntity obtenido = outfitMapper.toEntity(dto);
+        assertEquals(esperado.getId(), obtenido.getId());
+        assertEquals(esperado.getNombre(), obtenido.getNombre());
+        assertEquals(esperado.getPrecioEstimado(), obtenido.getPrecioEstimado());
+        assertEquals(esperado.getImagen().getImagen(), obtenido.getImagen().getImagen());
+        assertEquals(esperado.getPrendas(), obtenido.getPrendas());
+        assertEquals(esperado.getListasDeseos(), obtenido.getListasDeseos());
+    }
+
+    @Test
+    void testImagenOutfitConReferenciaDeVuelta() throws JsonProcessingException {
+        OutfitEntity outfit = outfitList.get(0);
+        outfit.getImagen().setOutfit(outfit);
+
+        OutfitDetailDTO dto = outfitMapper.toDetailDTO(outfit);
+        assertEquals(outfit.getImagen().getImagen(), dto.getImagen().getImagen());
+        assertEquals(outfit.getId(), dto.getImagen().getOutfit().getId());
+        assertNull(dto.getImagen().getOutfit().getImagen());
+        assertNotNull(json.writeValueAsString(dto));
+
+        ImagenOutfitDTO imagen = outfitMapper.toImagenDTO(outfit.getImagen());
+        assertEquals(outfit.getNombre(), imagen.getOutfit().getNombre());
+    }
+
+    @Test
+    void testRecomendacion() throws JsonProcessingException {
+        RecomendacionEntity recomendacion = factory.manufacturePojo(RecomendacionEntity.class);
+        recomendacion.setOutfit(outfitList.get(0));
+
+        assertMismaSalida(modelMapper.map(recomendacion, RecomendacionDTO.class),
+                outfitMapper.toRecomendacionDTO(recomendacion));
+    }
+
+    @Test
+    void testUsuario() throws JsonProcessingException {
+        List<UsuarioEntity> usuarios = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+            usuarios.add(factory.manufacturePojo(UsuarioEntity.class));
+
+        assertMismaSalida(modelMapper.map(usuarios, new TypeToken<List<UsuarioDetailDTO>>() {
+        }.getType()), usuarioMapper.toDetailDTOList(usuarios));
+        assertMismaSalida(modelMapper.map(usuarios.get(0), UsuarioDTO.class), usuarioMapper.toDTO(usuarios.get(0)));
+    }
+
+    @Test
+    void testUsuarioConComentarios() throws JsonProcessingException {
+        UsuarioEntity usuario = factory.manufacturePojo(UsuarioEntity.class);
+        ComentarioEntity comentario = factory.manufacturePojo(ComentarioEntity.class);
+        comentario.setUsuario(usuario);
+        usuario.getComentarios().add(comentario);
+
+        UsuarioDetailDTO dto = usuarioMapper.toDetailDTO(usuario);
+        assertEquals(1, dto.getComentarios().size());
+        assertEquals(comentario.getTexto(), dto.getComentarios().get(0).getTexto());
+        assertEquals(usuario.getId(), dto.getComentarios().get(0).getUsuario().getId());
+        assertNull(dto.getComentarios().get(0).getUsuario().getComentarios());
+        assertNotNull(json.writeValueAsString(dto));
+    }
+
+    @Test
+    void testComentario() throws JsonProcessingException {
+        ComentarioEntity comentario = factory.manufacturePojo(ComentarioEntity.class);
+        comentario.getUsuario().setComentarios(null);
+
+        assertMismaSalida(modelMapper.map(comentario, ComentarioDTO.class), usuarioMapper.toComentarioDTO(comentario));
+    }
+
+    @Test
+    void testListaDeseos() throws JsonProcessingException {
+        ListaDeseosEntity lista = factory.manufacturePojo(ListaDeseosEntity.class);
+        lista.setOutfits(outfitList);
+
+        assertMismaSalida(modelMapper.map(lista, ListaDeseosDetailDTO.class), listaDeseosMapper.toDetailDTO(lista));
+        assertMismaSalida(modelMapper.map(List.of(lista), new TypeToken<List<ListaDeseosDetailDTO>>() {
+        }.getType()), listaDeseosMapper.toDetailDTOList(List.of(lista)));
+    }
+
+    @Test
+    void testCategoriaYOcasion() throws JsonProcessingException {
+        CategoriaEntity categoria = factory.manufacturePojo(CategoriaEntity.class);
+        categoria.setOutfits(outfitList);
+        OcasionEntity ocasion = factory.manufacturePojo(OcasionEntity.class);
+        ocasion.getCategorias().add(categoria);
+
+        assertMismaSalida(modelMapper.map(categoria, CategoriaDetailDTO.class), categoriaMapper.toDetailDTO(categoria));
+        assertMismaSalida(modelMapper.map(ocasion, OcasionDetailDTO.class), ocasionMapper.toDetailDTO(ocasion));
+    }
+
+    @Test
+    void testTienda() throws JsonProcessingException {
+        TiendaEntity tienda = factory.manufacturePojo(TiendaEntity.class);
+
+        assertMismaSalida(modelMapper.map(tienda, TiendaDTO.class), tiendaMapper.toDTO(tienda));
+    }
+
+    @Test
+    void testPrendaColorYMarca() throws JsonProcessingException {
+        MarcaEntity marca = factory.manufacturePojo(MarcaEntity.class);
+        marca.setImagen(factory.manufacturePojo(ImagenPrendaEntity.class));
+        marca.setTiendas(List.of(factory.manufacturePojo(TiendaEntity.class)));
+        ColorEntity color = factory.manufacturePojo(ColorEntity.class);
+        color.setPrendas(null);
+        PrendaEntity prenda = factory.manufacturePojo(PrendaEntity.class);
+        prenda.setColor(color);
+        prenda.setMarca(marca);
+        prenda.setOutfits(outfitList);
+
+        assertMismaSalida(modelMapper.map(prenda, PrendaDTO.class), prendaMapper.toDTO(prenda));
+        assertMismaSalida(modelMapper.map(prenda, PrendaDetailDTO.class), prendaMapper.toDetailDTO(prenda));
+        assertMismaSalida(modelMapper.map(marca, MarcaDTO.class), marcaMapper.toDTO(marca));
+        assertMismaSalida(modelMapper.map(marca, MarcaDetailDTO.class), marcaMapper.toDetailDTO(marca));
+        assertMismaSalida(modelMapper.map(color, ColorDetailDTO.class), colorMapper.toDetailDTO(color));
+
+        ImagenPrendaEntity imagen = factory.manufacturePojo(ImagenPrendaEntity.class);
+        imagen.setMarca(marca);
+        assertMismaSalida(modelMapper.map(imagen, ImagenPrendaDTO.class), imagenPrendaMapper.toDTO(imagen));
+    }
+
+    @Test
+    void testColorConPrendas() throws JsonProcessingException {
+        ColorEntity color = factory.manufacturePojo(ColorEntity.class);
+        PrendaEntity prenda = factory.manufacturePojo(PrendaEntity.class);
+        prenda.setColor(color);
+        color.setPrendas(new ArrayList<>(List.of(prenda)));
+
+        ColorDetailDTO dto = colorMapper.toDetailDTO(color);
+        assertEquals(prenda.getNombre(), dto.getPrendas().get(0).getNombre());
+        assertEquals(color.getNombre(), dto.getPrendas().get(0).getColor().getNombre());
+        assertNull(dto.getPrendas().get(0).getColor().getPrendas());
+        assertNotNull(json.writeValueAsString(dto));
+    }
+}
@@ -0,0 +1,223 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.entities.ImagenPrendaEntity;
+import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.TiendaEntity;
+import co.edu.udistrital.mdp.back.repositories.CategoriaRepository;
+import co.edu.udistrital.mdp.back.repositories.ColorRepository;
+import co.edu.udistrital.mdp.back.repositories.MarcaRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.repositories.TiendaRepository;
+import co.edu.udistrital.mdp.back.services.BusquedaPrendas.ValorFaceta;
+import co.edu.udistrital.mdp.back.services.PrendaFacetasIndex.Faceta;
+
+/**
+ * Pruebas de la búsqueda de prendas por facetas. No son transaccionales: el índice
+ * solo se actualiza cuando se confirma la transacción que cambió la prenda.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ PrendaService.class, PrecioOutfitService.class, PrendaFacetasIndex.class })
+class BusquedaPrendasTest {
+
+    @Autowired
+    private PrendaService prendaService;
+
+    @Autowired
+    private PrendaFacetasIndex prendaFacetasIndex;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    @Autowired
+    private ColorRepository colorRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private TiendaRepository tiendaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ColorEntity rojo;
+    private ColorEntity azul;
+    private MarcaEntity gef;
+    private MarcaEntity koaj;
+    private CategoriaEntity camisas;
+    private TiendaEntity andino;
+    private List<PrendaEntity> prendas = new ArrayList<>();
+
+    /**
+     * Crea cinco prendas: (Rojo, Gef, Andino), (Rojo, Koaj), (Azul, Gef), (Azul, Gef)
+     * y (Rojo, Gef), todas de la categoría Camisas.
+     */
+    @BeforeEach
+    void setUp() {
+        rojo = colorRepository.save(color("Rojo", "#FF0000"));
+        azul = colorRepository.save(color("Azul", "#0000FF"));
+        gef = marcaRepository.save(marca("Gef"));
+        koaj = marcaRepository.save(marca("Koaj"));
+        CategoriaEntity categoria = new CategoriaEntity();
+        categoria.setNombre("Camisas");
+        camisas = categoriaRepository.save(categoria);
+        TiendaEntity tienda = new TiendaEntity();
+        tienda.setNombre("Andino");
+        andino = tiendaRepository.save(tienda);
+
+        prendas.add(prendaRepository.save(prenda(rojo, gef, andino)));
+        prendas.add(prendaRepository.save(prenda(rojo, koaj, null)));
+        prendas.add(prendaRepository.save(prenda(azul, gef, null)));
+        prendas.add(prendaRepository.save(prenda(azul, gef, null)));
+        prendas.add(prendaRepository.save(prenda(rojo, gef, null)));
+        prendaFacetasIndex.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        prendaRepository.deleteAll();
+        tiendaRepository.deleteAll();
+        marcaRepository.deleteAll();
+        colorRepository.deleteAll();
+        categoriaRepository.deleteAll();
+        prendaFacetasIndex.reconstruir();
+    }
+
+    private static ColorEntity color(String nombre, String codigoHex) {
+        ColorEntity color = new ColorEntity();
+        color.setNombre(nombre);
+        color.setCodigoHex(codigoHex);
+        return color;
+    }
+
+    private static MarcaEntity marca(String nombre) {
+        MarcaEntity marca = new MarcaEntity();
+        marca.setNombre(nombre);
+        return marca;
+    }
+
+    private PrendaEntity prenda(ColorEntity color, MarcaEntity marca, TiendaEntity tienda) {
+        PrendaEntity prenda = new PrendaEntity();
+        prenda.setNombre("Camisa " + color.getNombre() + " " + marca.getNombre());
+        prenda.setColor(color);
+        prenda.setMarca(marca);
+        prenda.setCategoria(camisas);
+        prenda.setTienda(tienda);
+        return prenda;
+    }
+
+    private static Map<Faceta, List<Long>> filtros(List<Long> colores, List<Long> marcas) {
+        Map<Faceta, List<Long>> filtros = new EnumMap<>(Faceta.class);
+        filtros.put(Faceta.COLOR, colores);
+        filtros.put(Faceta.MARCA, marcas);
+        return filtros;
+    }
+
+    private static List<Long> ids(List<PrendaEntity> prendas) {
+        return prendas.stream().map(PrendaEntity::getId).toList();
+    }
+
+    /**
+     * Prueba el filtro por color y los conteos de cada faceta: los de la faceta
+     * filtrada no dependen de su propio filtro.
+     */
+    @Test
+    void testBuscarConConteos() throws Exception {
+        BusquedaPrendas busqueda = prendaService.buscarPrendas(filtros(List.of(rojo.getId()), null), null, null);
+
+        assertEquals(3, busqueda.getTotal());
+        assertEquals(ids(List.of(prendas.get(0), prendas.get(1), prendas.get(4))),
+                ids(busqueda.getPagina().getContent()));
+        assertEquals(List.of(new ValorFaceta(rojo.getId(), "Rojo", 3), new ValorFaceta(azul.getId(), "Azul", 2)),
+                busqueda.getFacetas().get("color"));
+        assertEquals(List.of(new ValorFaceta(gef.getId(), "Gef", 2), new ValorFaceta(koaj.getId(), "Koaj", 1)),
+                busqueda.getFacetas().get("marca"));
+        assertEquals(List.of(new ValorFaceta(andino.getId(), "Andino", 1)), busqueda.getFacetas().get("tienda"));
+        assertEquals(List.of(new ValorFaceta(camisas.getId(), "Camisas", 3)),
+                busqueda.getFacetas().get("categoria"));
+    }
+
+    /**
+     * Prueba la combinación de facetas: uno de los valores dentro de cada faceta y
+     * todas las facetas a la vez.
+     */
+    @Test
+    void testBuscarCombinandoFacetas() throws Exception {
+        BusquedaPrendas busqueda = prendaService.buscarPrendas(
+                filtros(List.of(rojo.getId()), List.of(gef.getId())), null, null);
+        assertEquals(2, busqueda.getTotal());
+        assertEquals(List.of(new ValorFaceta(rojo.getId(), "Rojo", 2), new ValorFaceta(azul.getId(), "Azul", 2)),
+                busqueda.getFacetas().get("color"));
+
+        busqueda = prendaService.buscarPrendas(
+                filtros(List.of(rojo.getId(), azul.getId()), List.of(koaj.getId())), null, null);
+        assertEquals(ids(List.of(prendas.get(1))), ids(busqueda.getPagina().getContent()));
+
+        busqueda = prendaService.buscarPrendas(filtros(List.of(0L), null), null, null);
+        assertEquals(0, busqueda.getTotal());
+        assertTrue(busqueda.getPagina().getContent().isEmpty());
+    }
+
+    /**
+     * Prueba que recorrer las páginas con el cursor devuelve todas las prendas una vez.
+     */
+    @Test
+    void testBuscarPaginado() throws Exception {
+        List<PrendaEntity> recorridas = new ArrayList<>();
+        String cursor = null;
+        do {
+            BusquedaPrendas busqueda = prendaService.buscarPrendas(filtros(null, null), cursor, 2);
+            assertTrue(busqueda.getPagina().getContent().size() <= 2);
+            recorridas.addAll(busqueda.getPagina().getContent());
+            cursor = busqueda.getPagina().getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(ids(prendas), ids(recorridas));
+    }
+
+    /**
+     * Prueba que el índice sigue a las prendas creadas, actualizadas y eliminadas.
+     */
+    @Test
+    void testIndiceSincronizado() throws Exception {
+        PrendaEntity nueva = prenda(azul, koaj, null);
+        nueva.setImagen(new ImagenPrendaEntity());
+        nueva = prendaService.createPrenda(nueva);
+        assertEquals(3, prendaService.buscarPrendas(filtros(List.of(azul.getId()), null), null, null).getTotal());
+
+        PrendaEntity cambios = prenda(rojo, koaj, null);
+        cambios.setNombre("Camisa roja");
+        cambios.setImagen(nueva.getImagen());
+        prendaService.updatePrenda(nueva.getId(), cambios);
+        assertEquals(2, prendaService.buscarPrendas(filtros(List.of(azul.getId()), null), null, null).getTotal());
+        assertEquals(2, prendaService.buscarPrendas(filtros(null, List.of(koaj.getId())), null, null).getTotal());
+
+        prendaService.deletePrenda(prendas.get(1).getId());
+        BusquedaPrendas busqueda = prendaService.buscarPrendas(filtros(List.of(rojo.getId()), null), null, null);
+        assertEquals(ids(List.of(prendas.get(0), prendas.get(4), nueva)), ids(busqueda.getPagina().getContent()));
+    }
+}
@@ -0,0 +1,285 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.ImagenPrendaEntity;
+import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.CategoriaRepository;
+import co.edu.udistrital.mdp.back.repositories.ColorRepository;
+import co.edu.udistrital.mdp.back.repositories.ComentarioRepository;
+import co.edu.udistrital.mdp.back.repositories.MarcaRepository;
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.repositories.UsuarioRepository;
+import co.edu.udistrital.mdp.back.services.BusquedaTextoIndex.Tipo;
+
+/**
+ * Pruebas de la búsqueda de texto. No son transaccionales: el índice solo se
+ * actualiza cuando se confirma la transacción que cambió el texto.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ BusquedaTextoService.class, BusquedaTextoIndex.class, PrendaService.class, PrecioOutfitService.class,
+        PrendaFacetasIndex.class, ComentarioService.class, CalificacionesOutfitService.class,
+        MejorCalificadosIndex.class })
+class BusquedaTextoTest {
+
+    private static final Path ARCHIVO;
+
+    static {
+        try {
+            ARCHIVO = Files.createTempDirectory("busqueda-texto").resolve("indice.idx");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        registro.add("busqueda.texto.archivo", ARCHIVO::toString);
+    }
+
+    @Autowired
+    private BusquedaTextoService busquedaTextoService;
+
+    @Autowired
+    private BusquedaTextoIndex busquedaTextoIndex;
+
+    @Autowired
+    private PrendaService prendaService;
+
+    @Autowired
+    private ComentarioService comentarioService;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    @Autowired
+    private OutfitRepository outfitRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private ComentarioRepository comentarioRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ColorRepository colorRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    private MarcaEntity marca;
+    private UsuarioEntity usuario;
+
+    @BeforeEach
+    void setUp() {
+        marca = new MarcaEntity();
+        marca.setNombre("Pantalonería Azulada");
+        marca = marcaRepository.save(marca);
+
+        prendaRepository.save(prenda("Pantalón Azul Marino"));
+        prendaRepository.save(prenda("Camisa azul"));
+        prendaRepository.save(prenda("Pantalones de dril"));
+        prendaRepository.save(prenda("Chaqueta negra"));
+
+        OutfitEntity outfit = new OutfitEntity();
+        outfit.setNombre("Oficina con pantalón azul");
+        outfitRepository.save(outfit);
+
+        usuario = new UsuarioEntity();
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@correo.com");
+        usuario = usuarioRepository.save(usuario);
+        ComentarioEntity comentario = new ComentarioEntity();
+        comentario.setTexto("Los pantalones azules me quedaron perfectos");
+        comentario.setUsuario(usuario);
+        comentarioRepository.save(comentario);
+
+        busquedaTextoIndex.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        comentarioRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        outfitRepository.deleteAll();
+        prendaRepository.deleteAll();
+        marcaRepository.deleteAll();
+        colorRepository.deleteAll();
+        categoriaRepository.deleteAll();
+        busquedaTextoIndex.reconstruir();
+    }
+
+    private PrendaEntity prenda(String nombre) {
+        PrendaEntity prenda = new PrendaEntity();
+        prenda.setNombre(nombre);
+        prenda.setMarca(marca);
+        return prenda;
+    }
+
+    /**
+     * Aplica un cambio de texto como al confirmarse su transacción: lo cuenta en la
+     * base de datos y lo indexa.
+     */
+    private void cambiar(TextoModificadoEvent evento) {
+        busquedaTextoIndex.contarCambio(evento);
+        busquedaTextoIndex.registrarCambio(evento);
+    }
+
+    private static List<String> textos(List<ResultadoBusquedaTexto> resultados) {
+        return resultados.stream().map(ResultadoBusquedaTexto::getTexto).toList();
+    }
+
+    /**
+     * Prueba que la búsqueda no distingue tildes, mayúsculas ni plurales, y que el
+     * documento con todos los términos queda primero.
+     */
+    @Test
+    void testBuscarSinTildes() throws Exception {
+        List<ResultadoBusquedaTexto> resultados = busquedaTextoService.buscar("pantalon azul", null, null);
+
+        assertEquals("Pantalón Azul Marino", resultados.get(0).getTexto());
+        assertEquals(Tipo.PRENDA, resultados.get(0).getTipo());
+        assertTrue(textos(resultados).containsAll(List.of("Camisa azul", "Pantalones de dril",
+                "Oficina con pantalón azul", "Los pantalones azules me quedaron perfectos")));
+        assertFalse(textos(resultados).contains("Chaqueta negra"));
+        for (int i = 1; i < resultados.size(); i++)
+            assertTrue(resultados.get(i - 1).getPuntaje() >= resultados.get(i).getPuntaje());
+    }
+
+    /**
+     * Prueba el filtro por tipo y el límite de resultados.
+     */
+    @Test
+    void testBuscarPorTipo() throws Exception {
+        List<ResultadoBusquedaTexto> resultados = busquedaTextoService.buscar("PANTALONES", "comentario", null);
+        assertEquals(List.of("Los pantalones azules me quedaron perfectos"), textos(resultados));
+
+        resultados = busquedaTextoService.buscar("pantalón", "prenda", 1);
+        assertEquals(1, resultados.size());
+        assertEquals(Tipo.PRENDA, resultados.get(0).getTipo());
+
+        assertTrue(busquedaTextoService.buscar("zapatos", null, null).isEmpty());
+    }
+
+    /**
+     * Prueba que una consulta sin palabras o un tipo inexistente no se aceptan.
+     */
+    @Test
+    void testBuscarConsultaInvalida() {
+        assertThrows(IllegalOperationException.class, () -> busquedaTextoService.buscar(" de la ", null, null));
+        assertThrows(IllegalOperationException.class, () -> busquedaTextoService.buscar("azul", "tienda", null));
+        assertThrows(IllegalOperationException.class, () -> busquedaTextoService.buscar("azul", null, 0));
+    }
+
+    /**
+     * Prueba que el índice sigue a las prendas y comentarios creados, actualizados y eliminados.
+     */
+    @Test
+    void testIndiceSincronizado() throws Exception {
+        ColorEntity color = new ColorEntity();
+        color.setNombre("Verde");
+        color.setCodigoHex("#00FF00");
+        color = colorRepository.save(color);
+        CategoriaEntity categoria = new CategoriaEntity();
+        categoria.setNombre("Faldas");
+        categoria = categoriaRepository.save(categoria);
+
+        PrendaEntity nueva = prenda("Falda plisada");
+        nueva.setColor(color);
+        nueva.setCategoria(categoria);
+        nueva.setImagen(new ImagenPrendaEntity());
+        nueva = prendaService.createPrenda(nueva);
+        assertEquals(List.of("Falda plisada"), textos(busquedaTextoService.buscar("faldas", null, null)));
+
+        PrendaEntity cambios = prenda("Falda de jean");
+        cambios.setColor(color);
+        cambios.setCategoria(categoria);
+        cambios.setImagen(nueva.getImagen());
+        prendaService.updatePrenda(nueva.getId(), cambios);
+        assertTrue(busquedaTextoService.buscar("plisada", null, null).isEmpty());
+        assertEquals(List.of("Falda de jean"), textos(busquedaTextoService.buscar("jean", null, null)));
+
+        ComentarioEntity comentario = new ComentarioEntity();
+        comentario.setTexto("La falda encogió");
+        comentario = comentarioService.createComentario(usuario.getId(), comentario);
+        assertEquals(2, busquedaTextoService.buscar("falda", null, null).size());
+
+        comentarioService.deleteComentario(usuario.getId(), comentario.getId());
+        assertEquals(List.of("Falda de jean"), textos(busquedaTextoService.buscar("falda", null, null)));
+    }
+
+    /**
+     * Prueba que el índice guardado se vuelve a cargar con los cambios posteriores a
+     * la reconstrucción, y que se reconstruye si la base de datos cambió sin pasar por él.
+     */
+    @Test
+    void testGuardarYCargar() throws Exception {
+        PrendaEntity prenda = prendaRepository.save(prenda("Vestido largo"));
+        cambiar(TextoModificadoEvent.guardado(Tipo.PRENDA, prenda.getId(), "Vestido largo"));
+        cambiar(TextoModificadoEvent.eliminado(Tipo.PRENDA, prenda.getId()));
+        cambiar(TextoModificadoEvent.guardado(Tipo.PRENDA, prenda.getId(), "Vestido corto"));
+        busquedaTextoIndex.guardar();
+        assertTrue(Files.size(ARCHIVO) > 0);
+
+        busquedaTextoIndex.cargar();
+        assertEquals(List.of("Vestido largo"), textos(busquedaTextoService.buscar("corto", null, null)));
+        assertTrue(busquedaTextoService.buscar("largo", null, null).isEmpty());
+        assertEquals("Pantalón Azul Marino", busquedaTextoService.buscar("pantalon azul", null, null).get(0).getTexto());
+
+        // La huella ya no coincide: se reconstruye desde las tablas
+        prendaRepository.save(prenda("Vestido de baño"));
+        busquedaTextoIndex.cargar();
+        assertTrue(busquedaTextoService.buscar("corto", null, null).isEmpty());
+        assertEquals(2, busquedaTextoService.buscar("vestido", null, null).size());
+    }
+
+    /**
+     * Prueba que un cambio confirmado después del último guardado, que se pierde si
+     * el proceso termina sin volver a guardar, obliga a reconstruir el índice aunque
+     * no cambien el número de filas ni el id máximo.
+     */
+    @Test
+    void testCargarConCambioSinGuardar() throws Exception {
+        busquedaTextoIndex.guardar();
+
+        ComentarioEntity comentario = comentarioRepository.findAll().get(0);
+        ComentarioEntity cambios = new ComentarioEntity();
+        cambios.setTexto("La camiseta destiñó");
+        comentarioService.updateComentario(usuario.getId(), comentario.getId(), cambios);
+        assertEquals(1, busquedaTextoService.buscar("destiño", null, null).size());
+
+        // El archivo no tiene el cambio: se reconstruye en vez de usarlo
+        busquedaTextoIndex.cargar();
+        assertEquals(1, busquedaTextoService.buscar("destiño", null, null).size());
+        assertTrue(busquedaTextoService.buscar("perfectos", null, null).isEmpty());
+    }
+}
@@ -0,0 +1,175 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.TiendaEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.repositories.CategoriaRepository;
+import co.edu.udistrital.mdp.back.repositories.ColorRepository;
+import co.edu.udistrital.mdp.back.repositories.ListaDeseosRepository;
+import co.edu.udistrital.mdp.back.repositories.MarcaRepository;
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.repositories.TiendaRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Pruebas de la invalidación del caché de segundo nivel. No son transaccionales:
+ * el caché solo se actualiza cuando cada operación del servicio se confirma.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ColorService.class, TiendaService.class, ListaDeseosOutfitService.class })
+class CacheSegundoNivelTest {
+
+    private static final String TIENDAS_DE_MARCA = MarcaEntity.class.getName() + ".tiendas";
+
+    @Autowired
+    private ColorService colorService;
+
+    @Autowired
+    private TiendaService tiendaService;
+
+    @Autowired
+    private ColorRepository colorRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private TiendaRepository tiendaRepository;
+
+    @Autowired
+    private ListaDeseosOutfitService listaDeseosOutfitService;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private OutfitRepository outfitRepository;
+
+    @Autowired
+    private ListaDeseosRepository listaDeseosRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        listaDeseosRepository.deleteAll();
+        outfitRepository.deleteAll();
+        categoriaRepository.deleteAll();
+        tiendaRepository.deleteAll();
+        marcaRepository.deleteAll();
+        colorRepository.deleteAll();
+    }
+
+    private ColorEntity color(String nombre, String codigoHex) {
+        ColorEntity color = new ColorEntity();
+        color.setNombre(nombre);
+        color.setCodigoHex(codigoHex);
+        return color;
+    }
+
+    private TiendaEntity tienda(String nombre, MarcaEntity marca) {
+        TiendaEntity tienda = new TiendaEntity();
+        tienda.setNombre(nombre);
+        tienda.setUbicacion("Bogotá");
+        tienda.setMarca(marca);
+        return tienda;
+    }
+
+    private int tiendasDe(Long marcaId) {
+        return transactionTemplate.execute(estado -> marcaRepository.findById(marcaId).get().getTiendas().size());
+    }
+
+    /**
+     * Prueba que el color queda en el caché al crearlo y que actualizarlo o
+     * eliminarlo no deja datos viejos.
+     */
+    @Test
+    void testColorActualizadoYEliminado() throws Exception {
+        Long id = colorService.createColor(color("Rojo", "#FF0000")).getId();
+        assertTrue(entityManagerFactory.getCache().contains(ColorEntity.class, id));
+
+        colorService.updateColor(id, color("Verde", "#00FF00"));
+        assertEquals("Verde", colorService.getColor(id).getNombre());
+
+        colorService.deleteColor(id);
+        assertThrows(EntityNotFoundException.class, () -> colorService.getColor(id));
+    }
+
+    /**
+     * Prueba que el listado guardado en el caché de consultas se invalida al crear un color.
+     */
+    @Test
+    void testListadoInvalidadoAlCrear() throws Exception {
+        colorService.createColor(color("Rojo", "#FF0000"));
+        assertEquals(1, colorService.getColores(null, null, null).getContent().size());
+
+        colorService.createColor(color("Azul", "#0000FF"));
+        assertEquals(2, colorService.getColores(null, null, null).getContent().size());
+    }
+
+    /**
+     * Prueba que la colección de tiendas de una marca se invalida cuando una tienda
+     * se crea o se elimina desde su propio servicio.
+     */
+    @Test
+    void testTiendasDeMarcaInvalidadas() throws Exception {
+        MarcaEntity marca = new MarcaEntity();
+        marca.setNombre("Gef");
+        marca = marcaRepository.save(marca);
+        TiendaEntity primera = tiendaRepository.save(tienda("Andino", marca));
+
+        assertEquals(1, tiendasDe(marca.getId()));
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        assertTrue(sessionFactory.getCache().containsCollection(TIENDAS_DE_MARCA, marca.getId()));
+
+        tiendaService.createTienda(tienda("Santafé", marca));
+        assertEquals(2, tiendasDe(marca.getId()));
+
+        tiendaService.deleteTienda(primera.getId());
+        assertEquals(1, tiendasDe(marca.getId()));
+    }
+
+    /**
+     * Prueba que agregar y quitar outfits de una lista de deseos, que se hace con
+     * SQL nativo sobre lista_outfit, no saca del caché entidades de otras tablas.
+     */
+    @Test
+    void testListaDeseosNoInvalidaOtrasEntidades() throws Exception {
+        CategoriaEntity categoria = new CategoriaEntity();
+        categoria.setNombre("Casual");
+        categoria = categoriaRepository.save(categoria);
+        OutfitEntity outfit = new OutfitEntity();
+        outfit.setNombre("Domingo");
+        outfit = outfitRepository.save(outfit);
+        ListaDeseosEntity lista = listaDeseosRepository.save(new ListaDeseosEntity());
+        assertTrue(entityManagerFactory.getCache().contains(CategoriaEntity.class, categoria.getId()));
+
+        listaDeseosOutfitService.addOutfit(lista.getId(), outfit.getId());
+        assertTrue(entityManagerFactory.getCache().contains(CategoriaEntity.class, categoria.getId()));
+
+        listaDeseosOutfitService.removeOutfit(lista.getId(), outfit.getId());
+        assertTrue(entityManagerFactory.getCache().contains(CategoriaEntity.class, categoria.getId()));
+        assertFalse(listaDeseosRepository.existsOutfit(lista.getId(), outfit.getId()));
+    }
+}
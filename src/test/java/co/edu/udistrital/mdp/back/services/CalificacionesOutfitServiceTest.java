@@ -0,0 +1,247 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.ResumenCalificaciones;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de las calificaciones de los outfits. Son transaccionales, así que los
+ * eventos de calificación no llegan al índice: se revisan los eventos publicados y
+ * el índice se prueba reconstruyéndolo o actualizándolo directamente.
+ */
+@DataJpaTest
+@Transactional
+@Import({ CalificacionesOutfitService.class, MejorCalificadosIndex.class, ComentarioService.class,
+        OutfitService.class })
+@RecordApplicationEvents
+class CalificacionesOutfitServiceTest {
+
+    @Autowired
+    private CalificacionesOutfitService calificacionesOutfitService;
+
+    @Autowired
+    private MejorCalificadosIndex mejorCalificadosIndex;
+
+    @Autowired
+    private ComentarioService comentarioService;
+
+    @Autowired
+    private OutfitService outfitService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    private UsuarioEntity usuario;
+    private OutfitEntity casual;
+    private OutfitEntity formal;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.getEntityManager().createQuery("delete from ComentarioEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from UsuarioEntity").executeUpdate();
+
+        usuario = factory.manufacturePojo(UsuarioEntity.class);
+        entityManager.persist(usuario);
+        casual = factory.manufacturePojo(OutfitEntity.class);
+        entityManager.persist(casual);
+        formal = factory.manufacturePojo(OutfitEntity.class);
+        entityManager.persist(formal);
+        mejorCalificadosIndex.reconstruir();
+    }
+
+    private ComentarioEntity comentario(OutfitEntity outfit, double calificacion) {
+        ComentarioEntity comentario = new ComentarioEntity();
+        comentario.setTexto("Reseña");
+        comentario.setCalificacion(calificacion);
+        if (outfit != null) {
+            OutfitEntity referencia = new OutfitEntity();
+            referencia.setId(outfit.getId());
+            comentario.setOutfit(referencia);
+        }
+        return comentario;
+    }
+
+    private ComentarioEntity calificar(OutfitEntity outfit, double calificacion) throws Exception {
+        return comentarioService.createComentario(usuario.getId(), comentario(outfit, calificacion));
+    }
+
+    private static long[] histograma(ResumenCalificaciones resumen) {
+        return new long[] { resumen.getEstrellas1(), resumen.getEstrellas2(), resumen.getEstrellas3(),
+                resumen.getEstrellas4(), resumen.getEstrellas5() };
+    }
+
+    /**
+     * Prueba que cada comentario sobre un outfit suma al número, la suma y el
+     * histograma de sus calificaciones.
+     */
+    @Test
+    void testCrearComentario() throws Exception {
+        ComentarioEntity creado = calificar(casual, 4);
+        calificar(casual, 5);
+
+        assertEquals(casual.getId(), creado.getOutfit().getId());
+        ResumenCalificaciones resumen = calificacionesOutfitService.getCalificaciones(casual.getId());
+        assertEquals(2, resumen.getNumero());
+        assertEquals(9.0, resumen.getSuma());
+        assertEquals(4.5, resumen.getPromedio());
+        assertArrayEquals(new long[] { 0, 0, 0, 1, 1 }, histograma(resumen));
+        assertNull(calificacionesOutfitService.getCalificaciones(formal.getId()).getPromedio());
+        assertEquals(List.of(CalificacionOutfitEvent.agregada(casual.getId(), 4),
+                CalificacionOutfitEvent.agregada(casual.getId(), 5)),
+                eventos.stream(CalificacionOutfitEvent.class).toList());
+    }
+
+    /**
+     * Prueba que los comentarios sin outfit no cambian ninguna calificación.
+     */
+    @Test
+    void testComentarioSinOutfit() throws Exception {
+        ComentarioEntity creado = calificar(null, 0);
+        comentarioService.deleteComentario(usuario.getId(), creado.getId());
+
+        assertEquals(0, eventos.stream(CalificacionOutfitEvent.class).count());
+    }
+
+    /**
+     * Prueba que al cambiar la calificación o el outfit de un comentario se quita la
+     * anterior y se suma la nueva.
+     */
+    @Test
+    void testActualizarComentario() throws Exception {
+        ComentarioEntity creado = calificar(casual, 4);
+
+        comentarioService.updateComentario(usuario.getId(), creado.getId(), comentario(casual, 2));
+        ResumenCalificaciones resumen = calificacionesOutfitService.getCalificaciones(casual.getId());
+        assertEquals(1, resumen.getNumero());
+        assertEquals(2.0, resumen.getSuma());
+        assertArrayEquals(new long[] { 0, 1, 0, 0, 0 }, histograma(resumen));
+
+        comentarioService.updateComentario(usuario.getId(), creado.getId(), comentario(formal, 2));
+        assertEquals(0, calificacionesOutfitService.getCalificaciones(casual.getId()).getNumero());
+        assertArrayEquals(new long[] { 0, 1, 0, 0, 0 },
+                histograma(calificacionesOutfitService.getCalificaciones(formal.getId())));
+
+        long publicados = eventos.stream(CalificacionOutfitEvent.class).count();
+        comentarioService.updateComentario(usuario.getId(), creado.getId(), comentario(formal, 2));
+        assertEquals(publicados, eventos.stream(CalificacionOutfitEvent.class).count());
+    }
+
+    /**
+     * Prueba que al eliminar un comentario se quita su calificación.
+     */
+    @Test
+    void testEliminarComentario() throws Exception {
+        ComentarioEntity creado = calificar(casual, 3);
+        calificar(casual, 5);
+
+        comentarioService.deleteComentario(usuario.getId(), creado.getId());
+        ResumenCalificaciones resumen = calificacionesOutfitService.getCalificaciones(casual.getId());
+        assertEquals(1, resumen.getNumero());
+        assertEquals(5.0, resumen.getSuma());
+        assertArrayEquals(new long[] { 0, 0, 0, 0, 1 }, histograma(resumen));
+        assertEquals(CalificacionOutfitEvent.quitada(casual.getId(), 3),
+                eventos.stream(CalificacionOutfitEvent.class).toList().get(2));
+    }
+
+    /**
+     * Prueba que al eliminar un outfit sus comentarios quedan sin outfit y sale del
+     * ranking.
+     */
+    @Test
+    void testEliminarOutfit() throws Exception {
+        ComentarioEntity creado = calificar(casual, 4);
+        calificar(casual, 5);
+
+        outfitService.deleteOutfit(casual.getId());
+        entityManager.clear();
+        assertNull(entityManager.find(ComentarioEntity.class, creado.getId()).getOutfit());
+        assertEquals(new CalificacionOutfitEvent(casual.getId(), -2, -9.0),
+                eventos.stream(CalificacionOutfitEvent.class).toList().get(2));
+    }
+
+    /**
+     * Prueba que una calificación fuera de rango o un outfit que no existe no se
+     * aceptan.
+     */
+    @Test
+    void testComentarioInvalido() {
+        assertThrows(IllegalOperationException.class, () -> calificar(casual, 0));
+        assertThrows(IllegalOperationException.class, () -> calificar(casual, 5.5));
+
+        OutfitEntity inexistente = new OutfitEntity();
+        inexistente.setId(0L);
+        assertThrows(EntityNotFoundException.class, () -> calificar(inexistente, 4));
+        assertThrows(EntityNotFoundException.class, () -> calificacionesOutfitService.getCalificaciones(0L));
+    }
+
+    /**
+     * Prueba que el promedio bayesiano pone un outfit con muchas calificaciones altas
+     * (promedio 4,8) por encima de uno con una sola calificación perfecta.
+     */
+    @Test
+    void testMejorCalificados() throws Exception {
+        OutfitEntity deportivo = factory.manufacturePojo(OutfitEntity.class);
+        entityManager.persist(deportivo);
+        calificar(casual, 5);
+        for (int i = 0; i < 20; i++)
+            calificar(formal, i < 16 ? 5 : 4);
+        for (int i = 0; i < 9; i++)
+            calificar(deportivo, 2);
+        mejorCalificadosIndex.reconstruir();
+
+        double media = 119.0 / 30;
+        assertEquals(media, mejorCalificadosIndex.getMedia(), 1e-9);
+        List<OutfitCalificado> top = calificacionesOutfitService.getMejorCalificados(null);
+        assertEquals(List.of(formal.getId(), casual.getId(), deportivo.getId()),
+                top.stream().map(o -> o.getOutfit().getId()).toList());
+        assertEquals((10 * media + 96) / 30, top.get(0).getPuntaje(), 1e-9);
+        assertEquals((10 * media + 5) / 11, top.get(1).getPuntaje(), 1e-9);
+
+        assertEquals(1, calificacionesOutfitService.getMejorCalificados(1).size());
+        assertThrows(IllegalOperationException.class, () -> calificacionesOutfitService.getMejorCalificados(0));
+    }
+
+    /**
+     * Prueba que el índice reubica un outfit al actualizarse y lo saca cuando se
+     * quedan sin calificaciones.
+     */
+    @Test
+    void testActualizarIndice() throws Exception {
+        calificar(casual, 4);
+        calificar(formal, 3);
+        mejorCalificadosIndex.reconstruir();
+        assertEquals(casual.getId(), mejorCalificadosIndex.getTop(1).get(0).outfitId());
+
+        mejorCalificadosIndex.actualizar(formal.getId(), 3, 15);
+        assertEquals(formal.getId(), mejorCalificadosIndex.getTop(1).get(0).outfitId());
+        assertEquals(4, mejorCalificadosIndex.getPuntaje(formal.getId()).numero());
+
+        mejorCalificadosIndex.actualizar(casual.getId(), -1, -4);
+        assertNull(mejorCalificadosIndex.getPuntaje(casual.getId()));
+        assertEquals(1, mejorCalificadosIndex.getTop(10).size());
+    }
+}
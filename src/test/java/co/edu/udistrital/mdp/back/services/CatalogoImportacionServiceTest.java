@@ -0,0 +1,165 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.TiendaEntity;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.services.CatalogoImportacionService.Formato;
+
+/**
+ * Pruebas de la importación masiva del catálogo
+ */
+@DataJpaTest
+@Transactional
+@Import(CatalogoImportacionService.class)
+class CatalogoImportacionServiceTest {
+
+    @Autowired
+    private CatalogoImportacionService catalogoImportacionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.getEntityManager().createQuery("delete from PrendaEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from TiendaEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from MarcaEntity").executeUpdate();
+        entityManager.getEntityManager().createQuery("delete from ColorEntity").executeUpdate();
+    }
+
+    private ResultadoImportacion importar(String contenido, Formato formato, Integer tamanoLote)
+            throws Exception {
+        return catalogoImportacionService.importar(new StringReader(contenido), formato, tamanoLote);
+    }
+
+    private <T> List<T> todos(Class<T> clase) {
+        return entityManager.getEntityManager()
+                .createQuery("select e from " + clase.getSimpleName() + " e", clase).getResultList();
+    }
+
+    /**
+     * Prueba importar un NDJSON con todos los tipos y referencias entre ellos.
+     */
+    @Test
+    void testImportarNdjson() throws Exception {
+        String contenido = """
+                {"tipo":"color","nombre":"Rojo","codigoHex":"#FF0000"}
+                {"tipo":"marca","nombre":"Arturo Calle","ubicacion":"Bogotá"}
+
+                {"tipo":"tienda","nombre":"Centro","direccion":"Cra 7","marca":"Arturo Calle"}
+                {"tipo":"prenda","nombre":"Camisa","precio":59900,"color":"#ff0000","marca":"Arturo Calle","tienda":"Centro"}
+                """;
+        ResultadoImportacion resultado = importar(contenido, Formato.NDJSON, null);
+
+        assertEquals(4, resultado.getProcesados());
+        assertEquals(0, resultado.getFallidos());
+        assertEquals(1, resultado.getLotes());
+        assertEquals(1, resultado.getCreados().get("prenda"));
+
+        List<PrendaEntity> prendas = todos(PrendaEntity.class);
+        assertEquals(1, prendas.size());
+        PrendaEntity prenda = prendas.get(0);
+        assertEquals("Camisa", prenda.getNombre());
+        assertEquals(59900.0, prenda.getPrecio());
+        assertEquals("#FF0000", prenda.getColor().getCodigoHex());
+        assertEquals("Arturo Calle", prenda.getMarca().getNombre());
+        assertEquals("Centro", prenda.getTienda().getNombre());
+        assertEquals("Arturo Calle", todos(TiendaEntity.class).get(0).getMarca().getNombre());
+    }
+
+    /**
+     * Prueba importar un CSV con campos entre comillas y columnas vacías.
+     */
+    @Test
+    void testImportarCsv() throws Exception {
+        String contenido = "\uFEFFtipo,nombre,codigoHex,precio,color,marca\n"
+                + "color,Azul,#0000FF,,,\n"
+                + "marca,\"Studio F, S.A.\",,,,\n"
+                + "prenda,\"Jean \"\"slim\"\"\",,89000,#0000FF,\"Studio F, S.A.\"\n";
+        ResultadoImportacion resultado = importar(contenido, Formato.CSV, null);
+
+        assertEquals(3, resultado.getProcesados());
+        assertEquals(0, resultado.getFallidos());
+        assertEquals("Studio F, S.A.", todos(MarcaEntity.class).get(0).getNombre());
+        PrendaEntity prenda = todos(PrendaEntity.class).get(0);
+        assertEquals("Jean \"slim\"", prenda.getNombre());
+        assertEquals("Azul", prenda.getColor().getNombre());
+    }
+
+    /**
+     * Prueba que los registros inválidos se reportan con su línea sin detener la importación.
+     */
+    @Test
+    void testImportarConErrores() throws Exception {
+        String contenido = """
+                {"tipo":"marca","nombre":"Totto"}
+                {"tipo":"marca","nombre":"Totto"}
+                {"tipo":"prenda","nombre":"Morral","color":"#123456","marca":"Totto"}
+                {"tipo":"prenda","nombre":"Morral"
+                {"tipo":"zapato","nombre":"Tenis"}
+                {"tipo":"color","nombre":"Verde","codigoHex":"verde"}
+                {"tipo":"color","nombre":"Verde","codigoHex":"#00FF00"}
+                """;
+        ResultadoImportacion resultado = importar(contenido, Formato.NDJSON, null);
+
+        assertEquals(7, resultado.getProcesados());
+        assertEquals(5, resultado.getFallidos());
+        assertEquals(List.of(2, 3, 4, 5, 6),
+                resultado.getErrores().stream().map(ResultadoImportacion.ErrorImportacion::linea).toList());
+        assertEquals(1, todos(MarcaEntity.class).size());
+        assertEquals(1, todos(ColorEntity.class).size());
+        assertTrue(todos(PrendaEntity.class).isEmpty());
+    }
+
+    /**
+     * Prueba lotes pequeños con referencias a entidades creadas en lotes anteriores.
+     */
+    @Test
+    void testImportarEnVariosLotes() throws Exception {
+        StringBuilder contenido = new StringBuilder();
+        contenido.append("{\"tipo\":\"color\",\"nombre\":\"Negro\",\"codigoHex\":\"#000000\"}\n");
+        contenido.append("{\"tipo\":\"marca\",\"nombre\":\"Gef\"}\n");
+        for (int i = 0; i < 10; i++)
+            contenido.append("{\"tipo\":\"prenda\",\"nombre\":\"Prenda " + i
+                    + "\",\"color\":\"#000000\",\"marca\":\"Gef\"}\n");
+        ResultadoImportacion resultado = importar(contenido.toString(), Formato.NDJSON, 3);
+
+        assertEquals(12, resultado.getProcesados());
+        assertEquals(4, resultado.getLotes());
+        assertEquals(0, resultado.getFallidos());
+        assertEquals(10, todos(PrendaEntity.class).size());
+    }
+
+    /**
+     * Prueba que un tamaño de lote fuera de rango se rechaza.
+     */
+    @Test
+    void testImportarTamanoLoteInvalido() {
+        assertThrows(IllegalOperationException.class, () -> importar("", Formato.NDJSON, 0));
+        assertThrows(IllegalOperationException.class,
+                () -> importar("", Formato.NDJSON, CatalogoImportacionService.TAMANO_LOTE_MAXIMO + 1));
+    }
+
+    /**
+     * Prueba que un CSV sin la columna tipo se rechaza.
+     */
+    @Test
+    void testImportarCsvSinTipo() {
+        assertThrows(IllegalOperationException.class, () -> importar("nombre,precio\nCamisa,1\n", Formato.CSV, null));
+    }
+}
@@ -3,6 +3,7 @@ package co.edu.udistrital.mdp.back.services;
 import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
 import co.edu.udistrital.mdp.back.entities.OutfitEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 import co.edu.udistrital.mdp.back.repositories.CategoriaRepository;
 import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
 import jakarta.transaction.Transactional;
@@ -55,6 +56,15 @@ class CategoriaServiceTest {
         assertTrue(categoriaRepository.findById(creada.getId()).isPresent());
     }
 
+    @Test
+    void testCreateCategoriaNombreDuplicado() {
+        CategoriaEntity nueva = new CategoriaEntity();
+        nueva.setNombre("DEPORTÍVA");
+        nueva.setEdad(30);
+
+        assertThrows(IllegalOperationException.class, () -> categoriaService.createCategoria(nueva));
+    }
+
     @Test
     void testGetCategorias() {
         List<CategoriaEntity> categorias = categoriaService.getCategorias();
@@ -2,6 +2,7 @@ package co.edu.udistrital.mdp.back.services;
 
 import co.edu.udistrital.mdp.back.entities.ColorEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 import co.edu.udistrital.mdp.back.repositories.ColorRepository;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
@@ -49,6 +50,65 @@ class ColorServiceTest {
         assertTrue(colorRepository.findById(creado.getId()).isPresent());
     }
 
+    @Test
+    void testCreateColorNombreDuplicadoNormalizado() {
+        ColorEntity nuevo = new ColorEntity();
+        nuevo.setNombre("  RÓJO ");
+        nuevo.setCodigoHex("#AA0000");
+
+        IllegalOperationException e = assertThrows(IllegalOperationException.class,
+                () -> colorService.createColor(nuevo));
+        assertEquals("Ya existe un color con ese nombre", e.getMessage());
+    }
+
+    @Test
+    void testCreateColorCodigoDuplicado() {
+        ColorEntity nuevo = new ColorEntity();
+        nuevo.setNombre("Carmesí");
+        nuevo.setCodigoHex("#FF0000");
+
+        IllegalOperationException e = assertThrows(IllegalOperationException.class,
+                () -> colorService.createColor(nuevo));
+        assertEquals("Ya existe un color con ese código HEX", e.getMessage());
+    }
+
+    @Test
+    void testCreateColorCodigoDuplicadoEnMinusculas() {
+        ColorEntity nuevo = new ColorEntity();
+        nuevo.setNombre("Carmesí");
+        nuevo.setCodigoHex("#ff0000");
+
+        IllegalOperationException e = assertThrows(IllegalOperationException.class,
+                () -> colorService.createColor(nuevo));
+        assertEquals("Ya existe un color con ese código HEX", e.getMessage());
+    }
+
+    @Test
+    void testCreateColorGuardaCodigoEnMayusculas() throws Exception {
+        ColorEntity nuevo = new ColorEntity();
+        nuevo.setNombre("Turquesa");
+        nuevo.setCodigoHex("#40e0d0");
+
+        ColorEntity creado = colorService.createColor(nuevo);
+
+        assertEquals("#40E0D0", colorRepository.findById(creado.getId()).get().getCodigoHex());
+        assertEquals(creado.getId(), colorRepository.findByCodigoHex("#40E0D0").get().getId());
+    }
+
+    @Test
+    void testUpdateColorNombreDuplicado() {
+        ColorEntity otro = new ColorEntity();
+        otro.setNombre("Azul");
+        otro.setCodigoHex("#0000FF");
+        colorRepository.save(otro);
+
+        ColorEntity actualizado = new ColorEntity();
+        actualizado.setNombre("azul");
+        actualizado.setCodigoHex("#0000AA");
+
+        assertThrows(IllegalOperationException.class, () -> colorService.updateColor(color.getId(), actualizado));
+    }
+
     @Test
     void testGetColores() {
         List<ColorEntity> colores = colorService.getColores();
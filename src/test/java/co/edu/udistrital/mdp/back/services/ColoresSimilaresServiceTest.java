@@ -0,0 +1,180 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.ColorRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.services.ColoresCercanosIndex.Vecino;
+
+/**
+ * Pruebas de la búsqueda de colores y prendas por parecido de tono. No son
+ * transaccionales: el índice solo se actualiza cuando se confirma la transacción
+ * que cambió el color.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ColoresSimilaresService.class, ColoresCercanosIndex.class, ColorService.class })
+class ColoresSimilaresServiceTest {
+
+    @Autowired
+    private ColoresSimilaresService coloresSimilaresService;
+
+    @Autowired
+    private ColoresCercanosIndex coloresCercanosIndex;
+
+    @Autowired
+    private ColorService colorService;
+
+    @Autowired
+    private ColorRepository colorRepository;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    private ColorEntity rojo;
+    private ColorEntity carmesi;
+    private ColorEntity naranja;
+    private ColorEntity azul;
+
+    @BeforeEach
+    void setUp() {
+        rojo = colorRepository.save(color("Rojo", "#FF0000"));
+        carmesi = colorRepository.save(color("Carmesí", "#DC143C"));
+        naranja = colorRepository.save(color("Naranja", "#FF8000"));
+        azul = colorRepository.save(color("Azul", "#0000FF"));
+        coloresCercanosIndex.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        prendaRepository.deleteAll();
+        colorRepository.deleteAll();
+        coloresCercanosIndex.reconstruir();
+    }
+
+    private static ColorEntity color(String nombre, String codigoHex) {
+        ColorEntity color = new ColorEntity();
+        color.setNombre(nombre);
+        color.setCodigoHex(codigoHex);
+        return color;
+    }
+
+    private PrendaEntity prenda(String nombre, ColorEntity color) {
+        PrendaEntity prenda = new PrendaEntity();
+        prenda.setNombre(nombre);
+        prenda.setColor(color);
+        return prendaRepository.save(prenda);
+    }
+
+    private static List<Long> ids(List<ColorSimilar> similares) {
+        return similares.stream().map(similar -> similar.getColor().getId()).toList();
+    }
+
+    /**
+     * Prueba la conversión a CIELAB con valores de referencia.
+     */
+    @Test
+    void testCieLab() {
+        assertArrayEquals(new double[] { 100, 0, 0 }, CieLab.deHex("#FFFFFF"), 0.01);
+        assertArrayEquals(new double[] { 0, 0, 0 }, CieLab.deHex("#000000"), 0.01);
+        assertArrayEquals(new double[] { 53.24, 80.09, 67.20 }, CieLab.deHex("#FF0000"), 0.01);
+        assertArrayEquals(new double[] { 32.30, 79.19, -107.86 }, CieLab.deHex("#0000FF"), 0.01);
+    }
+
+    /**
+     * Prueba que los colores similares salen de menor a mayor ΔE, sin el color pedido.
+     */
+    @Test
+    void testGetColoresSimilares() throws Exception {
+        List<ColorSimilar> similares = coloresSimilaresService.getColoresSimilares(rojo.getId(), null);
+
+        assertEquals(List.of(carmesi.getId(), naranja.getId(), azul.getId()), ids(similares));
+        assertEquals(CieLab.deltaE(CieLab.deHex("#FF0000"), CieLab.deHex("#DC143C")),
+                similares.get(0).getDistancia(), 1e-9);
+        assertEquals(List.of(carmesi.getId()), ids(coloresSimilaresService.getColoresSimilares(rojo.getId(), 1)));
+        assertThrows(EntityNotFoundException.class, () -> coloresSimilaresService.getColoresSimilares(0L, null));
+    }
+
+    /**
+     * Prueba que el árbol devuelve los mismos vecinos que comparar contra todos los colores.
+     */
+    @Test
+    void testCercanosIgualQueRecorrerTodos() {
+        Random aleatorio = new Random(7);
+        List<ColorEntity> colores = new ArrayList<>();
+        for (int i = 0; i < 300; i++)
+            colores.add(color("Color " + i, String.format("#%06X", aleatorio.nextInt(0x1000000))));
+        colores = colorRepository.saveAll(colores);
+        coloresCercanosIndex.reconstruir();
+        List<ColorEntity> todos = colorRepository.findAll();
+
+        for (int i = 0; i < 20; i++) {
+            double[] lab = CieLab.deHex(String.format("#%06X", aleatorio.nextInt(0x1000000)));
+            List<Long> esperados = todos.stream()
+                    .sorted(Comparator.<ColorEntity>comparingDouble(c -> CieLab.deltaE(lab, CieLab.deHex(c.getCodigoHex())))
+                            .thenComparing(ColorEntity::getId))
+                    .limit(15).map(ColorEntity::getId).toList();
+            assertEquals(esperados, coloresCercanosIndex.cercanos(lab, 15).stream().map(Vecino::colorId).toList());
+        }
+    }
+
+    /**
+     * Prueba que se completan las k prendas con los colores siguientes cuando los más
+     * cercanos no tienen suficientes prendas.
+     */
+    @Test
+    void testGetPrendasColorCercano() throws Exception {
+        PrendaEntity camisaAzul = prenda("Camisa azul", azul);
+        PrendaEntity blusaCarmesi = prenda("Blusa carmesí", carmesi);
+        PrendaEntity faldaRoja = prenda("Falda roja", rojo);
+        PrendaEntity camisetaRoja = prenda("Camiseta roja", rojo);
+        prenda("Chaqueta naranja", naranja);
+
+        List<PrendaEntity> prendas = coloresSimilaresService.getPrendasColorCercano("#FE0101", 3);
+        assertEquals(List.of(faldaRoja.getId(), camisetaRoja.getId(), blusaCarmesi.getId()),
+                prendas.stream().map(PrendaEntity::getId).toList());
+
+        prendas = coloresSimilaresService.getPrendasColorCercano("0000f0", 1);
+        assertEquals(List.of(camisaAzul.getId()), prendas.stream().map(PrendaEntity::getId).toList());
+
+        assertEquals(5, coloresSimilaresService.getPrendasColorCercano("#000000", 50).size());
+        assertThrows(IllegalOperationException.class,
+                () -> coloresSimilaresService.getPrendasColorCercano("#12345", null));
+    }
+
+    /**
+     * Prueba que el índice sigue a los colores creados, actualizados y eliminados.
+     */
+    @Test
+    void testIndiceSincronizado() throws Exception {
+        ColorEntity escarlata = colorService.createColor(color("Escarlata", "#FF2400"));
+        assertEquals(escarlata.getId(), coloresSimilaresService.getColoresSimilares(rojo.getId(), 1).get(0)
+                .getColor().getId());
+
+        colorService.updateColor(escarlata.getId(), color("Escarlata", "#00FF00"));
+        assertEquals(carmesi.getId(), coloresSimilaresService.getColoresSimilares(rojo.getId(), 1).get(0)
+                .getColor().getId());
+
+        colorService.deleteColor(carmesi.getId());
+        assertEquals(List.of(naranja.getId(), escarlata.getId(), azul.getId()),
+                ids(coloresSimilaresService.getColoresSimilares(rojo.getId(), null)));
+    }
+}
@@ -12,22 +12,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
 import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.ComentarioRepository;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
 @DataJpaTest
 @Transactional
-@Import(ComentarioService.class)
+@Import({ ComentarioService.class, CalificacionesOutfitService.class, MejorCalificadosIndex.class })
 class ComentarioServiceTest {
 
     @Autowired
     private ComentarioService comentarioService;
 
+    @Autowired
+    private ComentarioRepository comentarioRepository;
+
     @Autowired
     private TestEntityManager entityManager;
 
@@ -74,7 +79,7 @@ class ComentarioServiceTest {
      * Prueba para crear un comentario.
      */
     @Test
-	void testCreateComentario() throws EntityNotFoundException {
+	void testCreateComentario() throws EntityNotFoundException, IllegalOperationException {
 		ComentarioEntity newEntity = factory.manufacturePojo(ComentarioEntity.class);
 				
 		ComentarioEntity result = comentarioService.createComentario(usuarioEntity.getId(), newEntity);
@@ -152,7 +157,7 @@ class ComentarioServiceTest {
      * Prueba para actualizar un comentario. 
      */
     @Test
-	void testUpdateComentario() throws EntityNotFoundException {
+	void testUpdateComentario() throws EntityNotFoundException, IllegalOperationException {
 		ComentarioEntity entity = comentarioList.get(0);
 		ComentarioEntity pojoEntity = factory.manufacturePojo(ComentarioEntity.class);
 
@@ -192,6 +197,25 @@ class ComentarioServiceTest {
 		});
 	}
 
+    /**
+     * Prueba para actualizar un comentario que otra transacción cambió después de
+     * leerlo: la calificación anterior ya no es válida y la actualización debe fallar.
+     */
+    @Test
+	void testUpdateComentarioConcurrente() {
+		ComentarioEntity entity = comentarioList.get(0);
+		// Cambio concurrente: sube la versión en la base sin tocar la entidad ya leída
+		entityManager.getEntityManager()
+				.createQuery("update versioned ComentarioEntity c set c.calificacion = 1 where c.id = :id")
+				.setParameter("id", entity.getId()).executeUpdate();
+
+		ComentarioEntity pojoEntity = factory.manufacturePojo(ComentarioEntity.class);
+		assertThrows(OptimisticLockingFailureException.class, () -> {
+			comentarioService.updateComentario(usuarioEntity.getId(), entity.getId(), pojoEntity);
+			comentarioRepository.flush();
+		});
+	}
+
     /**
      * Prueba para eliminar un Comentario.
 	 * @throws IllegalOperationException 
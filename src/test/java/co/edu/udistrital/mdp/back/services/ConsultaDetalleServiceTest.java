@@ -0,0 +1,292 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.udistrital.mdp.back.config.MetricasConfig;
+import co.edu.udistrital.mdp.back.config.SentenciasPeticion;
+import co.edu.udistrital.mdp.back.controllers.OutfitController;
+import co.edu.udistrital.mdp.back.controllers.UsuarioController;
+import co.edu.udistrital.mdp.back.dto.OutfitDetailDTO;
+import co.edu.udistrital.mdp.back.dto.UsuarioDetailDTO;
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.ImagenOutfitEntity;
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.RecomendacionEntity;
+import co.edu.udistrital.mdp.back.entities.TiendaEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.mappers.DetalleMapper;
+import co.edu.udistrital.mdp.back.mappers.DetalleMapperImpl;
+import co.edu.udistrital.mdp.back.mappers.ListaDeseosMapperImpl;
+import co.edu.udistrital.mdp.back.mappers.OutfitMapperImpl;
+import co.edu.udistrital.mdp.back.mappers.PrendaMapperImpl;
+import co.edu.udistrital.mdp.back.mappers.TiendaMapperImpl;
+import co.edu.udistrital.mdp.back.mappers.UsuarioMapperImpl;
+import co.edu.udistrital.mdp.back.repositories.ColorRepository;
+import co.edu.udistrital.mdp.back.repositories.ComentarioRepository;
+import co.edu.udistrital.mdp.back.repositories.ListaDeseosRepository;
+import co.edu.udistrital.mdp.back.repositories.MarcaRepository;
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.repositories.RecomendacionRepository;
+import co.edu.udistrital.mdp.back.repositories.TiendaRepository;
+import co.edu.udistrital.mdp.back.repositories.UsuarioRepository;
+
+/**
+ * Pruebas del detalle de outfits y usuarios consultado en paralelo. No son
+ * transaccionales: cada parte se lee en su propia transacción y en otro hilo, así que
+ * los datos de prueba deben estar confirmados.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ConsultaDetalleService.class, DetalleMapperImpl.class, OutfitMapperImpl.class, PrendaMapperImpl.class,
+        ListaDeseosMapperImpl.class, UsuarioMapperImpl.class, TiendaMapperImpl.class, MetricasConfig.class })
+class ConsultaDetalleServiceTest {
+
+    @Autowired
+    private ConsultaDetalleService consultaDetalleService;
+
+    @Autowired
+    private DetalleMapper detalleMapper;
+
+    @Autowired
+    private OutfitRepository outfitRepository;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    @Autowired
+    private ColorRepository colorRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private TiendaRepository tiendaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ListaDeseosRepository listaDeseosRepository;
+
+    @Autowired
+    private RecomendacionRepository recomendacionRepository;
+
+    @Autowired
+    private ComentarioRepository comentarioRepository;
+
+    private OutfitEntity outfit;
+    private UsuarioEntity usuario;
+    private ListaDeseosEntity lista;
+
+    /**
+     * Un outfit con imagen y dos prendas (con color, marca y tienda), guardado en la
+     * lista de deseos de un usuario que además lo tiene recomendado y hizo dos
+     * comentarios.
+     */
+    @BeforeEach
+    void setUp() {
+        ImagenOutfitEntity imagen = new ImagenOutfitEntity();
+        imagen.setImagen("https://servidor.com/casual.png");
+        outfit = new OutfitEntity();
+        outfit.setNombre("Casual");
+        outfit.setPrecioEstimado(150.0);
+        outfit.setImagen(imagen);
+        outfit = outfitRepository.save(outfit);
+
+        ColorEntity color = new ColorEntity();
+        color.setNombre("Azul");
+        color.setCodigoHex("#0000FF");
+        color = colorRepository.save(color);
+        MarcaEntity marca = new MarcaEntity();
+        marca.setNombre("Gef");
+        marca = marcaRepository.save(marca);
+        TiendaEntity tienda = new TiendaEntity();
+        tienda.setNombre("Andino");
+        tienda.setMarca(marca);
+        tiendaRepository.save(tienda);
+        for (String nombre : List.of("Camisa", "Jean")) {
+            PrendaEntity prenda = new PrendaEntity();
+            prenda.setNombre(nombre);
+            prenda.setPrecio(75.0);
+            prenda.setColor(color);
+            prenda.setMarca(marca);
+            prenda.getOutfits().add(outfit);
+            prendaRepository.save(prenda);
+        }
+
+        usuario = new UsuarioEntity();
+        usuario.setNombre("Ana");
+        usuario.setCorreo("ana@correo.com");
+        usuario = usuarioRepository.save(usuario);
+        lista = new ListaDeseosEntity();
+        lista.setUsuario(usuario);
+        lista.getOutfits().add(outfit);
+        lista = listaDeseosRepository.save(lista);
+
+        RecomendacionEntity recomendacion = new RecomendacionEntity();
+        recomendacion.setMotivo("Estilo similar");
+        recomendacion.setPuntaje(0.8);
+        recomendacion.setUsuario(usuario);
+        recomendacion.setOutfit(outfit);
+        recomendacionRepository.save(recomendacion);
+
+        for (String texto : List.of("Muy bueno", "Cómodo")) {
+            ComentarioEntity comentario = new ComentarioEntity();
+            comentario.setTexto(texto);
+            comentario.setCalificacion(4);
+            comentario.setUsuario(usuario);
+            comentarioRepository.save(comentario);
+        }
+    }
+
+    /**
+     * Los comentarios y la lista de deseos se borran en cascada con el usuario.
+     */
+    @AfterEach
+    void tearDown() {
+        recomendacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        prendaRepository.deleteAll();
+        tiendaRepository.deleteAll();
+        marcaRepository.deleteAll();
+        colorRepository.deleteAll();
+        outfitRepository.deleteAll();
+    }
+
+    /**
+     * Prueba que el detalle del outfit trae todas sus partes, se puede mapear fuera
+     * de las transacciones en las que se consultó y cabe en el presupuesto de
+     * consultas del endpoint, contando las de las consultas paralelas.
+     */
+    @Test
+    void testGetOutfitDetalle() throws Exception {
+        SentenciasPeticion peticion = SentenciasPeticion.iniciar();
+        OutfitDetailDTO detalle;
+        try {
+            detalle = detalleMapper.toDetailDTO(consultaDetalleService.getOutfitDetalle(outfit.getId()));
+        } finally {
+            SentenciasPeticion.terminar();
+        }
+        assertTrue(peticion.getTotal() <= SentenciasPeticion.presupuesto(OutfitController.class, "findOne"),
+                "Sentencias: " + peticion.getTotal());
+
+        assertEquals(outfit.getId(), detalle.getId());
+        assertEquals("Casual", detalle.getNombre());
+        assertEquals("https://servidor.com/casual.png", detalle.getImagen().getImagen());
+        assertEquals(List.of("Camisa", "Jean"), detalle.getPrendas().stream().map(p -> p.getNombre()).toList());
+        assertEquals("Azul", detalle.getPrendas().get(0).getColor().getNombre());
+        assertEquals("Andino", detalle.getPrendas().get(0).getMarca().getTiendas().get(0).getNombre());
+        assertEquals(List.of(lista.getId()), detalle.getListadeseos().stream().map(l -> l.getId()).toList());
+        assertEquals(1, detalle.getRecomendacion().size());
+        assertEquals("Estilo similar", detalle.getRecomendacion().get(0).getMotivo());
+        assertEquals("Casual", detalle.getRecomendacion().get(0).getOutfit().getNombre());
+    }
+
+    @Test
+    void testGetOutfitDetalleInvalido() {
+        assertThrows(EntityNotFoundException.class, () -> consultaDetalleService.getOutfitDetalle(0L));
+    }
+
+    /**
+     * Prueba que el detalle del usuario trae sus comentarios en orden y cabe en el
+     * presupuesto de consultas del endpoint.
+     */
+    @Test
+    void testGetUsuarioDetalle() throws Exception {
+        SentenciasPeticion peticion = SentenciasPeticion.iniciar();
+        UsuarioDetailDTO detalle;
+        try {
+            detalle = detalleMapper.toDetailDTO(consultaDetalleService.getUsuarioDetalle(usuario.getId()));
+        } finally {
+            SentenciasPeticion.terminar();
+        }
+        assertTrue(peticion.getTotal() <= SentenciasPeticion.presupuesto(UsuarioController.class, "findOne"),
+                "Sentencias: " + peticion.getTotal());
+
+        assertEquals("Ana", detalle.getNombre());
+        assertEquals("ana@correo.com", detalle.getCorreo());
+        assertEquals(List.of("Muy bueno", "Cómodo"), detalle.getComentarios().stream().map(c -> c.getTexto()).toList());
+        assertEquals("Ana", detalle.getComentarios().get(0).getUsuario().getNombre());
+    }
+
+    @Test
+    void testGetUsuarioDetalleInvalido() {
+        assertThrows(EntityNotFoundException.class, () -> consultaDetalleService.getUsuarioDetalle(0L));
+    }
+
+    /**
+     * Prueba que al vencerse el plazo se lanza TimeoutException y se interrumpen las
+     * subtareas que seguían en curso. Se espera a que la subtarea lenta empiece: si se
+     * cancela antes, nunca llega a dormir.
+     */
+    @Test
+    void testPlazoVencido() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch interrumpida = new CountDownLatch(1);
+        try (ConsultasParalelas consultas = new ConsultasParalelas(Duration.ofMillis(100))) {
+            consultas.fork(() -> "rápida");
+            consultas.fork(() -> {
+                iniciada.countDown();
+                return dormir(interrumpida);
+            });
+            iniciada.await();
+            assertThrows(TimeoutException.class, consultas::join);
+        }
+        assertEquals(0, interrumpida.getCount());
+    }
+
+    /**
+     * Prueba que cuando una subtarea falla se propaga su error sin esperar el plazo y
+     * se cancelan las demás.
+     */
+    @Test
+    void testFallaCancelaLasDemas() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch interrumpida = new CountDownLatch(1);
+        long inicio = System.nanoTime();
+        try (ConsultasParalelas consultas = new ConsultasParalelas(Duration.ofMinutes(1))) {
+            consultas.fork(() -> {
+                iniciada.countDown();
+                return dormir(interrumpida);
+            });
+            iniciada.await();
+            consultas.fork(() -> {
+                throw new EntityNotFoundException("No existe");
+            });
+            assertThrows(EntityNotFoundException.class, consultas::join);
+        }
+        assertEquals(0, interrumpida.getCount());
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).toSeconds() < 10);
+    }
+
+    private static String dormir(CountDownLatch interrumpida) {
+        try {
+            Thread.sleep(Duration.ofMinutes(1));
+            return "lenta";
+        } catch (InterruptedException e) {
+            interrumpida.countDown();
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
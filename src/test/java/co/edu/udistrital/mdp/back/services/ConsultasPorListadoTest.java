@@ -0,0 +1,272 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.udistrital.mdp.back.config.MetricasConfig;
+import co.edu.udistrital.mdp.back.config.SentenciasPeticion;
+import co.edu.udistrital.mdp.back.controllers.CategoriaController;
+import co.edu.udistrital.mdp.back.controllers.OutfitController;
+import co.edu.udistrital.mdp.back.controllers.UsuarioController;
+import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.ImagenOutfitEntity;
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.OcasionEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.mappers.CategoriaMapper;
+import co.edu.udistrital.mdp.back.mappers.CategoriaMapperImpl;
+import co.edu.udistrital.mdp.back.mappers.OcasionMapper;
+import co.edu.udistrital.mdp.back.mappers.OcasionMapperImpl;
+import co.edu.udistrital.mdp.back.mappers.OutfitMapper;
+import co.edu.udistrital.mdp.back.mappers.OutfitMapperImpl;
+import co.edu.udistrital.mdp.back.mappers.UsuarioMapper;
+import co.edu.udistrital.mdp.back.mappers.UsuarioMapperImpl;
+
+import uk.co.jemos.podam.api.PodamFactory;
+import uk.co.jemos.podam.api.PodamFactoryImpl;
+
+/**
+ * Pruebas de que el número de sentencias SQL de los listados (consulta más
+ * mapeo a DTO) no crece con el número de elementos, no repite consultas y cabe en
+ * el presupuesto del endpoint que los expone.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@Import({ OutfitService.class, UsuarioService.class, CategoriaService.class, CategoriaOcasionService.class,
+        OutfitMapperImpl.class, UsuarioMapperImpl.class, CategoriaMapperImpl.class, OcasionMapperImpl.class,
+        CalificacionesOutfitService.class, MejorCalificadosIndex.class, MetricasConfig.class })
+class ConsultasPorListadoTest {
+
+    @Autowired
+    private OutfitService outfitService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private CategoriaOcasionService categoriaOcasionService;
+
+    @Autowired
+    private OutfitMapper outfitMapper;
+
+    @Autowired
+    private UsuarioMapper usuarioMapper;
+
+    @Autowired
+    private CategoriaMapper categoriaMapper;
+
+    @Autowired
+    private OcasionMapper ocasionMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private PodamFactory factory = new PodamFactoryImpl();
+
+    private Statistics estadisticas;
+
+    private static final int UMBRAL_REPETIDAS = 5;
+
+    private CategoriaEntity categoria;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+        categoria = factory.manufacturePojo(CategoriaEntity.class);
+        entityManager.persist(categoria);
+    }
+
+    /**
+     * Ejecuta la consulta con el contexto de persistencia vacío y devuelve el
+     * número de sentencias preparadas. Falla si alguna consulta se repite tanto
+     * como para advertir un N+1.
+     */
+    private long contarSentencias(Supplier<List<?>> consulta) {
+        entityManager.flush();
+        entityManager.clear();
+        estadisticas.clear();
+        SentenciasPeticion peticion = SentenciasPeticion.iniciar();
+        try {
+            assertFalse(consulta.get().isEmpty());
+        } finally {
+            SentenciasPeticion.terminar();
+        }
+        assertEquals(Map.of(), peticion.getConsultasRepetidas(UMBRAL_REPETIDAS));
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    private void crearOutfits(int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            OutfitEntity outfit = factory.manufacturePojo(OutfitEntity.class);
+            outfit.setCategoria(categoria);
+            outfit.setRecomendaciones(new ArrayList<>());
+            entityManager.persist(outfit);
+        }
+    }
+
+    private void crearUsuarios(int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            UsuarioEntity usuario = factory.manufacturePojo(UsuarioEntity.class);
+            entityManager.persist(usuario);
+            for (int j = 0; j < 2; j++) {
+                ComentarioEntity comentario = factory.manufacturePojo(ComentarioEntity.class);
+                comentario.setUsuario(usuario);
+                entityManager.persist(comentario);
+            }
+            ListaDeseosEntity lista = new ListaDeseosEntity();
+            lista.setUsuario(usuario);
+            entityManager.persist(lista);
+        }
+    }
+
+    private void crearOcasiones(int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            OcasionEntity ocasion = factory.manufacturePojo(OcasionEntity.class);
+            ocasion.getCategorias().add(categoria);
+            entityManager.persist(ocasion);
+        }
+    }
+
+    private List<?> listarOutfits() {
+        try {
+            return outfitMapper.toDetailDTOList(outfitService.getOutfits(null, 100, null).getContent());
+        } catch (IllegalOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<?> listarUsuarios() {
+        try {
+            return usuarioMapper.toDetailDTOList(usuarioService.getUsuarios(null, 100, null).getContent());
+        } catch (IllegalOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<?> recorrerUsuarios() {
+        try {
+            List<Object> dtos = new ArrayList<>();
+            List<UsuarioEntity> pagina = usuarioService.getPaginaUsuarios(null, 100, null).getContent();
+            usuarioService.recorrerComentarios(pagina, new RecorridoAnidado<UsuarioEntity, ComentarioEntity>() {
+                @Override
+                public void padre(UsuarioEntity usuario) {
+                    dtos.add(usuarioMapper.toDTO(usuario));
+                }
+
+                @Override
+                public void hijo(ComentarioEntity comentario) {
+                    dtos.add(usuarioMapper.toComentarioDTO(comentario));
+                }
+            });
+            return dtos;
+        } catch (IllegalOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<?> listarCategorias() {
+        try {
+            return categoriaMapper.toDetailDTOList(categoriaService.getCategorias(null, 100, null).getContent());
+        } catch (IllegalOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<?> listarOutfitsDeCategoria() {
+        try {
+            return outfitMapper.toDTOList(categoriaService.getOutfitsByCategoria(categoria.getId()));
+        } catch (EntityNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<?> listarOcasionesDeCategoria() {
+        try {
+            return ocasionMapper.toDetailDTOList(categoriaOcasionService.getOcasionesPorCategoria(categoria.getId()));
+        } catch (EntityNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void testListadoOutfits() {
+        crearOutfits(3);
+        long pocos = contarSentencias(this::listarOutfits);
+        crearOutfits(20);
+        assertEquals(pocos, contarSentencias(this::listarOutfits));
+        assertTrue(pocos <= SentenciasPeticion.presupuesto(OutfitController.class, "findAll"));
+    }
+
+    @Test
+    void testListadoUsuarios() {
+        crearUsuarios(3);
+        long pocos = contarSentencias(this::listarUsuarios);
+        crearUsuarios(20);
+        assertEquals(pocos, contarSentencias(this::listarUsuarios));
+    }
+
+    /**
+     * Prueba que el recorrido de los usuarios con sus comentarios, con el que se
+     * escribe el listado a medida que se lee, usa las mismas dos consultas sin
+     * importar cuántos usuarios y comentarios haya.
+     */
+    @Test
+    void testRecorridoUsuarios() {
+        crearUsuarios(3);
+        long pocos = contarSentencias(this::recorrerUsuarios);
+        crearUsuarios(20);
+        assertEquals(pocos, contarSentencias(this::recorrerUsuarios));
+        assertEquals(2, pocos);
+        assertTrue(pocos <= SentenciasPeticion.presupuesto(UsuarioController.class, "findAll"));
+    }
+
+    @Test
+    void testListadoCategorias() {
+        crearOutfits(3);
+        crearOcasiones(3);
+        long pocos = contarSentencias(this::listarCategorias);
+        for (int i = 0; i < 20; i++)
+            entityManager.persist(factory.manufacturePojo(CategoriaEntity.class));
+        crearOutfits(20);
+        assertEquals(pocos, contarSentencias(this::listarCategorias));
+        assertTrue(pocos <= SentenciasPeticion.presupuesto(CategoriaController.class, "findAll"));
+    }
+
+    @Test
+    void testListadoOutfitsDeCategoria() {
+        crearOutfits(3);
+        long pocos = contarSentencias(this::listarOutfitsDeCategoria);
+        crearOutfits(20);
+        assertEquals(pocos, contarSentencias(this::listarOutfitsDeCategoria));
+    }
+
+    @Test
+    void testListadoOcasionesDeCategoria() {
+        crearOcasiones(3);
+        long pocos = contarSentencias(this::listarOcasionesDeCategoria);
+        crearOcasiones(20);
+        assertEquals(pocos, contarSentencias(this::listarOcasionesDeCategoria));
+    }
+}
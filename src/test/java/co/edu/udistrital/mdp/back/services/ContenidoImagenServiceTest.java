@@ -0,0 +1,250 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import co.edu.udistrital.mdp.back.entities.ImagenOutfitEntity;
+import co.edu.udistrital.mdp.back.entities.ImagenPrendaEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+
+/**
+ * Pruebas del contenido binario de las imágenes y su almacén direccionado por contenido.
+ */
+@DataJpaTest
+@RecordApplicationEvents
+@Import({ ContenidoImagenService.class, ImagenAlmacen.class, ImagenPrendaService.class })
+class ContenidoImagenServiceTest {
+
+    private static final Path DIRECTORIO;
+
+    static {
+        try {
+            DIRECTORIO = Files.createTempDirectory("imagenes");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        registro.add("imagenes.directorio", DIRECTORIO::toString);
+        registro.add("imagenes.tamano-maximo", () -> "4096");
+    }
+
+    @Autowired
+    private ContenidoImagenService contenidoImagenService;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @Autowired
+    private ImagenAlmacen imagenAlmacen;
+
+    @Autowired
+    private ImagenPrendaService imagenPrendaService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private PrendaEntity prenda;
+    private ImagenPrendaEntity imagen;
+    private ImagenPrendaEntity otraImagen;
+
+    @BeforeEach
+    void setUp() {
+        prenda = new PrendaEntity();
+        prenda.setNombre("Camisa");
+        entityManager.persist(prenda);
+        imagen = imagenPrenda("https://servidor.com/camisa.png");
+        otraImagen = imagenPrenda("https://servidor.com/camisa-2.png");
+    }
+
+    private ImagenPrendaEntity imagenPrenda(String ruta) {
+        ImagenPrendaEntity nueva = new ImagenPrendaEntity();
+        nueva.setImagen(ruta);
+        return entityManager.persist(nueva);
+    }
+
+    private ImagenPrendaEntity subir(ImagenPrendaEntity destino, byte[] bytes) throws Exception {
+        return contenidoImagenService.guardarContenidoPrenda(prenda.getId(), destino.getId(),
+                new ByteArrayInputStream(bytes), "image/png");
+    }
+
+    private static byte[] bytes(int tamano, int semilla) {
+        byte[] bytes = new byte[tamano];
+        for (int i = 0; i < tamano; i++)
+            bytes[i] = (byte) (i * 31 + semilla);
+        return bytes;
+    }
+
+    private static long archivos(Path carpeta) throws IOException {
+        try (Stream<Path> contenido = Files.walk(carpeta)) {
+            return contenido.filter(Files::isRegularFile).count();
+        }
+    }
+
+    /**
+     * Prueba que el contenido se guarda con su hash SHA-256 como dirección.
+     */
+    @Test
+    void testGuardarContenido() throws Exception {
+        byte[] bytes = bytes(3000, 1);
+        ImagenPrendaEntity resultado = contenidoImagenService.guardarContenidoPrenda(prenda.getId(), imagen.getId(),
+                new ByteArrayInputStream(bytes), "image/png; q=0.9");
+
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        assertEquals(hash, resultado.getHash());
+        assertEquals("image/png", resultado.getTipoContenido());
+        assertEquals(3000L, resultado.getTamano());
+        assertEquals("https://servidor.com/camisa.png", resultado.getImagen());
+        assertArrayEquals(bytes, Files.readAllBytes(imagenAlmacen.ruta(hash)));
+        assertTrue(eventos.stream(RecursoModificadoEvent.class)
+                .anyMatch(e -> e.recurso() == Recurso.PRENDA && e.ids().contains(prenda.getId())));
+
+        ContenidoImagen contenido = contenidoImagenService.getContenidoPrenda(prenda.getId(), imagen.getId());
+        assertEquals(hash, contenido.getHash());
+        assertEquals(imagenAlmacen.ruta(hash), contenido.getArchivo());
+    }
+
+    /**
+     * Prueba que dos imágenes con los mismos bytes comparten un solo archivo.
+     */
+    @Test
+    void testContenidoDeduplicado() throws Exception {
+        long antes = archivos(DIRECTORIO);
+        String hash = subir(imagen, bytes(2000, 2)).getHash();
+        assertEquals(hash, subir(otraImagen, bytes(2000, 2)).getHash());
+        assertEquals(antes + 1, archivos(DIRECTORIO));
+
+        assertNotEquals(hash, subir(otraImagen, bytes(2000, 3)).getHash());
+        assertEquals(antes + 2, archivos(DIRECTORIO));
+    }
+
+    /**
+     * Prueba que no se aceptan tipos que no son de imagen, contenidos vacíos o muy
+     * grandes, y que la subida rechazada no deja archivos.
+     */
+    @Test
+    void testContenidoInvalido() throws Exception {
+        long antes = archivos(DIRECTORIO);
+        assertThrows(IllegalOperationException.class, () -> contenidoImagenService.guardarContenidoPrenda(
+                prenda.getId(), imagen.getId(), new ByteArrayInputStream(bytes(10, 0)), "text/html"));
+        assertThrows(IllegalOperationException.class, () -> contenidoImagenService.guardarContenidoPrenda(
+                prenda.getId(), imagen.getId(), new ByteArrayInputStream(bytes(10, 0)), "image/*"));
+        assertThrows(IllegalOperationException.class, () -> subir(imagen, new byte[0]));
+        assertThrows(IllegalOperationException.class, () -> subir(imagen, bytes(4097, 0)));
+        assertThrows(EntityNotFoundException.class, () -> contenidoImagenService.guardarContenidoPrenda(
+                0L, imagen.getId(), new ByteArrayInputStream(bytes(10, 0)), "image/png"));
+        assertThrows(EntityNotFoundException.class, () -> contenidoImagenService.guardarContenidoPrenda(
+                prenda.getId(), 0L, new ByteArrayInputStream(bytes(10, 0)), "image/png"));
+        assertEquals(antes, archivos(DIRECTORIO));
+
+        assertThrows(EntityNotFoundException.class,
+                () -> contenidoImagenService.getContenidoPrenda(prenda.getId(), imagen.getId()));
+    }
+
+    /**
+     * Prueba que actualizar los datos de la imagen no cambia su contenido.
+     */
+    @Test
+    void testActualizarImagenConservaContenido() throws Exception {
+        String hash = subir(imagen, bytes(100, 4)).getHash();
+
+        ImagenPrendaEntity cambios = new ImagenPrendaEntity();
+        cambios.setImagen("https://servidor.com/camisa-nueva.png");
+        ImagenPrendaEntity actualizada = imagenPrendaService.updateImagenPrenda(imagen.getId(), null, cambios);
+
+        assertEquals("https://servidor.com/camisa-nueva.png", actualizada.getImagen());
+        assertEquals(hash, actualizada.getHash());
+        assertEquals(100L, actualizada.getTamano());
+    }
+
+    /**
+     * Prueba que la limpieza borra los archivos que ninguna imagen usa, solo después
+     * del período de gracia.
+     */
+    @Test
+    void testLimpiar() throws Exception {
+        String anterior = subir(imagen, bytes(500, 5)).getHash();
+        String nuevo = subir(imagen, bytes(500, 6)).getHash();
+        String compartido = subir(otraImagen, bytes(500, 7)).getHash();
+
+        assertEquals(0, imagenAlmacen.limpiar(Duration.ofHours(1)));
+        assertTrue(Files.exists(imagenAlmacen.ruta(anterior)));
+
+        imagenAlmacen.limpiar(Duration.ZERO);
+        assertFalse(Files.exists(imagenAlmacen.ruta(anterior)));
+        assertTrue(Files.exists(imagenAlmacen.ruta(nuevo)));
+        assertTrue(Files.exists(imagenAlmacen.ruta(compartido)));
+    }
+
+    /**
+     * Prueba el contenido de las imágenes de outfits, que comparten el almacén con
+     * las de prendas.
+     */
+    @Test
+    void testContenidoOutfit() throws Exception {
+        OutfitEntity outfit = new OutfitEntity();
+        outfit.setNombre("Oficina");
+        entityManager.persist(outfit);
+        ImagenOutfitEntity imagenOutfit = new ImagenOutfitEntity();
+        imagenOutfit.setImagen("https://servidor.com/oficina.jpg");
+        entityManager.persist(imagenOutfit);
+
+        String hash = subir(imagen, bytes(800, 8)).getHash();
+        ImagenOutfitEntity resultado = contenidoImagenService.guardarContenidoOutfit(outfit.getId(),
+                imagenOutfit.getId(), new ByteArrayInputStream(bytes(800, 8)), "image/jpeg");
+        assertEquals(hash, resultado.getHash());
+        assertTrue(eventos.stream(RecursoModificadoEvent.class)
+                .anyMatch(e -> e.recurso() == Recurso.OUTFIT && e.ids().contains(outfit.getId())));
+        assertEquals("image/jpeg",
+                contenidoImagenService.getContenidoOutfit(outfit.getId(), imagenOutfit.getId()).getTipoContenido());
+        assertThrows(EntityNotFoundException.class,
+                () -> contenidoImagenService.getContenidoOutfit(0L, imagenOutfit.getId()));
+    }
+
+    /**
+     * Prueba la interpretación del encabezado Range.
+     */
+    @Test
+    void testRangoBytes() {
+        assertNull(RangoBytes.de(null, 100));
+        assertEquals(new RangoBytes(0, 9), RangoBytes.de("bytes=0-9", 100));
+        assertEquals(new RangoBytes(90, 99), RangoBytes.de("bytes=90-", 100));
+        assertEquals(new RangoBytes(90, 99), RangoBytes.de("bytes=90-500", 100));
+        assertEquals(new RangoBytes(80, 99), RangoBytes.de("bytes=-20", 100));
+        assertEquals(new RangoBytes(0, 99), RangoBytes.de("bytes=-500", 100));
+        assertEquals(10, RangoBytes.de("Bytes=0-9", 100).longitud());
+        assertSame(RangoBytes.NO_SATISFACIBLE, RangoBytes.de("bytes=100-", 100));
+        assertSame(RangoBytes.NO_SATISFACIBLE, RangoBytes.de("bytes=150-200", 100));
+        assertSame(RangoBytes.NO_SATISFACIBLE, RangoBytes.de("bytes=-0", 100));
+        assertNull(RangoBytes.de("bytes=9-0", 100));
+        assertNull(RangoBytes.de("bytes=0-1,5-6", 100));
+        assertNull(RangoBytes.de("items=0-9", 100));
+        assertNull(RangoBytes.de("bytes=a-b", 100));
+    }
+}
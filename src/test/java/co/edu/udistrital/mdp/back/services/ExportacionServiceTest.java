@@ -0,0 +1,201 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.RecomendacionEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.services.ExportacionService.Entidad;
+
+/**
+ * Pruebas de la exportación NDJSON. Cada prueba exporta desde el id anterior a
+ * los datos que crea, para no depender de lo que haya en la base de datos.
+ */
+@DataJpaTest
+@Transactional
+@Import(ExportacionService.class)
+class ExportacionServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private List<UsuarioEntity> usuarios = new ArrayList<>();
+    private List<OutfitEntity> outfits = new ArrayList<>();
+    private PrendaEntity prenda;
+    private List<ComentarioEntity> comentarios = new ArrayList<>();
+    private List<ListaDeseosEntity> listas = new ArrayList<>();
+    private RecomendacionEntity recomendacion;
+
+    @BeforeEach
+    void setUp() {
+        for (String nombre : List.of("Ana", "Beto")) {
+            UsuarioEntity usuario = new UsuarioEntity();
+            usuario.setNombre(nombre);
+            usuario.setCorreo(nombre.toLowerCase() + "@exportacion.com");
+            usuarios.add(entityManager.persist(usuario));
+
+            OutfitEntity outfit = new OutfitEntity();
+            outfit.setNombre("Outfit de " + nombre);
+            outfits.add(entityManager.persist(outfit));
+
+            ListaDeseosEntity lista = new ListaDeseosEntity();
+            lista.setUsuario(usuario);
+            listas.add(entityManager.persist(lista));
+        }
+        // La primera lista tiene los dos outfits, agregados en desorden; la segunda está vacía
+        listas.get(0).getOutfits().add(outfits.get(1));
+        listas.get(0).getOutfits().add(outfits.get(0));
+
+        prenda = new PrendaEntity();
+        prenda.setNombre("Camisa");
+        prenda.setPrecio(50000.0);
+        entityManager.persist(prenda);
+
+        comentarios.add(comentario(usuarios.get(0), outfits.get(0), "Muy bueno"));
+        comentarios.add(comentario(usuarios.get(1), null, "Sin outfit"));
+
+        recomendacion = new RecomendacionEntity();
+        recomendacion.setUsuario(usuarios.get(0));
+        recomendacion.setOutfit(outfits.get(1));
+        recomendacion.setPuntaje(0.8);
+        entityManager.persist(recomendacion);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private ComentarioEntity comentario(UsuarioEntity usuario, OutfitEntity outfit, String texto) {
+        ComentarioEntity comentario = new ComentarioEntity();
+        comentario.setUsuario(usuario);
+        comentario.setOutfit(outfit);
+        comentario.setTexto(texto);
+        comentario.setCalificacion(4);
+        return entityManager.persist(comentario);
+    }
+
+    private List<JsonNode> exportar(Map<Entidad, Long> desde) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long lineas = exportacionService.exportar(desde, salida);
+        List<JsonNode> nodos = new ArrayList<>();
+        String ndjson = salida.toString(StandardCharsets.UTF_8);
+        assertTrue(ndjson.isEmpty() || ndjson.endsWith("\n"));
+        for (String linea : ndjson.lines().toList()) {
+            assertTrue(linea.startsWith("{") && linea.endsWith("}"));
+            nodos.add(MAPPER.readTree(linea));
+        }
+        assertEquals(lineas, nodos.size());
+        return nodos;
+    }
+
+    /**
+     * Prueba que cada lista de deseos se exporta en una línea con sus outfits en
+     * orden de id, incluso si no tiene ninguno.
+     */
+    @Test
+    void testExportarListasDeseos() throws Exception {
+        List<JsonNode> lineas = exportar(Map.of(Entidad.LISTAS_DESEOS, listas.get(0).getId() - 1));
+
+        assertEquals(2, lineas.size());
+        JsonNode primera = lineas.get(0);
+        assertEquals("listasdeseos", primera.get("entidad").asText());
+        assertEquals(listas.get(0).getId(), primera.get("id").asLong());
+        assertEquals(usuarios.get(0).getId(), primera.get("usuarioId").asLong());
+        assertEquals(List.of(outfits.get(0).getId(), outfits.get(1).getId()),
+                List.of(primera.get("outfits").get(0).asLong(), primera.get("outfits").get(1).asLong()));
+        assertEquals(listas.get(1).getId(), lineas.get(1).get("id").asLong());
+        assertTrue(lineas.get(1).get("outfits").isEmpty());
+    }
+
+    /**
+     * Prueba que con since solo se exportan las filas con id mayor.
+     */
+    @Test
+    void testExportarDesde() throws Exception {
+        List<JsonNode> lineas = exportar(Map.of(Entidad.USUARIOS, usuarios.get(0).getId()));
+
+        assertEquals(1, lineas.size());
+        assertEquals(usuarios.get(1).getId(), lineas.get(0).get("id").asLong());
+        assertEquals("Beto", lineas.get(0).get("nombre").asText());
+        assertEquals("beto@exportacion.com", lineas.get(0).get("correo").asText());
+    }
+
+    /**
+     * Prueba la exportación de todas las entidades, incluidas las referencias
+     * opcionales vacías.
+     */
+    @Test
+    void testExportarTodo() throws Exception {
+        Map<Entidad, Long> desde = new LinkedHashMap<>();
+        desde.put(Entidad.USUARIOS, usuarios.get(0).getId() - 1);
+        desde.put(Entidad.OUTFITS, outfits.get(0).getId() - 1);
+        desde.put(Entidad.PRENDAS, prenda.getId() - 1);
+        desde.put(Entidad.COMENTARIOS, comentarios.get(0).getId() - 1);
+        desde.put(Entidad.LISTAS_DESEOS, listas.get(0).getId() - 1);
+        desde.put(Entidad.RECOMENDACIONES, recomendacion.getId() - 1);
+
+        List<JsonNode> lineas = exportar(desde);
+
+        Map<String, Integer> porEntidad = new LinkedHashMap<>();
+        for (JsonNode linea : lineas)
+            porEntidad.merge(linea.get("entidad").asText(), 1, Integer::sum);
+        assertEquals(Map.of("usuarios", 2, "outfits", 2, "prendas", 1, "comentarios", 2, "listasdeseos", 2,
+                "recomendaciones", 1), porEntidad);
+        assertEquals(List.of("usuarios", "outfits", "prendas", "comentarios", "listasdeseos", "recomendaciones"),
+                new ArrayList<>(porEntidad.keySet()));
+
+        JsonNode sinOutfit = lineas.stream()
+                .filter(l -> l.get("entidad").asText().equals("comentarios")
+                        && l.get("id").asLong() == comentarios.get(1).getId())
+                .findFirst().orElseThrow();
+        assertTrue(sinOutfit.get("outfitId").isNull());
+        assertEquals(usuarios.get(1).getId(), sinOutfit.get("usuarioId").asLong());
+        assertEquals("Sin outfit", sinOutfit.get("texto").asText());
+    }
+
+    /**
+     * Prueba que un id de inicio negativo se rechaza antes de escribir.
+     */
+    @Test
+    void testExportarDesdeNegativo() {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        assertThrows(IllegalOperationException.class,
+                () -> exportacionService.exportar(Map.of(Entidad.USUARIOS, -1L), salida));
+        assertEquals(0, salida.size());
+    }
+
+    /**
+     * Prueba que una entidad que no se exporta no se encuentra.
+     */
+    @Test
+    void testEntidadDesconocida() throws EntityNotFoundException {
+        assertEquals(Entidad.LISTAS_DESEOS, Entidad.de("listasdeseos"));
+        assertThrows(EntityNotFoundException.class, () -> Entidad.de("contrasenias"));
+    }
+}
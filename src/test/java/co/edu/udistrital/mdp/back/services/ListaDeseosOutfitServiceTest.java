@@ -12,6 +12,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
 import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
 import co.edu.udistrital.mdp.back.entities.OutfitEntity;
@@ -23,6 +25,7 @@ import uk.co.jemos.podam.api.PodamFactoryImpl;
 @DataJpaTest
 @Transactional
 @Import(ListaDeseosOutfitService.class)
+@RecordApplicationEvents
 class ListaDeseosOutfitServiceTest {
 
     @Autowired
@@ -31,6 +34,9 @@ class ListaDeseosOutfitServiceTest {
     @Autowired
     private TestEntityManager entityManager;
 
+    @Autowired
+    private ApplicationEvents eventos;
+
     private PodamFactory factory = new PodamFactoryImpl();
 
     private ListaDeseosEntity listaDeseos;
@@ -229,4 +235,117 @@ class ListaDeseosOutfitServiceTest {
             listaDeseosOutfitService.removeOutfit(0L, outfit.getId());
         });
     }
+
+    private List<Long> idsOutfits() throws EntityNotFoundException {
+        return listaDeseosOutfitService.getOutfits(listaDeseos.getId()).stream().map(OutfitEntity::getId).toList();
+    }
+
+    /**
+     * Prueba que agregar un outfit que ya está en la lista no lo duplica ni publica
+     * un cambio.
+     */
+    @Test
+    void testAddOutfitRepetido() throws EntityNotFoundException {
+        OutfitEntity outfit = outfitList.get(0);
+        listaDeseosOutfitService.addOutfit(listaDeseos.getId(), outfit.getId());
+
+        assertEquals(3, idsOutfits().size());
+        assertEquals(0, eventos.stream(ListaDeseosModificadaEvent.class).count());
+    }
+
+    /**
+     * Prueba para agregar varios outfits a la vez: los que ya estaban y los
+     * repetidos se ignoran y el evento trae solo los que se agregaron.
+     */
+    @Test
+    void testAgregarOutfits() throws EntityNotFoundException, IllegalOperationException {
+        List<Long> nuevos = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            OutfitEntity outfit = factory.manufacturePojo(OutfitEntity.class);
+            entityManager.persist(outfit);
+            nuevos.add(outfit.getId());
+        }
+        List<Long> antes = idsOutfits();
+
+        int agregados = listaDeseosOutfitService.agregarOutfits(listaDeseos.getId(),
+                List.of(nuevos.get(0), outfitList.get(0).getId(), nuevos.get(1), nuevos.get(0)));
+
+        assertEquals(2, agregados);
+        List<Long> despues = new ArrayList<>(antes);
+        despues.addAll(nuevos);
+        assertEquals(despues, idsOutfits());
+
+        ListaDeseosModificadaEvent evento = eventos.stream(ListaDeseosModificadaEvent.class).findFirst().orElseThrow();
+        assertEquals(listaDeseos.getId(), evento.listaId());
+        assertEquals(nuevos, evento.agregados());
+        assertTrue(evento.quitados().isEmpty());
+    }
+
+    /**
+     * Prueba que si alguno de los outfits no existe no se agrega ninguno.
+     */
+    @Test
+    void testAgregarOutfitsInexistente() throws EntityNotFoundException {
+        OutfitEntity nuevo = factory.manufacturePojo(OutfitEntity.class);
+        entityManager.persist(nuevo);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> listaDeseosOutfitService.agregarOutfits(listaDeseos.getId(), List.of(nuevo.getId(), 0L)));
+        assertEquals(3, idsOutfits().size());
+    }
+
+    @Test
+    void testAgregarOutfitsListaNoExistente() {
+        assertThrows(EntityNotFoundException.class,
+                () -> listaDeseosOutfitService.agregarOutfits(0L, List.of(outfitList.get(0).getId())));
+    }
+
+    @Test
+    void testAgregarOutfitsExcedeLote() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= ListaDeseosOutfitService.MAXIMO_LOTE + 1; i++)
+            ids.add(i);
+        assertThrows(IllegalOperationException.class,
+                () -> listaDeseosOutfitService.agregarOutfits(listaDeseos.getId(), ids));
+    }
+
+    /**
+     * Prueba para quitar varios outfits a la vez: los que no estaban se ignoran.
+     */
+    @Test
+    void testQuitarOutfits() throws EntityNotFoundException, IllegalOperationException {
+        OutfitEntity ajeno = factory.manufacturePojo(OutfitEntity.class);
+        entityManager.persist(ajeno);
+
+        int quitados = listaDeseosOutfitService.quitarOutfits(listaDeseos.getId(),
+                List.of(outfitList.get(0).getId(), ajeno.getId(), outfitList.get(2).getId()));
+
+        assertEquals(2, quitados);
+        assertEquals(List.of(outfitList.get(1).getId()), idsOutfits());
+        ListaDeseosModificadaEvent evento = eventos.stream(ListaDeseosModificadaEvent.class).findFirst().orElseThrow();
+        assertTrue(evento.agregados().isEmpty());
+        assertEquals(List.of(outfitList.get(0).getId(), outfitList.get(2).getId()), evento.quitados());
+    }
+
+    /**
+     * Prueba que los outfits de la lista se recorren por páginas con el cursor.
+     */
+    @Test
+    void testGetOutfitsPaginados() throws EntityNotFoundException, IllegalOperationException {
+        KeysetPage<OutfitEntity> primera = listaDeseosOutfitService.getOutfits(listaDeseos.getId(), null, 2);
+        assertEquals(List.of(outfitList.get(0).getId(), outfitList.get(1).getId()),
+                primera.getContent().stream().map(OutfitEntity::getId).toList());
+        assertTrue(primera.hasNext());
+
+        KeysetPage<OutfitEntity> segunda = listaDeseosOutfitService.getOutfits(listaDeseos.getId(),
+                primera.getNextCursor(), 2);
+        assertEquals(List.of(outfitList.get(2).getId()),
+                segunda.getContent().stream().map(OutfitEntity::getId).toList());
+        assertFalse(segunda.hasNext());
+    }
+
+    @Test
+    void testGetOutfitsPaginadosListaNoExistente() {
+        assertThrows(EntityNotFoundException.class, () -> listaDeseosOutfitService.getOutfits(0L, null, 2));
+    }
 }
@@ -23,7 +23,7 @@ import uk.co.jemos.podam.api.PodamFactoryImpl;
 
 @DataJpaTest
 @Transactional
-@Import(ListaDeseosService.class)
+@Import({ ListaDeseosService.class, ListaDeseosOutfitService.class })
 class ListaDeseosServiceTest {
 
     @Autowired
@@ -0,0 +1,145 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import co.edu.udistrital.mdp.back.config.MetricasConfig;
+import co.edu.udistrital.mdp.back.config.MetricasServicios;
+import co.edu.udistrital.mdp.back.config.SentenciasPeticion;
+import co.edu.udistrital.mdp.back.controllers.ColorController;
+import co.edu.udistrital.mdp.back.controllers.OutfitController;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.UsuarioRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+
+/**
+ * Pruebas de las métricas de los servicios: la latencia por método y resultado, las
+ * sentencias SQL contadas por petición, las consultas repetidas y los presupuestos.
+ */
+@DataJpaTest
+@Import(MetricasConfig.class)
+class MetricasServiciosTest {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+    private Servicio servicio;
+
+    /**
+     * Servicio de prueba: está en el paquete de los servicios, así que el aspecto lo mide.
+     */
+    public static class Servicio {
+
+        public String consultar(Long id) throws EntityNotFoundException, IllegalOperationException {
+            if (id == null)
+                throw new IllegalOperationException("El id es obligatorio");
+            if (id < 0)
+                throw new EntityNotFoundException("No existe");
+            return "encontrado";
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        MetricasServicios metricas = new MetricasServicios();
+        ReflectionTestUtils.setField(metricas, "registry", registry);
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(new Servicio());
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(metricas);
+        servicio = fabrica.getProxy();
+    }
+
+    private Timer timer(String resultado) {
+        return registry.find("servicios.llamadas").tag("servicio", "Servicio").tag("metodo", "consultar")
+                .tag("resultado", resultado).timer();
+    }
+
+    /**
+     * Prueba que cada llamada se mide con el resultado que tuvo, con histograma en la
+     * exposición de Prometheus, y que las excepciones llegan intactas a quien llama.
+     */
+    @Test
+    void testLatenciaPorResultado() throws Exception {
+        assertEquals("encontrado", servicio.consultar(1L));
+        servicio.consultar(2L);
+        assertThrows(EntityNotFoundException.class, () -> servicio.consultar(-1L));
+        assertThrows(IllegalOperationException.class, () -> servicio.consultar(null));
+
+        assertEquals(2, timer("ok").count());
+        assertEquals(1, timer("EntityNotFoundException").count());
+        assertEquals(1, timer("IllegalOperationException").count());
+        assertTrue(registry.scrape().contains(
+                "servicios_llamadas_seconds_bucket{metodo=\"consultar\",resultado=\"ok\",servicio=\"Servicio\","));
+    }
+
+    /**
+     * Prueba que se cuentan las sentencias de la petición, incluidas las de las
+     * consultas paralelas que inicia, y no las que se ejecutan fuera de ella.
+     */
+    @Test
+    void testSentenciasPeticion() throws Exception {
+        usuarioRepository.count();
+
+        SentenciasPeticion peticion = SentenciasPeticion.iniciar();
+        try {
+            usuarioRepository.count();
+            usuarioRepository.findAll();
+            try (ConsultasParalelas consultas = new ConsultasParalelas(Duration.ofSeconds(10))) {
+                consultas.fork(usuarioRepository::count);
+                consultas.join();
+            }
+        } finally {
+            SentenciasPeticion.terminar();
+        }
+        usuarioRepository.count();
+
+        assertEquals(3, peticion.getTotal());
+        assertNull(SentenciasPeticion.actual());
+    }
+
+    /**
+     * Prueba que una consulta ejecutada una vez por elemento se reporta como
+     * repetida, con el número de veces que se ejecutó.
+     */
+    @Test
+    void testConsultasRepetidas() {
+        SentenciasPeticion peticion = SentenciasPeticion.iniciar();
+        try {
+            usuarioRepository.count();
+            for (long id = 1; id <= 5; id++)
+                usuarioRepository.findById(id);
+        } finally {
+            SentenciasPeticion.terminar();
+        }
+
+        assertEquals(6, peticion.getTotal());
+        assertEquals(1, peticion.getConsultasRepetidas(5).size());
+        assertEquals(5, peticion.getConsultasRepetidas(5).values().iterator().next());
+        assertTrue(peticion.getConsultasRepetidas(5).keySet().iterator().next().startsWith("select"));
+        assertEquals(2, peticion.getRepetidas(1).size());
+    }
+
+    /**
+     * Prueba la consulta del presupuesto declarado en un método de controlador.
+     */
+    @Test
+    void testPresupuesto() {
+        assertEquals(4, SentenciasPeticion.presupuesto(OutfitController.class, "findOne"));
+        assertThrows(IllegalArgumentException.class,
+                () -> SentenciasPeticion.presupuesto(ColorController.class, "findAll"));
+    }
+}
@@ -0,0 +1,253 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+import co.edu.udistrital.mdp.back.entities.OcasionEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.RecomendacionEntity;
+import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
+
+/**
+ * Pruebas del motor de recomendaciones
+ */
+@DataJpaTest(properties = "recomendaciones.top=2")
+@Transactional
+@Import(MotorRecomendacionService.class)
+class MotorRecomendacionServiceTest {
+
+    @Autowired
+    private MotorRecomendacionService motorRecomendacionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private List<OutfitEntity> outfits = new ArrayList<>();
+    private UsuarioEntity usuario;
+    private UsuarioEntity vecino;
+    private UsuarioEntity sinLista;
+    private ListaDeseosEntity listaUsuario;
+
+    /**
+     * Outfits 0 y 1 de la categoría A (con la ocasión X), 2, 3 y 4 de la categoría
+     * B. El outfit 0 tiene una prenda roja de la marca M y el 2 una prenda roja.
+     * El usuario guardó el outfit 0 y su vecino los outfits 0 y 3.
+     */
+    @BeforeEach
+    void setUp() {
+        CategoriaEntity categoriaA = crearCategoria("A");
+        CategoriaEntity categoriaB = crearCategoria("B");
+
+        OcasionEntity ocasion = new OcasionEntity();
+        ocasion.setNombre("X");
+        ocasion.getCategorias().add(categoriaA);
+        entityManager.persist(ocasion);
+
+        ColorEntity rojo = new ColorEntity();
+        rojo.setNombre("Rojo");
+        rojo.setCodigoHex("#FF0000");
+        entityManager.persist(rojo);
+        MarcaEntity marca = entityManager.persist(new MarcaEntity());
+
+        for (int i = 0; i < 5; i++) {
+            OutfitEntity outfit = new OutfitEntity();
+            outfit.setNombre("Outfit " + i);
+            outfit.setCategoria(i < 2 ? categoriaA : categoriaB);
+            outfits.add(entityManager.persist(outfit));
+        }
+
+        crearPrenda(rojo, marca, outfits.get(0));
+        crearPrenda(rojo, null, outfits.get(2));
+
+        usuario = crearUsuario("usuario");
+        vecino = crearUsuario("vecino");
+        sinLista = crearUsuario("sin lista");
+        listaUsuario = crearLista(usuario, outfits.get(0));
+        crearLista(vecino, outfits.get(0), outfits.get(3));
+    }
+
+    private CategoriaEntity crearCategoria(String nombre) {
+        CategoriaEntity categoria = new CategoriaEntity();
+        categoria.setNombre(nombre);
+        return entityManager.persist(categoria);
+    }
+
+    private void crearPrenda(ColorEntity color, MarcaEntity marca, OutfitEntity outfit) {
+        PrendaEntity prenda = new PrendaEntity();
+        prenda.setColor(color);
+        prenda.setMarca(marca);
+        prenda.getOutfits().add(outfit);
+        entityManager.persist(prenda);
+    }
+
+    private UsuarioEntity crearUsuario(String nombre) {
+        UsuarioEntity entity = new UsuarioEntity();
+        entity.setNombre(nombre);
+        return entityManager.persist(entity);
+    }
+
+    private ListaDeseosEntity crearLista(UsuarioEntity dueno, OutfitEntity... guardados) {
+        ListaDeseosEntity lista = new ListaDeseosEntity();
+        lista.setUsuario(dueno);
+        lista.getOutfits().addAll(List.of(guardados));
+        return entityManager.persist(lista);
+    }
+
+    private List<RecomendacionEntity> recomendacionesDe(UsuarioEntity entity) {
+        entityManager.clear();
+        return entityManager.getEntityManager()
+                .createQuery("select r from RecomendacionEntity r where r.usuario.id = :usuario "
+                        + "order by r.puntaje desc, r.outfit.id", RecomendacionEntity.class)
+                .setParameter("usuario", entity.getId())
+                .getResultList();
+    }
+
+    private List<Long> outfitsDe(List<RecomendacionEntity> recomendaciones) {
+        return recomendaciones.stream().map(r -> r.getOutfit().getId()).toList();
+    }
+
+    /**
+     * Prueba que un outfit de la lista de deseos que no está entre los outfits de la
+     * instantánea (se eliminó mientras se leía) se ignora al puntuar.
+     */
+    @Test
+    void testPuntuarConOutfitFaltante() {
+        MotorRecomendacionService.Instantanea datos = new MotorRecomendacionService.Instantanea();
+        MotorRecomendacionService.Caracteristicas caracteristicas = new MotorRecomendacionService.Caracteristicas();
+        caracteristicas.categoria = 1L;
+        datos.outfits.put(10L, caracteristicas);
+        datos.outfits.put(11L, caracteristicas);
+        datos.deseos.put(1L, Set.of(10L, 99L));
+
+        List<MotorRecomendacionService.Puntuacion> puntuaciones = MotorRecomendacionService.puntuar(datos, 1L, 2);
+        assertEquals(List.of(11L), puntuaciones.stream().map(MotorRecomendacionService.Puntuacion::outfitId).toList());
+    }
+
+    /**
+     * Prueba para recalcular las recomendaciones de todos los usuarios.
+     */
+    @Test
+    void testRecalcularTodas() {
+        int escritas = motorRecomendacionService.recalcularTodas();
+
+        List<RecomendacionEntity> recomendaciones = recomendacionesDe(usuario);
+        assertEquals(List.of(outfits.get(1).getId(), outfits.get(3).getId()), outfitsDe(recomendaciones));
+        assertEquals(MotorRecomendacionService.MOTIVO_CATEGORIA, recomendaciones.get(0).getMotivo());
+        assertEquals(MotorRecomendacionService.PESO_CATEGORIA + MotorRecomendacionService.PESO_OCASION,
+                recomendaciones.get(0).getPuntaje(), 1e-9);
+        assertEquals(MotorRecomendacionService.MOTIVO_COGUARDADO, recomendaciones.get(1).getMotivo());
+        assertTrue(recomendaciones.stream().allMatch(RecomendacionEntity::getGenerada));
+
+        assertTrue(recomendacionesDe(sinLista).isEmpty());
+        assertEquals(2, recomendacionesDe(vecino).size());
+        assertEquals(4, escritas);
+    }
+
+    /**
+     * Prueba que repetir el recálculo no duplica las recomendaciones.
+     */
+    @Test
+    void testRecalcularTodasSinDuplicados() {
+        motorRecomendacionService.recalcularTodas();
+        List<Long> ids = recomendacionesDe(usuario).stream().map(RecomendacionEntity::getId).toList();
+
+        motorRecomendacionService.recalcularTodas();
+        List<RecomendacionEntity> recomendaciones = recomendacionesDe(usuario);
+        assertEquals(ids, recomendaciones.stream().map(RecomendacionEntity::getId).toList());
+        Set<Long> distintos = recomendaciones.stream().map(r -> r.getOutfit().getId()).collect(Collectors.toSet());
+        assertEquals(recomendaciones.size(), distintos.size());
+    }
+
+    /**
+     * Prueba que el recálculo no modifica las recomendaciones creadas por los clientes.
+     */
+    @Test
+    void testRecalcularConservaRecomendacionesManuales() {
+        RecomendacionEntity manual = new RecomendacionEntity();
+        manual.setUsuario(usuario);
+        manual.setOutfit(outfits.get(1));
+        manual.setMotivo("Sugerida por un estilista");
+        manual.setPuntaje(0.9);
+        entityManager.persist(manual);
+
+        motorRecomendacionService.recalcularTodas();
+
+        List<RecomendacionEntity> recomendaciones = recomendacionesDe(usuario);
+        assertEquals(List.of(outfits.get(1).getId(), outfits.get(3).getId()), outfitsDe(recomendaciones));
+        RecomendacionEntity conservada = recomendaciones.get(0);
+        assertEquals(manual.getId(), conservada.getId());
+        assertEquals("Sugerida por un estilista", conservada.getMotivo());
+        assertFalse(conservada.getGenerada());
+    }
+
+    /**
+     * Prueba que la calificación promedio del usuario escala sus puntajes.
+     */
+    @Test
+    void testCalificacionEscalaPuntajes() {
+        for (UsuarioEntity autor : List.of(usuario, vecino)) {
+            ComentarioEntity comentario = new ComentarioEntity();
+            comentario.setUsuario(autor);
+            comentario.setCalificacion(autor == usuario ? 4.5 : 1.5);
+            entityManager.persist(comentario);
+        }
+
+        motorRecomendacionService.recalcularTodas();
+
+        double base = MotorRecomendacionService.PESO_CATEGORIA + MotorRecomendacionService.PESO_OCASION;
+        assertEquals(base * 1.5, recomendacionesDe(usuario).get(0).getPuntaje(), 1e-9);
+    }
+
+    /**
+     * Prueba el recálculo incremental de los usuarios cuya lista de deseos cambió.
+     */
+    @Test
+    void testRecalcularPendientes() {
+        motorRecomendacionService.recalcularTodas();
+        List<RecomendacionEntity> antesVecino = recomendacionesDe(vecino);
+
+        listaUsuario = entityManager.find(ListaDeseosEntity.class, listaUsuario.getId());
+        listaUsuario.getOutfits().clear();
+        listaUsuario.getOutfits().add(outfits.get(2));
+        entityManager.flush();
+
+        motorRecomendacionService.registrarCambio(ListaDeseosModificadaEvent.de(listaUsuario,
+                List.of(outfits.get(2).getId()), List.of(outfits.get(0).getId())));
+        assertEquals(2, motorRecomendacionService.recalcularPendientes());
+        assertTrue(motorRecomendacionService.getPendientes().isEmpty());
+
+        List<RecomendacionEntity> recomendaciones = recomendacionesDe(usuario);
+        assertEquals(List.of(outfits.get(3).getId(), outfits.get(4).getId()), outfitsDe(recomendaciones));
+
+        List<RecomendacionEntity> despuesVecino = recomendacionesDe(vecino);
+        assertEquals(antesVecino.stream().map(RecomendacionEntity::getId).toList(),
+                despuesVecino.stream().map(RecomendacionEntity::getId).toList());
+    }
+
+    /**
+     * Prueba que sin cambios pendientes no se recalcula nada.
+     */
+    @Test
+    void testRecalcularPendientesSinCambios() {
+        assertEquals(0, motorRecomendacionService.recalcularPendientes());
+        assertTrue(recomendacionesDe(usuario).isEmpty());
+    }
+}
@@ -22,12 +22,15 @@ import uk.co.jemos.podam.api.PodamFactoryImpl;
 
 @DataJpaTest
 @Transactional
-@Import(OutfitListaDeseosService.class)
+@Import({ OutfitListaDeseosService.class, ListaDeseosOutfitService.class, TambienGuardadosIndex.class })
 class OutfitListaDeseosServiceTest {
 
     @Autowired
     private OutfitListaDeseosService outfitListaDeseosService;
 
+    @Autowired
+    private TambienGuardadosIndex tambienGuardadosIndex;
+
     @Autowired
     private TestEntityManager entityManager;
 
@@ -62,6 +65,7 @@ class OutfitListaDeseosServiceTest {
 
         for (int i = 0; i < 3; i++) {
             ListaDeseosEntity lista = factory.manufacturePojo(ListaDeseosEntity.class);
+            lista.getOutfits().add(outfit);
             entityManager.persist(lista);
             listaDeseosList.add(lista);
             outfit.getListasDeseos().add(lista);
@@ -224,4 +228,45 @@ class OutfitListaDeseosServiceTest {
             outfitListaDeseosService.removeListaDeseos(0L, lista.getId());
         });
     }
+
+    /**
+     * Prueba para consultar los outfits guardados junto con un outfit.
+     */
+    @Test
+    void testGetTambienGuardados() throws EntityNotFoundException, IllegalOperationException {
+        List<OutfitEntity> otros = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            OutfitEntity otro = factory.manufacturePojo(OutfitEntity.class);
+            entityManager.persist(otro);
+            otros.add(otro);
+        }
+        // Las tres listas ya contienen el outfit
+        listaDeseosList.get(0).getOutfits().addAll(List.of(otros.get(0), otros.get(1)));
+        listaDeseosList.get(1).getOutfits().add(otros.get(2));
+        listaDeseosList.get(2).getOutfits().add(otros.get(2));
+        tambienGuardadosIndex.reconstruir();
+
+        List<OutfitEntity> guardados = outfitListaDeseosService.getTambienGuardados(outfit.getId(), null);
+        assertEquals(List.of(otros.get(2), otros.get(0), otros.get(1)), guardados);
+
+        guardados = outfitListaDeseosService.getTambienGuardados(outfit.getId(), 1);
+        assertEquals(List.of(otros.get(2)), guardados);
+    }
+
+    /**
+     * Prueba para consultar los outfits guardados junto con un outfit inexistente.
+     */
+    @Test
+    void testGetTambienGuardadosOutfitNoExistente() {
+        assertThrows(EntityNotFoundException.class, () -> outfitListaDeseosService.getTambienGuardados(0L, null));
+    }
+
+    /**
+     * Prueba para consultar los outfits guardados juntos con un límite inválido.
+     */
+    @Test
+    void testGetTambienGuardadosLimiteInvalido() {
+        assertThrows(IllegalOperationException.class,
+                () -> outfitListaDeseosService.getTambienGuardados(outfit.getId(), 0));
+    }
 }
@@ -24,7 +24,7 @@ import uk.co.jemos.podam.api.PodamFactoryImpl;
 
 @DataJpaTest
 @Transactional
-@Import(OutfitPrendaService.class)
+@Import({ OutfitPrendaService.class, PrecioOutfitService.class })
 class OutfitPrendaServiceTest {
 
     @Autowired
@@ -190,4 +190,31 @@ class OutfitPrendaServiceTest {
             outfitPrendaService.removePrenda(outfit.getId(), 0L);
         });
     }
+
+    @Test
+    void testPrecioAlAsociarYDesasociarPrendas() throws EntityNotFoundException {
+        OutfitEntity newOutfit = factory.manufacturePojo(OutfitEntity.class);
+        newOutfit.setPrecioEstimado(0.0);
+        entityManager.persist(newOutfit);
+        List<PrendaEntity> prendas = new ArrayList<>();
+        for (double precio : new double[] { 10.0, 5.0, 20.0 }) {
+            PrendaEntity prenda = factory.manufacturePojo(PrendaEntity.class);
+            prenda.setPrecio(precio);
+            entityManager.persist(prenda);
+            prendas.add(prenda);
+        }
+
+        outfitPrendaService.addPrenda(newOutfit.getId(), prendas.get(0).getId());
+        outfitPrendaService.addPrenda(newOutfit.getId(), prendas.get(1).getId());
+        outfitPrendaService.addPrenda(newOutfit.getId(), prendas.get(1).getId());
+        assertEquals(15.0, newOutfit.getPrecioEstimado());
+
+        outfitPrendaService.removePrenda(newOutfit.getId(), prendas.get(0).getId());
+        assertEquals(5.0, newOutfit.getPrecioEstimado());
+
+        outfitPrendaService.replacePrendas(newOutfit.getId(), List.of(prendas.get(0), prendas.get(2)));
+        assertEquals(30.0, newOutfit.getPrecioEstimado());
+        assertEquals(2, outfitPrendaService.getPrendas(newOutfit.getId()).size());
+        assertTrue(prendas.get(1).getOutfits().isEmpty());
+    }
 }
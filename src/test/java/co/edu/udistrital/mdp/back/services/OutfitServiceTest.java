@@ -16,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
 import co.edu.udistrital.mdp.back.entities.OutfitEntity;
 import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.ResumenCalificaciones;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 
@@ -24,12 +25,15 @@ import uk.co.jemos.podam.api.PodamFactoryImpl;
 
 @DataJpaTest
 @Transactional
-@Import(OutfitService.class)
+@Import({ OutfitService.class, CalificacionesOutfitService.class, MejorCalificadosIndex.class })
 class OutfitServiceTest {
 
     @Autowired
     private OutfitService outfitService;
 
+    @Autowired
+    private CalificacionesOutfitService calificacionesOutfitService;
+
     @Autowired
     private TestEntityManager entityManager;
 
@@ -132,6 +136,29 @@ class OutfitServiceTest {
         assertEquals(categoria.getId(), actualizado.getCategoria().getId());
     }
 
+    /**
+     * Prueba que actualizar un outfit no borra las calificaciones que le dieron los
+     * comentarios.
+     */
+    @Test
+    void testUpdateOutfitConservaCalificaciones() throws EntityNotFoundException, IllegalOperationException {
+        OutfitEntity existente = outfitList.get(0);
+        calificacionesOutfitService.agregar(existente.getId(), 4);
+        calificacionesOutfitService.agregar(existente.getId(), 5);
+
+        OutfitEntity cambios = factory.manufacturePojo(OutfitEntity.class);
+        cambios.setCalificaciones(new ResumenCalificaciones());
+        outfitService.updateOutfit(existente.getId(), cambios);
+        entityManager.flush();
+        entityManager.clear();
+
+        ResumenCalificaciones calificaciones = calificacionesOutfitService.getCalificaciones(existente.getId());
+        assertEquals(2, calificaciones.getNumero());
+        assertEquals(9.0, calificaciones.getSuma());
+        assertEquals(4.5, calificaciones.getPromedio());
+        assertEquals(1, calificaciones.getEstrellas5());
+    }
+
     @Test
     void testDeleteOutfit() throws EntityNotFoundException {
         OutfitEntity entity = outfitList.get(0);
@@ -147,4 +174,112 @@ class OutfitServiceTest {
     void testDeleteInvalidOutfit() {
         assertThrows(EntityNotFoundException.class, () -> outfitService.deleteOutfit(999L));
     }
+
+    @Test
+    void testGetOutfitsPaginados() throws IllegalOperationException {
+        KeysetPage<OutfitEntity> primera = outfitService.getOutfits(null, 2, null);
+
+        assertEquals(2, primera.getContent().size());
+        assertTrue(primera.hasNext());
+
+        KeysetPage<OutfitEntity> segunda = outfitService.getOutfits(primera.getNextCursor(), 2, null);
+
+        assertEquals(1, segunda.getContent().size());
+        assertFalse(segunda.hasNext());
+        assertTrue(primera.getContent().get(1).getId() < segunda.getContent().get(0).getId());
+    }
+
+    @Test
+    void testGetOutfitsPaginadosPorPrecioDescendente() throws IllegalOperationException {
+        outfitList.get(0).setPrecioEstimado(10.0);
+        outfitList.get(1).setPrecioEstimado(30.0);
+        outfitList.get(2).setPrecioEstimado(20.0);
+        entityManager.flush();
+
+        List<Double> precios = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<OutfitEntity> pagina = outfitService.getOutfits(cursor, 1, "precioEstimado,desc");
+            pagina.getContent().forEach(o -> precios.add(o.getPrecioEstimado()));
+            cursor = pagina.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(30.0, 20.0, 10.0), precios);
+    }
+
+    @Test
+    void testGetOutfitsPaginadosPorNombreConNulos() throws IllegalOperationException {
+        for (int i = 0; i < 2; i++) {
+            OutfitEntity outfit = factory.manufacturePojo(OutfitEntity.class);
+            outfit.setPrendas(new ArrayList<>());
+            entityManager.persist(outfit);
+            outfitList.add(outfit);
+        }
+        outfitList.get(0).setNombre("Casual");
+        outfitList.get(1).setNombre(null);
+        outfitList.get(2).setNombre("Abrigo");
+        outfitList.get(3).setNombre(null);
+        outfitList.get(4).setNombre("Boda");
+        entityManager.flush();
+
+        // Los que no tienen nombre van al final, por id, en cualquier dirección
+        List<Long> ascendente = List.of(outfitList.get(2).getId(), outfitList.get(4).getId(),
+                outfitList.get(0).getId(), outfitList.get(1).getId(), outfitList.get(3).getId());
+        List<Long> descendente = List.of(outfitList.get(0).getId(), outfitList.get(4).getId(),
+                outfitList.get(2).getId(), outfitList.get(1).getId(), outfitList.get(3).getId());
+        for (int size = 1; size <= 5; size++) {
+            assertEquals(ascendente, idsPaginados(size, "nombre"), "size " + size);
+            assertEquals(descendente, idsPaginados(size, "nombre,desc"), "size " + size);
+        }
+    }
+
+    private List<Long> idsPaginados(int size, String sort) throws IllegalOperationException {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<OutfitEntity> pagina = outfitService.getOutfits(cursor, size, sort);
+            assertTrue(pagina.getContent().size() <= size);
+            pagina.getContent().forEach(o -> ids.add(o.getId()));
+            cursor = pagina.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    @Test
+    void testGetOutfitsPaginadosOrdenInvalido() {
+        assertThrows(IllegalOperationException.class, () -> outfitService.getOutfits(null, 10, "categoria"));
+    }
+
+    @Test
+    void testGetOutfitsPaginadosCursorInvalido() throws IllegalOperationException {
+        KeysetPage<OutfitEntity> primera = outfitService.getOutfits(null, 1, null);
+
+        assertThrows(IllegalOperationException.class, () -> outfitService.getOutfits("no-es-un-cursor", 10, null));
+        assertThrows(IllegalOperationException.class,
+                () -> outfitService.getOutfits(primera.getNextCursor(), 10, "nombre"));
+    }
+
+    @Test
+    void testCreateOutfitCalculaPrecio() throws Exception {
+        CategoriaEntity categoria = factory.manufacturePojo(CategoriaEntity.class);
+        entityManager.persist(categoria);
+        prendaList.get(0).setPrecio(40.0);
+        prendaList.get(1).setPrecio(null);
+        prendaList.get(2).setPrecio(15.5);
+
+        OutfitEntity outfit = factory.manufacturePojo(OutfitEntity.class);
+        outfit.setCategoria(categoria);
+        outfit.setPrecioEstimado(1.0);
+        outfit.setPrendas(new ArrayList<>(prendaList));
+
+        OutfitEntity nuevo = outfitService.createOutfit(outfit);
+
+        assertEquals(55.5, nuevo.getPrecioEstimado());
+        for (PrendaEntity prenda : prendaList)
+            assertTrue(prenda.getOutfits().stream().anyMatch(o -> o.getId().equals(nuevo.getId())));
+
+        OutfitEntity cambios = factory.manufacturePojo(OutfitEntity.class);
+        cambios.setPrecioEstimado(1.0);
+        assertEquals(55.5, outfitService.updateOutfit(nuevo.getId(), cambios).getPrecioEstimado());
+    }
 }
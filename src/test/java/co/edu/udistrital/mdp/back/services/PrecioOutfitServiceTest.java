@@ -0,0 +1,121 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.repositories.OutfitRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Pruebas de la verificación del precio de los outfits. No son transaccionales:
+ * cada lote se verifica en su propia transacción desde otro hilo.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(PrecioOutfitService.class)
+@TestPropertySource(properties = "outfits.precio.verificacion.tamano-lote=2")
+class PrecioOutfitServiceTest {
+
+    @Autowired
+    private PrecioOutfitService precioOutfitService;
+
+    @Autowired
+    private OutfitRepository outfitRepository;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        prendaRepository.deleteAll();
+        outfitRepository.deleteAll();
+    }
+
+    /**
+     * Crea cinco outfits que contienen las prendas de precios 10 y 20, con el precio
+     * guardado correcto, y devuelve sus identificadores.
+     */
+    private List<Long> insertarOutfits() {
+        return transactionTemplate.execute(estado -> {
+            List<OutfitEntity> outfits = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                OutfitEntity outfit = new OutfitEntity();
+                outfit.setNombre("Outfit " + i);
+                outfit.setPrecioEstimado(30.0);
+                entityManager.persist(outfit);
+                outfits.add(outfit);
+            }
+            for (double precio : new double[] { 10.0, 20.0 }) {
+                PrendaEntity prenda = new PrendaEntity();
+                prenda.setNombre("Prenda " + precio);
+                prenda.setPrecio(precio);
+                prenda.getOutfits().addAll(outfits);
+                entityManager.persist(prenda);
+            }
+            return outfits.stream().map(OutfitEntity::getId).toList();
+        });
+    }
+
+    private void cambiarPrecio(Long outfitId, Double precio) {
+        transactionTemplate.executeWithoutResult(estado -> outfitRepository.findById(outfitId).get()
+                .setPrecioEstimado(precio));
+    }
+
+    private double precioDe(Long outfitId) {
+        return outfitRepository.findById(outfitId).get().getPrecioEstimado();
+    }
+
+    /**
+     * Prueba que la verificación no cambia los outfits cuyo precio es correcto.
+     */
+    @Test
+    void testVerificarSinDesviaciones() {
+        List<Long> ids = insertarOutfits();
+
+        assertEquals(0, precioOutfitService.verificarPrecios());
+        ids.forEach(id -> assertEquals(30.0, precioDe(id)));
+    }
+
+    /**
+     * Prueba que la verificación corrige los outfits desviados de todos los lotes,
+     * incluidos los que no tenían precio y los que no tienen prendas.
+     */
+    @Test
+    void testVerificarCorrigeDesviaciones() {
+        List<Long> ids = insertarOutfits();
+        cambiarPrecio(ids.get(0), 99.0);
+        cambiarPrecio(ids.get(3), null);
+        Long vacio = transactionTemplate.execute(estado -> {
+            OutfitEntity outfit = new OutfitEntity();
+            outfit.setNombre("Vacío");
+            outfit.setPrecioEstimado(7.0);
+            entityManager.persist(outfit);
+            return outfit.getId();
+        });
+
+        assertEquals(3, precioOutfitService.verificarPrecios());
+        ids.forEach(id -> assertEquals(30.0, precioDe(id)));
+        assertEquals(0.0, precioDe(vacio));
+    }
+}
@@ -25,7 +25,7 @@ import uk.co.jemos.podam.api.PodamFactoryImpl;
 
 @DataJpaTest
 @Transactional
-@Import(PrendaOutfitService.class)
+@Import({ PrendaOutfitService.class, PrecioOutfitService.class })
 class PrendaOutfitServiceTest {
 
     @Autowired
@@ -191,5 +191,20 @@ class PrendaOutfitServiceTest {
             prendaOutfitService.removeOutfit(prenda.getId(), 0L);
         });
     }
-}
 
+    @Test
+    void testAddOutfitsAjustaPrecio() throws EntityNotFoundException {
+        prenda.setPrecio(12.0);
+        outfitList.forEach(o -> o.setPrecioEstimado(12.0));
+        OutfitEntity nuevo = factory.manufacturePojo(OutfitEntity.class);
+        nuevo.setPrecioEstimado(0.0);
+        entityManager.persist(nuevo);
+
+        prendaOutfitService.addOutfits(prenda.getId(), List.of(outfitList.get(0), nuevo));
+
+        assertEquals(12.0, outfitList.get(0).getPrecioEstimado());
+        assertEquals(0.0, outfitList.get(1).getPrecioEstimado());
+        assertEquals(0.0, outfitList.get(2).getPrecioEstimado());
+        assertEquals(12.0, nuevo.getPrecioEstimado());
+    }
+}
@@ -18,6 +18,7 @@ import co.edu.udistrital.mdp.back.entities.MarcaEntity;
 import co.edu.udistrital.mdp.back.entities.CategoriaEntity;
 import co.edu.udistrital.mdp.back.entities.ColorEntity;
 import co.edu.udistrital.mdp.back.entities.ImagenPrendaEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 import uk.co.jemos.podam.api.PodamFactory;
@@ -25,7 +26,7 @@ import uk.co.jemos.podam.api.PodamFactoryImpl;
 
 @DataJpaTest
 @Transactional
-@Import(PrendaService.class)
+@Import({ PrendaService.class, PrecioOutfitService.class, PrendaFacetasIndex.class })
 class PrendaServiceTest {
 
     @Autowired
@@ -160,6 +161,26 @@ class PrendaServiceTest {
         assertEquals(prendaList.size(), result.size());
     }
 
+    /**
+     * Prueba para recorrer las prendas por páginas con el cursor.
+     */
+    @Test
+    void testGetPrendasPaginadas() throws IllegalOperationException {
+        List<Long> todas = prendaService.getAllPrendas().stream().map(PrendaEntity::getId).sorted().toList();
+
+        List<Long> paginadas = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<PrendaEntity> pagina = prendaService.getPrendas(cursor, 2);
+            assertTrue(pagina.getContent().size() <= 2);
+            pagina.getContent().forEach(p -> paginadas.add(p.getId()));
+            cursor = pagina.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(todas, paginadas);
+        assertThrows(IllegalOperationException.class, () -> prendaService.getPrendas(null, 0));
+    }
+
     /**
      * Prueba para consultar una prenda existente.
      */
@@ -184,10 +205,12 @@ class PrendaServiceTest {
     @Test
     void testUpdatePrendaCorrecto() throws EntityNotFoundException, IllegalOperationException {
         PrendaEntity prenda = prendaList.get(0);
+        ImagenPrendaEntity imagen = factory.manufacturePojo(ImagenPrendaEntity.class);
+        entityManager.persist(imagen);
         PrendaEntity update = factory.manufacturePojo(PrendaEntity.class);
         update.setNombre("Prenda Actualizada");
         update.setColor(colorList.get(1));
-        update.setImagen(imagenList.get(1));
+        update.setImagen(imagen);
         update.setMarca(marcaList.get(1));
         update.setCategoria(categoriaList.get(1));
 
@@ -249,4 +272,33 @@ class PrendaServiceTest {
             prendaService.deletePrenda(prenda.getId());
         });
     }
+
+    /**
+     * Prueba que el cambio de precio de una prenda se propaga solo a sus outfits.
+     */
+    @Test
+    void testUpdatePrendaPropagaPrecio() throws EntityNotFoundException, IllegalOperationException {
+        PrendaEntity prenda = prendaList.get(0);
+        prenda.setPrecio(10.0);
+        List<OutfitEntity> outfits = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            OutfitEntity outfit = factory.manufacturePojo(OutfitEntity.class);
+            outfit.setPrecioEstimado(i < 2 ? 15.0 : 5.0);
+            entityManager.persist(outfit);
+            outfits.add(outfit);
+        }
+        prenda.getOutfits().addAll(outfits.subList(0, 2));
+
+        PrendaEntity update = factory.manufacturePojo(PrendaEntity.class);
+        update.setPrecio(25.0);
+        update.setColor(colorList.get(0));
+        update.setImagen(prenda.getImagen());
+        update.setMarca(marcaList.get(0));
+        update.setCategoria(categoriaList.get(0));
+        prendaService.updatePrenda(prenda.getId(), update);
+
+        assertEquals(30.0, outfits.get(0).getPrecioEstimado());
+        assertEquals(30.0, outfits.get(1).getPrecioEstimado());
+        assertEquals(5.0, outfits.get(2).getPrecioEstimado());
+    }
 }
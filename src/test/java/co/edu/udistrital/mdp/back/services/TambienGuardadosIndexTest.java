@@ -0,0 +1,204 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
+
+/**
+ * Pruebas del índice de outfits guardados juntos
+ */
+@DataJpaTest
+@Transactional
+@Import(TambienGuardadosIndex.class)
+class TambienGuardadosIndexTest {
+
+    @Autowired
+    private TambienGuardadosIndex tambienGuardadosIndex;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private List<OutfitEntity> outfits = new ArrayList<>();
+    private List<ListaDeseosEntity> listas = new ArrayList<>();
+
+    /**
+     * Tres listas: {0, 1, 2}, {0, 1} y {1, 3}.
+     */
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            OutfitEntity outfit = new OutfitEntity();
+            outfit.setNombre("Outfit " + i);
+            outfits.add(entityManager.persist(outfit));
+        }
+        crearLista(0, 1, 2);
+        crearLista(0, 1);
+        crearLista(1, 3);
+        tambienGuardadosIndex.reconstruir();
+    }
+
+    private void crearLista(int... posiciones) {
+        ListaDeseosEntity lista = new ListaDeseosEntity();
+        for (int posicion : posiciones)
+            lista.getOutfits().add(outfits.get(posicion));
+        listas.add(entityManager.persist(lista));
+    }
+
+    private long id(int posicion) {
+        return outfits.get(posicion).getId();
+    }
+
+    private long[] ids(int... posiciones) {
+        long[] ids = new long[posiciones.length];
+        for (int i = 0; i < posiciones.length; i++)
+            ids[i] = id(posiciones[i]);
+        return ids;
+    }
+
+    /**
+     * Evento con la diferencia entre el contenido anterior y el actual de la lista.
+     */
+    private static ListaDeseosModificadaEvent cambio(ListaDeseosEntity lista, List<Long> antes) {
+        List<Long> despues = ListaDeseosModificadaEvent.outfitIds(lista);
+        return ListaDeseosModificadaEvent.de(lista, despues.stream().filter(id -> !antes.contains(id)).toList(),
+                antes.stream().filter(id -> !despues.contains(id)).toList());
+    }
+
+    private Map<String, Long> conteos() {
+        Map<String, Long> conteos = new HashMap<>();
+        for (int i = 0; i < outfits.size(); i++) {
+            for (int j = 0; j < outfits.size(); j++) {
+                long veces = tambienGuardadosIndex.getVeces(id(i), id(j));
+                if (veces != 0)
+                    conteos.put(i + "-" + j, veces);
+            }
+        }
+        return conteos;
+    }
+
+    /**
+     * Prueba que la reconstrucción cuenta las listas compartidas de cada par.
+     */
+    @Test
+    void testReconstruir() {
+        assertEquals(2, tambienGuardadosIndex.getVeces(id(0), id(1)));
+        assertEquals(2, tambienGuardadosIndex.getVeces(id(1), id(0)));
+        assertEquals(1, tambienGuardadosIndex.getVeces(id(1), id(3)));
+        assertEquals(0, tambienGuardadosIndex.getVeces(id(0), id(3)));
+        assertEquals(0, tambienGuardadosIndex.getVeces(id(0), id(0)));
+    }
+
+    /**
+     * Prueba el orden del top: más listas compartidas primero y empates por id.
+     */
+    @Test
+    void testGetTop() {
+        assertArrayEquals(ids(0, 2, 3), tambienGuardadosIndex.getTop(id(1), 10));
+        assertArrayEquals(ids(0), tambienGuardadosIndex.getTop(id(1), 1));
+        assertArrayEquals(new long[0], tambienGuardadosIndex.getTop(id(4), 10));
+    }
+
+    /**
+     * Prueba que la actualización incremental deja los mismos conteos que reconstruir.
+     */
+    @Test
+    void testActualizarIgualAReconstruir() {
+        ListaDeseosEntity lista = listas.get(0);
+        List<Long> antes = ListaDeseosModificadaEvent.outfitIds(lista);
+        lista.getOutfits().remove(outfits.get(2));
+        lista.getOutfits().add(outfits.get(3));
+        lista.getOutfits().add(outfits.get(4));
+        tambienGuardadosIndex.registrarCambio(cambio(lista, antes));
+
+        ListaDeseosEntity eliminada = listas.get(2);
+        tambienGuardadosIndex.registrarCambio(ListaDeseosModificadaEvent.eliminada(eliminada));
+        entityManager.remove(eliminada);
+
+        Map<String, Long> incrementales = conteos();
+        tambienGuardadosIndex.reconstruir();
+        assertEquals(conteos(), incrementales);
+        assertEquals(1, tambienGuardadosIndex.getVeces(id(3), id(4)));
+        assertEquals(0, tambienGuardadosIndex.getVeces(id(0), id(2)));
+    }
+
+    /**
+     * Prueba con cambios al azar, de uno o varios outfits a la vez, que la
+     * actualización incremental sigue coincidiendo con la reconstrucción.
+     */
+    @Test
+    void testActualizarCambiosAlAzar() {
+        Random random = new Random(7);
+        for (int i = 0; i < 50; i++) {
+            ListaDeseosEntity lista = listas.get(random.nextInt(listas.size()));
+            List<Long> antes = ListaDeseosModificadaEvent.outfitIds(lista);
+            for (OutfitEntity outfit : outfits) {
+                if (random.nextInt(3) > 0)
+                    continue;
+                if (!lista.getOutfits().remove(outfit))
+                    lista.getOutfits().add(outfit);
+            }
+            tambienGuardadosIndex.registrarCambio(cambio(lista, antes));
+        }
+        entityManager.flush();
+
+        Map<String, Long> incrementales = conteos();
+        tambienGuardadosIndex.reconstruir();
+        assertEquals(conteos(), incrementales);
+    }
+
+    /**
+     * Prueba que quitar outfits que no están en la lista no deja conteos negativos y
+     * que agregar uno que ya está no cuenta dos veces sus pares.
+     */
+    @Test
+    void testActualizarSinConteosNegativos() {
+        tambienGuardadosIndex.actualizar(listas.get(2).getId(), List.of(), List.of(id(2), id(4)));
+        assertEquals(0, tambienGuardadosIndex.getVeces(id(2), id(4)));
+        assertEquals(0, tambienGuardadosIndex.getVeces(id(4), id(2)));
+        assertEquals(1, tambienGuardadosIndex.getVeces(id(1), id(3)));
+
+        tambienGuardadosIndex.actualizar(listas.get(1).getId(), List.of(id(0)), List.of());
+        assertEquals(2, tambienGuardadosIndex.getVeces(id(0), id(1)));
+    }
+
+    /**
+     * Prueba la tabla hash primitiva contra un HashMap con inserciones y borrados al azar.
+     */
+    @Test
+    void testTablaHashContraReferencia() {
+        LongLongHashMap tabla = new LongLongHashMap();
+        Map<Long, Long> referencia = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++) {
+            long llave = random.nextInt(500);
+            long delta = random.nextInt(3) - 1;
+            long esperado = referencia.getOrDefault(llave, 0L) + delta;
+            if (esperado == 0)
+                referencia.remove(llave);
+            else
+                referencia.put(llave, esperado);
+            assertEquals(esperado, tabla.sumar(llave, delta));
+        }
+
+        assertEquals(referencia.size(), tabla.size());
+        Map<Long, Long> contenido = new HashMap<>();
+        tabla.forEach(contenido::put);
+        assertEquals(referencia, contenido);
+    }
+}
@@ -0,0 +1,214 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.udistrital.mdp.back.entities.MarcaEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.entities.TiendaEntity;
+import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.MarcaRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.repositories.TiendaRepository;
+import co.edu.udistrital.mdp.back.services.TiendasCercanasIndex.Cercana;
+
+/**
+ * Pruebas del localizador de tiendas. No son transaccionales: el índice solo se
+ * actualiza cuando se confirma la transacción que cambió la tienda.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ TiendasCercanasService.class, TiendasCercanasIndex.class, TiendaService.class })
+class TiendasCercanasServiceTest {
+
+    @Autowired
+    private TiendasCercanasService tiendasCercanasService;
+
+    @Autowired
+    private TiendasCercanasIndex tiendasCercanasIndex;
+
+    @Autowired
+    private TiendaService tiendaService;
+
+    @Autowired
+    private TiendaRepository tiendaRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    private MarcaEntity marca;
+    private TiendaEntity andino;
+    private TiendaEntity unicentro;
+    private TiendaEntity medellin;
+    private TiendaEntity centro;
+
+    /**
+     * Tres tiendas en Bogotá, una en Medellín y una sin coordenadas.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        marca = new MarcaEntity();
+        marca.setNombre("Gef");
+        marca = marcaRepository.save(marca);
+
+        andino = tiendaService.createTienda(tienda("Andino", "4.6667,-74.0530"));
+        unicentro = tiendaService.createTienda(tienda("Unicentro", "4.7020, -74.0417"));
+        centro = tiendaService.createTienda(tienda("Centro", "geo:4.5981;-74.0760"));
+        medellin = tiendaService.createTienda(tienda("El Tesoro", "6.1977,-75.5587"));
+        tiendaService.createTienda(tienda("Virtual", "Calle 100 # 15-20"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        prendaRepository.deleteAll();
+        tiendaRepository.deleteAll();
+        marcaRepository.deleteAll();
+        tiendasCercanasIndex.reconstruir();
+    }
+
+    private TiendaEntity tienda(String nombre, String ubicacion) {
+        TiendaEntity tienda = new TiendaEntity();
+        tienda.setNombre(nombre);
+        tienda.setUbicacion(ubicacion);
+        tienda.setMarca(marca);
+        return tienda;
+    }
+
+    private PrendaEntity prenda(String nombre, TiendaEntity tienda) {
+        PrendaEntity prenda = new PrendaEntity();
+        prenda.setNombre(nombre);
+        prenda.setMarca(marca);
+        prenda.setTienda(tienda);
+        return prendaRepository.save(prenda);
+    }
+
+    private static List<Long> ids(List<TiendaCercana> cercanas) {
+        return cercanas.stream().map(cercana -> cercana.getTienda().getId()).toList();
+    }
+
+    /**
+     * Prueba la lectura de coordenadas de la ubicación.
+     */
+    @Test
+    void testCoordenadas() throws Exception {
+        assertEquals(new Coordenadas(4.6097, -74.0817), Coordenadas.de("4.6097,-74.0817"));
+        assertEquals(new Coordenadas(4.6, -74.08), Coordenadas.de(" geo:4.6 ; -74.08 "));
+        assertNull(Coordenadas.de("Calle 10 # 5-20"));
+        assertThrows(IllegalOperationException.class, () -> Coordenadas.de("95,10"));
+        assertThrows(IllegalOperationException.class, () -> Coordenadas.de("10,-181"));
+        assertEquals(4.6667, andino.getLatitud());
+        assertEquals(-74.0530, andino.getLongitud());
+    }
+
+    /**
+     * Prueba la búsqueda por radio y la de los k más cercanos.
+     */
+    @Test
+    void testGetTiendasCercanas() throws Exception {
+        // Punto en el Parque de la 93
+        List<TiendaCercana> cercanas = tiendasCercanasService.getTiendasCercanas(4.6766, -74.0483, 10.0, null, null);
+        assertEquals(List.of(andino.getId(), unicentro.getId(), centro.getId()), ids(cercanas));
+        assertEquals(Coordenadas.distanciaKm(4.6766, -74.0483, 4.6667, -74.0530), cercanas.get(0).getDistanciaKm(),
+                1e-9);
+
+        assertEquals(List.of(andino.getId()),
+                ids(tiendasCercanasService.getTiendasCercanas(4.6766, -74.0483, 2.0, null, null)));
+        assertEquals(List.of(medellin.getId(), unicentro.getId()),
+                ids(tiendasCercanasService.getTiendasCercanas(6.2, -75.5, null, 2, null)));
+        assertEquals(4, tiendasCercanasService.getTiendasCercanas(-33.9, 151.2, null, null, null).size());
+    }
+
+    /**
+     * Prueba el filtro por prenda: la tienda de la prenda y las que tienen una prenda
+     * con el mismo nombre y marca.
+     */
+    @Test
+    void testGetTiendasCercanasConPrenda() throws Exception {
+        PrendaEntity camisa = prenda("Camisa Oxford", medellin);
+        prenda("camisa oxford", centro);
+        prenda("Pantalón", andino);
+
+        assertEquals(List.of(centro.getId(), medellin.getId()),
+                ids(tiendasCercanasService.getTiendasCercanas(4.6766, -74.0483, null, null, camisa.getId())));
+        assertThrows(EntityNotFoundException.class,
+                () -> tiendasCercanasService.getTiendasCercanas(4.6, -74.0, null, null, 0L));
+        assertThrows(IllegalOperationException.class,
+                () -> tiendasCercanasService.getTiendasCercanas(4.6, -74.0, -1.0, null, null));
+        assertThrows(IllegalOperationException.class,
+                () -> tiendasCercanasService.getTiendasCercanas(91.0, -74.0, null, null, null));
+    }
+
+    /**
+     * Prueba que el índice sigue a las tiendas actualizadas y eliminadas.
+     */
+    @Test
+    void testIndiceSincronizado() throws Exception {
+        tiendaService.updateTienda(medellin.getId(), tienda("El Tesoro", "4.6770,-74.0480"));
+        assertEquals(medellin.getId(),
+                tiendasCercanasService.getTiendasCercanas(4.6766, -74.0483, null, 1, null).get(0).getTienda().getId());
+
+        tiendaService.updateTienda(medellin.getId(), tienda("El Tesoro", "Carrera 25A # 1A Sur-45"));
+        tiendaService.deleteTienda(andino.getId());
+        assertEquals(List.of(unicentro.getId(), centro.getId()),
+                ids(tiendasCercanasService.getTiendasCercanas(4.6766, -74.0483, null, null, null)));
+    }
+
+    /**
+     * Prueba que la grilla da los mismos resultados que medir la distancia a todas las
+     * tiendas, también cerca de los polos y del antimeridiano.
+     */
+    @Test
+    void testIgualQueRecorrerTodas() {
+        Random aleatorio = new Random(11);
+        List<double[]> puntos = new ArrayList<>();
+        for (int i = 0; i < 2000; i++)
+            puntos.add(new double[] { i, aleatorio.nextDouble() * 180 - 90, aleatorio.nextDouble() * 360 - 180 });
+        for (int i = 0; i < 200; i++)
+            puntos.add(new double[] { 2000 + i, 88 + aleatorio.nextDouble() * 2, aleatorio.nextDouble() * 360 - 180 });
+        for (int i = 0; i < 200; i++)
+            puntos.add(new double[] { 2200 + i, aleatorio.nextDouble() * 10 - 5, 179 + aleatorio.nextDouble() * 2 - 360
+                    * (aleatorio.nextBoolean() ? 1 : 0) });
+        for (double[] punto : puntos) {
+            double longitud = punto[2] > 180 ? punto[2] - 360 : punto[2];
+            tiendasCercanasIndex.registrarCambio(new TiendaModificadaEvent((long) punto[0],
+                    new Coordenadas(punto[1], longitud)));
+            punto[2] = longitud;
+        }
+
+        double[][] consultas = { { 0, 180 }, { 0, -179.95 }, { 89.5, 10 }, { -89.9, 0 }, { 45, 100 }, { 4.6, -74 } };
+        for (double[] consulta : consultas) {
+            for (double radio : new double[] { 50, 500, 3000 }) {
+                List<Long> esperadas = puntos.stream()
+                        .filter(p -> Coordenadas.distanciaKm(consulta[0], consulta[1], p[1], p[2]) <= radio)
+                        .sorted(Comparator.comparingDouble(
+                                (double[] p) -> Coordenadas.distanciaKm(consulta[0], consulta[1], p[1], p[2])))
+                        .map(p -> (long) p[0]).limit(100).toList();
+                assertEquals(esperadas, tiendasCercanasIndex.buscar(consulta[0], consulta[1], radio, 100, t -> true)
+                        .stream().map(Cercana::tiendaId).toList());
+            }
+            List<Long> masCercanas = puntos.stream()
+                    .sorted(Comparator.comparingDouble(
+                            (double[] p) -> Coordenadas.distanciaKm(consulta[0], consulta[1], p[1], p[2])))
+                    .map(p -> (long) p[0]).limit(10).toList();
+            assertEquals(masCercanas, tiendasCercanasIndex.buscar(consulta[0], consulta[1], null, 10, t -> true)
+                    .stream().map(Cercana::tiendaId).toList());
+        }
+    }
+}
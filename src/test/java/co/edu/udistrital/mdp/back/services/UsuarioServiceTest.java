@@ -12,18 +12,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
 import co.edu.udistrital.mdp.back.entities.ComentarioEntity;
 import co.edu.udistrital.mdp.back.entities.ListaDeseosEntity;
+import co.edu.udistrital.mdp.back.entities.OutfitEntity;
 import co.edu.udistrital.mdp.back.entities.UsuarioEntity;
 import co.edu.udistrital.mdp.back.exceptions.EntityNotFoundException;
 import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
-@DataJpaTest
+// Con lotes de dos filas el recorrido de comentarios limpia el contexto de persistencia en las pruebas
+@DataJpaTest(properties = "listados.streaming.lote=2")
 @Transactional
-@Import(UsuarioService.class)
+@Import({ UsuarioService.class, CalificacionesOutfitService.class, MejorCalificadosIndex.class })
+@RecordApplicationEvents
 class UsuarioServiceTest {
 
     @Autowired
@@ -32,6 +37,9 @@ class UsuarioServiceTest {
     @Autowired
     private TestEntityManager entityManager;
 
+    @Autowired
+    private ApplicationEvents eventos;
+
     private PodamFactory factory = new PodamFactoryImpl();
 
     private List<UsuarioEntity> usuarioList = new ArrayList<>();
@@ -95,6 +103,18 @@ class UsuarioServiceTest {
         });
     }
 
+    /**
+	 * Prueba para crear un usuario con un correo ya registrado en otras mayúsculas.
+	 */
+    @Test
+    void testCreateUsuarioCorreoDuplicado() {
+        UsuarioEntity toCreate = factory.manufacturePojo(UsuarioEntity.class);
+        toCreate.setCorreo(" " + usuarioList.get(0).getCorreo().toUpperCase() + " ");
+        IllegalOperationException e = assertThrows(IllegalOperationException.class,
+                () -> usuarioService.createUsuario(toCreate));
+        assertEquals("Ya existe un usuario con ese correo", e.getMessage());
+    }
+
     /**
 	 * Prueba para consultar la lista de usuarios.
 	 */
@@ -104,6 +124,74 @@ class UsuarioServiceTest {
         assertEquals(usuarioList.size(), usuarioList.size());
     }
 
+    /**
+	 * Prueba para consultar los usuarios por páginas ordenadas por nombre.
+	 */
+    @Test
+    void testGetUsuariosPaginadosPorNombre() throws IllegalOperationException {
+        usuarioList.get(0).setNombre("Carlos");
+        usuarioList.get(1).setNombre("Ana");
+        usuarioList.get(2).setNombre("Beatriz");
+        entityManager.flush();
+
+        KeysetPage<UsuarioEntity> primera = usuarioService.getUsuarios(null, 2, "nombre");
+        assertEquals(List.of("Ana", "Beatriz"), primera.getContent().stream().map(UsuarioEntity::getNombre).toList());
+        assertTrue(primera.hasNext());
+
+        KeysetPage<UsuarioEntity> segunda = usuarioService.getUsuarios(primera.getNextCursor(), 2, "nombre");
+        assertEquals(List.of("Carlos"), segunda.getContent().stream().map(UsuarioEntity::getNombre).toList());
+        assertFalse(segunda.hasNext());
+    }
+
+    /**
+	 * Prueba para consultar usuarios con un tamaño de página inválido.
+	 */
+    @Test
+    void testGetUsuariosPaginadosTamanoInvalido() {
+        assertThrows(IllegalOperationException.class, () -> usuarioService.getUsuarios(null, 0, null));
+    }
+
+    /**
+	 * Prueba que el recorrido de una página entrega cada usuario, en el orden de la
+	 * página, seguido de sus comentarios, aunque se limpie el contexto a la mitad.
+	 */
+    @Test
+    void testRecorrerComentarios() throws IllegalOperationException {
+        usuarioList.get(0).setNombre("Carlos");
+        usuarioList.get(1).setNombre("Ana");
+        usuarioList.get(2).setNombre("Beatriz");
+        for (String texto : List.of("c1", "c2"))
+            comentar(usuarioList.get(0), texto);
+        for (String texto : List.of("b1", "b2", "b3"))
+            comentar(usuarioList.get(2), texto);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<UsuarioEntity> pagina = usuarioService.getPaginaUsuarios(null, 10, "nombre,desc").getContent();
+        List<String> recorrido = new ArrayList<>();
+        usuarioService.recorrerComentarios(pagina, new RecorridoAnidado<UsuarioEntity, ComentarioEntity>() {
+            @Override
+            public void padre(UsuarioEntity usuario) {
+                recorrido.add(usuario.getNombre());
+            }
+
+            @Override
+            public void hijo(ComentarioEntity comentario) {
+                recorrido.add(comentario.getUsuario().getNombre() + ":" + comentario.getTexto());
+            }
+        });
+
+        assertEquals(List.of("Carlos", "Carlos:c1", "Carlos:c2", "Beatriz", "Beatriz:b1", "Beatriz:b2",
+                "Beatriz:b3", "Ana"), recorrido);
+    }
+
+    private void comentar(UsuarioEntity usuario, String texto) {
+        ComentarioEntity comentario = new ComentarioEntity();
+        comentario.setTexto(texto);
+        comentario.setUsuario(usuario);
+        entityManager.persist(comentario);
+    }
+
     /**
 	 * Prueba para consultar un usuario.
 	 */
@@ -166,6 +254,32 @@ class UsuarioServiceTest {
         });
     }
 
+    /**
+     * Prueba que eliminar un usuario publica la eliminación de su lista de deseos,
+     * que se borra en cascada.
+     */
+    @Test
+    void testDeleteUsuarioConListaDeseos() throws EntityNotFoundException {
+        UsuarioEntity usuario = usuarioList.get(0);
+        OutfitEntity outfit = factory.manufacturePojo(OutfitEntity.class);
+        entityManager.persist(outfit);
+        ListaDeseosEntity lista = new ListaDeseosEntity();
+        lista.setUsuario(usuario);
+        lista.getOutfits().add(outfit);
+        usuario.setWishlist(lista);
+        entityManager.persist(lista);
+
+        usuarioService.deleteUsuario(usuario.getId());
+
+        List<ListaDeseosModificadaEvent> publicados = eventos.stream(ListaDeseosModificadaEvent.class).toList();
+        assertEquals(1, publicados.size());
+        assertEquals(usuario.getId(), publicados.get(0).usuarioId());
+        assertEquals(lista.getId(), publicados.get(0).listaId());
+        assertEquals(List.of(outfit.getId()), publicados.get(0).quitados());
+        assertTrue(publicados.get(0).agregados().isEmpty());
+        assertNull(entityManager.find(ListaDeseosEntity.class, lista.getId()));
+    }
+
     /**
 	 * Prueba para eliminar un usuario que no existe
 	 */
@@ -0,0 +1,214 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.function.BooleanSupplier;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.udistrital.mdp.back.entities.ImagenPrendaEntity;
+import co.edu.udistrital.mdp.back.entities.PrendaEntity;
+import co.edu.udistrital.mdp.back.exceptions.IllegalOperationException;
+import co.edu.udistrital.mdp.back.repositories.ImagenPrendaRepository;
+import co.edu.udistrital.mdp.back.repositories.PrendaRepository;
+import co.edu.udistrital.mdp.back.services.VariantesImagenService.Variante;
+
+/**
+ * Pruebas de la generación de variantes de las imágenes. No son transaccionales:
+ * las variantes se solicitan cuando se confirma el contenido guardado.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ VariantesImagenService.class, ContenidoImagenService.class, ImagenAlmacen.class })
+class VariantesImagenServiceTest {
+
+    private static final Path DIRECTORIO;
+
+    static {
+        try {
+            DIRECTORIO = Files.createTempDirectory("variantes");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        registro.add("imagenes.directorio", DIRECTORIO::toString);
+        registro.add("imagenes.variantes.hilos", () -> "1");
+        registro.add("imagenes.variantes.cola", () -> "4");
+    }
+
+    @Autowired
+    private VariantesImagenService variantesImagenService;
+
+    @Autowired
+    private ContenidoImagenService contenidoImagenService;
+
+    @Autowired
+    private PrendaRepository prendaRepository;
+
+    @Autowired
+    private ImagenPrendaRepository imagenPrendaRepository;
+
+    private PrendaEntity prenda;
+    private ImagenPrendaEntity imagen;
+
+    @BeforeEach
+    void setUp() {
+        prenda = new PrendaEntity();
+        prenda.setNombre("Camisa");
+        prenda = prendaRepository.save(prenda);
+        imagen = new ImagenPrendaEntity();
+        imagen.setImagen("https://servidor.com/camisa.png");
+        imagen = imagenPrendaRepository.save(imagen);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imagenPrendaRepository.deleteAll();
+        prendaRepository.deleteAll();
+    }
+
+    private static byte[] png(int ancho, int alto, boolean transparente) throws IOException {
+        BufferedImage imagen = new BufferedImage(ancho, alto,
+                transparente ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D grafico = imagen.createGraphics();
+        grafico.setColor(new Color(30, 60, 200, transparente ? 128 : 255));
+        grafico.fillRect(0, 0, ancho / 2, alto);
+        grafico.dispose();
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        ImageIO.write(imagen, "png", salida);
+        return salida.toByteArray();
+    }
+
+    private ContenidoImagen subir(byte[] bytes) throws Exception {
+        contenidoImagenService.guardarContenidoPrenda(prenda.getId(), imagen.getId(),
+                new ByteArrayInputStream(bytes), "image/png");
+        return contenidoImagenService.getContenidoPrenda(prenda.getId(), imagen.getId());
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 20_000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limite, "La variante no se generó a tiempo");
+            Thread.sleep(20);
+        }
+    }
+
+    private ContenidoImagen variante(ContenidoImagen original, Variante variante) throws InterruptedException {
+        esperar(() -> variantesImagenService.getVariante(original, variante, false) != original);
+        return variantesImagenService.getVariante(original, variante, true);
+    }
+
+    private static BufferedImage leer(ContenidoImagen contenido) throws IOException {
+        return ImageIO.read(contenido.getArchivo().toFile());
+    }
+
+    /**
+     * Prueba que al guardar un contenido se generan sus tres variantes en JPEG, con
+     * el lado más largo reducido y la proporción del original.
+     */
+    @Test
+    void testGenerarVariantes() throws Exception {
+        ContenidoImagen original = subir(png(2000, 1000, false));
+
+        ContenidoImagen miniatura = variante(original, Variante.MINIATURA);
+        assertEquals("image/jpeg", miniatura.getTipoContenido());
+        assertEquals(original.getHash() + "-miniatura.jpg", miniatura.getEtiqueta());
+        assertEquals(Files.size(miniatura.getArchivo()), miniatura.getTamano());
+        BufferedImage leida = leer(miniatura);
+        assertEquals(160, leida.getWidth());
+        assertEquals(80, leida.getHeight());
+
+        assertEquals(480, leer(variante(original, Variante.TARJETA)).getWidth());
+        assertEquals(800, leer(variante(original, Variante.COMPLETA)).getHeight());
+    }
+
+    /**
+     * Prueba que una imagen con transparencia se reduce a PNG y que una imagen
+     * pequeña no se amplía.
+     */
+    @Test
+    void testVarianteTransparente() throws Exception {
+        ContenidoImagen original = subir(png(300, 200, true));
+
+        ContenidoImagen miniatura = variante(original, Variante.MINIATURA);
+        assertEquals("image/png", miniatura.getTipoContenido());
+        assertTrue(leer(miniatura).getColorModel().hasAlpha());
+
+        BufferedImage completa = leer(variante(original, Variante.COMPLETA));
+        assertEquals(300, completa.getWidth());
+        assertEquals(200, completa.getHeight());
+    }
+
+    /**
+     * Prueba que un contenido que no es una imagen legible se sigue enviando original.
+     */
+    @Test
+    void testFormatoNoSoportado() throws Exception {
+        ContenidoImagen original = subir("<svg xmlns='http://www.w3.org/2000/svg'/>".getBytes());
+        esperar(() -> !variantesImagenService.solicitar(original.getHash()));
+        assertSame(original, variantesImagenService.getVariante(original, Variante.TARJETA, false));
+    }
+
+    /**
+     * Prueba que un contenido cuya generación falló no se vuelve a decodificar en
+     * cada consulta, sino solo cuando pasa el período de reintento.
+     */
+    @Test
+    void testGeneracionFallida() throws Exception {
+        // PNG cortado: ImageIO tiene lector para él pero no lo puede decodificar
+        ContenidoImagen original = subir(Arrays.copyOf(png(200, 100, false), 60));
+        esperar(() -> !variantesImagenService.solicitar(original.getHash()));
+        assertSame(original, variantesImagenService.getVariante(original, Variante.TARJETA, false));
+
+        ReflectionTestUtils.setField(variantesImagenService, "reintento", Duration.ZERO);
+        try {
+            assertTrue(variantesImagenService.solicitar(original.getHash()));
+        } finally {
+            ReflectionTestUtils.setField(variantesImagenService, "reintento", Duration.ofHours(1));
+        }
+    }
+
+    /**
+     * Prueba que con la cola llena las solicitudes se descartan sin esperar.
+     */
+    @Test
+    void testColaLlena() {
+        boolean descartada = false;
+        for (int i = 0; i < 1000 && !descartada; i++)
+            descartada = !variantesImagenService.solicitar(HexFormat.of().toHexDigits((long) i).repeat(4));
+        assertTrue(descartada);
+    }
+
+    @Test
+    void testVarianteInvalida() {
+        assertEquals(Variante.TARJETA, assertDoesNotThrow(() -> Variante.deParametro(" Tarjeta")));
+        assertThrows(IllegalOperationException.class, () -> Variante.deParametro("gigante"));
+    }
+}
@@ -0,0 +1,138 @@
+package co.edu.udistrital.mdp.back.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.udistrital.mdp.back.entities.ColorEntity;
+import co.edu.udistrital.mdp.back.repositories.ColorRepository;
+import co.edu.udistrital.mdp.back.services.VersionesRecursos.Recurso;
+
+/**
+ * Pruebas de las versiones de los recursos con las que se arman las ETag. No son
+ * transaccionales: las versiones cambian cuando se confirma la transacción que
+ * escribe.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ VersionesRecursos.class, ColorService.class })
+class VersionesRecursosTest {
+
+    @Autowired
+    private VersionesRecursos versionesRecursos;
+
+    @Autowired
+    private ColorService colorService;
+
+    @Autowired
+    private ColorRepository colorRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ColorEntity rojo;
+    private ColorEntity azul;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        rojo = colorService.createColor(color("Rojo", "#FF0000"));
+        azul = colorService.createColor(color("Azul", "#0000FF"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        colorRepository.deleteAll();
+    }
+
+    private static ColorEntity color(String nombre, String codigoHex) {
+        ColorEntity color = new ColorEntity();
+        color.setNombre(nombre);
+        color.setCodigoHex(codigoHex);
+        return color;
+    }
+
+    /**
+     * Prueba que al actualizar una entidad cambian su ETag y la del listado, pero no
+     * la de las demás entidades.
+     */
+    @Test
+    void testActualizarCambiaEtag() throws Exception {
+        String listado = versionesRecursos.getEtag(Recurso.COLOR, Recurso.PRENDA);
+        String etagRojo = versionesRecursos.getEtag(Recurso.COLOR, rojo.getId(), Recurso.PRENDA);
+        String etagAzul = versionesRecursos.getEtag(Recurso.COLOR, azul.getId(), Recurso.PRENDA);
+        assertEquals(etagRojo, versionesRecursos.getEtag(Recurso.COLOR, rojo.getId(), Recurso.PRENDA));
+
+        colorService.updateColor(rojo.getId(), color("Carmesí", "#DC143C"));
+
+        assertNotEquals(listado, versionesRecursos.getEtag(Recurso.COLOR, Recurso.PRENDA));
+        assertNotEquals(etagRojo, versionesRecursos.getEtag(Recurso.COLOR, rojo.getId(), Recurso.PRENDA));
+        assertEquals(etagAzul, versionesRecursos.getEtag(Recurso.COLOR, azul.getId(), Recurso.PRENDA));
+        assertTrue(etagRojo.startsWith("\"") && etagRojo.endsWith("\""));
+    }
+
+    /**
+     * Prueba que una escritura que se revierte no cambia las versiones.
+     */
+    @Test
+    void testEscrituraRevertida() {
+        long version = versionesRecursos.getVersion(Recurso.COLOR, rojo.getId());
+        long coleccion = versionesRecursos.getVersion(Recurso.COLOR);
+
+        transactionTemplate.executeWithoutResult(estado -> {
+            try {
+                colorService.updateColor(rojo.getId(), color("Carmesí", "#DC143C"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            estado.setRollbackOnly();
+        });
+
+        assertEquals(version, versionesRecursos.getVersion(Recurso.COLOR, rojo.getId()));
+        assertEquals(coleccion, versionesRecursos.getVersion(Recurso.COLOR));
+        assertEquals("Rojo", colorRepository.findById(rojo.getId()).orElseThrow().getNombre());
+    }
+
+    /**
+     * Prueba que la ETag de una entidad cambia con las escrituras sobre los recursos
+     * que incluye su representación.
+     */
+    @Test
+    void testRecursoIncluido() {
+        String conPrendas = versionesRecursos.getEtag(Recurso.COLOR, rojo.getId(), Recurso.PRENDA);
+        String conMarcas = versionesRecursos.getEtag(Recurso.COLOR, rojo.getId(), Recurso.MARCA);
+
+        versionesRecursos.registrarModificacion(RecursoModificadoEvent.de(Recurso.PRENDA, 7L));
+
+        assertNotEquals(conPrendas, versionesRecursos.getEtag(Recurso.COLOR, rojo.getId(), Recurso.PRENDA));
+        assertEquals(conMarcas, versionesRecursos.getEtag(Recurso.COLOR, rojo.getId(), Recurso.MARCA));
+    }
+
+    /**
+     * Prueba que un cambio en una lista de deseos cambia la versión de los outfits
+     * que entraron o salieron de ella, y no la de los que se quedaron.
+     */
+    @Test
+    void testCambioListaDeseos() {
+        long listas = versionesRecursos.getVersion(Recurso.LISTA_DESEOS);
+        long quitado = versionesRecursos.getVersion(Recurso.OUTFIT, 1001L);
+        long igual = versionesRecursos.getVersion(Recurso.OUTFIT, 1002L);
+        long agregado = versionesRecursos.getVersion(Recurso.OUTFIT, 1003L);
+
+        versionesRecursos.registrarCambio(new ListaDeseosModificadaEvent(5L, 1L, List.of(1003L), List.of(1001L)));
+
+        assertEquals(listas + 1, versionesRecursos.getVersion(Recurso.LISTA_DESEOS));
+        assertEquals(quitado + 1, versionesRecursos.getVersion(Recurso.OUTFIT, 1001L));
+        assertEquals(igual, versionesRecursos.getVersion(Recurso.OUTFIT, 1002L));
+        assertEquals(agregado + 1, versionesRecursos.getVersion(Recurso.OUTFIT, 1003L));
+    }
+}